@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 
 import javax.validation.constraints.NotNull;
@@ -24,9 +25,11 @@ import dev.galasa.framework.spi.IConfigurationPropertyStore;
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Client;
 import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.kv.GetResponse;
 import io.etcd.jetcd.options.GetOption;
 import io.etcd.jetcd.options.OptionsUtil;
+import io.etcd.jetcd.options.WatchOption;
 
 /**
  * This class impletements the CPS for etcd using the JETCD client.
@@ -35,7 +38,19 @@ import io.etcd.jetcd.options.OptionsUtil;
  * @author Matthew Chivers
  */
 public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConfigurationPropertyStore {
-    
+
+    /**
+     * The CPS property which controls whether properties are read from snapshots of their
+     * namespace, kept up to date by etcd watches. Snapshots are not used unless it is true.
+     */
+    public static final String CPS_PROP_NAMESPACE_SNAPSHOTS_ENABLED = "framework.cps.etcd.namespace.snapshots.enabled";
+
+    private final Watch watchClient;
+
+    // Whether properties are read from snapshots of their namespace, rather than from etcd each time.
+    // Null until the CPS property has been read.
+    private volatile Boolean isNamespaceSnapshotsEnabled;
+    private final Map<String, Etcd3NamespaceSnapshot> namespaceSnapshots = new ConcurrentHashMap<>();
 
     /**
      * This constructor create a priate KVClient from JETCD for store interactions.
@@ -44,10 +59,17 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
      */
     public Etcd3ConfigurationPropertyStore(URI cpsUri) {
         super(cpsUri);
+        this.watchClient = client.getWatchClient();
     }
 
     public Etcd3ConfigurationPropertyStore(Client etcdClient) {
         super(etcdClient);
+        this.watchClient = client.getWatchClient();
+    }
+
+    public Etcd3ConfigurationPropertyStore(Client etcdClient, boolean isNamespaceSnapshotsEnabled) {
+        this(etcdClient);
+        this.isNamespaceSnapshotsEnabled = isNamespaceSnapshotsEnabled;
     }
 
     /**
@@ -58,15 +80,36 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
      */
     @Override
     public @Null String getProperty(@NotNull String key) throws ConfigurationPropertyStoreException {
-        ByteSequence bsKey = ByteSequence.from(key, UTF_8);
-        CompletableFuture<GetResponse> getFuture = kvClient.get(bsKey);
+        return getProperties(List.of(key)).get(key);
+    }
+
+    /**
+     * Gets the properties from the snapshots of their namespaces, loading a namespace the
+     * first time it is used. Any properties which can't come from a snapshot, including all of
+     * them when snapshots are not enabled, are fetched from etcd in a single transaction.
+     * 
+     * @param keys The properties to get
+     */
+    @Override
+    public @NotNull Map<String, String> getProperties(@NotNull List<String> keys) throws ConfigurationPropertyStoreException {
+        Map<String, String> values = new HashMap<>();
         try {
-            GetResponse response = getFuture.get();
-            List<KeyValue> kvs = response.getKvs();
-            if (kvs.isEmpty()) {
-                return null;
+            List<String> keysToFetch = new ArrayList<>();
+            for (String key : keys) {
+                Etcd3NamespaceSnapshot snapshot = getNamespaceSnapshot(key);
+                if (snapshot == null) {
+                    keysToFetch.add(key);
+                } else {
+                    String value = snapshot.get(key);
+                    if (value != null) {
+                        values.put(key, value);
+                    }
+                }
+            }
+
+            if (!keysToFetch.isEmpty()) {
+                values.putAll(getAll(keysToFetch));
             }
-            return kvs.get(0).getValue().toString(UTF_8);
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not retrieve key, interrupted", e);
@@ -74,6 +117,87 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not retrieve key", e);
         }
+        return values;
+    }
+
+    /**
+     * @param key a property key, including its namespace
+     * @return an up-to-date snapshot of the namespace of the key, or null if snapshots are
+     *         not being used for the key
+     */
+    private Etcd3NamespaceSnapshot getNamespaceSnapshot(String key) throws InterruptedException, ExecutionException {
+        Etcd3NamespaceSnapshot snapshot = null;
+        int indexOfFirstDot = key.indexOf('.');
+        if (indexOfFirstDot > 0 && isNamespaceSnapshotsEnabled()) {
+            String namespace = key.substring(0, indexOfFirstDot);
+            snapshot = namespaceSnapshots.get(namespace);
+            if (snapshot == null || snapshot.isStale()) {
+                synchronized (namespaceSnapshots) {
+                    snapshot = namespaceSnapshots.get(namespace);
+                    if (snapshot == null || snapshot.isStale()) {
+                        snapshot = loadNamespaceSnapshot(namespace);
+                        namespaceSnapshots.put(namespace, snapshot);
+                    }
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean isNamespaceSnapshotsEnabled() throws InterruptedException, ExecutionException {
+        Boolean isEnabled = isNamespaceSnapshotsEnabled;
+        if (isEnabled == null) {
+            // Read straight from etcd, as the snapshots can't be used until this is known
+            isEnabled = Boolean.parseBoolean(get(CPS_PROP_NAMESPACE_SNAPSHOTS_ENABLED));
+            isNamespaceSnapshotsEnabled = isEnabled;
+        }
+        return isEnabled;
+    }
+
+    private Etcd3NamespaceSnapshot loadNamespaceSnapshot(String namespace) throws InterruptedException, ExecutionException {
+        String namespacePrefix = namespace + ".";
+        ByteSequence bsPrefix = ByteSequence.from(namespacePrefix, UTF_8);
+        GetOption option = GetOption.builder().isPrefix(true).build();
+        GetResponse response = kvClient.get(bsPrefix, option).get();
+
+        Map<String, String> properties = new HashMap<>();
+        for (KeyValue kv : response.getKvs()) {
+            // jetcd's getKey() method strips off the given prefix from matching keys, so add them back in
+            String key = kv.getKey().toString(UTF_8);
+            if (!key.startsWith(namespacePrefix)) {
+                key = namespacePrefix + key;
+            }
+            properties.put(key, kv.getValue().toString(UTF_8));
+        }
+
+        // Watch from the revision after the one that was read, so that changes made between
+        // reading the namespace and the watch starting are not missed
+        Etcd3NamespaceSnapshot snapshot = new Etcd3NamespaceSnapshot(namespacePrefix, properties);
+        WatchOption watchOption = WatchOption.builder()
+                .withRange(OptionsUtil.prefixEndOf(bsPrefix))
+                .withRevision(response.getHeader().getRevision() + 1)
+                .build();
+        snapshot.setEtcdWatcher(watchClient.watch(bsPrefix, watchOption, snapshot));
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of the namespace a key is in after the key has been changed through
+     * this store, so that the change can be read back straight away rather than when the
+     * watch reports it.
+     */
+    private void discardNamespaceSnapshot(String key) {
+        // A prefix without a '.' could be the start of several namespaces
+        int indexOfFirstDot = key.indexOf('.');
+        String namespacePrefix = (indexOfFirstDot >= 0) ? key.substring(0, indexOfFirstDot + 1) : key;
+        for (String namespace : new ArrayList<>(namespaceSnapshots.keySet())) {
+            if ((namespace + ".").startsWith(namespacePrefix)) {
+                Etcd3NamespaceSnapshot snapshot = namespaceSnapshots.remove(namespace);
+                if (snapshot != null) {
+                    snapshot.close();
+                }
+            }
+        }
     }
 
     @Override
@@ -105,6 +229,10 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
 
     @Override
     public void shutdown() throws ConfigurationPropertyStoreException {
+        for (Etcd3NamespaceSnapshot snapshot : namespaceSnapshots.values()) {
+            snapshot.close();
+        }
+        namespaceSnapshots.clear();
         kvClient.close();
         client.close();
     }
@@ -118,6 +246,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not set key and value.", e);
+        } finally {
+            discardNamespaceSnapshot(key);
         }
     }
     
@@ -129,6 +259,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Could not delete key.", e);
+        } finally {
+            discardNamespaceSnapshot(key);
         }
     }
 
@@ -140,6 +272,8 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Failed to delete properties", e);
+        } finally {
+            discardNamespaceSnapshot(prefix);
         }
 
     }
@@ -207,6 +341,10 @@ public class Etcd3ConfigurationPropertyStore extends Etcd3Store implements IConf
         } catch (InterruptedException | ExecutionException e) {
             Thread.currentThread().interrupt();
             throw new ConfigurationPropertyStoreException("Failed to set properties", e);
+        } finally {
+            for (String key : propertiesToSet.keySet()) {
+                discardNamespaceSnapshot(key);
+            }
         }
     }
 }
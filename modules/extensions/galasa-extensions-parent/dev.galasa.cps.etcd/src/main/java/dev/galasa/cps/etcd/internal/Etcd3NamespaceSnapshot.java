@@ -0,0 +1,129 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.cps.etcd.internal;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.etcd.jetcd.KeyValue;
+import io.etcd.jetcd.Watch.Listener;
+import io.etcd.jetcd.Watch.Watcher;
+import io.etcd.jetcd.watch.WatchEvent;
+import io.etcd.jetcd.watch.WatchResponse;
+
+/**
+ * A copy of all the CPS properties in one namespace, kept up to date by an etcd watch on the
+ * namespace.
+ *
+ * The properties are held in an unmodifiable map which is replaced, never changed, when the
+ * watch reports a change, so readers always see a consistent set of properties without locking.
+ * If the watch stops, the snapshot can no longer be trusted and is marked as stale, so that the
+ * store loads the namespace again the next time it is used.
+ */
+public class Etcd3NamespaceSnapshot implements Listener {
+
+    private final String namespacePrefix;
+    private volatile Map<String, String> properties;
+    private volatile boolean isStale = false;
+    private Watcher etcdWatcher;
+
+    /**
+     * @param namespacePrefix the namespace followed by a '.'
+     * @param properties the properties in the namespace when the watch started, including their namespace
+     */
+    public Etcd3NamespaceSnapshot(String namespacePrefix, Map<String, String> properties) {
+        this.namespacePrefix = namespacePrefix;
+        this.properties = Collections.unmodifiableMap(new HashMap<>(properties));
+    }
+
+    /**
+     * @param key the key of the property, including its namespace
+     * @return the value of the property, or null if it is not set
+     */
+    public String get(String key) {
+        return properties.get(key);
+    }
+
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public boolean isStale() {
+        return isStale;
+    }
+
+    /**
+     * Stops watching the namespace. The snapshot is stale from then on.
+     */
+    public synchronized void close() {
+        isStale = true;
+        if (etcdWatcher != null) {
+            etcdWatcher.close();
+        }
+    }
+
+    public synchronized void setEtcdWatcher(Watcher etcdWatcher) {
+        this.etcdWatcher = etcdWatcher;
+        if (isStale) {
+            etcdWatcher.close();
+        }
+    }
+
+    @Override
+    public synchronized void onNext(WatchResponse response) {
+        if (response == null) {
+            return;
+        }
+
+        List<WatchEvent> events = response.getEvents();
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+
+        Map<String, String> updatedProperties = new HashMap<>(properties);
+        for (WatchEvent event : events) {
+            KeyValue eventKey = event.getKeyValue();
+            if (event.getEventType() == null || eventKey == null) {
+                continue;
+            }
+
+            // jetcd's getKey() method can strip off the watched prefix from matching keys, so add it back in
+            String key = eventKey.getKey().toString(UTF_8);
+            if (!key.startsWith(namespacePrefix)) {
+                key = namespacePrefix + key;
+            }
+
+            switch (event.getEventType()) {
+                case DELETE:
+                    updatedProperties.remove(key);
+                    break;
+                case PUT:
+                    updatedProperties.put(key, eventKey.getValue().toString(UTF_8));
+                    break;
+                case UNRECOGNIZED:
+                default:
+                    continue;
+            }
+        }
+        properties = Collections.unmodifiableMap(updatedProperties);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        // Changes may have been missed, for example if etcd has compacted away the revisions
+        // being watched, so the namespace has to be loaded again
+        close();
+    }
+
+    @Override
+    public void onCompleted() {
+        close();
+    }
+}
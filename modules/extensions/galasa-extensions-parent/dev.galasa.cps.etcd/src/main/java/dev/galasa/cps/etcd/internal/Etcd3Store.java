@@ -83,6 +83,38 @@ public abstract class Etcd3Store {
         return keyValues;
     }
 
+    /**
+     * Gets several keys in a single etcd transaction
+     *
+     * @param keys the keys to get
+     * @return the keys which exist and their values
+     */
+    protected Map<String, String> getAll(List<String> keys) throws InterruptedException, ExecutionException {
+        Map<String, String> keyValues = new HashMap<>();
+
+        // Build up a list of get operations
+        List<Op> operations = new ArrayList<>();
+        for (String key : keys) {
+            operations.add(Op.get(ByteSequence.from(key, UTF_8), GetOption.DEFAULT));
+        }
+
+        // Run the transaction
+        Txn request = kvClient.txn().Then(operations.toArray(new Op[operations.size()]));
+        TxnResponse response = request.commit().get();
+
+        // The responses are in the same order as the operations, so match them up with the keys
+        // by position rather than trusting the keys in the responses
+        List<GetResponse> getResponses = response.getGetResponses();
+        for (int i = 0; i < getResponses.size() && i < keys.size(); i++) {
+            List<KeyValue> kvs = getResponses.get(i).getKvs();
+            if (!kvs.isEmpty()) {
+                keyValues.put(keys.get(i), kvs.get(0).getValue().toString(UTF_8));
+            }
+        }
+
+        return keyValues;
+    }
+
     protected void put(String key, String value) throws InterruptedException, ExecutionException {
         ByteSequence bytesKey = ByteSequence.from(key, UTF_8);
         ByteSequence bytesValue = ByteSequence.from(value, UTF_8);
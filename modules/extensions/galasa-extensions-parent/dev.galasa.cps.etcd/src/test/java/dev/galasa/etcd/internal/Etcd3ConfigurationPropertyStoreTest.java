@@ -14,14 +14,37 @@ import org.junit.Test;
 import dev.galasa.cps.etcd.internal.Etcd3ConfigurationPropertyStore;
 import dev.galasa.etcd.internal.mocks.MockEtcdClient;
 import dev.galasa.etcd.internal.mocks.MockEtcdKvClient;
+import dev.galasa.etcd.internal.mocks.MockEtcdWatchClient;
+import dev.galasa.etcd.internal.mocks.MockEtcdWatchClient.MockWatcher;
 import dev.galasa.etcd.internal.mocks.MockTransaction;
+import io.etcd.jetcd.api.Event;
+import io.etcd.jetcd.api.KeyValue;
 import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.op.Op.GetOp;
 import io.etcd.jetcd.op.Op.PutOp;
+import io.etcd.jetcd.watch.WatchResponse;
+
+import com.google.protobuf.ByteString;
 
 import static org.assertj.core.api.Assertions.*;
 
 public class Etcd3ConfigurationPropertyStoreTest {
 
+    private WatchResponse createWatchResponse(Event... events) {
+        io.etcd.jetcd.api.WatchResponse response = io.etcd.jetcd.api.WatchResponse.newBuilder()
+            .addAllEvents(List.of(events))
+            .build();
+        return new WatchResponse(response);
+    }
+
+    private Event createEvent(Event.EventType eventType, String key, String value) {
+        KeyValue kv = KeyValue.newBuilder()
+            .setKey(ByteString.copyFromUtf8(key))
+            .setValue(ByteString.copyFromUtf8(value))
+            .build();
+        return Event.newBuilder().setType(eventType).setKv(kv).build();
+    }
+
     @Test
     public void testSetPropertiesCreatesTransactionOk() throws Exception {
         // Given...
@@ -46,4 +69,182 @@ public class Etcd3ConfigurationPropertyStoreTest {
         assertThat(thenOperations).hasSize(3);
         assertThat(thenOperations).hasOnlyElementsOfType(PutOp.class);
     }
+
+    @Test
+    public void testGetPropertiesReadsTheNamespaceOnceAndAnswersFromTheSnapshot() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.PLEXMA.credentialid", "plexcreds");
+        kvClientContents.put("zos.image.credentialid", "defaultcreds");
+        kvClientContents.put("cics.region.applid", "APPL1");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, true);
+
+        // When...
+        Map<String, String> properties = store.getProperties(List.of(
+            "zos.image.PLEXMA.MVMA.credentialid", "zos.image.PLEXMA.credentialid", "zos.image.credentialid"));
+        String value = store.getProperty("zos.image.credentialid");
+
+        // Then...
+        assertThat(properties).containsOnly(
+            entry("zos.image.PLEXMA.credentialid", "plexcreds"),
+            entry("zos.image.credentialid", "defaultcreds"));
+        assertThat(value).isEqualTo("defaultcreds");
+
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getGetRequestCount()).isEqualTo(1);
+
+        MockEtcdWatchClient mockWatchClient = (MockEtcdWatchClient) mockClient.getWatchClient();
+        assertThat(mockWatchClient.getWatchers()).extracting(MockWatcher::getKey).containsExactly("zos.");
+    }
+
+    @Test
+    public void testNamespaceIsReadAgainWhenItsWatchFails() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.credentialid", "oldcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, true);
+        assertThat(store.getProperty("zos.image.credentialid")).isEqualTo("oldcreds");
+
+        // Changed by someone else, but the watch fails before it reports the change
+        kvClientContents.put("zos.image.credentialid", "newcreds");
+        MockEtcdWatchClient mockWatchClient = (MockEtcdWatchClient) mockClient.getWatchClient();
+        MockWatcher firstWatcher = mockWatchClient.getWatchers().get(0);
+        firstWatcher.getListener().onError(new Exception("revision has been compacted"));
+
+        // When...
+        String value = store.getProperty("zos.image.credentialid");
+
+        // Then...
+        assertThat(value).isEqualTo("newcreds");
+        assertThat(firstWatcher.isClosed()).isTrue();
+        assertThat(mockWatchClient.getWatchers()).hasSize(2);
+    }
+
+    @Test
+    public void testPropertySetThroughTheStoreCanBeReadBackStraightAway() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.credentialid", "oldcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, true);
+        assertThat(store.getProperty("zos.image.credentialid")).isEqualTo("oldcreds");
+
+        // When...
+        store.setProperty("zos.image.credentialid", "newcreds");
+
+        // Then...
+        assertThat(store.getProperty("zos.image.credentialid")).isEqualTo("newcreds");
+    }
+
+    @Test
+    public void testGetPropertiesWithoutSnapshotsFetchesAllKeysInOneTransaction() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.PLEXMA.credentialid", "plexcreds");
+        kvClientContents.put("zos.image.credentialid", "defaultcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, false);
+
+        // When...
+        Map<String, String> properties = store.getProperties(List.of(
+            "zos.image.PLEXMA.MVMA.credentialid", "zos.image.PLEXMA.credentialid", "zos.image.credentialid"));
+
+        // Then...
+        assertThat(properties).containsOnly(
+            entry("zos.image.PLEXMA.credentialid", "plexcreds"),
+            entry("zos.image.credentialid", "defaultcreds"));
+
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getGetRequestCount()).isEqualTo(0);
+
+        List<Op> thenOperations = mockKvClient.getTransaction().getThenOperations();
+        assertThat(thenOperations).hasSize(3);
+        assertThat(thenOperations).hasOnlyElementsOfType(GetOp.class);
+    }
+
+    @Test
+    public void testWatchEventsAreAppliedToTheSnapshot() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.credentialid", "oldcreds");
+        kvClientContents.put("zos.image.PLEXMA.credentialid", "plexcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient, true);
+        assertThat(store.getProperty("zos.image.credentialid")).isEqualTo("oldcreds");
+
+        MockEtcdWatchClient mockWatchClient = (MockEtcdWatchClient) mockClient.getWatchClient();
+        MockWatcher watcher = mockWatchClient.getWatchers().get(0);
+
+        // When...
+        watcher.getListener().onNext(createWatchResponse(
+            createEvent(Event.EventType.PUT, "zos.image.credentialid", "newcreds"),
+            createEvent(Event.EventType.PUT, "zos.image.MVMA.credentialid", "mvmacreds"),
+            createEvent(Event.EventType.DELETE, "zos.image.PLEXMA.credentialid", "")));
+
+        // Then...
+        Map<String, String> properties = store.getProperties(List.of(
+            "zos.image.MVMA.credentialid", "zos.image.PLEXMA.credentialid", "zos.image.credentialid"));
+        assertThat(properties).containsOnly(
+            entry("zos.image.MVMA.credentialid", "mvmacreds"),
+            entry("zos.image.credentialid", "newcreds"));
+
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getGetRequestCount()).isEqualTo(1);
+        assertThat(mockWatchClient.getWatchers()).hasSize(1);
+    }
+
+    @Test
+    public void testSnapshotsAreNotUsedUnlessEnabledInTheCps() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put("zos.image.credentialid", "defaultcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient);
+
+        // When...
+        String value = store.getProperty("zos.image.credentialid");
+
+        // Then...
+        assertThat(value).isEqualTo("defaultcreds");
+
+        MockEtcdWatchClient mockWatchClient = (MockEtcdWatchClient) mockClient.getWatchClient();
+        assertThat(mockWatchClient.getWatchers()).isEmpty();
+
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getTransaction().getThenOperations()).hasOnlyElementsOfType(GetOp.class);
+    }
+
+    @Test
+    public void testSnapshotsAreUsedWhenEnabledInTheCps() throws Exception {
+        // Given...
+        Map<String, String> kvClientContents = new HashMap<>();
+        kvClientContents.put(Etcd3ConfigurationPropertyStore.CPS_PROP_NAMESPACE_SNAPSHOTS_ENABLED, "true");
+        kvClientContents.put("zos.image.credentialid", "defaultcreds");
+
+        MockEtcdClient mockClient = new MockEtcdClient(kvClientContents);
+        Etcd3ConfigurationPropertyStore store = new Etcd3ConfigurationPropertyStore(mockClient);
+
+        // When...
+        String value = store.getProperty("zos.image.credentialid");
+        String valueAgain = store.getProperty("zos.image.credentialid");
+
+        // Then...
+        assertThat(value).isEqualTo("defaultcreds");
+        assertThat(valueAgain).isEqualTo("defaultcreds");
+
+        MockEtcdWatchClient mockWatchClient = (MockEtcdWatchClient) mockClient.getWatchClient();
+        assertThat(mockWatchClient.getWatchers()).extracting(MockWatcher::getKey).containsExactly("zos.");
+
+        // One read of the switch and one of the namespace
+        MockEtcdKvClient mockKvClient = (MockEtcdKvClient) mockClient.getKVClient();
+        assertThat(mockKvClient.getGetRequestCount()).isEqualTo(2);
+    }
 }
@@ -36,6 +36,7 @@ public class MockEtcdKvClient implements KV {
 
     private Map<String, String> kvContents = new HashMap<>();
     private MockTransaction mockTransaction;
+    private int getRequestCount = 0;
 
     public MockEtcdKvClient(Map<String, String> kvContents) {
         this.kvContents = kvContents;
@@ -43,6 +44,7 @@ public class MockEtcdKvClient implements KV {
 
     @Override
     public CompletableFuture<GetResponse> get(ByteSequence key) {
+        getRequestCount++;
         String keyStr = key.toString();
         String value = kvContents.get(keyStr);
 
@@ -60,6 +62,7 @@ public class MockEtcdKvClient implements KV {
 
     @Override
     public CompletableFuture<GetResponse> get(ByteSequence key, GetOption options) {
+        getRequestCount++;
         CompletableFuture<GetResponse> response = null;
         String keyStr = key.toString();
         if (options.isPrefix()) {
@@ -124,7 +127,7 @@ public class MockEtcdKvClient implements KV {
 
     @Override
     public Txn txn() {
-        this.mockTransaction = new MockTransaction();
+        this.mockTransaction = new MockTransaction(kvContents);
         return this.mockTransaction;
     }
 
@@ -132,6 +135,10 @@ public class MockEtcdKvClient implements KV {
         return this.mockTransaction;
     }
 
+    public int getGetRequestCount() {
+        return this.getRequestCount;
+    }
+
     private KeyValue createKeyValue(String key, String value) {
         ByteString keyByteStr = ByteString.copyFromUtf8(key);
         Builder builder = KeyValue.newBuilder().setKey(keyByteStr);
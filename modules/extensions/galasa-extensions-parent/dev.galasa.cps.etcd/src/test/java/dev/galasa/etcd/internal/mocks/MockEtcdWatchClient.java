@@ -5,19 +5,63 @@
  */
 package dev.galasa.etcd.internal.mocks;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.etcd.jetcd.ByteSequence;
 import io.etcd.jetcd.Watch;
 import io.etcd.jetcd.options.WatchOption;
 
 public class MockEtcdWatchClient implements Watch {
 
+    private List<MockWatcher> watchers = new ArrayList<>();
+
+    public class MockWatcher implements Watcher {
+
+        private String key;
+        private Listener listener;
+        private boolean isClosed = false;
+
+        public MockWatcher(String key, Listener listener) {
+            this.key = key;
+            this.listener = listener;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Listener getListener() {
+            return listener;
+        }
+
+        public boolean isClosed() {
+            return isClosed;
+        }
+
+        @Override
+        public void close() {
+            isClosed = true;
+        }
+
+        public void requestProgress() {
+            throw new UnsupportedOperationException("Unimplemented method 'requestProgress'");
+        }
+    }
+
     @Override
     public Watcher watch(ByteSequence key, WatchOption option, Listener listener) {
-        throw new UnsupportedOperationException("Unimplemented method 'watch'");
+        MockWatcher watcher = new MockWatcher(key.toString(), listener);
+        watchers.add(watcher);
+        return watcher;
     }
 
     @Override
     public void requestProgress() {
         throw new UnsupportedOperationException("Unimplemented method 'requestProgress'");
     }
+
+    public List<MockWatcher> getWatchers() {
+        return watchers;
+    }
 }
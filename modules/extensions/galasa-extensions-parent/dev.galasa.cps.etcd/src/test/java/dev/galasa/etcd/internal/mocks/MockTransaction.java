@@ -5,18 +5,31 @@
  */
 package dev.galasa.etcd.internal.mocks;
 
+import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import com.google.protobuf.ByteString;
+
+import io.etcd.jetcd.ByteSequence;
 
 import io.etcd.jetcd.Txn;
+import io.etcd.jetcd.api.KeyValue;
+import io.etcd.jetcd.api.RangeResponse;
+import io.etcd.jetcd.api.ResponseOp;
 import io.etcd.jetcd.kv.TxnResponse;
 import io.etcd.jetcd.op.Cmp;
 import io.etcd.jetcd.op.Op;
+import io.etcd.jetcd.op.Op.GetOp;
 
 public class MockTransaction implements Txn {
 
+    private Map<String, String> kvContents;
     private List<Cmp> ifComparisons = new ArrayList<>();
     private List<Op> elseOperations = new ArrayList<>();
     private List<Op> thenOperations = new ArrayList<>();
@@ -39,9 +52,58 @@ public class MockTransaction implements Txn {
         return this;
     }
 
+    public MockTransaction() {
+        this(new HashMap<>());
+    }
+
+    public MockTransaction(Map<String, String> kvContents) {
+        this.kvContents = kvContents;
+    }
+
     @Override
     public CompletableFuture<TxnResponse> commit() {
-        return CompletableFuture.completedFuture(null);
+        TxnResponse response = null;
+
+        // Answer any get operations from the mock's contents, in the order they were added
+        List<GetOp> getOperations = thenOperations.stream()
+            .filter(GetOp.class::isInstance)
+            .map(GetOp.class::cast)
+            .collect(Collectors.toList());
+
+        if (!getOperations.isEmpty()) {
+            io.etcd.jetcd.api.TxnResponse.Builder responseBuilder = io.etcd.jetcd.api.TxnResponse.newBuilder();
+            for (GetOp getOperation : getOperations) {
+                String key = getOperationKey(getOperation);
+                RangeResponse.Builder rangeResponse = RangeResponse.newBuilder();
+                String value = kvContents.get(key);
+                if (value != null) {
+                    rangeResponse.addKvs(KeyValue.newBuilder()
+                        .setKey(ByteString.copyFromUtf8(key))
+                        .setValue(ByteString.copyFromUtf8(value)));
+                }
+                responseBuilder.addResponses(ResponseOp.newBuilder().setResponseRange(rangeResponse));
+            }
+            response = new TxnResponse(responseBuilder.build(), ByteSequence.EMPTY);
+        }
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private String getOperationKey(Op operation) {
+        // jetcd doesn't expose the key of an operation, so read it directly
+        try {
+            Field keyField = Op.class.getDeclaredField("key");
+            keyField.setAccessible(true);
+            Object key = keyField.get(operation);
+            String keyStr;
+            if (key instanceof ByteString) {
+                keyStr = ((ByteString) key).toStringUtf8();
+            } else {
+                keyStr = key.toString();
+            }
+            return keyStr;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Unable to read the key of a transaction operation", e);
+        }
     }
 
     public List<Op> getThenOperations() {
@@ -5,8 +5,12 @@
  */
 package dev.galasa.cps.rest;
 
+import java.time.Instant;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
@@ -14,17 +18,28 @@ import dev.galasa.extensions.common.api.LogFactory;
 
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.IConfigurationPropertyStore;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 
 import org.apache.commons.logging.Log;
 
 /**
  * This class is a CPS implementation that delegates calls to the child CPS it gets passed.
  * But it caches responses.
- * 
- * Up-front the implementation reads the entire contents from the CPS and caches it.
- * 
- * Set and Delete of properties are deleted, and the cache state is maintained.
- * 
+ *
+ * Up-front the implementation reads the entire contents from the CPS and caches it, one
+ * namespace at a time.
+ *
+ * Set and Delete of properties are delegated, and the cache state is maintained.
+ *
+ * Cached namespaces are served without contacting the child CPS until they are older than the
+ * 'framework.cps.rest.cache.revalidate.seconds' property (default 30 seconds). After that, the
+ * namespace is checked with the child CPS again. If the child CPS is a {@link NamespaceSource},
+ * such as the RestCPS, it is given the ETag of the cached namespace so that the namespace is only
+ * sent again if it has changed.
+ *
+ * Reads of fresh namespaces don't take any locks. Only one thread at a time checks a stale namespace.
+ *
  * The cache is turned on using the 'framework.cps.rest.cache.is.enabled' property.
  * - true : The cacheing is turned on.
  * - false : Calls pass directly through to the child CPS implementation.
@@ -32,95 +47,286 @@ import org.apache.commons.logging.Log;
  */
 public class CacheCPS implements IConfigurationPropertyStore {
 
-    // The key map key is the fully qualified property name
-    // The value is the value of the property.
-    private Map<String,String> propertyCache ;
+    /**
+     * The CPS property which this extension draws from to control whether the cache is enabled or not.
+     */
+    public static final String FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED = "framework.cps.rest.cache.is.enabled";
+
+    /**
+     * The CPS property which controls how many seconds a cached namespace is used for before it is checked again.
+     */
+    public static final String CPS_PROP_CACHE_REVALIDATE_SECONDS = "framework.cps.rest.cache.revalidate.seconds";
+
+    public static final long DEFAULT_REVALIDATE_MILLIS = 30000;
+
+    private static final String SECURE_NAMESPACE = "secure";
+
+    /**
+     * Gets all the properties in a namespace for the cache.
+     */
+    public interface NamespaceSource {
+
+        /**
+         * @param namespace the namespace to get
+         * @param etag the ETag of the cached properties, or null if there are none
+         * @return the properties in the namespace, or null if they still match the given ETag
+         */
+        NamespaceProperties queryNamespace(String namespace, String etag) throws ConfigurationPropertyStoreException;
+    }
+
+    public static class NamespaceProperties {
+        private final Map<String, String> properties;
+        private final String etag;
+
+        public NamespaceProperties(Map<String, String> properties, String etag) {
+            this.properties = Collections.unmodifiableMap(properties);
+            this.etag = etag;
+        }
+
+        /**
+         * @return the properties, keyed by their fully qualified names
+         */
+        public Map<String, String> getProperties() {
+            return properties;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private static class CachedNamespace {
+        private final NamespaceProperties namespaceProperties;
+        private final Instant fetchTime;
+
+        private CachedNamespace(NamespaceProperties namespaceProperties, Instant fetchTime) {
+            this.namespaceProperties = namespaceProperties;
+            this.fetchTime = fetchTime;
+        }
+    }
+
+    // The key is the namespace. Entries are replaced rather than changed, so readers never need a lock.
+    private final Map<String, CachedNamespace> namespaceCache = new ConcurrentHashMap<>();
+
+    // Stops two threads refreshing the same namespace at the same time
+    private final Map<String, Object> refreshLocks = new ConcurrentHashMap<>();
 
     // We use this flag so that we don't try to prime the cache twice.
-    private boolean isCachePrimed = false ;
+    private volatile boolean isCachePrimed = false ;
+
+    private volatile boolean isCacheEnabled = false;
+
+    private volatile long revalidateMillis = DEFAULT_REVALIDATE_MILLIS;
 
     private IConfigurationPropertyStore childCPS ;
 
-    private Log log ;
+    private NamespaceSource namespaceSource;
 
-    private boolean isCacheEnabled = false;
+    private ITimeService timeService;
 
-    /**
-     * The CPS property which this extension draws from to control whether the cache is enabled or not.
-     */
-    public static final String FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED = "framework.cps.rest.cache.is.enabled";
+    private Log log ;
 
+    private final AtomicLong hitCount       = new AtomicLong();
+    private final AtomicLong missCount      = new AtomicLong();
+    private final AtomicLong unchangedCount = new AtomicLong();
 
     public CacheCPS( IConfigurationPropertyStore childCPS , LogFactory logFactory) throws ConfigurationPropertyStoreException {
+        this(childCPS, logFactory, new SystemTimeService());
+    }
+
+    public CacheCPS( IConfigurationPropertyStore childCPS , LogFactory logFactory, ITimeService timeService) throws ConfigurationPropertyStoreException {
 
         this.log = logFactory.getLog(this.getClass());
-        this.propertyCache = new HashMap<String,String>();
         this.childCPS = childCPS ;
+        this.timeService = timeService;
+
+        if (childCPS instanceof NamespaceSource) {
+            this.namespaceSource = (NamespaceSource) childCPS;
+        } else {
+            // The child can't tell us whether a namespace has changed, so get all of it each time
+            this.namespaceSource = (namespace, etag) -> new NamespaceProperties(childCPS.getPropertiesFromNamespace(namespace), null);
+        }
     }
 
 
-    private synchronized void primeCaches(IConfigurationPropertyStore childCPS ) throws ConfigurationPropertyStoreException {
-        
-        // Don't re-prime the caches if they are not primed already.
-        if (this.isCachePrimed==false) {
+    private void primeCaches() throws ConfigurationPropertyStoreException {
 
-            // Only prime the cache once
-            this.isCachePrimed = true ;
+        // Don't re-prime the caches if they are primed already.
+        if (!this.isCachePrimed) {
+            synchronized (this) {
+                if (!this.isCachePrimed) {
+                    try {
+                        primeCachesFromChild();
+                    } finally {
+                        // Only prime the cache once
+                        this.isCachePrimed = true ;
+                    }
+                }
+            }
+        }
+    }
 
-            String isEnabledPropValue = childCPS.getProperty(FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED);
-            if ((isEnabledPropValue==null)||(isEnabledPropValue.isBlank())) {
-                log.info("CPS Cache property "+FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED+" not found in child CPS.");
-                this.isCacheEnabled = false ;
-            } else {
-                log.info("CPS Cache property "+FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED+" has a value of "+isEnabledPropValue);
-                this.isCacheEnabled = Boolean.parseBoolean(isEnabledPropValue);
+    private void primeCachesFromChild() throws ConfigurationPropertyStoreException {
+        String isEnabledPropValue = childCPS.getProperty(FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED);
+        if ((isEnabledPropValue==null)||(isEnabledPropValue.isBlank())) {
+            log.info("CPS Cache property "+FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED+" not found in child CPS.");
+            this.isCacheEnabled = false ;
+        } else {
+            log.info("CPS Cache property "+FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED+" has a value of "+isEnabledPropValue);
+            this.isCacheEnabled = Boolean.parseBoolean(isEnabledPropValue);
+        }
+
+        if (!this.isCacheEnabled) {
+            log.info("CPS Cache is not enabled...");
+        } else {
+
+            log.info("CPS Cache is enabled, and being primed...");
+            int propertyCount = 0;
+            for( String namespace : childCPS.getNamespaces() ) {
+                if (!namespace.equals(SECURE_NAMESPACE)) {
+                    propertyCount += getCachedNamespace(namespace).size();
+                }
             }
+            log.info("CPS Cache primed with "+Integer.toString(propertyCount)+" properties.");
 
-            if (!this.isCacheEnabled) {
-                log.info("CPS Cache is not enabled...");
-            } else {
+            // The framework namespace has just been cached, so this doesn't need another call to the child CPS.
+            this.revalidateMillis = getRevalidateMillis();
+            log.info("CPS Cache namespaces will be revalidated after "+Long.toString(revalidateMillis)+"ms.");
+        }
+    }
 
-                log.info("CPS Cache is enabled, and being primed...");
-                List<String> namespaces = childCPS.getNamespaces();
+    private long getRevalidateMillis() throws ConfigurationPropertyStoreException {
+        long millis = DEFAULT_REVALIDATE_MILLIS;
+        String revalidateSeconds = getCachedNamespace("framework").get(CPS_PROP_CACHE_REVALIDATE_SECONDS);
+        if (revalidateSeconds != null && !revalidateSeconds.isBlank()) {
+            try {
+                millis = Math.max(0, Long.parseLong(revalidateSeconds.trim()) * 1000);
+            } catch (NumberFormatException e) {
+                log.warn("CPS Cache property "+CPS_PROP_CACHE_REVALIDATE_SECONDS+" is not a number: "+revalidateSeconds+". Using the default.");
+            }
+        }
+        return millis;
+    }
 
-                for( String namespace : namespaces ) {
+    /**
+     * Gets the properties in a namespace, from the cache if they are still fresh.
+     * @return the properties in the namespace, which must not be changed
+     */
+    private Map<String, String> getCachedNamespace(String namespace) throws ConfigurationPropertyStoreException {
 
-                    if (!namespace.equals("secure")) {
-                        Map<String, String> propertiesFromNamespace = childCPS.getPropertiesFromNamespace(namespace);
+        // Local runs never see the secure namespace, so don't even ask for it.
+        if (namespace.equals(SECURE_NAMESPACE)) {
+            return Collections.emptyMap();
+        }
 
-                        for( Entry<String,String> propertyInNamespace : propertiesFromNamespace.entrySet()){
-                            String propertyValue = propertyInNamespace.getValue();
-                            String longPropertyName = propertyInNamespace.getKey();
+        CachedNamespace cachedNamespace = namespaceCache.get(namespace);
+        if (isFresh(cachedNamespace)) {
+            hitCount.incrementAndGet();
+            return cachedNamespace.namespaceProperties.getProperties();
+        }
 
-                            propertyCache.put(longPropertyName,propertyValue);
-                        }
-                    }
-                }
+        synchronized (getRefreshLock(namespace)) {
+            // Another thread may have refreshed the namespace while this one waited
+            cachedNamespace = namespaceCache.get(namespace);
+            if (isFresh(cachedNamespace)) {
+                hitCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+                cachedNamespace = refresh(namespace, cachedNamespace);
             }
-            log.info("CPS Cache primed with "+Integer.toString(propertyCache.size())+" properties.");
+        }
+        return cachedNamespace.namespaceProperties.getProperties();
+    }
+
+    private Object getRefreshLock(String namespace) {
+        return refreshLocks.computeIfAbsent(namespace, k -> new Object());
+    }
 
+    private boolean isFresh(CachedNamespace cachedNamespace) {
+        // Namespaces primed before the revalidation time was known use it too, as it is applied when they are read
+        return cachedNamespace != null && timeService.now().isBefore(cachedNamespace.fetchTime.plusMillis(revalidateMillis));
+    }
+
+    private CachedNamespace refresh(String namespace, CachedNamespace staleNamespace) throws ConfigurationPropertyStoreException {
+        String etag = (staleNamespace == null) ? null : staleNamespace.namespaceProperties.getEtag();
+
+        NamespaceProperties namespaceProperties = namespaceSource.queryNamespace(namespace, etag);
+        if (namespaceProperties == null) {
+            if (staleNamespace == null) {
+                namespaceProperties = new NamespaceProperties(new HashMap<>(), null);
+            } else {
+                namespaceProperties = staleNamespace.namespaceProperties;
+                unchangedCount.incrementAndGet();
+            }
         }
+
+        CachedNamespace refreshedNamespace = new CachedNamespace(namespaceProperties, timeService.now());
+        namespaceCache.put(namespace, refreshedNamespace);
+        return refreshedNamespace;
+    }
+
+    /**
+     * Keeps the cache in step with a change which has already been made in the child CPS.
+     */
+    private void updateCachedNamespace(String namespace, Consumer<Map<String, String>> update) throws ConfigurationPropertyStoreException {
+        if (namespace.equals(SECURE_NAMESPACE)) {
+            return;
+        }
+
+        synchronized (getRefreshLock(namespace)) {
+            CachedNamespace cachedNamespace = namespaceCache.get(namespace);
+            if (cachedNamespace == null) {
+                // Get the whole namespace, which already includes the change.
+                getCachedNamespace(namespace);
+            } else {
+                NamespaceProperties oldProperties = cachedNamespace.namespaceProperties;
+                Map<String, String> updatedProperties = new HashMap<>(oldProperties.getProperties());
+                update.accept(updatedProperties);
+
+                // Keep the old ETag. It won't match what the child CPS holds now, so the namespace is sent in full next time.
+                NamespaceProperties newProperties = new NamespaceProperties(updatedProperties, oldProperties.getEtag());
+                namespaceCache.put(namespace, new CachedNamespace(newProperties, cachedNamespace.fetchTime));
+            }
+        }
+    }
+
+    private String getNamespace(String propertyName) {
+        int separatorIndex = propertyName.indexOf('.');
+        return (separatorIndex < 0) ? propertyName : propertyName.substring(0, separatorIndex);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return how many times a stale namespace was found to be unchanged, so it was not sent again
+     */
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return (total == 0) ? 0 : (double) hits / total;
     }
 
     @Override
     public List<String> getNamespaces() throws ConfigurationPropertyStoreException {
-        primeCaches(childCPS);
+        primeCaches();
         List<String> results ;
         if (isCacheEnabled) {
             results = new ArrayList<String>();
-
-            // Gather a set of the namespaces, so there are no duplicates.
-            Set<String> namespacesSet = new HashSet<>();
-            for (Map.Entry<String,String> entry : propertyCache.entrySet()){
-                String propertyName = entry.getKey();
-                String[] parts = propertyName.split("\\.");
-                if (parts.length > 1) {
-                    String namespace = parts[0];
-                    namespacesSet.add(namespace);
+            for (Entry<String, CachedNamespace> entry : namespaceCache.entrySet()) {
+                if (!entry.getValue().namespaceProperties.getProperties().isEmpty()) {
+                    results.add(entry.getKey());
                 }
             }
-
-            results.addAll(namespacesSet);
         } else {
             results = this.childCPS.getNamespaces();
         }
@@ -129,39 +335,57 @@ public class CacheCPS implements IConfigurationPropertyStore {
 
     @Override
     public @Null String getProperty(@NotNull String fullyQualifiedPropertyName) throws ConfigurationPropertyStoreException {
-        primeCaches(childCPS);
+        primeCaches();
         String result ;
         if (isCacheEnabled) {
-            result = propertyCache.get(fullyQualifiedPropertyName);
+            result = getCachedNamespace(getNamespace(fullyQualifiedPropertyName)).get(fullyQualifiedPropertyName);
         } else {
             result = this.childCPS.getProperty(fullyQualifiedPropertyName);
         }
         return result ;
     }
 
+    @Override
+    public @NotNull Map<String, String> getProperties(@NotNull List<String> keys) throws ConfigurationPropertyStoreException {
+        primeCaches();
+        Map<String, String> results ;
+        if (isCacheEnabled) {
+            results = new HashMap<String, String>();
+            for (String key : keys) {
+                String value = getCachedNamespace(getNamespace(key)).get(key);
+                if (value != null) {
+                    results.put(key, value);
+                }
+            }
+        } else {
+            results = this.childCPS.getProperties(keys);
+        }
+        return results ;
+    }
+
     @Override
     public void setProperty(@NotNull String key, @NotNull String value) throws ConfigurationPropertyStoreException {
-        primeCaches(childCPS);
+        primeCaches();
 
         // Delegate the set of the property to the child CPS
         childCPS.setProperty(key, value);
 
         if (isCacheEnabled) {
             // The child changed the property value ok, so we should change the cache version also.
-            propertyCache.put(key,value);
+            updateCachedNamespace(getNamespace(key), properties -> properties.put(key, value));
         }
     }
 
     @Override
     public @NotNull Map<String, String> getPrefixedProperties(@NotNull String prefix)
             throws ConfigurationPropertyStoreException {
-        
-        primeCaches(childCPS);
+
+        primeCaches();
 
         Map<String, String> results;
         if (isCacheEnabled) {
             results = new HashMap<String, String>();
-            for( Entry<String,String> property : this.propertyCache.entrySet() ){
+            for( Entry<String,String> property : getCachedNamespace(getNamespace(prefix)).entrySet() ){
                 String propName = property.getKey();
                 if( propName.startsWith(prefix)) {
                     String propValue = property.getValue();
@@ -177,26 +401,23 @@ public class CacheCPS implements IConfigurationPropertyStore {
     @Override
     public void deleteProperty(@NotNull String key) throws ConfigurationPropertyStoreException {
 
-        primeCaches(childCPS);
+        primeCaches();
 
         // Delegate the delete to the underlying CPS.
         this.childCPS.deleteProperty(key);
 
         if (this.isCacheEnabled) {
             // Keep our cache in step.
-            propertyCache.remove(key);
+            updateCachedNamespace(getNamespace(key), properties -> properties.remove(key));
         }
     }
 
     @Override
     public void deletePrefixedProperties(@NotNull String prefix) throws ConfigurationPropertyStoreException {
 
-        primeCaches(childCPS);
-        if(isCachePrimed) {
-            Map<String, String> propertiesToRemove = getPrefixedProperties(prefix);
-            for(String key : propertiesToRemove.keySet()) {
-                this.propertyCache.remove(key);
-            }
+        primeCaches();
+        if (this.isCacheEnabled) {
+            updateCachedNamespace(getNamespace(prefix), properties -> properties.keySet().removeIf(key -> key.startsWith(prefix)));
         }
 
     }
@@ -204,11 +425,11 @@ public class CacheCPS implements IConfigurationPropertyStore {
     @Override
     public Map<String, String> getPropertiesFromNamespace(String namespace) throws ConfigurationPropertyStoreException {
 
-        primeCaches(childCPS);
+        primeCaches();
 
         Map<String, String> results ;
         if (this.isCacheEnabled) {
-            results = getPrefixedProperties(namespace);
+            results = new HashMap<String, String>(getCachedNamespace(namespace));
         } else {
             results = childCPS.getPropertiesFromNamespace(namespace);
         }
@@ -218,6 +439,10 @@ public class CacheCPS implements IConfigurationPropertyStore {
     @Override
     public void shutdown() throws ConfigurationPropertyStoreException {
 
+        if (this.isCacheEnabled) {
+            log.info("CPS Cache hits: "+getHitCount()+" misses: "+getMissCount()+" unchanged on revalidation: "+getUnchangedCount());
+        }
+
         // Delegate this stimulus to the child, to give that a chance of closing resources.
         childCPS.shutdown();
     }
@@ -225,13 +450,20 @@ public class CacheCPS implements IConfigurationPropertyStore {
 
     @Override
     public void setProperties(Map<String, String> propertiesToSet) throws ConfigurationPropertyStoreException {
-        primeCaches(childCPS);
+        primeCaches();
 
         childCPS.setProperties(propertiesToSet);
 
         if (isCacheEnabled) {
-            propertyCache.putAll(propertiesToSet);
+            Map<String, Map<String, String>> propertiesByNamespace = new HashMap<>();
+            for (Entry<String, String> property : propertiesToSet.entrySet()) {
+                propertiesByNamespace.computeIfAbsent(getNamespace(property.getKey()), k -> new HashMap<>())
+                    .put(property.getKey(), property.getValue());
+            }
+            for (Entry<String, Map<String, String>> namespaceProperties : propertiesByNamespace.entrySet()) {
+                updateCachedNamespace(namespaceProperties.getKey(), properties -> properties.putAll(namespaceProperties.getValue()));
+            }
         }
     }
-    
+
 }
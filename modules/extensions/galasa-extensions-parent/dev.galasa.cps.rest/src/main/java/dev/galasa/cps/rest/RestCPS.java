@@ -23,6 +23,7 @@ import org.apache.http.impl.client.CloseableHttpClient;
 
 import com.google.gson.JsonSyntaxException;
 
+import dev.galasa.cps.rest.CacheCPS.NamespaceProperties;
 import dev.galasa.extensions.common.Errors;
 import dev.galasa.extensions.common.api.HttpClientFactory;
 import dev.galasa.extensions.common.api.LogFactory;
@@ -47,8 +48,11 @@ import org.apache.commons.logging.Log;
  * the CPS properties are shared in a remote ecosystem.
  * 
  * This CPS store is read-only. Write and Delete operations are not supported.
+ *
+ * Whole namespaces can be fetched conditionally using their ETag, so that the {@link CacheCPS}
+ * only has a namespace sent again when it has changed.
  */
-public class RestCPS implements IConfigurationPropertyStore {
+public class RestCPS implements IConfigurationPropertyStore, CacheCPS.NamespaceSource {
 
     private static final String REST_API_VERSION_CODED_AGAINST = "0.33.0" ; 
 
@@ -217,6 +221,46 @@ public class RestCPS implements IConfigurationPropertyStore {
         return propertyValueResult;
     }
 
+    /**
+     * Gets several properties with one request for each namespace they are in. The framework
+     * asks for all the variants of a property at once, and they all start the same way, so
+     * this asks for the properties which start with the part the keys have in common.
+     * 
+     * @param keys The keys of the properties to get, including their namespace.
+     * @throws ConfigurationPropertyStoreException - Something went wrong.
+     */
+    @Override
+    public @NotNull Map<String, String> getProperties(@NotNull List<String> keys) throws ConfigurationPropertyStoreException {
+
+        Map<String,String> commonPrefixes = new HashMap<String,String>();
+        for (String key : keys) {
+            // Some properties are not available to local test runs.
+            if (!isPropertyRedacted(key)) {
+                commonPrefixes.merge(splitPropName(key).namespace, key, this::getCommonPrefix);
+            }
+        }
+
+        Map<String,String> results = new HashMap<String,String>();
+        for (String commonPrefix : commonPrefixes.values()) {
+            Map<String,String> properties = getPrefixedProperties(commonPrefix);
+            for (String key : keys) {
+                String value = properties.get(key);
+                if (value != null) {
+                    results.put(key, value);
+                }
+            }
+        }
+        return results;
+    }
+
+    private String getCommonPrefix(String first, String second) {
+        int length = 0;
+        while (length < first.length() && length < second.length() && first.charAt(length) == second.charAt(length)) {
+            length++;
+        }
+        return first.substring(0, length);
+    }
+
     private void checkResponseHttpCode(CloseableHttpResponse response, Errors errorIfBad, URI targetUri) throws ConfigurationPropertyStoreException {
         StatusLine statusLine = response.getStatusLine();
         int statusCode = statusLine.getStatusCode();
@@ -413,18 +457,51 @@ public class RestCPS implements IConfigurationPropertyStore {
      */
     @Override
     public Map<String,String> getPropertiesFromNamespace(String namespace) throws ConfigurationPropertyStoreException {
+        return new HashMap<String,String>(queryNamespace(namespace, null, false).getProperties());
+    }
 
-        Map<String,String> results = new HashMap<String,String>();
+    /**
+     * Gets all the properties in a namespace, unless they haven't changed since they were last got.
+     *
+     * @param namespace The namespace we want to get the properties from.
+     * @param etag The ETag returned when the properties were last got, or null to get them regardless.
+     * @return The properties and their ETag, or null if the server says they still match the ETag.
+     *         A namespace which the server doesn't know about, because it has no properties, is returned empty.
+     * @throws ConfigurationPropertyStoreException if there was a problem accessing the CPS
+     */
+    @Override
+    public NamespaceProperties queryNamespace(String namespace, String etag) throws ConfigurationPropertyStoreException {
+        return queryNamespace(namespace, etag, true);
+    }
+
+    private NamespaceProperties queryNamespace(String namespace, String etag, boolean isMissingNamespaceEmpty) throws ConfigurationPropertyStoreException {
+
+        NamespaceProperties results = null;
 
         URI targetUri = calculateQueryPropertyUri(namespace, NULL_PREFIX, NULL_SUFFIX, NULL_INFIX);
         HttpGet req = constructGetRequest(targetUri, this.jwt);
+        if (etag != null) {
+            req.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
 
         // Note: The response is always closed properly.
         try ( CloseableHttpResponse response = (CloseableHttpResponse) this.apiClient.execute(req) ) {
 
-            checkResponseHttpCode(response, ERROR_GALASA_REST_CALL_TO_GET_ALL_CPS_PROPERTIES_NON_OK_STATUS, targetUri);
-            GalasaProperty[] properties = extractPropertiesFromPayload(response, targetUri);
-            results = propertiesToMap(properties);
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode == HttpStatus.SC_NOT_FOUND && isMissingNamespaceEmpty) {
+                // The server says a namespace with no properties in it is not found.
+                // The cache only asks for namespaces once the namespace list has been got ok, so the URL is good.
+                log.info("galasacps: over rest : namespace "+namespace+" was not found, so it has no properties.");
+                results = new NamespaceProperties(new HashMap<String,String>(), null);
+            } else if (statusCode != HttpStatus.SC_NOT_MODIFIED) {
+                checkResponseHttpCode(response, ERROR_GALASA_REST_CALL_TO_GET_ALL_CPS_PROPERTIES_NON_OK_STATUS, targetUri);
+                GalasaProperty[] properties = extractPropertiesFromPayload(response, targetUri);
+
+                // Servers which don't support ETags don't return one, so the namespace is sent in full every time.
+                Header etagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+                String newEtag = (etagHeader == null) ? null : etagHeader.getValue();
+                results = new NamespaceProperties(propertiesToMap(properties), newEtag);
+            }
 
         } catch(IOException ioEx) {
             String msg = ERROR_GALASA_REST_CALL_TO_GET_CPS_PROPERTIES_FAILED.getMessage(targetUri.toString(),ioEx.getMessage());
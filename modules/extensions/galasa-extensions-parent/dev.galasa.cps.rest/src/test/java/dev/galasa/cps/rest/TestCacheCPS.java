@@ -8,10 +8,14 @@ package dev.galasa.cps.rest;
 import org.junit.Test;
 import static org.assertj.core.api.Assertions.*;
 
+import dev.galasa.cps.rest.CacheCPS.NamespaceProperties;
 import dev.galasa.cps.rest.mocks.MockCPS;
 import dev.galasa.extensions.common.mocks.MockLogFactory;
+import dev.galasa.extensions.common.mocks.MockTimeService;
 import dev.galasa.extensions.common.api.LogFactory;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 
+import java.time.Instant;
 import java.util.*;
 
 public class TestCacheCPS {
@@ -116,6 +120,33 @@ public class TestCacheCPS {
     }  
 
 
+    @Test
+    public void testGettingSeveralPropertiesWithCacheEnabledReadsEachNamespaceOnce() throws Exception {
+        // Given...
+        MockCPS mockCPS = new MockCPS(Map.of(
+            CacheCPS.FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED,"true",
+            "zos.image.PLEXMA.credentialid","plexcreds",
+            "zos.image.credentialid", "defaultcreds"
+        ));
+        
+        CacheCPS cache = new CacheCPS(mockCPS, logFactory);
+
+        // When...
+        Map<String,String> properties = cache.getProperties(List.of(
+            "zos.image.PLEXMA.MVMA.credentialid", "zos.image.PLEXMA.credentialid", "zos.image.credentialid"));
+        
+        // Then...
+        assertThat(properties).containsOnly(
+            entry("zos.image.PLEXMA.credentialid", "plexcreds"),
+            entry("zos.image.credentialid", "defaultcreds"));
+
+        // Only the is-cache-enabled property is got individually.
+        // The framework and zos namespaces were recovered in bulk when the cache was primed.
+        assertThat(mockCPS.callCounterForGetProperty).isEqualTo(1);
+        assertThat(mockCPS.callCounterForGetPropertiesFromNamespace).isEqualTo(2);
+    }  
+
+
     @Test
     public void testSecureNamespacePropsAreNotCached() throws Exception {
         // Given...
@@ -418,4 +449,122 @@ public class TestCacheCPS {
         // Then...
         assertThat(namespaces).hasSize(2).contains("framework","mynamespace");
     }  
+
+    /**
+     * A child CPS which tags each namespace with an ETag, and doesn't send namespaces which haven't changed.
+     */
+    private static class MockNamespaceSourceCPS extends MockCPS implements CacheCPS.NamespaceSource {
+
+        public int callCounterForQueryNamespace = 0;
+
+        public MockNamespaceSourceCPS(Map<String,String> properties) {
+            super(properties);
+        }
+
+        @Override
+        public NamespaceProperties queryNamespace(String namespace, String etag) throws ConfigurationPropertyStoreException {
+            callCounterForQueryNamespace += 1;
+            Map<String, String> namespaceProperties = getPropertiesFromNamespace(namespace);
+            String currentEtag = Integer.toString(new TreeMap<>(namespaceProperties).hashCode());
+
+            NamespaceProperties result = null;
+            if (!currentEtag.equals(etag)) {
+                result = new NamespaceProperties(namespaceProperties, currentEtag);
+            }
+            return result;
+        }
+    }
+
+    @Test
+    public void testCachedNamespaceIsFetchedAgainAfterTheRevalidationTime() throws Exception {
+        // Given...
+        MockCPS mockCPS = createFrodoAndBilboMockCPS(true);
+        MockTimeService timeService = new MockTimeService(Instant.EPOCH);
+        CacheCPS cache = new CacheCPS(mockCPS, logFactory, timeService);
+        assertThat(cache.getProperty("framework.frodo.age")).isEqualTo("24");
+
+        // When...
+        mockCPS.properties.put("framework.frodo.age", "25");
+        String ageBeforeRevalidation = cache.getProperty("framework.frodo.age");
+
+        timeService.sleepMillis(CacheCPS.DEFAULT_REVALIDATE_MILLIS + 1);
+        String ageAfterRevalidation = cache.getProperty("framework.frodo.age");
+
+        // Then...
+        assertThat(ageBeforeRevalidation).isEqualTo("24");
+        assertThat(ageAfterRevalidation).isEqualTo("25");
+
+        // Two namespaces primed, then one revalidated
+        assertThat(mockCPS.callCounterForGetPropertiesFromNamespace).isEqualTo(3);
+        assertThat(cache.getMissCount()).isEqualTo(3);
+        assertThat(cache.getHitCount()).isEqualTo(3);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void testRevalidationTimeCanBeSetWithACPSProperty() throws Exception {
+        // Given...
+        MockCPS mockCPS = new MockCPS(Map.of(
+            CacheCPS.FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED,"true",
+            CacheCPS.CPS_PROP_CACHE_REVALIDATE_SECONDS,"5",
+            "mynamespace.bilbo.age", "116"
+        ));
+        MockTimeService timeService = new MockTimeService(Instant.EPOCH);
+        CacheCPS cache = new CacheCPS(mockCPS, logFactory, timeService);
+        cache.getProperty("mynamespace.bilbo.age");
+
+        // When...
+        mockCPS.properties.put("mynamespace.bilbo.age", "117");
+        timeService.sleepMillis(5001);
+        String age = cache.getProperty("mynamespace.bilbo.age");
+
+        // Then...
+        assertThat(age).isEqualTo("117");
+        // The revalidation time was read from the primed cache, not from the child CPS.
+        assertThat(mockCPS.callCounterForGetProperty).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnchangedNamespaceIsKeptWhenRevalidated() throws Exception {
+        // Given...
+        MockNamespaceSourceCPS mockCPS = new MockNamespaceSourceCPS(Map.of(
+            CacheCPS.FEATURE_FLAG_CPS_PROP_CACHED_CPS_ENABLED,"true",
+            "framework.frodo.age","24",
+            "mynamespace.bilbo.age", "116"
+        ));
+        MockTimeService timeService = new MockTimeService(Instant.EPOCH);
+        CacheCPS cache = new CacheCPS(mockCPS, logFactory, timeService);
+        cache.getProperty("mynamespace.bilbo.age");
+
+        // When...
+        timeService.sleepMillis(CacheCPS.DEFAULT_REVALIDATE_MILLIS + 1);
+        String unchangedAge = cache.getProperty("mynamespace.bilbo.age");
+
+        mockCPS.properties.put("mynamespace.bilbo.age", "117");
+        timeService.sleepMillis(CacheCPS.DEFAULT_REVALIDATE_MILLIS + 1);
+        String changedAge = cache.getProperty("mynamespace.bilbo.age");
+
+        // Then...
+        assertThat(unchangedAge).isEqualTo("116");
+        assertThat(changedAge).isEqualTo("117");
+        assertThat(cache.getUnchangedCount()).isEqualTo(1);
+
+        // The cache asked the child for whole namespaces, rather than using getPropertiesFromNamespace directly.
+        assertThat(mockCPS.callCounterForQueryNamespace).isEqualTo(4);
+        assertThat(mockCPS.callCounterForGetPropertiesFromNamespace).isEqualTo(4);
+    }
+
+    @Test
+    public void testDeletePrefixedPropertiesRemovesThemFromTheCache() throws Exception {
+        // Given...
+        MockCPS mockCPS = createFrodoAndBilboMockCPS(true);
+        CacheCPS cache = new CacheCPS(mockCPS, logFactory);
+
+        // When...
+        cache.deletePrefixedProperties("mynamespace.bilbo");
+
+        // Then...
+        assertThat(cache.getPrefixedProperties("mynamespace.bilbo")).isEmpty();
+        assertThat(cache.getProperty("framework.frodo.age")).isEqualTo("24");
+    }
 }
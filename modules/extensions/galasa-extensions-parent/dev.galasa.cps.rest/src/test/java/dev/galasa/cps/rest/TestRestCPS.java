@@ -118,6 +118,138 @@ public class TestRestCPS {
         assertThat(value).as("Expected value to be null, as the property being got is reserved.").isNull();
     }
 
+    private static class NamespaceNotFoundInteraction extends AuthenticatedHttpInteraction {
+
+        public NamespaceNotFoundInteraction(String expectedUri, String expectedJwt) {
+            super(expectedUri, expectedJwt);
+        }
+
+        @Override
+        public void validateRequestContentType(HttpRequest request) {
+            // We don't expect a Content-type header as there is no payload sent to the server
+        }
+
+        @Override
+        public MockCloseableHttpResponse getResponse() {
+            MockCloseableHttpResponse response = new MockCloseableHttpResponse();
+            MockStatusLine statusLine = new MockStatusLine();
+            statusLine.setStatusCode(HttpStatus.SC_NOT_FOUND);
+            response.setStatusLine(statusLine);
+            response.setEntity(new MockHttpEntity("{\"error_code\":5016,\"error_message\":\"GAL5016E: Error occurred when trying to access namespace 'emptyNamespace'.\"}"));
+            return response;
+        }
+    }
+
+    @Test
+    public void testQueryNamespaceWhichIsNotFoundReturnsNoProperties() throws Exception {
+        // Given...
+        URI ecosystemUrl = new URI(RestCPS.URL_SCHEMA_REST+"://my.host/api");
+        JwtProvider jwtProvider = new MockJwtProvider(JWT1);
+
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(new NamespaceNotFoundInteraction("https://my.host/api/cps/emptyNamespace/properties", JWT1));
+
+        CloseableHttpClient mockCloseableHttpClient = new MockCloseableHttpClient(interactions);
+        MockHttpClientFactory mockClientFactory = new MockHttpClientFactory(mockCloseableHttpClient);
+        RestCPS cps = new RestCPS( ecosystemUrl , mockClientFactory, jwtProvider, new MockLogFactory());
+
+        // When...
+        CacheCPS.NamespaceProperties namespaceProperties = cps.queryNamespace("emptyNamespace", null);
+
+        // Then...
+        assertThat(namespaceProperties.getProperties()).isEmpty();
+        assertThat(namespaceProperties.getEtag()).isNull();
+    }
+
+    @Test
+    public void testCacheReadingAPropertyFromAnEmptyNamespaceGetsNull() throws Exception {
+        // Given...
+        URI ecosystemUrl = new URI(RestCPS.URL_SCHEMA_REST+"://my.host/api");
+        JwtProvider jwtProvider = new MockJwtProvider(JWT1);
+
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+
+        // The cache checks whether it is enabled...
+        interactions.add(new GetNamedCPSPropertiesInteraction(
+            JWT1, "https://my.host/api/cps/framework/properties?prefix=cps.rest.cache.is.enabled", "framework",
+            "cps.rest.cache.is.enabled", "true",
+            "cps.rest.cache.revalidate.seconds", "30"
+        ));
+
+        // ...gets the list of namespaces...
+        interactions.add(new AuthenticatedHttpInteraction("https://my.host/api/cps/namespace/", JWT1) {
+            @Override
+            public void validateRequestContentType(HttpRequest request) {
+                // We don't expect a Content-type header as there is no payload sent to the server
+            }
+
+            @Override
+            public MockCloseableHttpResponse getResponse() {
+                MockCloseableHttpResponse response = new MockCloseableHttpResponse();
+                MockStatusLine statusLine = new MockStatusLine();
+                statusLine.setStatusCode(HttpStatus.SC_OK);
+                response.setStatusLine(statusLine);
+                response.setEntity(new MockHttpEntity(new GalasaGson().toJson(new String[] { "framework" })));
+                return response;
+            }
+        });
+
+        // ...and primes itself with each of them.
+        interactions.add(new GetNamedCPSPropertiesInteraction(
+            JWT1, "https://my.host/api/cps/framework/properties", "framework",
+            "cps.rest.cache.is.enabled", "true",
+            "cps.rest.cache.revalidate.seconds", "30"
+        ));
+
+        // The namespace being read has no properties, so the server doesn't know about it.
+        interactions.add(new NamespaceNotFoundInteraction("https://my.host/api/cps/emptyNamespace/properties", JWT1));
+
+        CloseableHttpClient mockCloseableHttpClient = new MockCloseableHttpClient(interactions);
+        MockHttpClientFactory mockClientFactory = new MockHttpClientFactory(mockCloseableHttpClient);
+        RestCPS restCps = new RestCPS( ecosystemUrl , mockClientFactory, jwtProvider, new MockLogFactory());
+        CacheCPS cache = new CacheCPS(restCps, new MockLogFactory());
+
+        // When...
+        String value = cache.getProperty("emptyNamespace.my.property");
+        String valueAgain = cache.getProperty("emptyNamespace.my.property");
+
+        // Then...
+        assertThat(value).isNull();
+        // The empty namespace is cached, so the second read doesn't go to the server.
+        assertThat(valueAgain).isNull();
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetPropertiesAsksForTheKeysCommonPrefixInOneRequest() throws Exception {
+        URI ecosystemUrl = new URI(RestCPS.URL_SCHEMA_REST+"://my.host/api");
+
+        JwtProvider jwtProvider = new MockJwtProvider(JWT1);
+
+        // Only one interaction, so a second request would fail the test
+        GetNamedCPSPropertiesInteraction getCPSPropertiesInteraction = new GetNamedCPSPropertiesInteraction( 
+            JWT1,"https://my.host/api/cps/myNamespace/properties?prefix=myPrefix.my", "myNamespace", 
+            "myPrefix.myMiddle.mySuffix", "abcde",
+            "myPrefix.mySuffix", "fghij"
+            );
+
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(getCPSPropertiesInteraction);
+
+        CloseableHttpClient mockCloseableHttpClient = new MockCloseableHttpClient(interactions);
+        MockHttpClientFactory mockClientFactory = new MockHttpClientFactory(mockCloseableHttpClient);
+
+        RestCPS cps = new RestCPS( ecosystemUrl , mockClientFactory, jwtProvider, new MockLogFactory());
+        Map<String,String> properties = cps.getProperties(List.of(
+            "myNamespace.myPrefix.myOtherMiddle.mySuffix",
+            "myNamespace.myPrefix.myMiddle.mySuffix",
+            "myNamespace.myPrefix.mySuffix"));
+
+        assertThat(properties).containsOnly(
+            entry("myNamespace.myPrefix.myMiddle.mySuffix", "abcde"),
+            entry("myNamespace.myPrefix.mySuffix", "fghij"));
+    }
+
     // A leading test which tests that the CPS can reach the actual server implementation.
     // Used to get test data, and check that the remote side does actually do what we think it does.
     // @Test
@@ -298,6 +430,85 @@ public class TestRestCPS {
         assertThat(properties.get(fullyQualifiedPropertyName2)).isEqualTo("fghij");
     }
 
+    @Test
+    public void testQueryNamespaceReturnsTheETagOfTheProperties() throws Exception {
+        // Given...
+        URI ecosystemUrl = new URI(RestCPS.URL_SCHEMA_REST+"://my.host/api");
+        JwtProvider jwtProvider = new MockJwtProvider(JWT1);
+
+        GetNamedCPSPropertiesInteraction getCPSPropertiesInteraction = new GetNamedCPSPropertiesInteraction( 
+            JWT1,"https://my.host/api/cps/myNamespace/properties", "myNamespace", 
+            "myPrefix.myMiddle1.mySuffix", "abcde",
+            "myPrefix.myMiddle2.mySuffix", "fghij"
+            ) {
+            @Override
+            public MockCloseableHttpResponse getResponse() {
+                MockCloseableHttpResponse response = super.getResponse();
+                response.addHeader(HttpHeaders.ETAG, "\"etag1\"");
+                return response;
+            }
+        };
+
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(getCPSPropertiesInteraction);
+
+        CloseableHttpClient mockCloseableHttpClient = new MockCloseableHttpClient(interactions);
+        MockHttpClientFactory mockClientFactory = new MockHttpClientFactory(mockCloseableHttpClient);
+        RestCPS cps = new RestCPS( ecosystemUrl , mockClientFactory, jwtProvider, new MockLogFactory());
+
+        // When...
+        CacheCPS.NamespaceProperties namespaceProperties = cps.queryNamespace("myNamespace", null);
+
+        // Then...
+        assertThat(namespaceProperties.getEtag()).isEqualTo("\"etag1\"");
+        assertThat(namespaceProperties.getProperties()).hasSize(2)
+            .containsEntry("myNamespace.myPrefix.myMiddle1.mySuffix", "abcde");
+    }
+
+    @Test
+    public void testQueryNamespaceWithMatchingETagReturnsNull() throws Exception {
+        // Given...
+        URI ecosystemUrl = new URI(RestCPS.URL_SCHEMA_REST+"://my.host/api");
+        JwtProvider jwtProvider = new MockJwtProvider(JWT1);
+
+        HttpInteraction notModifiedInteraction = new AuthenticatedHttpInteraction("https://my.host/api/cps/myNamespace/properties", JWT1) {
+            @Override
+            public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+                super.validateRequest(host,request);
+                Header[] headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+                assertThat(headers).as("The cached ETag is not being passed to the server.").hasSize(1);
+                assertThat(headers[0].getValue()).isEqualTo("\"etag1\"");
+            }
+
+            @Override
+            public void validateRequestContentType(HttpRequest request) {
+                // We don't expect a Content-type header as there is no payload sent to the server
+            }
+
+            @Override
+            public MockCloseableHttpResponse getResponse() {
+                MockCloseableHttpResponse response = new MockCloseableHttpResponse();
+                MockStatusLine statusLine = new MockStatusLine();
+                statusLine.setStatusCode(HttpStatus.SC_NOT_MODIFIED);
+                response.setStatusLine(statusLine);
+                return response;
+            }
+        };
+
+        List<HttpInteraction> interactions = new ArrayList<HttpInteraction>();
+        interactions.add(notModifiedInteraction);
+
+        CloseableHttpClient mockCloseableHttpClient = new MockCloseableHttpClient(interactions);
+        MockHttpClientFactory mockClientFactory = new MockHttpClientFactory(mockCloseableHttpClient);
+        RestCPS cps = new RestCPS( ecosystemUrl , mockClientFactory, jwtProvider, new MockLogFactory());
+
+        // When...
+        CacheCPS.NamespaceProperties namespaceProperties = cps.queryNamespace("myNamespace", "\"etag1\"");
+
+        // Then...
+        assertThat(namespaceProperties).isNull();
+    }
+
     // A leading test which tests that the CPS can reach the actual server implementation.
     // Used to get test data, and check that the remote side does actually do what we think it does.
     // @Test
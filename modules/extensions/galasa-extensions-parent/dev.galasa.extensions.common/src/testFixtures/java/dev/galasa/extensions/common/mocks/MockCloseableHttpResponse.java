@@ -6,6 +6,8 @@
 package dev.galasa.extensions.common.mocks;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 
 import org.apache.http.Header;
@@ -14,6 +16,7 @@ import org.apache.http.HttpEntity;
 import org.apache.http.ProtocolVersion;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.message.BasicHeader;
 import org.apache.http.params.*;
 
 public class MockCloseableHttpResponse implements CloseableHttpResponse {
@@ -21,6 +24,7 @@ public class MockCloseableHttpResponse implements CloseableHttpResponse {
     boolean isClosed = false ;
     StatusLine statusLine ;
     HttpEntity entity ;
+    List<Header> headers = new ArrayList<>();
 
 
 
@@ -75,33 +79,46 @@ public class MockCloseableHttpResponse implements CloseableHttpResponse {
     }
 
     @Override
-    public void addHeader(Header arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'addHeader'");
+    public void addHeader(Header header) {
+        this.headers.add(header);
     }
 
     @Override
-    public void addHeader(String arg0, String arg1) {
-        throw new UnsupportedOperationException("Unimplemented method 'addHeader'");
+    public void addHeader(String name, String value) {
+        this.headers.add(new BasicHeader(name, value));
     }
 
     @Override
-    public boolean containsHeader(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'containsHeader'");
+    public boolean containsHeader(String name) {
+        return getFirstHeader(name) != null;
     }
 
     @Override
     public Header[] getAllHeaders() {
-        throw new UnsupportedOperationException("Unimplemented method 'getAllHeaders'");
+        return this.headers.toArray(new Header[0]);
     }
 
     @Override
-    public Header getFirstHeader(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'getFirstHeader'");
+    public Header getFirstHeader(String name) {
+        Header firstHeader = null;
+        for (Header header : this.headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                firstHeader = header;
+                break;
+            }
+        }
+        return firstHeader;
     }
 
     @Override
-    public Header[] getHeaders(String arg0) {
-        throw new UnsupportedOperationException("Unimplemented method 'getHeaders'");
+    public Header[] getHeaders(String name) {
+        List<Header> matchingHeaders = new ArrayList<>();
+        for (Header header : this.headers) {
+            if (header.getName().equalsIgnoreCase(name)) {
+                matchingHeaders.add(header);
+            }
+        }
+        return matchingHeaders.toArray(new Header[0]);
     }
 
     @Override
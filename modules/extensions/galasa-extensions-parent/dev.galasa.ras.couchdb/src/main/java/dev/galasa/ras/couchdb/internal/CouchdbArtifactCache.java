@@ -0,0 +1,203 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+
+/**
+ * A size-bounded cache of artifacts on local disk, so that artifacts which are read again and again
+ * are only downloaded from CouchDB once.
+ *
+ * Artifacts are keyed by their artifact document, path and attachment revision, so a changed attachment
+ * is never served from an old copy. When the cache grows beyond its maximum size, the least recently
+ * used artifacts are deleted.
+ *
+ * The size of the cache only counts the artifacts it has downloaded itself, so the cache directory
+ * must not be shared with anything else. It is deleted when the cache is shut down.
+ */
+public class CouchdbArtifactCache {
+
+    public static final long DEFAULT_MAX_SIZE_BYTES = 512L * 1024 * 1024;
+
+    /**
+     * Downloads an artifact into the given file.
+     */
+    public interface ArtifactDownloader {
+        void download(Path targetPath) throws CouchdbException;
+    }
+
+    private static class CacheEntry {
+        private final Path path;
+        private final long size;
+
+        private CacheEntry(Path path, long size) {
+            this.path = path;
+            this.size = size;
+        }
+    }
+
+    private final Path cacheDirectory;
+    private final long maxSizeBytes;
+
+    // Kept in access order, so the first entry is the least recently used
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSizeBytes = 0;
+
+    // Stops two threads downloading the same artifact at the same time
+    private final Map<String, Object> downloadLocks = new ConcurrentHashMap<>();
+
+    public CouchdbArtifactCache(Path cacheDirectory, long maxSizeBytes) {
+        this.cacheDirectory = cacheDirectory;
+        this.maxSizeBytes = maxSizeBytes;
+    }
+
+    public static String getCacheKey(String artifactRecordId, String artifactPath, String revision) {
+        return artifactRecordId + "|" + artifactPath + "|" + revision;
+    }
+
+    /**
+     * @return true if an artifact of this size can be held in the cache
+     */
+    public boolean isCacheable(long sizeBytes) {
+        return sizeBytes <= maxSizeBytes;
+    }
+
+    /**
+     * Gets the cached copy of an artifact, downloading it first if it is not in the cache.
+     *
+     * @param key the cache key of the artifact, from {@link #getCacheKey}
+     * @param downloader downloads the artifact if it is not already cached
+     * @return the path of the cached copy
+     */
+    public Path getArtifact(String key, ArtifactDownloader downloader) throws IOException, CouchdbException {
+        Path cachedPath = getCachedPath(key);
+        if (cachedPath == null) {
+            Object downloadLock = downloadLocks.computeIfAbsent(key, k -> new Object());
+            try {
+                synchronized (downloadLock) {
+                    cachedPath = getCachedPath(key);
+                    if (cachedPath == null) {
+                        cachedPath = download(key, downloader);
+                    }
+                }
+            } finally {
+                downloadLocks.remove(key, downloadLock);
+            }
+        }
+        return cachedPath;
+    }
+
+    public synchronized long getTotalSizeBytes() {
+        return totalSizeBytes;
+    }
+
+    public synchronized int getArtifactCount() {
+        return entries.size();
+    }
+
+    private synchronized Path getCachedPath(String key) {
+        Path cachedPath = null;
+        CacheEntry entry = entries.get(key);
+        if (entry != null) {
+            if (Files.exists(entry.path)) {
+                cachedPath = entry.path;
+            } else {
+                // Something else has tidied up the file, so forget about it
+                entries.remove(key);
+                totalSizeBytes -= entry.size;
+            }
+        }
+        return cachedPath;
+    }
+
+    private Path download(String key, ArtifactDownloader downloader) throws IOException, CouchdbException {
+        Files.createDirectories(cacheDirectory);
+        Path cachedPath = cacheDirectory.resolve(getFileName(key));
+
+        // Download to a temporary file first, so a partly-downloaded artifact is never served
+        Path downloadPath = Files.createTempFile(cacheDirectory, "download", ".tmp");
+        try {
+            downloader.download(downloadPath);
+            Files.move(downloadPath, cachedPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(downloadPath);
+        }
+
+        addEntry(key, new CacheEntry(cachedPath, Files.size(cachedPath)));
+        return cachedPath;
+    }
+
+    private synchronized void addEntry(String key, CacheEntry newEntry) {
+        CacheEntry oldEntry = entries.put(key, newEntry);
+        if (oldEntry != null) {
+            totalSizeBytes -= oldEntry.size;
+        }
+        totalSizeBytes += newEntry.size;
+
+        // Evict the least recently used artifacts, but never the one just added
+        Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+        while (totalSizeBytes > maxSizeBytes && iterator.hasNext()) {
+            Map.Entry<String, CacheEntry> eldest = iterator.next();
+            if (eldest.getValue() == newEntry) {
+                continue;
+            }
+            iterator.remove();
+            totalSizeBytes -= eldest.getValue().size;
+            try {
+                // Readers which already have the file open can carry on reading it
+                Files.deleteIfExists(eldest.getValue().path);
+            } catch (IOException e) {
+            } // *** Hide any delete problems
+        }
+    }
+
+    /**
+     * Forgets every cached artifact and deletes the cache directory
+     */
+    public synchronized void shutdown() {
+        entries.clear();
+        totalSizeBytes = 0;
+
+        try (Stream<Path> paths = Files.walk(cacheDirectory)) {
+            // Delete the files before the directory they are in
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                } // *** Hide any delete problems
+            });
+        } catch (IOException e) {
+        } // *** The directory is not there, or can't be read, so there is nothing to delete
+    }
+
+    private String getFileName(String key) {
+        StringBuilder fileName = new StringBuilder();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            for (byte b : hash) {
+                fileName.append(String.format("%02x", b));
+            }
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform has SHA-256, but fall back to something unique enough just in case
+            fileName.append(Integer.toHexString(key.hashCode())).append('-').append(key.length());
+        }
+        return fileName.append(".artifact").toString();
+    }
+}
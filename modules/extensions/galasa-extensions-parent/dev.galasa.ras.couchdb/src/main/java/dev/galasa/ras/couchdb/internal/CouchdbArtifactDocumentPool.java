@@ -0,0 +1,125 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+
+/**
+ * The artifact documents of a run, which artifacts are attached to.
+ *
+ * Attaching an artifact changes the revision of its document, so only one artifact can be attached
+ * to a document at a time. Each upload borrows a document from this pool. When every document is busy,
+ * another one is created for the run, up to a maximum, so that artifacts can be uploaded concurrently.
+ * Uploads that happen one after the other all use the first document.
+ */
+public class CouchdbArtifactDocumentPool {
+
+    public static final int DEFAULT_MAX_DOCUMENTS = 4;
+
+    /**
+     * Creates a new artifact document for the run. The pool adds the document to itself.
+     */
+    public interface ArtifactDocumentCreator {
+        ArtifactDocument createArtifactDocument() throws CouchdbException;
+    }
+
+    public static class ArtifactDocument {
+        private final String id;
+        private volatile String revision;
+        private boolean isInUse = false;
+
+        public ArtifactDocument(String id, String revision) {
+            this.id = id;
+            this.revision = revision;
+        }
+
+        public String getId() {
+            return this.id;
+        }
+
+        public String getRevision() {
+            return this.revision;
+        }
+
+        public void setRevision(String revision) {
+            this.revision = revision;
+        }
+    }
+
+    private final List<ArtifactDocument> documents = new ArrayList<>();
+    private final ArtifactDocumentCreator creator;
+    private final int maxDocuments;
+    private boolean isCreatingDocument = false;
+
+    public CouchdbArtifactDocumentPool(ArtifactDocumentCreator creator, int maxDocuments) {
+        this.creator = creator;
+        this.maxDocuments = maxDocuments;
+    }
+
+    public synchronized void add(ArtifactDocument document) {
+        documents.add(document);
+        notifyAll();
+    }
+
+    public synchronized ArtifactDocument getFirstDocument() {
+        ArtifactDocument firstDocument = null;
+        if (!documents.isEmpty()) {
+            firstDocument = documents.get(0);
+        }
+        return firstDocument;
+    }
+
+    public synchronized int getDocumentCount() {
+        return documents.size();
+    }
+
+    /**
+     * Borrows an artifact document, waiting for one to be released if the pool is at its maximum size
+     * and every document is busy.
+     */
+    public ArtifactDocument acquire() throws CouchdbException, InterruptedException {
+        synchronized (this) {
+            while (true) {
+                for (ArtifactDocument document : documents) {
+                    if (!document.isInUse) {
+                        document.isInUse = true;
+                        return document;
+                    }
+                }
+
+                if (!isCreatingDocument && documents.size() < maxDocuments) {
+                    isCreatingDocument = true;
+                    break;
+                }
+                wait();
+            }
+        }
+
+        // Create the new document without holding the lock, so that other uploads can carry on
+        ArtifactDocument newDocument = null;
+        try {
+            newDocument = creator.createArtifactDocument();
+        } finally {
+            synchronized (this) {
+                isCreatingDocument = false;
+                if (newDocument != null) {
+                    newDocument.isInUse = true;
+                    documents.add(newDocument);
+                }
+                notifyAll();
+            }
+        }
+        return newDocument;
+    }
+
+    public synchronized void release(ArtifactDocument document) {
+        document.isInUse = false;
+        notifyAll();
+    }
+}
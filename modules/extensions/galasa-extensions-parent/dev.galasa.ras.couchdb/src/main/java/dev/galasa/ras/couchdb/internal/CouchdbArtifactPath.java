@@ -21,6 +21,7 @@ public class CouchdbArtifactPath extends ResultArchiveStorePath {
     private int     length;
 
     private String  artifactRecordId;
+    private String  revision;
 
     private boolean directory = false;
 
@@ -44,6 +45,12 @@ public class CouchdbArtifactPath extends ResultArchiveStorePath {
             this.contentType = "unknown";
         }
 
+        // The digest changes whenever the attachment does, so it identifies this revision of the artifact
+        JsonElement digest = artifactDetails.get("digest");
+        if (digest != null) {
+            this.revision = digest.getAsString();
+        }
+
         JsonElement len = artifactDetails.get("length");
         if (len != null) {
             this.length = len.getAsInt();
@@ -82,6 +89,10 @@ public class CouchdbArtifactPath extends ResultArchiveStorePath {
         return this.artifactRecordId;
     }
 
+    public String getRevision() {
+        return this.revision;
+    }
+
     public CoucbDbBasicAttributes readAttributes() {
         return new CoucbDbBasicAttributes(this);
     }
@@ -201,94 +201,36 @@ public class CouchdbDirectoryService implements IResultArchiveStoreDirectoryServ
 
     @Override
     public @NotNull List<String> getRequestors() throws ResultArchiveStoreException {
-        ArrayList<String> requestors = new ArrayList<>();
-
-        HttpGet httpGet = requestFactory.getHttpGetRequest(
-                store.getCouchdbUri() + "/" + RUNS_DB + "/_design/docs/_view/" + REQUESTORS_VIEW_NAME + "?group=true");
-
-        try (CloseableHttpResponse response = store.getHttpClient().execute(httpGet)) {
-            StatusLine statusLine = response.getStatusLine();
-            if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
-                throw new CouchdbRasException("Unable to find runs - " + statusLine.toString());
-            }
-
-            HttpEntity entity = response.getEntity();
-            String responseEntity = EntityUtils.toString(entity);
-            ViewResponse view = gson.fromJson(responseEntity, ViewResponse.class);
-            if (view.rows == null) {
-                throw new CouchdbRasException("Unable to find requestors - Invalid JSON response");
-            }
-
-            for (ViewRow row : view.rows) {
-                requestors.add(row.key);
-            }
-        } catch (CouchdbRasException e) {
-            throw e;
-        } catch (Exception e) {
+        List<String> requestors = new ArrayList<>();
+        try {
+            requestors.addAll(store.getViewCache().getViewKeys(REQUESTORS_VIEW_NAME));
+        } catch (CouchdbException e) {
             throw new ResultArchiveStoreException("Unable to find requestors", e);
         }
-
         return requestors;
     }
 
     @Override
     public @NotNull List<String> getResultNames() throws ResultArchiveStoreException {
-        ArrayList<String> results = new ArrayList<>();
-
-        HttpGet httpGet = requestFactory.getHttpGetRequest(
-                store.getCouchdbUri() + "/" + RUNS_DB + "/_design/docs/_view/" + RESULT_VIEW_NAME + "?group=true");
-
-        try (CloseableHttpResponse response = store.getHttpClient().execute(httpGet)) {
-            StatusLine statusLine = response.getStatusLine();
-            if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
-                throw new CouchdbRasException("Unable to find results - " + statusLine.toString());
-            }
-
-            HttpEntity entity = response.getEntity();
-            String responseEntity = EntityUtils.toString(entity);
-            ViewResponse view = gson.fromJson(responseEntity, ViewResponse.class);
-            if (view.rows == null) {
-                throw new CouchdbRasException("Unable to find results - Invalid JSON response");
-            }
-
-            for (ViewRow row : view.rows) {
-                if (row.key != null) {
-                    results.add(row.key);
+        List<String> results = new ArrayList<>();
+        try {
+            for (String resultName : store.getViewCache().getViewKeys(RESULT_VIEW_NAME)) {
+                if (resultName != null) {
+                    results.add(resultName);
                 }
             }
-        } catch (CouchdbRasException e) {
-            throw e;
-        } catch (Exception e) {
+        } catch (CouchdbException e) {
             throw new ResultArchiveStoreException("Unable to find results", e);
         }
-
         return results;
-
     }
 
     @Override
     public @NotNull List<RasTestClass> getTests() throws ResultArchiveStoreException {
         ArrayList<RasTestClass> tests = new ArrayList<>();
 
-        HttpGet httpGet = requestFactory.getHttpGetRequest(
-                store.getCouchdbUri() + "/" + RUNS_DB + "/_design/docs/_view/" + BUNDLE_TESTNAMES_VIEW_NAME
-                        + "?group=true");
-
-        try (CloseableHttpResponse response = store.getHttpClient().execute(httpGet)) {
-            StatusLine statusLine = response.getStatusLine();
-            if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
-                throw new CouchdbRasException("Unable to find tests - " + statusLine.toString());
-            }
-
-            HttpEntity entity = response.getEntity();
-            String responseEntity = EntityUtils.toString(entity);
-            ViewResponse view = gson.fromJson(responseEntity, ViewResponse.class);
-            if (view.rows == null) {
-                throw new CouchdbRasException("Unable to find rows - Invalid JSON response");
-            }
-
-            for (ViewRow row : view.rows) {
-                String bundleTestname = row.key;
+        try {
+            for (String bundleTestname : store.getViewCache().getViewKeys(BUNDLE_TESTNAMES_VIEW_NAME)) {
                 if (bundleTestname == null) {
                     continue;
                 }
@@ -307,9 +249,7 @@ public class CouchdbDirectoryService implements IResultArchiveStoreDirectoryServ
                 RasTestClass rasTestClass = new RasTestClass(testName, bundleName);
                 tests.add(rasTestClass);
             }
-        } catch (CouchdbRasException e) {
-            throw e;
-        } catch (Exception e) {
+        } catch (CouchdbException e) {
             throw new ResultArchiveStoreException("Unable to find tests", e);
         }
 
@@ -9,14 +9,14 @@ import java.io.IOException;
 import java.nio.file.DirectoryStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Set;
 import java.util.Iterator;
 
 public class CouchdbDirectoryStream implements DirectoryStream<Path> {
 
     private ArrayList<Path> children = new ArrayList<>();
 
-    public CouchdbDirectoryStream(Path dir, Filter<? super Path> filter, HashSet<CouchdbArtifactPath> paths)
+    public CouchdbDirectoryStream(Path dir, Filter<? super Path> filter, Set<CouchdbArtifactPath> paths)
             throws IOException {
         dir = dir.toAbsolutePath();
 
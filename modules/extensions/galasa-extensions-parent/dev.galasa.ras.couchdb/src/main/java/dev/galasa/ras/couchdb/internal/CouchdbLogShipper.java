@@ -0,0 +1,265 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.logging.Log;
+
+import dev.galasa.extensions.common.api.LogFactory;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Ships run log lines to the RAS on a background thread, so that test threads
+ * which write to the run log never wait for CouchDB.
+ *
+ * Lines are held in a bounded buffer. They are shipped when a full batch has
+ * built up, when the flush interval has passed, or when {@link #flush()} is
+ * called. If the buffer is full, new lines are dropped and counted rather than
+ * blocking the caller.
+ */
+public class CouchdbLogShipper {
+
+    public static final int  DEFAULT_BUFFER_CAPACITY       = 50000;
+    public static final int  DEFAULT_BATCH_SIZE            = 100;
+    public static final int  DEFAULT_MAX_BATCHES_PER_WRITE = 20;
+    public static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 2000;
+
+    /**
+     * Writes batches of log lines to the RAS, in order, in a single request.
+     */
+    public interface LogBatchWriter {
+        void writeLogBatches(List<List<String>> batches) throws ResultArchiveStoreException;
+    }
+
+    private final Log                         logger;
+    private final LogBatchWriter              writer;
+    private final ITimeService                timeService;
+
+    private final ArrayBlockingQueue<String>  buffer;
+    private final int                         batchSize;
+    private final int                         maxBatchesPerWrite;
+    private final long                        flushIntervalMillis;
+
+    // Only one thread ships lines at a time, so that log documents are stored in order
+    private final ReentrantLock               shipLock = new ReentrantLock();
+    private final Object                      wakeUp   = new Object();
+    private boolean                           isFlushRequested = false;
+    private volatile boolean                  isShutdown = false;
+    private Thread                            shipperThread;
+
+    private final AtomicLong                  shippedLineCount     = new AtomicLong();
+    private final AtomicLong                  droppedLineCount     = new AtomicLong();
+    private final AtomicLong                  flushCount           = new AtomicLong();
+    private final AtomicLong                  lastFlushLatencyMillis = new AtomicLong();
+    private final AtomicLong                  maxFlushLatencyMillis  = new AtomicLong();
+    private volatile boolean                  isDropReported = false;
+
+    public CouchdbLogShipper(LogBatchWriter writer, LogFactory logFactory, ITimeService timeService) {
+        this(writer, logFactory, timeService, DEFAULT_BUFFER_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_MAX_BATCHES_PER_WRITE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    public CouchdbLogShipper(LogBatchWriter writer, LogFactory logFactory, ITimeService timeService,
+        int bufferCapacity, int batchSize, int maxBatchesPerWrite, long flushIntervalMillis
+    ) {
+        this.logger = logFactory.getLog(getClass());
+        this.writer = writer;
+        this.timeService = timeService;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxBatchesPerWrite = maxBatchesPerWrite;
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public synchronized void start() {
+        if (shipperThread == null) {
+            shipperThread = new Thread(this::run, "couchdb-ras-log-shipper");
+            shipperThread.setDaemon(true);
+            shipperThread.start();
+        }
+    }
+
+    /**
+     * Adds lines to the buffer without blocking.
+     * @param lines the log lines to ship
+     * @return the number of lines accepted. Any others were dropped because the buffer was full.
+     */
+    public int offer(String[] lines) {
+        int accepted = 0;
+        for (String line : lines) {
+            if (buffer.offer(line)) {
+                accepted++;
+            }
+        }
+
+        int dropped = lines.length - accepted;
+        if (dropped > 0) {
+            droppedLineCount.addAndGet(dropped);
+            if (!isDropReported) {
+                isDropReported = true;
+                logger.warn("The run log buffer is full, log lines are being dropped until the RAS catches up");
+            }
+        }
+
+        if (buffer.size() >= batchSize) {
+            wakeShipper(false);
+        }
+        return accepted;
+    }
+
+    /**
+     * Ships every buffered line on the calling thread.
+     */
+    public void flush() throws ResultArchiveStoreException {
+        ship(true);
+    }
+
+    /**
+     * Stops the background thread and ships any lines still buffered.
+     */
+    public void shutdown() throws ResultArchiveStoreException {
+        isShutdown = true;
+        wakeShipper(true);
+
+        Thread thread;
+        synchronized (this) {
+            thread = shipperThread;
+        }
+        if (thread != null && thread != Thread.currentThread()) {
+            try {
+                thread.join(flushIntervalMillis * 2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        ship(true);
+    }
+
+    public long getQueuedLineCount() {
+        return buffer.size();
+    }
+
+    public long getShippedLineCount() {
+        return shippedLineCount.get();
+    }
+
+    public long getDroppedLineCount() {
+        return droppedLineCount.get();
+    }
+
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    public long getLastFlushLatencyMillis() {
+        return lastFlushLatencyMillis.get();
+    }
+
+    public long getMaxFlushLatencyMillis() {
+        return maxFlushLatencyMillis.get();
+    }
+
+    private void wakeShipper(boolean isFlushRequired) {
+        synchronized (wakeUp) {
+            if (isFlushRequired) {
+                isFlushRequested = true;
+            }
+            wakeUp.notifyAll();
+        }
+    }
+
+    private void run() {
+        while (!isShutdown) {
+            boolean isFullFlush;
+            try {
+                synchronized (wakeUp) {
+                    long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                    long remainingMillis = flushIntervalMillis;
+                    while (!isFlushRequested && !isShutdown && buffer.size() < batchSize && remainingMillis > 0) {
+                        wakeUp.wait(remainingMillis);
+                        remainingMillis = deadline - System.currentTimeMillis();
+                    }
+                    // Unless asked to, only ship whole batches until the flush interval has passed
+                    isFullFlush = isFlushRequested || buffer.size() < batchSize;
+                    isFlushRequested = false;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            if (isShutdown) {
+                break;
+            }
+
+            try {
+                ship(isFullFlush);
+            } catch (ResultArchiveStoreException e) {
+                logger.error("Unable to ship the run log to the RAS", e);
+            }
+        }
+    }
+
+    private void ship(boolean isFullFlush) throws ResultArchiveStoreException {
+        shipLock.lock();
+        try {
+            ResultArchiveStoreException firstFailure = null;
+            while (true) {
+                int available = buffer.size();
+                if (!isFullFlush) {
+                    available = available - (available % batchSize);
+                }
+                if (available <= 0) {
+                    break;
+                }
+
+                List<String> lines = new ArrayList<>(Math.min(available, batchSize * maxBatchesPerWrite));
+                buffer.drainTo(lines, Math.min(available, batchSize * maxBatchesPerWrite));
+                if (lines.isEmpty()) {
+                    break;
+                }
+
+                List<List<String>> batches = new ArrayList<>();
+                for (int start = 0; start < lines.size(); start += batchSize) {
+                    batches.add(lines.subList(start, Math.min(start + batchSize, lines.size())));
+                }
+
+                Instant startTime = timeService.now();
+                try {
+                    writer.writeLogBatches(batches);
+                    shippedLineCount.addAndGet(lines.size());
+                    isDropReported = false;
+                } catch (ResultArchiveStoreException e) {
+                    droppedLineCount.addAndGet(lines.size());
+                    if (firstFailure == null) {
+                        firstFailure = e;
+                    }
+                }
+                recordFlushLatency(Duration.between(startTime, timeService.now()).toMillis());
+            }
+
+            if (firstFailure != null) {
+                throw firstFailure;
+            }
+        } finally {
+            shipLock.unlock();
+        }
+    }
+
+    private void recordFlushLatency(long latencyMillis) {
+        flushCount.incrementAndGet();
+        lastFlushLatencyMillis.set(latencyMillis);
+        maxFlushLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+    }
+}
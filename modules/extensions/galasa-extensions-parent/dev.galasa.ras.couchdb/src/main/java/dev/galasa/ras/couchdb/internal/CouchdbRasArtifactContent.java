@@ -0,0 +1,211 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.FileEntity;
+
+/**
+ * Holds the content of an artifact while it is being written, before it is uploaded.
+ *
+ * Small artifacts are held in memory. Once an artifact grows beyond the spill size, its content
+ * is moved to a temporary file and written there instead, so large artifacts are never held in memory.
+ * Either way, the upload entity streams from where the content already is, without copying it again.
+ */
+public class CouchdbRasArtifactContent implements SeekableByteChannel {
+
+    public static final int DEFAULT_SPILL_SIZE = 1024 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 8192;
+
+    private final int spillSize;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private int size = 0;
+    private long position = 0;
+
+    private Path spillPath;
+    private SeekableByteChannel spillChannel;
+
+    private boolean isOpen = true;
+
+    public CouchdbRasArtifactContent() {
+        this(DEFAULT_SPILL_SIZE);
+    }
+
+    public CouchdbRasArtifactContent(int spillSize) {
+        this.spillSize = spillSize;
+    }
+
+    public boolean isSpilled() {
+        return spillChannel != null;
+    }
+
+    /**
+     * @return a repeatable entity of the content, which can be sent more than once if the upload is retried.
+     */
+    public HttpEntity createEntity() {
+        HttpEntity entity;
+        if (isSpilled()) {
+            entity = new FileEntity(spillPath.toFile());
+        } else {
+            entity = new ByteArrayEntity(buffer, 0, size);
+        }
+        return entity;
+    }
+
+    /**
+     * Releases the content, deleting the temporary file if one was used.
+     */
+    public void discard() {
+        try {
+            close();
+        } catch (IOException e) {
+        } // *** Hide any close problems
+
+        buffer = null;
+        if (spillPath != null) {
+            try {
+                Files.delete(spillPath);
+            } catch (Exception e) {
+            } // *** Hide any delete problems
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return isOpen;
+    }
+
+    @Override
+    public void close() throws IOException {
+        isOpen = false;
+        if (spillChannel != null) {
+            spillChannel.close();
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        checkOpen();
+        if (isSpilled()) {
+            return spillChannel.read(dst);
+        }
+
+        if (position >= size) {
+            return -1;
+        }
+        int length = (int) Math.min(dst.remaining(), size - position);
+        dst.put(buffer, (int) position, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        checkOpen();
+        int length = src.remaining();
+        if (!isSpilled() && position + length > spillSize) {
+            spill();
+        }
+
+        if (isSpilled()) {
+            return spillChannel.write(src);
+        }
+
+        int end = (int) position + length;
+        if (end > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, end), spillSize));
+        }
+        src.get(buffer, (int) position, length);
+        position = end;
+        size = Math.max(size, end);
+        return length;
+    }
+
+    @Override
+    public long position() throws IOException {
+        checkOpen();
+        if (isSpilled()) {
+            return spillChannel.position();
+        }
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        if (isSpilled()) {
+            spillChannel.position(newPosition);
+        } else {
+            position = newPosition;
+        }
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        checkOpen();
+        if (isSpilled()) {
+            return spillChannel.size();
+        }
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long newSize) throws IOException {
+        checkOpen();
+        if (newSize < 0) {
+            throw new IllegalArgumentException("Size must not be negative");
+        }
+        if (isSpilled()) {
+            spillChannel.truncate(newSize);
+        } else {
+            if (newSize < size) {
+                // Clear the removed bytes, in case a later write leaves a gap over them
+                Arrays.fill(buffer, (int) newSize, size, (byte) 0);
+                size = (int) newSize;
+            }
+            if (position > newSize) {
+                position = newSize;
+            }
+        }
+        return this;
+    }
+
+    // Moves the content written so far into a temporary file, which all later writes go to
+    private void spill() throws IOException {
+        spillPath = Files.createTempFile("galasa_couchdb", "temp");
+        spillChannel = Files.newByteChannel(spillPath, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer content = ByteBuffer.wrap(buffer, 0, size);
+        while (content.hasRemaining()) {
+            spillChannel.write(content);
+        }
+        spillChannel.position(position);
+        buffer = null;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!isOpen) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -12,7 +12,6 @@ import java.nio.file.AccessMode;
 import java.nio.file.DirectoryStream;
 import java.nio.file.DirectoryStream.Filter;
 import java.nio.file.FileStore;
-import java.nio.file.Files;
 import java.nio.file.LinkOption;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -26,6 +25,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import dev.galasa.ResultArchiveStoreContentType;
 import dev.galasa.SetContentType;
@@ -39,9 +39,10 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
     private static final String                                BASIC_SIZE       = "size";
     private static final String                                POSIX_SIZE       = "posix:size";
 
-    private final HashMap<Path, ResultArchiveStoreContentType> contentTypes     = new HashMap<>();
+    // Artifacts can be written by several threads at the same time
+    private final Map<Path, ResultArchiveStoreContentType>     contentTypes     = new ConcurrentHashMap<>();
 
-    private final HashSet<CouchdbArtifactPath>                 paths            = new HashSet<>();
+    private final Set<CouchdbArtifactPath>                     paths            = ConcurrentHashMap.newKeySet();
 
     private final CouchdbRasStore                              couchdbRasStore;
 
@@ -115,13 +116,11 @@ public class CouchdbRasFileSystemProvider extends ResultArchiveStoreFileSystemPr
                 }
             }
 
-            Path cachePath = Files.createTempFile("galasa_couchdb", "temp");
             try {
-                couchdbRasStore.retrieveArtifact(cdbPath, cachePath);
+                return new CouchdbRasReadByteChannel(couchdbRasStore, couchdbRasStore.getArtifactCache(), cdbPath);
             } catch (CouchdbException e) {
                 throw new IOException("Unable to retrieve artifact", e);
             }
-            return new CouchdbRasReadByteChannel(cachePath);
         }
     }
 
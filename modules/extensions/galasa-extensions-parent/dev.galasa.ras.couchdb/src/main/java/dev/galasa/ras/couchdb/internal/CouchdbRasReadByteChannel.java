@@ -6,25 +6,52 @@
 package dev.galasa.ras.couchdb.internal;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+
 /**
- * Dummy Byte Channel for a null Result Archive Store
- *
- * @author Michael Baylis
+ * Read-only byte channel over an artifact stored in CouchDB.
  *
+ * An artifact that is read from the start is served from the local artifact cache,
+ * downloading it into the cache first if need be. Artifacts which cannot be cached, or which
+ * are read from part-way through, are streamed straight from CouchDB using HTTP range requests
+ * for just the bytes asked for.
  */
 public class CouchdbRasReadByteChannel implements SeekableByteChannel {
 
-    private final Path                cachePath;
-    private final SeekableByteChannel cacheByteChannel;
+    private static final int            STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final CouchdbRasStore       couchdbRasStore;
+    private final CouchdbArtifactCache  artifactCache;
+    private final CouchdbArtifactPath   artifactPath;
+
+    private long                        position = 0;
+    private long                        size = -1;
+    private boolean                     isOpen = true;
+    private boolean                     isCacheChecked = false;
+
+    private SeekableByteChannel         cachedChannel;
+
+    // The open range request, if bytes are being streamed from CouchDB
+    private InputStream                 streamInput;
+    private long                        streamPosition;
+    private byte[]                      streamBuffer;
 
-    public CouchdbRasReadByteChannel(Path cachePath) throws IOException {
-        this.cachePath = cachePath;
-        this.cacheByteChannel = Files.newByteChannel(cachePath);
+    public CouchdbRasReadByteChannel(CouchdbRasStore couchdbRasStore, CouchdbArtifactCache artifactCache, CouchdbArtifactPath artifactPath) {
+        this.couchdbRasStore = couchdbRasStore;
+        this.artifactCache = artifactCache;
+        this.artifactPath = artifactPath;
+        if (artifactPath.getLength() > 0) {
+            this.size = artifactPath.getLength();
+        }
     }
 
     /*
@@ -34,7 +61,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public boolean isOpen() {
-        return cacheByteChannel.isOpen();
+        return isOpen;
     }
 
     /*
@@ -44,11 +71,11 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public void close() throws IOException {
-        cacheByteChannel.close();
-        try {
-            Files.delete(cachePath);
-        } catch (Exception e) {
-        } // *** Hide any delete problems
+        isOpen = false;
+        closeStream();
+        if (cachedChannel != null) {
+            cachedChannel.close();
+        }
     }
 
     /*
@@ -58,7 +85,26 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public int read(ByteBuffer dst) throws IOException {
-        return cacheByteChannel.read(dst);
+        checkOpen();
+
+        // Only whole reads are worth caching, partial reads go straight to CouchDB
+        if (!isCacheChecked && position == 0) {
+            isCacheChecked = true;
+            openCachedArtifact();
+        }
+
+        int bytesRead;
+        if (cachedChannel != null) {
+            cachedChannel.position(position);
+            bytesRead = cachedChannel.read(dst);
+        } else {
+            bytesRead = readFromCouchdb(dst);
+        }
+
+        if (bytesRead > 0) {
+            position += bytesRead;
+        }
+        return bytesRead;
     }
 
     /*
@@ -68,7 +114,7 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public int write(ByteBuffer src) throws IOException {
-        return cacheByteChannel.write(src);
+        throw new NonWritableChannelException();
     }
 
     /*
@@ -78,7 +124,8 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public long position() throws IOException {
-        return cacheByteChannel.position();
+        checkOpen();
+        return position;
     }
 
     /*
@@ -88,7 +135,12 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public SeekableByteChannel position(long newPosition) throws IOException {
-        return cacheByteChannel.position(newPosition);
+        checkOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must not be negative");
+        }
+        this.position = newPosition;
+        return this;
     }
 
     /*
@@ -98,7 +150,19 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public long size() throws IOException {
-        return cacheByteChannel.size();
+        checkOpen();
+        if (size < 0) {
+            if (cachedChannel != null) {
+                size = cachedChannel.size();
+            } else {
+                try {
+                    size = couchdbRasStore.getArtifactSize(artifactPath);
+                } catch (CouchdbException e) {
+                    throw new IOException("Unable to find the size of artifact " + artifactPath.toString(), e);
+                }
+            }
+        }
+        return size;
     }
 
     /*
@@ -108,7 +172,72 @@ public class CouchdbRasReadByteChannel implements SeekableByteChannel {
      */
     @Override
     public SeekableByteChannel truncate(long size) throws IOException {
-        return cacheByteChannel.truncate(size);
+        throw new NonWritableChannelException();
+    }
+
+    private void openCachedArtifact() throws IOException {
+        String revision = artifactPath.getRevision();
+        if (artifactCache == null || artifactPath.getArtifactRecordId() == null || revision == null
+                || !artifactCache.isCacheable(size)) {
+            return;
+        }
+
+        String key = CouchdbArtifactCache.getCacheKey(artifactPath.getArtifactRecordId(), artifactPath.toString(), revision);
+        try {
+            Path cachedPath = artifactCache.getArtifact(key, targetPath -> couchdbRasStore.retrieveArtifact(artifactPath, targetPath));
+            cachedChannel = Files.newByteChannel(cachedPath);
+        } catch (NoSuchFileException e) {
+            // The artifact was evicted from the cache as we went to open it, so stream it instead
+            cachedChannel = null;
+        } catch (CouchdbException e) {
+            throw new IOException("Unable to retrieve artifact", e);
+        }
     }
 
+    private int readFromCouchdb(ByteBuffer dst) throws IOException {
+        if (size >= 0 && position >= size) {
+            return -1;
+        }
+
+        // Start a new range request if this read doesn't carry on from the last one
+        if (streamInput == null || streamPosition != position) {
+            closeStream();
+            try {
+                streamInput = couchdbRasStore.openArtifactRange(artifactPath, position);
+                streamPosition = position;
+            } catch (CouchdbException e) {
+                closeStream();
+                throw new IOException("Unable to retrieve artifact", e);
+            }
+        }
+
+        if (streamBuffer == null) {
+            streamBuffer = new byte[STREAM_BUFFER_SIZE];
+        }
+
+        int bytesRead = streamInput.read(streamBuffer, 0, Math.min(dst.remaining(), streamBuffer.length));
+        if (bytesRead > 0) {
+            dst.put(streamBuffer, 0, bytesRead);
+            streamPosition += bytesRead;
+        } else if (bytesRead < 0) {
+            closeStream();
+        }
+        return bytesRead;
+    }
+
+    private void closeStream() {
+        if (streamInput != null) {
+            try {
+                streamInput.close();
+            } catch (IOException e) {
+            } // *** Hide any close problems
+        }
+        streamInput = null;
+    }
+
+    private void checkOpen() throws ClosedChannelException {
+        if (!isOpen) {
+            throw new ClosedChannelException();
+        }
+    }
 }
@@ -5,24 +5,31 @@
  */
 package dev.galasa.ras.couchdb.internal;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import javax.validation.constraints.NotNull;
 import org.apache.commons.logging.Log;
+import org.apache.http.Header;
 import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.entity.StringEntity;
 import org.apache.http.impl.client.CloseableHttpClient;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IResultArchiveStoreService;
@@ -47,6 +54,8 @@ import dev.galasa.extensions.common.impl.HttpRequestFactoryImpl;
 import dev.galasa.extensions.common.api.HttpRequestFactory;
 import dev.galasa.extensions.common.impl.LogFactoryImpl;
 import dev.galasa.ras.couchdb.internal.pojos.Artifacts;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocs;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
 import dev.galasa.ras.couchdb.internal.pojos.LogLines;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
@@ -84,11 +93,17 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
     private long                               logOrder           = 0;
 
-    private final ArrayList<String>            logCache           = new ArrayList<>(100);
+    private CouchdbLogShipper                  logShipper;
+
+    private CouchdbArtifactCache               artifactCache;
+
+    private CouchdbViewCache                   viewCache;
 
     private ArrayList<String>                  logIds             = new ArrayList<>();
+    // The bytes of each stored log line plus one for its line separator
+    private long                               logByteCount       = 0;
     private ArrayList<String>                  artifactDocumentId = new ArrayList<>();;
-    private String                             artifactDocumentRev;
+    private CouchdbArtifactDocumentPool        artifactDocuments;
 
     private TestStructure                      lastTestStructure;
     private ITimeService                       timeService ;
@@ -127,6 +142,7 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         // *** If this is a run, ensure we can create/update the run document
         if (this.run != null) {
             initialiseRunDocument();
+            initialiseLogShipper();
         }
 
         ResultArchiveStoreFileStore fileStore = new ResultArchiveStoreFileStore();
@@ -152,9 +168,38 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
             throw new CouchdbException("Validation failed - unable to create initial run document", e);
         }
 
+        int maxArtifactDocuments = getCpsIntSetting(CpsPropertyDef.MAX_ARTIFACT_DOCUMENTS, CouchdbArtifactDocumentPool.DEFAULT_MAX_DOCUMENTS);
+        this.artifactDocuments = new CouchdbArtifactDocumentPool(this::createAdditionalArtifactDocument, maxArtifactDocuments);
+
         createArtifactDocument();
     }
 
+    private void initialiseLogShipper() throws CouchdbException {
+        int bufferCapacity = getCpsIntSetting(CpsPropertyDef.LOG_BUFFER_CAPACITY, CouchdbLogShipper.DEFAULT_BUFFER_CAPACITY);
+        long flushIntervalMillis = getCpsIntSetting(CpsPropertyDef.LOG_FLUSH_INTERVAL_MILLIS, (int) CouchdbLogShipper.DEFAULT_FLUSH_INTERVAL_MILLIS);
+
+        this.logShipper = new CouchdbLogShipper(this::writeLogBatches, logFactory, timeService,
+            bufferCapacity, CouchdbLogShipper.DEFAULT_BATCH_SIZE, CouchdbLogShipper.DEFAULT_MAX_BATCHES_PER_WRITE, flushIntervalMillis);
+        this.logShipper.start();
+    }
+
+    // Gets a positive number from the CPS, or the default value if there is no CPS or the property is not set
+    private int getCpsIntSetting(CpsPropertyDef property, int defaultValue) throws CouchdbException {
+        int value = defaultValue;
+        try {
+            IConfigurationPropertyStoreService cps = this.framework.getConfigurationPropertyService(property.getNamespace());
+            if (cps != null) {
+                int cpsValue = property.getCpsIntValue(logger, cps);
+                if (cpsValue > 0) {
+                    value = cpsValue;
+                }
+            }
+        } catch (ConfigurationPropertyStoreException | CouchdbRasException e) {
+            throw new CouchdbException("Unable to read property " + property.getPropertyName() + " from the CPS", e);
+        }
+        return value;
+    }
+
     // Protected so that we can create artifact documents from elsewhere.
     protected void createArtifactDocument() throws CouchdbException {
         Artifacts artifacts = new Artifacts();
@@ -168,8 +213,42 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         String jsonArtifacts = gson.toJson(artifacts);
         PutPostResponse putPostResponse = createDocument(ARTIFACTS_DB, jsonArtifacts);
-        this.artifactDocumentId.add(putPostResponse.id);
-        this.artifactDocumentRev = putPostResponse.rev;
+        synchronized (this) {
+            this.artifactDocumentId.add(putPostResponse.id);
+        }
+        this.artifactDocuments.add(new CouchdbArtifactDocumentPool.ArtifactDocument(putPostResponse.id, putPostResponse.rev));
+    }
+
+    // Called when every artifact document is busy with an upload, the pool adds the new document itself
+    private CouchdbArtifactDocumentPool.ArtifactDocument createAdditionalArtifactDocument() throws CouchdbException {
+        Artifacts artifacts = new Artifacts();
+        artifacts.runId = this.runDocumentId;
+        artifacts.runName = this.run.getName();
+
+        PutPostResponse putPostResponse = createDocument(ARTIFACTS_DB, gson.toJson(artifacts));
+
+        // Record the new document in the run document, so the artifacts attached to it can be found
+        synchronized (this) {
+            this.artifactDocumentId.add(putPostResponse.id);
+            try {
+                updateTestStructure(lastTestStructure);
+            } catch (ResultArchiveStoreException e) {
+                throw new CouchdbException("Unable to record the new artifact document in the run document", e);
+            }
+        }
+        return new CouchdbArtifactDocumentPool.ArtifactDocument(putPostResponse.id, putPostResponse.rev);
+    }
+
+    /**
+     * Borrows one of the run's artifact documents to attach an artifact to.
+     * It must be given back with {@link #releaseArtifactDocument}.
+     */
+    public CouchdbArtifactDocumentPool.ArtifactDocument acquireArtifactDocument() throws CouchdbException, InterruptedException {
+        return this.artifactDocuments.acquire();
+    }
+
+    public void releaseArtifactDocument(CouchdbArtifactDocumentPool.ArtifactDocument artifactDocument) {
+        this.artifactDocuments.release(artifactDocument);
     }
 
     @Override
@@ -180,46 +259,51 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         String[] lines = message.split("\r\n?|\n");
 
-        synchronized (logCache) {
-            logCache.addAll(Arrays.asList(lines));
-            if (logCache.size() >= 100) {
-                flushLogCache();
-            }
-        }
-
-        updateRunLogLineCountSoFar(lines.length);
+        // Lines are shipped to the RAS in the background, so logging never waits for CouchDB.
+        // Lines dropped because the buffer is full never reach the RAS, so they are not counted.
+        updateRunLogLineCountSoFar(logShipper.offer(lines));
 
     }
 
-    private void flushLogCache() throws ResultArchiveStoreException {
-        LogLines logLines = new LogLines();
-        synchronized (logCache) {
-            if (logCache.isEmpty()) {
-                return;
-            }
-            logLines.lines = new ArrayList<>(logCache);
+    // Stores each batch of lines as its own log document, using one request to _bulk_docs
+    private void writeLogBatches(List<List<String>> batches) throws ResultArchiveStoreException {
+        BulkDocs<LogLines> bulkDocs = new BulkDocs<>();
+        bulkDocs.docs = new ArrayList<>(batches.size());
+        for (List<String> batch : batches) {
+            LogLines logLines = new LogLines();
+            logLines.lines = batch;
             logOrder++;
             logLines.order = logOrder;
-
-            logCache.clear();
+            logLines.runName = this.run.getName();
+            logLines.runId = this.runDocumentId;
+            bulkDocs.docs.add(logLines);
         }
-        logLines.runName = this.run.getName();
-        logLines.runId = this.runDocumentId;
 
-        String jsonStructure = gson.toJson(logLines);
+        String jsonStructure = gson.toJson(bulkDocs);
 
-        HttpPost request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/"+LOG_DB);
+        HttpPost request = httpRequestFactory.getHttpPostRequest(this.storeUri + "/" + LOG_DB + "/_bulk_docs");
         request.setEntity(new StringEntity(jsonStructure, StandardCharsets.UTF_8));
 
         try{
             String entity = sendHttpRequest(request, HttpStatus.SC_CREATED);
-            PutPostResponse putPostResponse = gson.fromJson(entity, PutPostResponse.class);
-            if (putPostResponse.id == null || putPostResponse.rev == null) {
-                throw new CouchdbException("Unable to store the test structure - Invalid JSON response");
+            BulkDocsResult[] results = gson.fromJson(entity, BulkDocsResult[].class);
+            if (results == null || results.length != batches.size()) {
+                throw new CouchdbException("Unable to store the test log - Invalid JSON response");
             }
 
-            this.logIds.add(putPostResponse.id);
-            this.updateTestStructure(lastTestStructure);
+            List<String> storedIds = new ArrayList<>(results.length);
+            long storedByteCount = 0;
+            for (int i = 0; i < results.length; i++) {
+                BulkDocsResult result = results[i];
+                if (result.id == null || result.rev == null) {
+                    logger.error("Unable to store part of the test log - " + result.error + ": " + result.reason);
+                } else {
+                    storedIds.add(result.id);
+                    storedByteCount += getByteCount(batches.get(i));
+                }
+            }
+
+            recordLogIds(storedIds, storedByteCount);
         } catch (CouchdbException e) {
             throw new ResultArchiveStoreException(e);
         } catch (Exception e) {
@@ -227,6 +311,22 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         }
     }
 
+    private long getByteCount(List<String> lines) {
+        long byteCount = 0;
+        for (String line : lines) {
+            byteCount += line.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        return byteCount;
+    }
+
+    private synchronized void recordLogIds(List<String> storedIds, long storedByteCount) throws ResultArchiveStoreException {
+        if (!storedIds.isEmpty()) {
+            this.logIds.addAll(storedIds);
+            this.logByteCount += storedByteCount;
+            this.updateTestStructure(lastTestStructure);
+        }
+    }
+
     @Override
     public void writeLog(@NotNull List<String> messages) throws ResultArchiveStoreException {
         if (this.run == null) {
@@ -252,6 +352,14 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
         return this.runLogLineCount;
     }
 
+    /**
+     * @return the shipper of run log lines, which also holds the log shipping metrics,
+     * or null if this is not a run.
+     */
+    public CouchdbLogShipper getLogShipper() {
+        return this.logShipper;
+    }
+
     @Override
     public synchronized void updateTestStructure(@NotNull String runId, @NotNull TestStructure testStructure)
             throws ResultArchiveStoreException {
@@ -322,6 +430,8 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
         this.lastTestStructure = testStructure;
         this.lastTestStructure.setLogRecordIds(this.logIds);
+        // The log is served with its lines separated by newlines, with no newline after the last line
+        this.lastTestStructure.setLogSize(Math.max(0, this.logByteCount - 1));
         this.lastTestStructure.setArtifactRecordIds(this.artifactDocumentId);
         this.lastTestStructure.normalise();
 
@@ -350,44 +460,163 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     }
 
     public void retrieveArtifact(CouchdbArtifactPath path, Path cachePath) throws CouchdbException {
-        String artifactRecordId = path.getArtifactRecordId();
+        retrieveArtifactFromDatabase(getArtifactUri(path), cachePath,StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Opens a stream of an artifact's content, starting part-way through using an HTTP range request.
+     * Closing the stream ends the request.
+     */
+    public InputStream openArtifactRange(CouchdbArtifactPath path, long start) throws CouchdbException {
+        HttpGet httpGet = httpRequestFactory.getHttpGetRequest(getArtifactUri(path));
+        if (start > 0) {
+            httpGet.setHeader("Range", "bytes=" + start + "-");
+        }
+
+        CloseableHttpResponse response = null;
+        try {
+            response = this.httpClient.execute(httpGet);
+            int statusCode = response.getStatusLine().getStatusCode();
+            if (statusCode != HttpStatus.SC_OK && statusCode != HttpStatus.SC_PARTIAL_CONTENT) {
+                throw new CouchdbException("Unable to retrieve artifact - " + response.getStatusLine().toString());
+            }
+
+            final CloseableHttpResponse openResponse = response;
+            InputStream content = new FilterInputStream(response.getEntity().getContent()) {
+                @Override
+                public void close() throws IOException {
+                    openResponse.close();
+                }
+            };
+
+            // If the range was ignored, the whole artifact was sent, so skip to the start of the range
+            if (statusCode == HttpStatus.SC_OK) {
+                long toSkip = start;
+                while (toSkip > 0) {
+                    long skipped = content.skip(toSkip);
+                    if (skipped <= 0) {
+                        break;
+                    }
+                    toSkip -= skipped;
+                }
+            }
+            return content;
+        } catch (IOException e) {
+            closeQuietly(response);
+            throw new CouchdbException("Unable to retrieve artifact", e);
+        } catch (CouchdbException e) {
+            closeQuietly(response);
+            throw e;
+        }
+    }
+
+    public long getArtifactSize(CouchdbArtifactPath path) throws CouchdbException {
+        HttpHead httpHead = httpRequestFactory.getHttpHeadRequest(getArtifactUri(path));
+        try (CloseableHttpResponse response = this.httpClient.execute(httpHead)) {
+            if (response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+                throw new CouchdbException("Unable to find artifact - " + response.getStatusLine().toString());
+            }
+            Header contentLength = response.getFirstHeader("Content-Length");
+            if (contentLength == null) {
+                throw new CouchdbException("Unable to find the size of the artifact - no Content-Length returned");
+            }
+            return Long.parseLong(contentLength.getValue());
+        } catch (IOException | NumberFormatException e) {
+            throw new CouchdbException("Unable to find the size of the artifact", e);
+        }
+    }
+
+    private String getArtifactUri(CouchdbArtifactPath path) throws CouchdbException {
         String encodedPath;
         try {
             encodedPath = URLEncoder.encode(path.toString(), "utf-8");
         } catch (UnsupportedEncodingException e) {
             throw new CouchdbException("Problem encoding artifact path", e);
         }
+        return this.storeUri + "/"+ARTIFACTS_DB+"/" + path.getArtifactRecordId() + "/" + encodedPath;
+    }
 
-        String artifactURI= this.storeUri + "/"+ARTIFACTS_DB+"/" + artifactRecordId + "/" + encodedPath;
-        retrieveArtifactFromDatabase(artifactURI, cachePath,StandardCopyOption.REPLACE_EXISTING);
+    private void closeQuietly(CloseableHttpResponse response) {
+        if (response != null) {
+            try {
+                response.close();
+            } catch (IOException e) {
+            } // *** Hide any close problems
+        }
+    }
+
+    /**
+     * @return the local disk cache of artifacts read from this store, which is created the first time it is needed.
+     */
+    public synchronized CouchdbArtifactCache getArtifactCache() throws CouchdbException {
+        if (this.artifactCache == null) {
+            int defaultMaxSizeMegabytes = (int) (CouchdbArtifactCache.DEFAULT_MAX_SIZE_BYTES / (1024L * 1024L));
+            long maxSizeBytes = getCpsIntSetting(CpsPropertyDef.ARTIFACT_CACHE_MAX_SIZE_MB, defaultMaxSizeMegabytes) * 1024L * 1024L;
+
+            // Each store has a directory of its own, so its cache never counts or deletes another's artifacts
+            Path cacheDirectory;
+            try {
+                cacheDirectory = Files.createTempDirectory("galasa_couchdb_artifacts_");
+            } catch (IOException e) {
+                throw new CouchdbException("Unable to create the artifact cache directory", e);
+            }
+            this.artifactCache = new CouchdbArtifactCache(cacheDirectory, maxSizeBytes);
+        }
+        return this.artifactCache;
+    }
+
+    /**
+     * @return the cache of grouped views over the runs database, which is created the first time it is needed.
+     */
+    public synchronized CouchdbViewCache getViewCache() throws CouchdbException {
+        if (this.viewCache == null) {
+            int defaultTtlSeconds = (int) (CouchdbViewCache.DEFAULT_TTL_MILLIS / 1000L);
+            long ttlMillis = getCpsIntSetting(CpsPropertyDef.VIEW_CACHE_TTL_SECONDS, defaultTtlSeconds) * 1000L;
+
+            CouchdbRunsViewSource viewSource = new CouchdbRunsViewSource(this, this.httpRequestFactory);
+            this.viewCache = new CouchdbViewCache(viewSource, this.timeService, ttlMillis);
+        }
+        return this.viewCache;
     }
 
     public String getLog(TestStructure ts) throws ResultArchiveStoreException {
         StringBuilder sb = new StringBuilder();
 
         for (String logRecordId : ts.getLogRecordIds()) {
-            HttpGet httpGet = httpRequestFactory.getHttpGetRequest(this.storeUri + "/"+LOG_DB+"/" + logRecordId);
-
-            try{
-                String entity = sendHttpRequest(httpGet, HttpStatus.SC_OK);
-                LogLines logLines = gson.fromJson(entity, LogLines.class);
-                if (logLines.lines != null) {
-                    for (String line : logLines.lines) {
-                        if (sb.length() > 0) {
-                            sb.append("\n");
-                        }
-                        sb.append(line);
-                    }
+            for (String line : getLogLines(logRecordId)) {
+                if (sb.length() > 0) {
+                    sb.append("\n");
                 }
-            } catch (CouchdbException e) {
-                throw new ResultArchiveStoreException(e);
-            } catch (Exception e) {
-                throw new ResultArchiveStoreException("Unable to find runs", e);
+                sb.append(line);
             }
         }
         return sb.toString();
     }
 
+    /**
+     * Gets the lines held in one of the log documents of a run.
+     *
+     * @param logRecordId the ID of the log document
+     * @return the lines in the document, which may be empty
+     */
+    public List<String> getLogLines(String logRecordId) throws ResultArchiveStoreException {
+        List<String> lines = new ArrayList<>();
+        HttpGet httpGet = httpRequestFactory.getHttpGetRequest(this.storeUri + "/"+LOG_DB+"/" + logRecordId);
+
+        try{
+            String entity = sendHttpRequest(httpGet, HttpStatus.SC_OK);
+            LogLines logLines = gson.fromJson(entity, LogLines.class);
+            if (logLines.lines != null) {
+                lines = logLines.lines;
+            }
+        } catch (CouchdbException e) {
+            throw new ResultArchiveStoreException(e);
+        } catch (Exception e) {
+            throw new ResultArchiveStoreException("Unable to find runs", e);
+        }
+        return lines;
+    }
+
     @Override
     public Path getStoredArtifactsRoot() {
         if (this.run == null) {
@@ -398,8 +627,11 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
 
     @Override
     public void flush() {
+        if (logShipper == null) {
+            return;
+        }
         try {
-            flushLogCache();
+            logShipper.flush();
         } catch (ResultArchiveStoreException e) {
             logger.error("Error with heartbeat flush", e);
         }
@@ -408,10 +640,18 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     @Override
     public void shutdown() {
         this.shutdown = true;
-        try {
-            flushLogCache();
-        } catch (ResultArchiveStoreException e) {
-            logger.error("Error with shutdown flush", e);
+        if (logShipper != null) {
+            try {
+                logShipper.shutdown();
+            } catch (ResultArchiveStoreException e) {
+                logger.error("Error with shutdown flush", e);
+            }
+        }
+
+        synchronized (this) {
+            if (artifactCache != null) {
+                artifactCache.shutdown();
+            }
         }
 
         try {
@@ -429,11 +669,11 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     }
 
     public String getArtifactDocumentId() {
-        return this.artifactDocumentId.get(0);
+        return this.artifactDocuments.getFirstDocument().getId();
     }
 
     public String getArtifactDocumentRev() {
-        return this.artifactDocumentRev;
+        return this.artifactDocuments.getFirstDocument().getRevision();
     }
 
     public URI getCouchdbUri() {
@@ -445,7 +685,11 @@ public class CouchdbRasStore extends CouchdbStore implements IResultArchiveStore
     }
 
     public void updateArtifactDocumentRev(String newArtifactDocumentRev) {
-        this.artifactDocumentRev = newArtifactDocumentRev;
+        this.artifactDocuments.getFirstDocument().setRevision(newArtifactDocumentRev);
+    }
+
+    public ITimeService getTimeService() {
+        return this.timeService;
     }
 
     @Override
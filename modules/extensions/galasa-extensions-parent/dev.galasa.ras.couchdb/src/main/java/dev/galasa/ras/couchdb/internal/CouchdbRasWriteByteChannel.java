@@ -10,10 +10,8 @@ import java.net.URLEncoder;
 import java.nio.ByteBuffer;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.charset.Charset;
-import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
-import java.nio.file.StandardOpenOption;
 import java.nio.file.attribute.FileAttribute;
 import java.util.Set;
 
@@ -23,12 +21,16 @@ import org.apache.http.HttpStatus;
 import org.apache.http.StatusLine;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpPut;
-import org.apache.http.entity.FileEntity;
 import org.apache.http.util.EntityUtils;
 
 import dev.galasa.ResultArchiveStoreContentType;
+import dev.galasa.extensions.common.couchdb.CouchdbClashingUpdateException;
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+import dev.galasa.extensions.common.couchdb.RetryableCouchdbUpdateOperationProcessor;
+import dev.galasa.extensions.common.couchdb.pojos.IdRev;
 import dev.galasa.extensions.common.couchdb.pojos.PutPostResponse;
 import dev.galasa.extensions.common.api.HttpRequestFactory;
+import dev.galasa.extensions.common.api.LogFactory;
 
 /**
  * CouchDBRAS Byte Channel
@@ -39,9 +41,9 @@ public class CouchdbRasWriteByteChannel implements SeekableByteChannel {
 
     private static final Charset                UTF8   = Charset.forName("utf-8");
 
-    private final Path                          cachePath;
-    private final SeekableByteChannel           cacheByteChannel;
+    private final CouchdbRasArtifactContent     cacheByteChannel;
     private final HttpRequestFactory            requestFactory;
+    private final LogFactory logFactory;
 
     private final Path                          remotePath;
     private final ResultArchiveStoreContentType remoteContentType;
@@ -51,10 +53,11 @@ public class CouchdbRasWriteByteChannel implements SeekableByteChannel {
     CouchdbRasWriteByteChannel(CouchdbRasFileSystemProvider couchdbRasFileSystemProvider, CouchdbRasStore couchdbRasStore, Path remotePath,
             ResultArchiveStoreContentType remoteContentType, Set<? extends OpenOption> options,
             FileAttribute<?>[] attrs,
-            dev.galasa.extensions.common.api.LogFactory logFactory
+            LogFactory logFactory
     ) throws IOException {
 
         this.logger = logFactory.getLog(CouchdbRasWriteByteChannel.class);
+        this.logFactory = logFactory;
 
         this.couchdbRasStore = couchdbRasStore;
         this.couchdbRasFileSystemProvider = couchdbRasFileSystemProvider;
@@ -67,13 +70,9 @@ public class CouchdbRasWriteByteChannel implements SeekableByteChannel {
             this.remoteContentType = ResultArchiveStoreContentType.TEXT;
         }
 
-        // TODO put these all in the same /tmp/galasa dir so it is easy to cleanup
-        cachePath = Files.createTempFile("galasa_couchdb", "temp");
-
+        // Small artifacts are kept in memory, larger ones spill over into a temporary file
         // TODO are we going to provide other options?
-        // StandardOpenOption.TRUNCATE_EXISTING need to standardise across the board
-        cacheByteChannel = Files.newByteChannel(cachePath, StandardOpenOption.WRITE,
-                StandardOpenOption.TRUNCATE_EXISTING);
+        cacheByteChannel = new CouchdbRasArtifactContent();
     }
 
     /*
@@ -93,51 +92,77 @@ public class CouchdbRasWriteByteChannel implements SeekableByteChannel {
      */
     @Override
     public void close() throws IOException {
+        if (!cacheByteChannel.isOpen()) {
+            return;
+        }
+        long contentLength = cacheByteChannel.size();
         cacheByteChannel.close();
 
-        synchronized(this.getClass()) {  // Prevent multiple threads from updating the artifact document at the sametime,  only updated in this class
-
-            try {
-                String encodedRemotePath = URLEncoder.encode(this.remotePath.toString(), UTF8.name());
-
-                HttpPut request = requestFactory.getHttpPutRequest(this.couchdbRasStore.getCouchdbUri() + "/galasa_artifacts/"
-                        + this.couchdbRasStore.getArtifactDocumentId() + "/" + encodedRemotePath);
-                request.setEntity(new FileEntity(cachePath.toFile()));
-                request.setHeader("Content-Type", remoteContentType.value());
-                request.setHeader("If-Match", this.couchdbRasStore.getArtifactDocumentRev());
-
-                try (CloseableHttpResponse response = this.couchdbRasStore.getHttpClient().execute(request)) {
-                    StatusLine statusLine = response.getStatusLine();
-                    if (statusLine.getStatusCode() != HttpStatus.SC_CREATED) {
-                        if (statusLine.getStatusCode() == HttpStatus.SC_CONFLICT) {
-                            logger.error(
-                                    "The run artifact document has been updated by another engine, terminating now to avoid corruption");
-                            System.exit(0);
-                        }
-                        throw new IOException("Unable to store the artifact attachment - " + statusLine.toString());
-                    }
-                    HttpEntity entity = response.getEntity();
-                    String entityStr = EntityUtils.toString(entity);
-                    PutPostResponse putPostResponse = this.couchdbRasStore.getGson().fromJson(entityStr,PutPostResponse.class);
-                    if (putPostResponse.id == null || putPostResponse.rev == null) {
-                        throw new CouchdbRasException("Unable to store the test structure - Invalid JSON response");
-                    }
-                    this.couchdbRasStore.updateArtifactDocumentRev(putPostResponse.rev);
-                    this.couchdbRasFileSystemProvider.addPath((CouchdbArtifactPath) remotePath);
-
-                    String remotePathStr = this.remotePath.toString();
-
-                    logger.info("Stored artifact " + remotePathStr + " length=" + Files.size(cachePath) + " contentType="+ this.remoteContentType.value());
-                } catch (Exception e) {
-                    throw new IOException("Unable to store artifact attachment", e);
-                }
-
-            } finally {
-                try {
-                    Files.delete(cachePath);
-                } catch (Exception e) {
-                } // *** Hide any delete problems
+        // Each upload borrows one of the run's artifact documents, so uploads from different
+        // threads can run at the same time without clashing over a document revision
+        CouchdbArtifactDocumentPool.ArtifactDocument artifactDocument = null;
+        try {
+            String encodedRemotePath = URLEncoder.encode(this.remotePath.toString(), UTF8.name());
+            artifactDocument = this.couchdbRasStore.acquireArtifactDocument();
+            final CouchdbArtifactDocumentPool.ArtifactDocument uploadDocument = artifactDocument;
+
+            RetryableCouchdbUpdateOperationProcessor retryProcessor = new RetryableCouchdbUpdateOperationProcessor(
+                this.couchdbRasStore.getTimeService(), this.logFactory);
+            retryProcessor.retryCouchDbUpdateOperation(() -> {
+                putArtifactAttachment(uploadDocument, encodedRemotePath);
+            });
+
+            this.couchdbRasFileSystemProvider.addPath((CouchdbArtifactPath) remotePath);
+
+            logger.info("Stored artifact " + this.remotePath.toString() + " length=" + contentLength + " contentType="+ this.remoteContentType.value());
+        } catch (IOException e) {
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting to store artifact attachment", e);
+        } catch (Exception e) {
+            throw new IOException("Unable to store artifact attachment", e);
+        } finally {
+            if (artifactDocument != null) {
+                this.couchdbRasStore.releaseArtifactDocument(artifactDocument);
+            }
+            cacheByteChannel.discard();
+        }
+    }
+
+    private void putArtifactAttachment(CouchdbArtifactDocumentPool.ArtifactDocument artifactDocument, String encodedRemotePath)
+            throws CouchdbException {
+        HttpPut request = requestFactory.getHttpPutRequest(this.couchdbRasStore.getCouchdbUri() + "/" + CouchdbRasStore.ARTIFACTS_DB + "/"
+                + artifactDocument.getId() + "/" + encodedRemotePath);
+        request.setEntity(cacheByteChannel.createEntity());
+        request.setHeader("Content-Type", remoteContentType.value());
+        request.setHeader("If-Match", artifactDocument.getRevision());
+
+        try (CloseableHttpResponse response = this.couchdbRasStore.getHttpClient().execute(request)) {
+            StatusLine statusLine = response.getStatusLine();
+            HttpEntity entity = response.getEntity();
+            if (statusLine.getStatusCode() == HttpStatus.SC_CONFLICT) {
+                // Another engine has updated the artifact document, pick up its latest revision and try again
+                EntityUtils.consumeQuietly(entity);
+                IdRev latestIdRev = this.couchdbRasStore.getDocumentFromDatabase(CouchdbRasStore.ARTIFACTS_DB, artifactDocument.getId(), IdRev.class);
+                artifactDocument.setRevision(latestIdRev._rev);
+                throw new CouchdbClashingUpdateException("The run artifact document " + artifactDocument.getId() + " has been updated by another engine");
+            }
+            if (statusLine.getStatusCode() != HttpStatus.SC_CREATED) {
+                EntityUtils.consumeQuietly(entity);
+                throw new CouchdbException("Unable to store the artifact attachment - " + statusLine.toString());
+            }
+
+            String entityStr = EntityUtils.toString(entity);
+            PutPostResponse putPostResponse = this.couchdbRasStore.getGson().fromJson(entityStr,PutPostResponse.class);
+            if (putPostResponse.id == null || putPostResponse.rev == null) {
+                throw new CouchdbException("Unable to store the test structure - Invalid JSON response");
             }
+            artifactDocument.setRevision(putPostResponse.rev);
+        } catch (CouchdbException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CouchdbException("Unable to store artifact attachment", e);
         }
     }
 
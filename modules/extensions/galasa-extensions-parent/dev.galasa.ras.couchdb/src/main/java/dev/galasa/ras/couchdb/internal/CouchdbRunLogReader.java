@@ -0,0 +1,87 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import dev.galasa.framework.spi.IRunLogReader;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * Reads a run log from CouchDB one log document at a time, so only one document's
+ * lines are held in memory however long the run log is.
+ */
+public class CouchdbRunLogReader implements IRunLogReader {
+
+    /**
+     * Gets the lines stored in one of a run's log documents.
+     */
+    public interface LogLineSource {
+        List<String> getLogLines(String logRecordId) throws ResultArchiveStoreException;
+    }
+
+    private final LogLineSource logLineSource;
+
+    private List<String> logRecordIds;
+    private int nextLogRecordIndex = 0;
+    private Iterator<String> lines = Collections.emptyIterator();
+
+    public CouchdbRunLogReader(LogLineSource logLineSource, List<String> logRecordIds) {
+        this.logLineSource = logLineSource;
+        setLogRecordIds(logRecordIds);
+    }
+
+    @Override
+    public String readLine() throws ResultArchiveStoreException {
+        while (!lines.hasNext()) {
+            if (nextLogRecordIndex >= logRecordIds.size()) {
+                return null;
+            }
+            lines = logLineSource.getLogLines(logRecordIds.get(nextLogRecordIndex)).iterator();
+            nextLogRecordIndex++;
+        }
+        return lines.next();
+    }
+
+    /**
+     * The RAS store only ever adds log documents to the end of a run's list of log documents,
+     * so carry on from the first document that hasn't been read yet. If the documents that have
+     * already been read are no longer at the start of the list, the log has been replaced and the
+     * lines already read can't be trusted, so this fails rather than skipping or repeating lines.
+     */
+    @Override
+    public boolean refresh(IRunResult latestRun) throws ResultArchiveStoreException {
+        List<String> latestLogRecordIds = latestRun.getTestStructure().getLogRecordIds();
+        if (latestLogRecordIds == null) {
+            latestLogRecordIds = Collections.emptyList();
+        }
+
+        List<String> logRecordIdsRead = logRecordIds.subList(0, nextLogRecordIndex);
+        if (latestLogRecordIds.size() < nextLogRecordIndex
+            || !latestLogRecordIds.subList(0, nextLogRecordIndex).equals(logRecordIdsRead)) {
+            throw new ResultArchiveStoreException("The run log of run " + latestRun.getRunId() + " has changed since it was opened");
+        }
+
+        setLogRecordIds(latestLogRecordIds);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        lines = Collections.emptyIterator();
+    }
+
+    private void setLogRecordIds(List<String> logRecordIds) {
+        if (logRecordIds == null) {
+            this.logRecordIds = Collections.emptyList();
+        } else {
+            this.logRecordIds = logRecordIds;
+        }
+    }
+}
@@ -8,6 +8,7 @@ package dev.galasa.ras.couchdb.internal;
 import java.nio.file.Path;
 
 import dev.galasa.extensions.common.api.LogFactory;
+import dev.galasa.framework.spi.IRunLogReader;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.ras.ResultArchiveStoreFileStore;
@@ -53,6 +54,18 @@ public class CouchdbRunResult implements IRunResult {
         return this.store.getLog(this.testStructure);
     }
 
+    @Override
+    public IRunLogReader getLogReader() throws ResultArchiveStoreException {
+        return new CouchdbRunLogReader(this.store::getLogLines, this.testStructure.getLogRecordIds());
+    }
+
+    @Override
+    public long getLogSize() throws ResultArchiveStoreException {
+        // Runs stored before the size was recorded don't have one
+        Long logSize = this.testStructure.getLogSize();
+        return (logSize == null) ? -1 : logSize;
+    }
+
 	@Override
 	public void discard() throws ResultArchiveStoreException {
         deleteRunService.discardRun(this.testStructure);
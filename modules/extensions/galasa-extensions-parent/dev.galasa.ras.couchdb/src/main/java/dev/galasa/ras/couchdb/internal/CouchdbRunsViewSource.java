@@ -0,0 +1,106 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static dev.galasa.ras.couchdb.internal.CouchdbRasStore.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpStatus;
+import org.apache.http.StatusLine;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import dev.galasa.extensions.common.api.HttpRequestFactory;
+import dev.galasa.extensions.common.couchdb.pojos.ViewResponse;
+import dev.galasa.extensions.common.couchdb.pojos.ViewRow;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * Queries the runs database for the view cache, using conditional requests so that
+ * unchanged views are not sent again.
+ */
+public class CouchdbRunsViewSource implements CouchdbViewCache.ViewSource {
+
+    private final CouchdbRasStore store;
+    private final HttpRequestFactory requestFactory;
+
+    public CouchdbRunsViewSource(CouchdbRasStore store, HttpRequestFactory requestFactory) {
+        this.store = store;
+        this.requestFactory = requestFactory;
+    }
+
+    @Override
+    public String getUpdateSequence() throws ResultArchiveStoreException {
+        String updateSequence = null;
+        HttpGet httpGet = requestFactory.getHttpGetRequest(store.getCouchdbUri() + "/" + RUNS_DB + "/_changes?since=now&limit=0");
+
+        try (CloseableHttpResponse response = store.getHttpClient().execute(httpGet)) {
+            StatusLine statusLine = response.getStatusLine();
+            String responseEntity = EntityUtils.toString(response.getEntity());
+            if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
+                throw new CouchdbRasException("Unable to read the changes feed - " + statusLine.toString());
+            }
+
+            JsonObject changes = store.getGson().fromJson(responseEntity, JsonObject.class);
+            JsonElement lastSequence = changes.get("last_seq");
+            if (lastSequence != null && !lastSequence.isJsonNull()) {
+                // Older versions of CouchDB use numbers for sequences, later versions use opaque strings
+                updateSequence = lastSequence.isJsonPrimitive() ? lastSequence.getAsString() : lastSequence.toString();
+            }
+        } catch (CouchdbRasException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResultArchiveStoreException("Unable to read the changes feed", e);
+        }
+        return updateSequence;
+    }
+
+    @Override
+    public CouchdbViewCache.ViewKeys queryView(String viewName, String etag) throws ResultArchiveStoreException {
+        CouchdbViewCache.ViewKeys viewKeys = null;
+        HttpGet httpGet = requestFactory.getHttpGetRequest(
+                store.getCouchdbUri() + "/" + RUNS_DB + "/_design/docs/_view/" + viewName + "?group=true");
+        if (etag != null) {
+            httpGet.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+
+        try (CloseableHttpResponse response = store.getHttpClient().execute(httpGet)) {
+            StatusLine statusLine = response.getStatusLine();
+            if (statusLine.getStatusCode() != HttpStatus.SC_NOT_MODIFIED) {
+                String responseEntity = EntityUtils.toString(response.getEntity());
+                if (statusLine.getStatusCode() != HttpStatus.SC_OK) {
+                    throw new CouchdbRasException("Unable to query view " + viewName + " - " + statusLine.toString());
+                }
+
+                ViewResponse view = store.getGson().fromJson(responseEntity, ViewResponse.class);
+                if (view.rows == null) {
+                    throw new CouchdbRasException("Unable to query view " + viewName + " - Invalid JSON response");
+                }
+
+                List<String> keys = new ArrayList<>();
+                for (ViewRow row : view.rows) {
+                    keys.add(row.key);
+                }
+
+                Header etagHeader = response.getFirstHeader(HttpHeaders.ETAG);
+                viewKeys = new CouchdbViewCache.ViewKeys(keys, (etagHeader == null) ? null : etagHeader.getValue());
+            }
+        } catch (CouchdbRasException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ResultArchiveStoreException("Unable to query view " + viewName, e);
+        }
+        return viewKeys;
+    }
+}
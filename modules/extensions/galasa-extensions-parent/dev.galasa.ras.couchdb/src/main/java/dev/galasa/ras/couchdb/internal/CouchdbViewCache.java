@@ -0,0 +1,195 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Caches the keys of grouped CouchDB views over the runs database, such as the list of requestors,
+ * which are asked for far more often than they change.
+ *
+ * Keys are served from the cache until the time-to-live has passed. After that, the update sequence
+ * of the runs database is checked from its changes feed. If nothing has changed, the cached keys are
+ * kept without querying the view. Otherwise the view is queried again with the ETag of the cached keys,
+ * so CouchDB only sends the view back if it has changed.
+ */
+public class CouchdbViewCache {
+
+    public static final long DEFAULT_TTL_MILLIS = 30000;
+
+    /**
+     * Queries the runs database for the information the cache needs.
+     */
+    public interface ViewSource {
+
+        /**
+         * @return the latest update sequence of the runs database
+         */
+        String getUpdateSequence() throws ResultArchiveStoreException;
+
+        /**
+         * Queries a grouped view.
+         * @param viewName the view to query
+         * @param etag the ETag of the cached keys, or null if there are none
+         * @return the keys of the view, or null if the view still matches the given ETag
+         */
+        ViewKeys queryView(String viewName, String etag) throws ResultArchiveStoreException;
+    }
+
+    public static class ViewKeys {
+        private final List<String> keys;
+        private final String etag;
+
+        public ViewKeys(List<String> keys, String etag) {
+            this.keys = Collections.unmodifiableList(keys);
+            this.etag = etag;
+        }
+
+        public List<String> getKeys() {
+            return keys;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+    }
+
+    private static class CachedView {
+        private final ViewKeys viewKeys;
+        private final String updateSequence;
+        private final Instant expiryTime;
+
+        private CachedView(ViewKeys viewKeys, String updateSequence, Instant expiryTime) {
+            this.viewKeys = viewKeys;
+            this.updateSequence = updateSequence;
+            this.expiryTime = expiryTime;
+        }
+    }
+
+    private final ViewSource   source;
+    private final ITimeService timeService;
+    private final long         ttlMillis;
+
+    private final Map<String, CachedView> views = new ConcurrentHashMap<>();
+
+    // Stops two threads refreshing the same view at the same time
+    private final Map<String, Object> refreshLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong hitCount                = new AtomicLong();
+    private final AtomicLong missCount               = new AtomicLong();
+    private final AtomicLong unchangedCount          = new AtomicLong();
+    private final AtomicLong lastRefreshLatencyMillis = new AtomicLong();
+    private final AtomicLong maxRefreshLatencyMillis  = new AtomicLong();
+
+    public CouchdbViewCache(ViewSource source, ITimeService timeService, long ttlMillis) {
+        this.source = source;
+        this.timeService = timeService;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Gets the keys of a grouped view, from the cache if they are still fresh.
+     */
+    public List<String> getViewKeys(String viewName) throws ResultArchiveStoreException {
+        CachedView cachedView = views.get(viewName);
+        if (isFresh(cachedView)) {
+            hitCount.incrementAndGet();
+            return cachedView.viewKeys.getKeys();
+        }
+
+        Object refreshLock = refreshLocks.computeIfAbsent(viewName, k -> new Object());
+        synchronized (refreshLock) {
+            // Another thread may have refreshed the view while this one waited
+            cachedView = views.get(viewName);
+            if (isFresh(cachedView)) {
+                hitCount.incrementAndGet();
+            } else {
+                missCount.incrementAndGet();
+                cachedView = refresh(viewName, cachedView);
+            }
+        }
+        return cachedView.viewKeys.getKeys();
+    }
+
+    public void invalidate() {
+        views.clear();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    /**
+     * @return how many times a stale view was found to be unchanged, so it was not sent again
+     */
+    public long getUnchangedCount() {
+        return unchangedCount.get();
+    }
+
+    public double getHitRate() {
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    public long getLastRefreshLatencyMillis() {
+        return lastRefreshLatencyMillis.get();
+    }
+
+    public long getMaxRefreshLatencyMillis() {
+        return maxRefreshLatencyMillis.get();
+    }
+
+    private boolean isFresh(CachedView cachedView) {
+        return cachedView != null && timeService.now().isBefore(cachedView.expiryTime);
+    }
+
+    private CachedView refresh(String viewName, CachedView staleView) throws ResultArchiveStoreException {
+        Instant startTime = timeService.now();
+
+        // Get the update sequence before the view, so changes made during the query are picked up next time
+        String updateSequence = source.getUpdateSequence();
+
+        ViewKeys viewKeys = null;
+        if (staleView != null && updateSequence != null && updateSequence.equals(staleView.updateSequence)) {
+            viewKeys = staleView.viewKeys;
+            unchangedCount.incrementAndGet();
+        } else {
+            String etag = (staleView == null) ? null : staleView.viewKeys.getEtag();
+            viewKeys = source.queryView(viewName, etag);
+            if (viewKeys == null) {
+                if (staleView == null) {
+                    throw new ResultArchiveStoreException("Unable to query view " + viewName + " - no content was returned");
+                }
+                viewKeys = staleView.viewKeys;
+                unchangedCount.incrementAndGet();
+            }
+        }
+
+        Instant endTime = timeService.now();
+        CachedView refreshedView = new CachedView(viewKeys, updateSequence, endTime.plusMillis(ttlMillis));
+        views.put(viewName, refreshedView);
+
+        long latencyMillis = Duration.between(startTime, endTime).toMillis();
+        lastRefreshLatencyMillis.set(latencyMillis);
+        maxRefreshLatencyMillis.accumulateAndGet(latencyMillis, Math::max);
+
+        return refreshedView;
+    }
+}
@@ -19,7 +19,28 @@ public enum CpsPropertyDef {
     // If true, then couchdb puts the data inline. ie: Within a json property inside the json document.
     // Default value is 0, ie: No in-lining of attachments.
     // Only applicable when ONE_ARTIFACT_PER_DOCUMENT feature flag is enabled.
-    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size")
+    INLINE_ARTIFACT_MAX_SIZE("couchdb","inline.artifact.max.size"),
+
+    // The maximum number of artifact documents a run uses, which is how many artifacts it can upload at the same time.
+    // Default value is 0, ie: Use the default maximum.
+    MAX_ARTIFACT_DOCUMENTS("couchdb","max.artifact.documents"),
+
+    // The maximum size, in megabytes, of the local disk cache of artifacts read from the RAS.
+    // Default value is 0, ie: Use the default maximum size.
+    ARTIFACT_CACHE_MAX_SIZE_MB("couchdb","artifact.cache.max.size.mb"),
+
+    // The maximum number of run log lines held in memory waiting to be shipped to the RAS.
+    // Default value is 0, ie: Use the log shipper's default capacity.
+    LOG_BUFFER_CAPACITY("couchdb","log.buffer.capacity"),
+
+    // How often, in milliseconds, buffered run log lines are shipped to the RAS if a full batch has not built up.
+    // Default value is 0, ie: Use the log shipper's default interval.
+    LOG_FLUSH_INTERVAL_MILLIS("couchdb","log.flush.interval.millis"),
+
+    // How long, in seconds, the requestors, result names and test classes read from the RAS are cached before
+    // checking whether they have changed.
+    // Default value is 0, ie: Use the view cache's default time-to-live.
+    VIEW_CACHE_TTL_SECONDS("couchdb","view.cache.ttl.seconds")
     ;
 
     private String namespace;
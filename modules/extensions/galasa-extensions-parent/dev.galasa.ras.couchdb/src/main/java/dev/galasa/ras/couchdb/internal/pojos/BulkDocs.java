@@ -0,0 +1,15 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.pojos;
+
+import java.util.List;
+
+// The body of a POST to a database's _bulk_docs endpoint
+public class BulkDocs<T> {
+
+    public List<T> docs; // NOSONAR
+
+}
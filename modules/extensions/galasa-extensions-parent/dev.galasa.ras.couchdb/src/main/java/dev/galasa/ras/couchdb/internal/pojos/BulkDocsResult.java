@@ -0,0 +1,18 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal.pojos;
+
+// One entry in the response from a database's _bulk_docs endpoint.
+// Documents that could not be stored have an error and reason instead of a revision.
+public class BulkDocsResult {
+
+    public String  id;     // NOSONAR
+    public String  rev;    // NOSONAR
+    public boolean ok;     // NOSONAR
+    public String  error;  // NOSONAR
+    public String  reason; // NOSONAR
+
+}
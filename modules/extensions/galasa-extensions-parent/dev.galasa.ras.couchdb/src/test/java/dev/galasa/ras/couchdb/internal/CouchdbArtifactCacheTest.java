@@ -0,0 +1,140 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import dev.galasa.extensions.common.couchdb.CouchdbException;
+
+public class CouchdbArtifactCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private List<String> downloadedKeys = new ArrayList<>();
+
+    private CouchdbArtifactCache.ArtifactDownloader createDownloader(String key, String content) {
+        return targetPath -> {
+            downloadedKeys.add(key);
+            try {
+                Files.write(targetPath, content.getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new CouchdbException("Failed to write test artifact", e);
+            }
+        };
+    }
+
+    private String getArtifact(CouchdbArtifactCache cache, String key, String content) throws Exception {
+        Path cachedPath = cache.getArtifact(key, createDownloader(key, content));
+        return new String(Files.readAllBytes(cachedPath), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testArtifactIsOnlyDownloadedOnce() throws Exception {
+        // Given...
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 1000);
+        String key = CouchdbArtifactCache.getCacheKey("doc1", "/term001.gz", "md5-abc");
+
+        // When...
+        String firstContent = getArtifact(cache, key, "first read");
+        String secondContent = getArtifact(cache, key, "second read");
+
+        // Then...
+        assertThat(firstContent).isEqualTo("first read");
+        assertThat(secondContent).isEqualTo("first read");
+        assertThat(downloadedKeys).containsExactly(key);
+        assertThat(cache.getArtifactCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testNewRevisionOfArtifactIsDownloadedAgain() throws Exception {
+        // Given...
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 1000);
+        String oldKey = CouchdbArtifactCache.getCacheKey("doc1", "/term001.gz", "md5-abc");
+        String newKey = CouchdbArtifactCache.getCacheKey("doc1", "/term001.gz", "md5-def");
+
+        // When...
+        getArtifact(cache, oldKey, "old content");
+        String content = getArtifact(cache, newKey, "new content");
+
+        // Then...
+        assertThat(content).isEqualTo("new content");
+        assertThat(downloadedKeys).containsExactly(oldKey, newKey);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedArtifactIsEvictedWhenCacheIsFull() throws Exception {
+        // Given...
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 25);
+        String key1 = CouchdbArtifactCache.getCacheKey("doc1", "/artifact1", "rev1");
+        String key2 = CouchdbArtifactCache.getCacheKey("doc1", "/artifact2", "rev1");
+        String key3 = CouchdbArtifactCache.getCacheKey("doc1", "/artifact3", "rev1");
+
+        getArtifact(cache, key1, "0123456789");
+        getArtifact(cache, key2, "0123456789");
+
+        // Use artifact 1 again, so artifact 2 is now the least recently used
+        getArtifact(cache, key1, "0123456789");
+
+        // When...
+        getArtifact(cache, key3, "0123456789");
+
+        // Then...
+        assertThat(cache.getArtifactCount()).isEqualTo(2);
+        assertThat(cache.getTotalSizeBytes()).isEqualTo(20);
+
+        getArtifact(cache, key1, "0123456789");
+        getArtifact(cache, key2, "0123456789");
+        assertThat(downloadedKeys).containsExactly(key1, key2, key3, key2);
+    }
+
+    @Test
+    public void testFailedDownloadIsNotCached() throws Exception {
+        // Given...
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 1000);
+        String key = CouchdbArtifactCache.getCacheKey("doc1", "/artifact1", "rev1");
+
+        // When...
+        CouchdbException thrown = catchThrowableOfType(() -> {
+            cache.getArtifact(key, targetPath -> {
+                throw new CouchdbException("simulated failure");
+            });
+        }, CouchdbException.class);
+
+        // Then...
+        assertThat(thrown).hasMessage("simulated failure");
+        assertThat(cache.getArtifactCount()).isEqualTo(0);
+        assertThat(getArtifact(cache, key, "content")).isEqualTo("content");
+    }
+
+    @Test
+    public void testShutdownDeletesTheCacheDirectory() throws Exception {
+        // Given...
+        Path cacheDirectory = tempFolder.getRoot().toPath().resolve("artifacts");
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(cacheDirectory, 1000);
+        String key = CouchdbArtifactCache.getCacheKey("doc1", "/artifact1", "rev1");
+        Path cachedPath = cache.getArtifact(key, createDownloader(key, "content"));
+
+        // When...
+        cache.shutdown();
+
+        // Then...
+        assertThat(cachedPath).doesNotExist();
+        assertThat(cacheDirectory).doesNotExist();
+        assertThat(cache.getArtifactCount()).isEqualTo(0);
+        assertThat(cache.getTotalSizeBytes()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.ras.couchdb.internal.CouchdbArtifactDocumentPool.ArtifactDocument;
+
+public class CouchdbArtifactDocumentPoolTest {
+
+    private List<String> createdDocumentIds = new ArrayList<>();
+
+    private CouchdbArtifactDocumentPool createPool(int maxDocuments) {
+        CouchdbArtifactDocumentPool pool = new CouchdbArtifactDocumentPool(() -> {
+            String id = "artifact-doc-" + (createdDocumentIds.size() + 2);
+            createdDocumentIds.add(id);
+            return new ArtifactDocument(id, "1-rev");
+        }, maxDocuments);
+        pool.add(new ArtifactDocument("artifact-doc-1", "1-rev"));
+        return pool;
+    }
+
+    @Test
+    public void testUploadsOneAfterAnotherAllUseTheFirstDocument() throws Exception {
+        // Given...
+        CouchdbArtifactDocumentPool pool = createPool(4);
+
+        // When...
+        ArtifactDocument first = pool.acquire();
+        pool.release(first);
+        ArtifactDocument second = pool.acquire();
+        pool.release(second);
+
+        // Then...
+        assertThat(first.getId()).isEqualTo("artifact-doc-1");
+        assertThat(second).isSameAs(first);
+        assertThat(createdDocumentIds).isEmpty();
+        assertThat(pool.getDocumentCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testConcurrentUploadsGetTheirOwnDocuments() throws Exception {
+        // Given...
+        CouchdbArtifactDocumentPool pool = createPool(4);
+
+        // When...
+        ArtifactDocument first = pool.acquire();
+        ArtifactDocument second = pool.acquire();
+
+        // Then...
+        assertThat(first.getId()).isEqualTo("artifact-doc-1");
+        assertThat(second.getId()).isEqualTo("artifact-doc-2");
+        assertThat(pool.getDocumentCount()).isEqualTo(2);
+
+        // A released document is reused rather than creating another one
+        pool.release(first);
+        assertThat(pool.acquire()).isSameAs(first);
+        assertThat(createdDocumentIds).containsExactly("artifact-doc-2");
+    }
+
+    @Test
+    public void testAcquireWaitsForADocumentWhenThePoolIsFull() throws Exception {
+        // Given...
+        CouchdbArtifactDocumentPool pool = createPool(1);
+        ArtifactDocument first = pool.acquire();
+
+        List<ArtifactDocument> acquired = new ArrayList<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                acquired.add(pool.acquire());
+            } catch (Exception e) {
+                fail("Failed to acquire an artifact document", e);
+            }
+        });
+
+        // When...
+        waiter.start();
+        waiter.join(200);
+        assertThat(waiter.isAlive()).isTrue();
+
+        pool.release(first);
+        waiter.join(10000);
+
+        // Then...
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(acquired).containsExactly(first);
+        assertThat(createdDocumentIds).isEmpty();
+    }
+}
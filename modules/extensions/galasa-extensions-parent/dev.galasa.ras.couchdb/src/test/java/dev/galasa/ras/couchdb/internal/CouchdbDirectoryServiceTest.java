@@ -21,12 +21,17 @@ import org.apache.http.client.methods.HttpPost;
 import org.apache.http.util.EntityUtils;
 import org.junit.Test;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
 import dev.galasa.extensions.common.couchdb.pojos.ViewResponse;
 import dev.galasa.extensions.common.couchdb.pojos.ViewRow;
 import dev.galasa.extensions.common.impl.HttpRequestFactoryImpl;
 import dev.galasa.extensions.common.mocks.BaseHttpInteraction;
 import dev.galasa.extensions.common.mocks.HttpInteraction;
 import dev.galasa.extensions.common.mocks.MockCloseableHttpClient;
+import dev.galasa.extensions.common.mocks.MockCloseableHttpResponse;
+import dev.galasa.extensions.common.mocks.MockTimeService;
 import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
@@ -667,4 +672,98 @@ public class CouchdbDirectoryServiceTest extends BaseCouchdbOperationTest {
         assertThat((TestStructureCouchdb)run.getTestStructure()).usingRecursiveComparison().isEqualTo(mockRun1);
         assertThat((String)run.getTestStructure().getGroup()).isEqualTo(groupName);
     }
+
+    //------------------------------------------
+    //
+    // Tests for getting requestors
+    //
+    //------------------------------------------
+
+    class GetChangesInteraction extends BaseHttpInteraction {
+
+        public GetChangesInteraction(String expectedUri, String lastSequence) {
+            super(expectedUri, HttpStatus.SC_OK);
+            JsonObject changes = new JsonObject();
+            changes.add("results", new JsonArray());
+            changes.addProperty("last_seq", lastSequence);
+            setResponsePayload(changes);
+        }
+    }
+
+    class GetGroupedViewInteraction extends GetRunsFromCouchdbViewInteraction {
+
+        private String expectedIfNoneMatch;
+        private String etag;
+
+        public GetGroupedViewInteraction(String expectedUri, int statusCode, ViewResponse viewResponse, String expectedIfNoneMatch, String etag) {
+            super(expectedUri, statusCode, viewResponse);
+            this.expectedIfNoneMatch = expectedIfNoneMatch;
+            this.etag = etag;
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host, request);
+            if (expectedIfNoneMatch == null) {
+                assertThat(request.getFirstHeader("If-None-Match")).isNull();
+            } else {
+                assertThat(request.getFirstHeader("If-None-Match").getValue()).isEqualTo(expectedIfNoneMatch);
+            }
+        }
+
+        @Override
+        public MockCloseableHttpResponse getResponse() {
+            MockCloseableHttpResponse response = super.getResponse();
+            if (etag != null) {
+                response.addHeader("ETag", etag);
+            }
+            return response;
+        }
+    }
+
+    @Test
+    public void testGetRequestorsIsCachedAndRevalidatedWithEtag() throws Exception {
+        // Given...
+        ViewRow aliceRow = new ViewRow();
+        aliceRow.key = "alice";
+        ViewRow bobRow = new ViewRow();
+        bobRow.key = "bob";
+        ViewResponse requestorsView = new ViewResponse();
+        requestorsView.rows = List.of(aliceRow, bobRow);
+
+        String baseUri = "http://my.uri/" + CouchdbRasStore.RUNS_DB;
+        String changesUri = baseUri + "/_changes?since=now&limit=0";
+        String requestorsViewUri = baseUri + "/_design/docs/_view/" + CouchdbRasStore.REQUESTORS_VIEW_NAME + "?group=true";
+
+        List<HttpInteraction> interactions = List.of(
+            new GetChangesInteraction(changesUri, "1-abc"),
+            new GetGroupedViewInteraction(requestorsViewUri, HttpStatus.SC_OK, requestorsView, null, "\"etag1\""),
+
+            // After the cache has expired, a run has changed but the requestors view hasn't
+            new GetChangesInteraction(changesUri, "2-def"),
+            new GetGroupedViewInteraction(requestorsViewUri, HttpStatus.SC_NOT_MODIFIED, null, "\"etag1\"", "\"etag1\"")
+        );
+
+        MockLogFactory mockLogFactory = new MockLogFactory();
+        CouchdbRasStore mockRasStore = fixtures.createCouchdbRasStore(interactions, mockLogFactory);
+        CouchdbDirectoryService directoryService = new CouchdbDirectoryService(mockRasStore, mockLogFactory, new HttpRequestFactoryImpl());
+        MockTimeService timeService = (MockTimeService) mockRasStore.getTimeService();
+
+        // When...
+        List<String> firstRequestors = directoryService.getRequestors();
+        List<String> cachedRequestors = directoryService.getRequestors();
+
+        timeService.setCurrentTime(timeService.now().plusMillis(CouchdbViewCache.DEFAULT_TTL_MILLIS + 1));
+        List<String> revalidatedRequestors = directoryService.getRequestors();
+
+        // Then...
+        assertThat(firstRequestors).containsExactly("alice", "bob");
+        assertThat(cachedRequestors).containsExactly("alice", "bob");
+        assertThat(revalidatedRequestors).containsExactly("alice", "bob");
+
+        CouchdbViewCache viewCache = mockRasStore.getViewCache();
+        assertThat(viewCache.getHitCount()).isEqualTo(1);
+        assertThat(viewCache.getMissCount()).isEqualTo(2);
+        assertThat(viewCache.getUnchangedCount()).isEqualTo(1);
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import dev.galasa.extensions.common.mocks.MockTimeService;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+
+public class CouchdbLogShipperTest {
+
+    class MockLogBatchWriter implements CouchdbLogShipper.LogBatchWriter {
+
+        private List<List<String>> writtenBatches = Collections.synchronizedList(new ArrayList<>());
+        private int writeCount = 0;
+        private boolean isFailing = false;
+
+        @Override
+        public synchronized void writeLogBatches(List<List<String>> batches) throws ResultArchiveStoreException {
+            if (isFailing) {
+                throw new ResultArchiveStoreException("simulated failure");
+            }
+            writeCount++;
+            for (List<String> batch : batches) {
+                writtenBatches.add(new ArrayList<>(batch));
+            }
+        }
+
+        public synchronized int getWriteCount() {
+            return writeCount;
+        }
+
+        public List<String> getAllLines() {
+            List<String> allLines = new ArrayList<>();
+            synchronized (writtenBatches) {
+                for (List<String> batch : writtenBatches) {
+                    allLines.addAll(batch);
+                }
+            }
+            return allLines;
+        }
+    }
+
+    private String[] createLines(int startIndex, int count) {
+        String[] lines = new String[count];
+        for (int i = 0; i < count; i++) {
+            lines[i] = "line " + (startIndex + i);
+        }
+        return lines;
+    }
+
+    private CouchdbLogShipper createShipper(MockLogBatchWriter writer, int capacity, int batchSize, int maxBatchesPerWrite, long flushIntervalMillis) {
+        return new CouchdbLogShipper(writer, new MockLogFactory(), new MockTimeService(Instant.now()),
+            capacity, batchSize, maxBatchesPerWrite, flushIntervalMillis);
+    }
+
+    @Test
+    public void testFlushShipsAllBufferedLinesInBatchesAndInOrder() throws Exception {
+        // Given...
+        MockLogBatchWriter writer = new MockLogBatchWriter();
+        CouchdbLogShipper shipper = createShipper(writer, 1000, 10, 3, 600000);
+
+        // When...
+        shipper.offer(createLines(0, 45));
+        shipper.flush();
+
+        // Then...
+        assertThat(writer.getAllLines()).containsExactly(createLines(0, 45));
+        assertThat(writer.writtenBatches).hasSize(5);
+        assertThat(writer.writtenBatches.get(4)).hasSize(5);
+
+        // 45 lines at up to 3 batches of 10 lines per write
+        assertThat(writer.getWriteCount()).isEqualTo(2);
+        assertThat(shipper.getFlushCount()).isEqualTo(2);
+        assertThat(shipper.getShippedLineCount()).isEqualTo(45);
+        assertThat(shipper.getQueuedLineCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testOfferDropsLinesWhenBufferIsFullWithoutBlocking() throws Exception {
+        // Given...
+        MockLogBatchWriter writer = new MockLogBatchWriter();
+        CouchdbLogShipper shipper = createShipper(writer, 20, 100, 1, 600000);
+
+        // When...
+        int accepted = shipper.offer(createLines(0, 25));
+
+        // Then...
+        assertThat(accepted).isEqualTo(20);
+        assertThat(shipper.getQueuedLineCount()).isEqualTo(20);
+        assertThat(shipper.getDroppedLineCount()).isEqualTo(5);
+
+        shipper.flush();
+        assertThat(writer.getAllLines()).containsExactly(createLines(0, 20));
+    }
+
+    @Test
+    public void testBackgroundThreadShipsWholeBatchesOnceBatchSizeReached() throws Exception {
+        // Given...
+        MockLogBatchWriter writer = new MockLogBatchWriter();
+        CouchdbLogShipper shipper = createShipper(writer, 1000, 10, 5, 600000);
+        shipper.start();
+
+        // When...
+        shipper.offer(createLines(0, 25));
+
+        // Then...
+        await().atMost(10, TimeUnit.SECONDS).until(() -> shipper.getShippedLineCount() == 20);
+        assertThat(writer.getAllLines()).containsExactly(createLines(0, 20));
+        assertThat(shipper.getQueuedLineCount()).isEqualTo(5);
+
+        shipper.shutdown();
+        assertThat(writer.getAllLines()).containsExactly(createLines(0, 25));
+    }
+
+    @Test
+    public void testBackgroundThreadShipsPartialBatchAfterFlushInterval() throws Exception {
+        // Given...
+        MockLogBatchWriter writer = new MockLogBatchWriter();
+        CouchdbLogShipper shipper = createShipper(writer, 1000, 100, 5, 50);
+        shipper.start();
+
+        // When...
+        shipper.offer(createLines(0, 3));
+
+        // Then...
+        await().atMost(10, TimeUnit.SECONDS).until(() -> shipper.getShippedLineCount() == 3);
+        assertThat(writer.getAllLines()).containsExactly(createLines(0, 3));
+
+        shipper.shutdown();
+    }
+
+    @Test
+    public void testFailedWriteCountsLinesAsDroppedAndReportsError() throws Exception {
+        // Given...
+        MockLogBatchWriter writer = new MockLogBatchWriter();
+        writer.isFailing = true;
+        CouchdbLogShipper shipper = createShipper(writer, 1000, 10, 5, 600000);
+        shipper.offer(createLines(0, 15));
+
+        // When...
+        ResultArchiveStoreException thrown = catchThrowableOfType(() -> {
+            shipper.flush();
+        }, ResultArchiveStoreException.class);
+
+        // Then...
+        assertThat(thrown).isNotNull();
+        assertThat(thrown).hasMessage("simulated failure");
+        assertThat(shipper.getDroppedLineCount()).isEqualTo(15);
+        assertThat(shipper.getShippedLineCount()).isEqualTo(0);
+        assertThat(shipper.getQueuedLineCount()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+public class CouchdbRasArtifactContentTest {
+
+    private void write(CouchdbRasArtifactContent content, String text) throws Exception {
+        content.write(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private String getEntityContent(CouchdbRasArtifactContent content) throws Exception {
+        HttpEntity entity = content.createEntity();
+        return EntityUtils.toString(entity, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testSmallArtifactIsKeptInMemory() throws Exception {
+        // Given...
+        CouchdbRasArtifactContent content = new CouchdbRasArtifactContent(100);
+
+        // When...
+        write(content, "Hello ");
+        write(content, "World");
+        content.close();
+
+        // Then...
+        assertThat(content.isSpilled()).isFalse();
+        assertThat(getEntityContent(content)).isEqualTo("Hello World");
+        assertThat(content.createEntity().isRepeatable()).isTrue();
+        content.discard();
+    }
+
+    @Test
+    public void testLargeArtifactSpillsToFileAndKeepsAllContent() throws Exception {
+        // Given...
+        CouchdbRasArtifactContent content = new CouchdbRasArtifactContent(10);
+
+        // When...
+        write(content, "0123456");
+        write(content, "789abcdef");
+        content.close();
+
+        // Then...
+        assertThat(content.isSpilled()).isTrue();
+        assertThat(getEntityContent(content)).isEqualTo("0123456789abcdef");
+        assertThat(content.createEntity().isRepeatable()).isTrue();
+        content.discard();
+    }
+
+    @Test
+    public void testPositionAndTruncateAreHonouredInMemory() throws Exception {
+        // Given...
+        CouchdbRasArtifactContent content = new CouchdbRasArtifactContent(100);
+        write(content, "Hello World");
+
+        // When...
+        content.position(6);
+        write(content, "There");
+        content.truncate(8);
+
+        // Then...
+        assertThat(content.size()).isEqualTo(8);
+        assertThat(content.position()).isEqualTo(8);
+        content.close();
+        assertThat(getEntityContent(content)).isEqualTo("Hello Th");
+        content.discard();
+    }
+}
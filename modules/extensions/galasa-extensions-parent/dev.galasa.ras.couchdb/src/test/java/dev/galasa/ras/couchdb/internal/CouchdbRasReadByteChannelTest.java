@@ -0,0 +1,173 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.util.List;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpStatus;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+
+import dev.galasa.extensions.common.mocks.HttpInteraction;
+import dev.galasa.extensions.common.mocks.MockCloseableHttpResponse;
+import dev.galasa.extensions.common.mocks.MockHttpEntity;
+import dev.galasa.extensions.common.mocks.MockStatusLine;
+import dev.galasa.framework.spi.ras.ResultArchiveStoreFileStore;
+import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
+import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+
+public class CouchdbRasReadByteChannelTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    CouchdbTestFixtures fixtures = new CouchdbTestFixtures();
+
+    private static final String ARTIFACT_CONTENT = "0123456789abcdefghij";
+
+    class GetArtifactInteraction implements HttpInteraction {
+
+        private String expectedUri;
+        private String expectedRange;
+        private String content;
+        private int statusCode;
+
+        public GetArtifactInteraction(String expectedUri, String expectedRange, int statusCode, String content) {
+            this.expectedUri = expectedUri;
+            this.expectedRange = expectedRange;
+            this.statusCode = statusCode;
+            this.content = content;
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            assertThat(request.getRequestLine().getMethod()).isEqualTo("GET");
+            assertThat(request.getRequestLine().getUri()).isEqualTo(expectedUri);
+            if (expectedRange == null) {
+                assertThat(request.getFirstHeader("Range")).isNull();
+            } else {
+                assertThat(request.getFirstHeader("Range").getValue()).isEqualTo(expectedRange);
+            }
+        }
+
+        @Override
+        public MockCloseableHttpResponse getResponse() {
+            MockCloseableHttpResponse response = new MockCloseableHttpResponse();
+            MockStatusLine statusLine = new MockStatusLine();
+            statusLine.setStatusCode(statusCode);
+            response.setStatusLine(statusLine);
+            response.setEntity(new MockHttpEntity(content));
+            return response;
+        }
+    }
+
+    private CouchdbArtifactPath createArtifactPath(CouchdbRasStore store, String digest) {
+        CouchdbRasFileSystemProvider provider = new CouchdbRasFileSystemProvider(new ResultArchiveStoreFileStore(), store, new MockLogFactory());
+        FileSystem fileSystem = provider.getActualFileSystem();
+
+        JsonObject details = new JsonObject();
+        details.addProperty("content_type", "text/plain");
+        details.addProperty("length", ARTIFACT_CONTENT.length());
+        if (digest != null) {
+            details.addProperty("digest", digest);
+        }
+        return new CouchdbArtifactPath(fileSystem, "/artifact.txt", details, "artifact-doc-1");
+    }
+
+    private String readAll(CouchdbRasReadByteChannel channel) throws Exception {
+        StringBuilder content = new StringBuilder();
+        ByteBuffer buffer = ByteBuffer.allocate(8);
+        while (channel.read(buffer) > 0) {
+            buffer.flip();
+            content.append(StandardCharsets.UTF_8.decode(buffer));
+            buffer.clear();
+        }
+        return content.toString();
+    }
+
+    @Test
+    public void testWholeArtifactIsReadFromCacheAfterFirstDownload() throws Exception {
+        // Given...
+        String artifactUri = CouchdbTestFixtures.rasUriStr + "/galasa_artifacts/artifact-doc-1/%2Fartifact.txt";
+        List<HttpInteraction> interactions = List.of(
+            new GetArtifactInteraction(artifactUri, null, HttpStatus.SC_OK, ARTIFACT_CONTENT)
+        );
+        CouchdbRasStore store = fixtures.createCouchdbRasStore(interactions, new MockLogFactory());
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 1000);
+        CouchdbArtifactPath artifactPath = createArtifactPath(store, "md5-abc");
+
+        // When...
+        String firstRead;
+        try (CouchdbRasReadByteChannel channel = new CouchdbRasReadByteChannel(store, cache, artifactPath)) {
+            firstRead = readAll(channel);
+        }
+
+        // The second read must not go to CouchDB, as there are no more interactions
+        String secondRead;
+        try (CouchdbRasReadByteChannel channel = new CouchdbRasReadByteChannel(store, cache, artifactPath)) {
+            secondRead = readAll(channel);
+        }
+
+        // Then...
+        assertThat(firstRead).isEqualTo(ARTIFACT_CONTENT);
+        assertThat(secondRead).isEqualTo(ARTIFACT_CONTENT);
+        assertThat(cache.getArtifactCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPartialReadUsesRangeRequest() throws Exception {
+        // Given...
+        String artifactUri = CouchdbTestFixtures.rasUriStr + "/galasa_artifacts/artifact-doc-1/%2Fartifact.txt";
+        List<HttpInteraction> interactions = List.of(
+            new GetArtifactInteraction(artifactUri, "bytes=15-", HttpStatus.SC_PARTIAL_CONTENT, ARTIFACT_CONTENT.substring(15))
+        );
+        CouchdbRasStore store = fixtures.createCouchdbRasStore(interactions, new MockLogFactory());
+        CouchdbArtifactCache cache = new CouchdbArtifactCache(tempFolder.getRoot().toPath(), 1000);
+        CouchdbArtifactPath artifactPath = createArtifactPath(store, "md5-abc");
+
+        // When...
+        String content;
+        try (CouchdbRasReadByteChannel channel = new CouchdbRasReadByteChannel(store, cache, artifactPath)) {
+            channel.position(15);
+            content = readAll(channel);
+        }
+
+        // Then...
+        assertThat(content).isEqualTo("fghij");
+        assertThat(cache.getArtifactCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRangeIgnoredByServerSkipsToRequestedPosition() throws Exception {
+        // Given...
+        String artifactUri = CouchdbTestFixtures.rasUriStr + "/galasa_artifacts/artifact-doc-1/%2Fartifact.txt";
+        List<HttpInteraction> interactions = List.of(
+            new GetArtifactInteraction(artifactUri, "bytes=10-", HttpStatus.SC_OK, ARTIFACT_CONTENT)
+        );
+        CouchdbRasStore store = fixtures.createCouchdbRasStore(interactions, new MockLogFactory());
+        CouchdbArtifactPath artifactPath = createArtifactPath(store, null);
+
+        // When...
+        String content;
+        try (CouchdbRasReadByteChannel channel = new CouchdbRasReadByteChannel(store, null, artifactPath)) {
+            channel.position(10);
+            content = readAll(channel);
+        }
+
+        // Then...
+        assertThat(content).isEqualTo("abcdefghij");
+    }
+}
@@ -6,12 +6,14 @@
 package dev.galasa.ras.couchdb.internal;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.http.HttpHost;
 import org.apache.http.HttpRequest;
@@ -32,6 +34,7 @@ import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.ras.couchdb.internal.mocks.CouchdbTestFixtures;
 import dev.galasa.ras.couchdb.internal.mocks.MockIRun;
 import dev.galasa.ras.couchdb.internal.mocks.MockLogFactory;
+import dev.galasa.ras.couchdb.internal.pojos.BulkDocsResult;
 import dev.galasa.ras.couchdb.internal.pojos.TestStructureCouchdb;
 
 public class CouchdbRasStoreTest {
@@ -110,6 +113,20 @@ public class CouchdbRasStoreTest {
         }
     }
 
+    class BulkCreateCouchdbDocumentsInteraction extends BaseHttpInteraction {
+
+        public BulkCreateCouchdbDocumentsInteraction(String expectedUri, int statusCode, List<BulkDocsResult> response) {
+            super(expectedUri, statusCode);
+            setResponsePayload(response);
+        }
+
+        @Override
+        public void validateRequest(HttpHost host, HttpRequest request) throws RuntimeException {
+            super.validateRequest(host,request);
+            assertThat(request.getRequestLine().getMethod()).isEqualTo("POST");
+        }
+    }
+
     CouchdbTestFixtures fixtures = new CouchdbTestFixtures();    
 
     private TestStructureCouchdb createTestStructure(String runName, String status, String docId, String revision) {
@@ -133,6 +150,35 @@ public class CouchdbRasStoreTest {
         fixtures.createCouchdbRasStore(null);
     }
 
+    @Test
+    public void testArtifactCacheWithoutCpsUsesDefaultMaxSize() throws Exception {
+        // Given...
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(null);
+
+        // When...
+        CouchdbArtifactCache artifactCache = rasStore.getArtifactCache();
+
+        // Then...
+        assertThat(artifactCache.isCacheable(CouchdbArtifactCache.DEFAULT_MAX_SIZE_BYTES)).isTrue();
+        assertThat(artifactCache.isCacheable(CouchdbArtifactCache.DEFAULT_MAX_SIZE_BYTES + 1)).isFalse();
+    }
+
+    @Test
+    public void testArtifactCacheUsesMaxSizeFromCps() throws Exception {
+        // Given...
+        Map<String, String> cpsProperties = new HashMap<>();
+        cpsProperties.put(CpsPropertyDef.ARTIFACT_CACHE_MAX_SIZE_MB.getPropertyName(), "2");
+        MockConfigurationPropertyStoreService mockCps = new MockConfigurationPropertyStoreService(cpsProperties);
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(mockCps, null, new MockLogFactory(), new MockCloseableHttpClient(new ArrayList<>()));
+
+        // When...
+        CouchdbArtifactCache artifactCache = rasStore.getArtifactCache();
+
+        // Then...
+        assertThat(artifactCache.isCacheable(2 * 1024 * 1024)).isTrue();
+        assertThat(artifactCache.isCacheable(2 * 1024 * 1024 + 1)).isFalse();
+    }
+
     @Test
     public void testCanUpdateTestStructureOK() throws Exception {
         // Given...
@@ -287,14 +333,17 @@ public class CouchdbRasStoreTest {
     public void testWriteLogUpdatesRunLogLineCountOver100FlushesLogCache() throws Exception {
         // Given...
 
-        // Once the number of lines written to the run log in writeLog exceeds 100,
-        // the logCache is flushed (log is actually written to the CouchDB RAS store)
+        // Once the number of lines written to the run log in writeLog reaches 100,
+        // a batch of 100 lines is shipped in the background (log is actually written to the CouchDB RAS store)
         List<String> runLogLines = new ArrayList<String>();
         int desiredRunLogLineCount = 101;
         for (int i = 1; i <= desiredRunLogLineCount; i++) {
             runLogLines.add("This is run log line number " + i);
         }
 
+        // The run document records the size of the log as it is read back, with the shipped lines separated by newlines
+        int expectedLogSize = String.join("\n", runLogLines.subList(0, 100)).length();
+
         String docId = "run1";
         String revision = "my-revision";
 
@@ -303,6 +352,11 @@ public class CouchdbRasStoreTest {
         mockPutResponse.rev = revision;
         mockPutResponse.ok = true;
 
+        BulkDocsResult mockLogDocResult = new BulkDocsResult();
+        mockLogDocResult.id = "log1";
+        mockLogDocResult.rev = revision;
+        mockLogDocResult.ok = true;
+
         String baseUri = "http://my.uri";
         MockLogFactory mockLogFactory = new MockLogFactory();
         List<HttpInteraction> interactions = List.of(
@@ -311,12 +365,14 @@ public class CouchdbRasStoreTest {
             // Create the artifacts document
             new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.ARTIFACTS_DB, HttpStatus.SC_CREATED, mockPutResponse),
             // Create the run log document
-            new CreateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB, HttpStatus.SC_CREATED, mockPutResponse),
+            new BulkCreateCouchdbDocumentsInteraction(baseUri + "/" + CouchdbRasStore.LOG_DB + "/_bulk_docs", HttpStatus.SC_CREATED, List.of(mockLogDocResult)),
             // Update the run document
-            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse)
+            new UpdateCouchdbDocumentInteraction(baseUri + "/" + CouchdbRasStore.RUNS_DB + "/" + docId, HttpStatus.SC_CREATED, mockPutResponse, "log1", "\"logSize\": " + expectedLogSize)
         );
 
+        // Make sure the left-over line isn't shipped by the flush interval while the test runs
         Map<String,String> inputProps = new HashMap<String,String>();
+        inputProps.put("log.flush.interval.millis", "600000");
 
         CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(inputProps, interactions, mockLogFactory);
 
@@ -325,6 +381,36 @@ public class CouchdbRasStoreTest {
 
         // Then...
         assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(desiredRunLogLineCount);
+
+        CouchdbLogShipper logShipper = rasStore.getLogShipper();
+        await().atMost(10, TimeUnit.SECONDS).until(() -> logShipper.getShippedLineCount() == 100);
+        assertThat(logShipper.getQueuedLineCount()).isEqualTo(1);
+        assertThat(logShipper.getDroppedLineCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testWriteLogDoesNotCountLinesDroppedBecauseTheLogBufferIsFull() throws Exception {
+        // Given...
+        List<String> runLogLines = new ArrayList<String>();
+        for (int i = 1; i <= 25; i++) {
+            runLogLines.add("This is run log line number " + i);
+        }
+
+        // A buffer smaller than a batch, which is never shipped while the test runs
+        Map<String,String> inputProps = new HashMap<String,String>();
+        inputProps.put("log.buffer.capacity", "10");
+        inputProps.put("log.flush.interval.millis", "600000");
+
+        CouchdbRasStore rasStore = fixtures.createCouchdbRasStore(inputProps);
+
+        // When...
+        rasStore.writeLog(runLogLines);
+
+        // Then...
+        CouchdbLogShipper logShipper = rasStore.getLogShipper();
+        assertThat(logShipper.getQueuedLineCount()).isEqualTo(10);
+        assertThat(logShipper.getDroppedLineCount()).isEqualTo(15);
+        assertThat(rasStore.retrieveRunLogLineCount()).isEqualTo(10);
     }
 
     @Test
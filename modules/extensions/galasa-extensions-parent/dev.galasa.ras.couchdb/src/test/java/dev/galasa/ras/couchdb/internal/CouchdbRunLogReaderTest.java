@@ -0,0 +1,130 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import dev.galasa.framework.spi.IRunLogReader;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+public class CouchdbRunLogReaderTest {
+
+    class MockLogLineSource implements CouchdbRunLogReader.LogLineSource {
+        Map<String, List<String>> logDocuments = new HashMap<>();
+        List<String> logRecordIdsRead = new ArrayList<>();
+
+        @Override
+        public List<String> getLogLines(String logRecordId) throws ResultArchiveStoreException {
+            logRecordIdsRead.add(logRecordId);
+            return logDocuments.get(logRecordId);
+        }
+    }
+
+    class MockRunResult implements IRunResult {
+        TestStructure testStructure = new TestStructure();
+
+        MockRunResult(List<String> logRecordIds) {
+            testStructure.setLogRecordIds(logRecordIds);
+        }
+
+        @Override
+        public String getRunId() {
+            return "cdb-run1";
+        }
+
+        @Override
+        public TestStructure getTestStructure() {
+            return testStructure;
+        }
+
+        @Override
+        public Path getArtifactsRoot() {
+            return null;
+        }
+
+        @Override
+        public String getLog() {
+            return null;
+        }
+
+        @Override
+        public void discard() {
+        }
+
+        @Override
+        public void loadArtifacts() {
+        }
+    }
+
+    private List<String> readAllLines(IRunLogReader logReader) throws ResultArchiveStoreException {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = logReader.readLine()) != null) {
+            lines.add(line);
+        }
+        return lines;
+    }
+
+    @Test
+    public void testLinesAreReadOneDocumentAtATime() throws Exception {
+        // Given...
+        MockLogLineSource source = new MockLogLineSource();
+        source.logDocuments.put("log1", List.of("line 1", "line 2"));
+        source.logDocuments.put("log2", List.of("line 3"));
+        IRunLogReader logReader = new CouchdbRunLogReader(source, List.of("log1", "log2"));
+
+        // When...
+        String firstLine = logReader.readLine();
+
+        // Then...
+        assertThat(firstLine).isEqualTo("line 1");
+        assertThat(source.logRecordIdsRead).containsExactly("log1");
+        assertThat(readAllLines(logReader)).containsExactly("line 2", "line 3");
+    }
+
+    @Test
+    public void testRefreshCarriesOnFromTheNextDocument() throws Exception {
+        // Given...
+        MockLogLineSource source = new MockLogLineSource();
+        source.logDocuments.put("log1", List.of("line 1"));
+        source.logDocuments.put("log2", List.of("line 2"));
+        IRunLogReader logReader = new CouchdbRunLogReader(source, List.of("log1"));
+        readAllLines(logReader);
+
+        // When...
+        boolean isRefreshed = logReader.refresh(new MockRunResult(List.of("log1", "log2")));
+
+        // Then...
+        assertThat(isRefreshed).isTrue();
+        assertThat(readAllLines(logReader)).containsExactly("line 2");
+        assertThat(source.logRecordIdsRead).containsExactly("log1", "log2");
+    }
+
+    @Test
+    public void testRefreshFailsIfDocumentsAlreadyReadHaveBeenReplaced() throws Exception {
+        // Given...
+        MockLogLineSource source = new MockLogLineSource();
+        source.logDocuments.put("log1", List.of("line 1"));
+        IRunLogReader logReader = new CouchdbRunLogReader(source, List.of("log1"));
+        readAllLines(logReader);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> logReader.refresh(new MockRunResult(List.of("log9", "log2"))));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("has changed");
+    }
+}
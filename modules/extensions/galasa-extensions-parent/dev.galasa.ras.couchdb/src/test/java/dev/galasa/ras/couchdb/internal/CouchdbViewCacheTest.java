@@ -0,0 +1,131 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.ras.couchdb.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import dev.galasa.extensions.common.mocks.MockTimeService;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+public class CouchdbViewCacheTest {
+
+    class MockViewSource implements CouchdbViewCache.ViewSource {
+
+        String updateSequence = "1-abc";
+        List<String> keys = List.of("alice", "bob");
+        String etag = "\"etag1\"";
+
+        int updateSequenceQueryCount = 0;
+        List<String> etagsSent = new ArrayList<>();
+
+        @Override
+        public String getUpdateSequence() throws ResultArchiveStoreException {
+            updateSequenceQueryCount++;
+            return updateSequence;
+        }
+
+        @Override
+        public CouchdbViewCache.ViewKeys queryView(String viewName, String etagSent) throws ResultArchiveStoreException {
+            etagsSent.add(etagSent);
+            CouchdbViewCache.ViewKeys viewKeys = null;
+            if (!etag.equals(etagSent)) {
+                viewKeys = new CouchdbViewCache.ViewKeys(keys, etag);
+            }
+            return viewKeys;
+        }
+    }
+
+    private Instant startTime = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Test
+    public void testViewIsServedFromCacheUntilItExpires() throws Exception {
+        // Given...
+        MockViewSource source = new MockViewSource();
+        MockTimeService timeService = new MockTimeService(startTime);
+        CouchdbViewCache cache = new CouchdbViewCache(source, timeService, 30000);
+
+        // When...
+        List<String> firstKeys = cache.getViewKeys("requestors-view");
+        timeService.setCurrentTime(startTime.plusSeconds(10));
+        List<String> secondKeys = cache.getViewKeys("requestors-view");
+
+        // Then...
+        assertThat(firstKeys).containsExactly("alice", "bob");
+        assertThat(secondKeys).containsExactly("alice", "bob");
+        assertThat(source.etagsSent).hasSize(1);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    public void testExpiredViewIsNotQueriedIfDatabaseHasNotChanged() throws Exception {
+        // Given...
+        MockViewSource source = new MockViewSource();
+        MockTimeService timeService = new MockTimeService(startTime);
+        CouchdbViewCache cache = new CouchdbViewCache(source, timeService, 30000);
+        cache.getViewKeys("requestors-view");
+
+        // When...
+        timeService.setCurrentTime(startTime.plusSeconds(60));
+        List<String> keys = cache.getViewKeys("requestors-view");
+
+        // Then...
+        assertThat(keys).containsExactly("alice", "bob");
+        assertThat(source.updateSequenceQueryCount).isEqualTo(2);
+        assertThat(source.etagsSent).hasSize(1);
+        assertThat(cache.getUnchangedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpiredViewIsRevalidatedWithEtagWhenDatabaseHasChanged() throws Exception {
+        // Given...
+        MockViewSource source = new MockViewSource();
+        MockTimeService timeService = new MockTimeService(startTime);
+        CouchdbViewCache cache = new CouchdbViewCache(source, timeService, 30000);
+        cache.getViewKeys("requestors-view");
+
+        // A run was updated, but the requestors view is unchanged
+        source.updateSequence = "2-def";
+        timeService.setCurrentTime(startTime.plusSeconds(60));
+
+        // When...
+        List<String> keys = cache.getViewKeys("requestors-view");
+
+        // Then...
+        assertThat(keys).containsExactly("alice", "bob");
+        assertThat(source.etagsSent).containsExactly(null, "\"etag1\"");
+        assertThat(cache.getUnchangedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testChangedViewReplacesCachedKeys() throws Exception {
+        // Given...
+        MockViewSource source = new MockViewSource();
+        MockTimeService timeService = new MockTimeService(startTime);
+        CouchdbViewCache cache = new CouchdbViewCache(source, timeService, 30000);
+        cache.getViewKeys("requestors-view");
+
+        source.updateSequence = "2-def";
+        source.keys = List.of("alice", "bob", "carol");
+        source.etag = "\"etag2\"";
+        timeService.setCurrentTime(startTime.plusSeconds(60));
+
+        // When...
+        List<String> keys = cache.getViewKeys("requestors-view");
+
+        // Then...
+        assertThat(keys).containsExactly("alice", "bob", "carol");
+        assertThat(cache.getUnchangedCount()).isEqualTo(0);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+    }
+}
@@ -22,11 +22,16 @@ import java.security.NoSuchAlgorithmException;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Base64.Decoder;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletResponse;
@@ -42,6 +47,7 @@ import com.auth0.jwt.interfaces.DecodedJWT;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 
 import dev.galasa.framework.api.authentication.IOidcProvider;
@@ -65,10 +71,19 @@ public class OidcProvider implements IOidcProvider {
     private static final String BEARER_TOKEN_SCOPE = "openid offline_access profile";
     private static final int JWK_REFRESH_INTERVAL_MINUTES = 10;
 
-    private JsonArray jsonWebKeys;
-    private Instant nextJwkRefresh = Instant.EPOCH;
+    // The issuer's JSON Web Keys, and verifiers built from them, by key ID. Both maps are
+    // replaced, never changed, when the keys are refreshed, so they can be read without locking.
+    private volatile Map<String, JsonWebKey> jsonWebKeys;
+    private volatile Map<String, JWTVerifier> jwtVerifiers = Collections.emptyMap();
+    private volatile Instant nextJwkRefresh = Instant.EPOCH;
     private ITimeService timeService;
 
+    private final VerifiedJwtCache verifiedJwtCache;
+
+    // Metrics for checking the signatures of JWTs that are not in the verified JWT cache
+    private final AtomicLong signatureCheckCount = new AtomicLong();
+    private final AtomicLong signatureCheckNanos = new AtomicLong();
+
     private URI issuerUrl;
     private URI authorizationEndpoint;
     private URI tokenEndpoint;
@@ -77,6 +92,7 @@ public class OidcProvider implements IOidcProvider {
     private HttpClient httpClient = HttpClient.newHttpClient();
 
     public OidcProvider(String issuerUrl, HttpClient httpClient, ITimeService timeService) throws ServletException {
+        this.verifiedJwtCache = new VerifiedJwtCache(timeService);
         try {
             this.issuerUrl = new URI(issuerUrl);
             this.httpClient = httpClient;
@@ -235,49 +251,118 @@ public class OidcProvider implements IOidcProvider {
      */
     public synchronized JsonWebKey getJsonWebKeyByKeyId(String keyId) throws IOException, InterruptedException {
         // Check if it is time to refresh the cached JSON web keys
-        if (jsonWebKeys == null || nextJwkRefresh.isBefore(timeService.now())) {
+        if (isJwkRefreshDue()) {
             logger.info("Refreshing cached JSON Web Keys");
             refreshJsonWebKeys();
         }
+        return jsonWebKeys.get(keyId);
+    }
+
+    /**
+     * Checks if a given JWT is valid or not
+     */
+    public boolean isJwtValid(String jwt) throws NoSuchAlgorithmException, InvalidKeySpecException, IOException, InterruptedException {
+        // Refreshing the keys forgets tokens signed by keys the issuer has stopped publishing,
+        // so do it when it is due even if the token has been verified already
+        if (isJwkRefreshDue()) {
+            refreshJsonWebKeysIfDue();
+        }
 
-        // Iterate over the JSON array of JWKs, finding the one that matches the given key ID
-        JsonWebKey matchingKey = null;
-        for (JsonElement keyElement : jsonWebKeys) {
-            JsonWebKey key = gson.fromJson(keyElement.toString(), JsonWebKey.class);
-            if (key.getKeyId().equals(keyId)) {
-                matchingKey = key;
-                break;
+        // Tokens are sent again and again by the same clients, so skip checking the
+        // signature of tokens that have been verified already
+        boolean isValid = verifiedJwtCache.isVerified(jwt);
+        if (!isValid) {
+            long startNanos = System.nanoTime();
+            try {
+                DecodedJWT decodedJwt = JWT.decode(jwt);
+
+                // Try to get the verifier for the public key used to sign this JWT
+                String keyId = decodedJwt.getKeyId();
+                JWTVerifier verifier = getJwtVerifier(keyId);
+                if (verifier != null) {
+                    decodedJwt = verifier.verify(decodedJwt);
+                    isValid = (decodedJwt != null);
+
+                    if (isValid) {
+                        verifiedJwtCache.addVerified(jwt, keyId, decodedJwt.getExpiresAtAsInstant());
+                    }
+                }
+
+            } catch (JWTVerificationException e) {
+                // The JWT is not valid
+                logger.error("Invalid JWT '" + jwt + "'. Reason: " + e.getMessage(), e);
+            } finally {
+                signatureCheckCount.incrementAndGet();
+                signatureCheckNanos.addAndGet(System.nanoTime() - startNanos);
             }
         }
-        return matchingKey;
+        return isValid;
     }
 
     /**
-     * Checks if a given JWT is valid or not
+     * @return how many JWTs have had their signatures checked, rather than being found in the verified JWT cache
      */
-    public boolean isJwtValid(String jwt) throws NoSuchAlgorithmException, InvalidKeySpecException, IOException, InterruptedException {
-        boolean isValid = false;
-        try {
-            DecodedJWT decodedJwt = JWT.decode(jwt);
+    public long getSignatureCheckCount() {
+        return signatureCheckCount.get();
+    }
+
+    /**
+     * @return the total time spent checking the signatures of JWTs, including fetching the issuer's keys
+     */
+    public Duration getSignatureCheckTime() {
+        return Duration.ofNanos(signatureCheckNanos.get());
+    }
+
+    /**
+     * @return how many JWTs were found in the verified JWT cache, so didn't need their signatures checked
+     */
+    public long getVerifiedJwtCacheHitCount() {
+        return verifiedJwtCache.getHitCount();
+    }
 
-            // Try to get the public key used to sign this JWT
-            RSAPublicKey publicKey = getRSAPublicKeyFromIssuer(decodedJwt.getKeyId());
-            if (publicKey != null) {
-                Algorithm algorithm = Algorithm.RSA256(publicKey, null);
-                JWTVerifier verifier = JWT.require(algorithm).withIssuer(issuerUrl.toString()).build();
+    /**
+     * Gets the verifier for the key with the given key ID, refreshing the issuer's keys if
+     * they are due to be refreshed or if the key isn't known yet
+     */
+    private JWTVerifier getJwtVerifier(String keyId) throws IOException, InterruptedException {
+        JWTVerifier verifier = null;
+        if (!isJwkRefreshDue()) {
+            verifier = jwtVerifiers.get(keyId);
+        }
 
-                decodedJwt = verifier.verify(jwt);
-                isValid = (decodedJwt != null);
+        if (verifier == null) {
+            synchronized (this) {
+                refreshJsonWebKeysIfDue();
+
+                verifier = jwtVerifiers.get(keyId);
+                if (verifier == null) {
+                    // Force the cached keys to be refreshed and try again, the issuer may have rotated its keys
+                    refreshJsonWebKeys();
+                    verifier = jwtVerifiers.get(keyId);
+
+                    // If we still failed to get a matching key, then this must be a bad key ID
+                    if (verifier == null) {
+                        logger.error("Error: No matching JSON Web Key was found with key ID '" + keyId + "'.");
+                    }
+                }
             }
+        }
+        return verifier;
+    }
 
-        } catch (JWTVerificationException e) {
-            // The JWT is not valid
-            logger.error("Invalid JWT '" + jwt + "'. Reason: " + e.getMessage(), e);
+    private synchronized void refreshJsonWebKeysIfDue() throws IOException, InterruptedException {
+        // Another thread may have refreshed the keys while this one was waiting
+        if (isJwkRefreshDue()) {
+            logger.info("Refreshing cached JSON Web Keys");
+            refreshJsonWebKeys();
         }
-        return isValid;
     }
 
-    // Constructs an RSA public key from a JSON Web Key (JWK) that contains the provided key ID
+    private boolean isJwkRefreshDue() {
+        return jsonWebKeys == null || nextJwkRefresh.isBefore(timeService.now());
+    }
+
+    // Constructs an RSA public key from a JSON Web Key (JWK)
     // A JWK contains the following fields:
     // {
     //   "use": "sig",
@@ -287,22 +372,7 @@ public class OidcProvider implements IOidcProvider {
     //   "n": "abcdefg",
     //   "e": "xyz"
     // }
-    private RSAPublicKey getRSAPublicKeyFromIssuer(String keyId)
-            throws IOException, InterruptedException, NoSuchAlgorithmException, InvalidKeySpecException {
-
-        // Get the JWK with the given key ID
-        JsonWebKey matchingJwk = getJsonWebKeyByKeyId(keyId);
-        if (matchingJwk == null) {
-            // Force the cached keys to be refreshed and try again
-            nextJwkRefresh = Instant.EPOCH;
-            matchingJwk = getJsonWebKeyByKeyId(keyId);
-
-            // If we still failed to get a matching key, then this must be a bad key ID
-            if (matchingJwk == null) {
-                logger.error("Error: No matching JSON Web Key was found with key ID '" + keyId + "'.");
-                return null;
-            }
-        }
+    private RSAPublicKey getRSAPublicKey(JsonWebKey matchingJwk) throws NoSuchAlgorithmException, InvalidKeySpecException {
 
         // A JWK contains an 'n' field to represent the key's modulus, and an 'e' field to represent the key's exponent, both are Base64URL-encoded
         Decoder decoder = Base64.getUrlDecoder();
@@ -358,10 +428,36 @@ public class OidcProvider implements IOidcProvider {
      * Refreshes the cached JSON Web Keys used to verify the signature of JWTs
      */
     private void refreshJsonWebKeys() throws IOException, InterruptedException {
-        jsonWebKeys = getJsonWebKeysFromIssuer();
+        JsonArray updatedJwks = getJsonWebKeysFromIssuer();
+
+        // Parse the keys and build their verifiers once here, rather than for every JWT that is checked
+        Map<String, JsonWebKey> updatedKeys = new HashMap<>();
+        Map<String, JWTVerifier> updatedVerifiers = new HashMap<>();
+        for (JsonElement keyElement : updatedJwks) {
+            try {
+                JsonWebKey key = gson.fromJson(keyElement.toString(), JsonWebKey.class);
+                String keyId = key.getKeyId();
+                if (keyId != null) {
+                    updatedKeys.put(keyId, key);
+
+                    if (key.getRsaModulus() != null && key.getRsaExponent() != null) {
+                        Algorithm algorithm = Algorithm.RSA256(getRSAPublicKey(key), null);
+                        updatedVerifiers.put(keyId, JWT.require(algorithm).withIssuer(issuerUrl.toString()).build());
+                    }
+                }
+            } catch (JsonParseException | IllegalArgumentException | NoSuchAlgorithmException | InvalidKeySpecException e) {
+                logger.error("Unable to use JSON Web Key from issuer, ignoring it. Reason: " + e.getMessage(), e);
+            }
+        }
+
+        jsonWebKeys = Collections.unmodifiableMap(updatedKeys);
+        jwtVerifiers = Collections.unmodifiableMap(updatedVerifiers);
+
+        // Tokens signed by keys that the issuer no longer publishes can't be trusted any more
+        verifiedJwtCache.retainKeys(updatedVerifiers.keySet());
 
         // Update the next refresh time by the refresh interval
-        nextJwkRefresh = Instant.now().plus(JWK_REFRESH_INTERVAL_MINUTES, ChronoUnit.MINUTES);
+        nextJwkRefresh = timeService.now().plus(JWK_REFRESH_INTERVAL_MINUTES, ChronoUnit.MINUTES);
     }
 
     /**
@@ -0,0 +1,167 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.authentication.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Remembers JWTs whose signatures have already been verified, so that clients which send the
+ * same token on every request don't need their token's signature checked every time.
+ *
+ * Tokens are held as SHA-256 hashes rather than as the tokens themselves, and each one is only
+ * trusted until it expires. Each token also records the ID of the key it was signed with, so that
+ * tokens signed by a key which the issuer no longer publishes can be forgotten.
+ *
+ * The cache holds a limited number of tokens. Once it is full, expired tokens are removed to make
+ * room, and if there is still no room then new tokens are not cached, but are still verified.
+ * A full cache is only searched for expired tokens once the earliest expiry found by the last
+ * search has passed, so a full cache of unexpired tokens isn't searched for every new token.
+ */
+public class VerifiedJwtCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static class VerifiedJwt {
+        private final String keyId;
+        private final Instant expiresAt;
+
+        private VerifiedJwt(String keyId, Instant expiresAt) {
+            this.keyId = keyId;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final Map<String, VerifiedJwt> verifiedJwts = new ConcurrentHashMap<>();
+    private final ITimeService timeService;
+    private final int maxEntries;
+
+    // No token in the cache expired before this when the cache was last searched for expired tokens
+    private volatile Instant nextExpiryAt = Instant.MIN;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong expirySearchCount = new AtomicLong();
+
+    public VerifiedJwtCache(ITimeService timeService) {
+        this(timeService, DEFAULT_MAX_ENTRIES);
+    }
+
+    public VerifiedJwtCache(ITimeService timeService, int maxEntries) {
+        this.timeService = timeService;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @param jwt the encoded JWT
+     * @return true if the JWT has been verified before and has not expired yet
+     */
+    public boolean isVerified(String jwt) {
+        boolean isVerified = false;
+        String jwtHash = hash(jwt);
+
+        VerifiedJwt verifiedJwt = verifiedJwts.get(jwtHash);
+        if (verifiedJwt != null) {
+            if (timeService.now().isBefore(verifiedJwt.expiresAt)) {
+                isVerified = true;
+            } else {
+                verifiedJwts.remove(jwtHash, verifiedJwt);
+            }
+        }
+
+        if (isVerified) {
+            hitCount.incrementAndGet();
+        } else {
+            missCount.incrementAndGet();
+        }
+        return isVerified;
+    }
+
+    /**
+     * Records that the JWT has been verified
+     *
+     * @param jwt the encoded JWT
+     * @param keyId the ID of the key the JWT was signed with
+     * @param expiresAt when the JWT expires. JWTs which never expire are not cached.
+     */
+    public void addVerified(String jwt, String keyId, Instant expiresAt) {
+        if (expiresAt != null && keyId != null) {
+            if (verifiedJwts.size() >= maxEntries && !timeService.now().isBefore(nextExpiryAt)) {
+                removeExpired();
+            }
+
+            if (verifiedJwts.size() < maxEntries) {
+                verifiedJwts.put(hash(jwt), new VerifiedJwt(keyId, expiresAt));
+            }
+        }
+    }
+
+    /**
+     * Forgets the JWTs signed by keys other than the given keys, for when the issuer has rotated its keys
+     *
+     * @param currentKeyIds the IDs of the keys the issuer publishes now
+     */
+    public void retainKeys(Set<String> currentKeyIds) {
+        verifiedJwts.values().removeIf(verifiedJwt -> !currentKeyIds.contains(verifiedJwt.keyId));
+    }
+
+    public int size() {
+        return verifiedJwts.size();
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getExpirySearchCount() {
+        return expirySearchCount.get();
+    }
+
+    /**
+     * Removes the expired tokens, and remembers when the first of the remaining tokens expires
+     */
+    private void removeExpired() {
+        expirySearchCount.incrementAndGet();
+        Instant now = timeService.now();
+        Instant earliestExpiry = Instant.MAX;
+
+        Iterator<VerifiedJwt> verifiedJwtIterator = verifiedJwts.values().iterator();
+        while (verifiedJwtIterator.hasNext()) {
+            VerifiedJwt verifiedJwt = verifiedJwtIterator.next();
+            if (!now.isBefore(verifiedJwt.expiresAt)) {
+                verifiedJwtIterator.remove();
+            } else if (verifiedJwt.expiresAt.isBefore(earliestExpiry)) {
+                earliestExpiry = verifiedJwt.expiresAt;
+            }
+        }
+        nextExpiryAt = earliestExpiry;
+    }
+
+    private String hash(String jwt) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(jwt.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -543,6 +543,122 @@ public class OidcProviderTest {
         assertThat(result).isTrue();
     }
 
+    @Test
+    public void testIsJwtValidWithAlreadyVerifiedJwtSkipsSignatureCheck() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        JsonObject mockJwk = createMockJwkObject(keyId, mockPublicKey);
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(mockJwk);
+
+        String validJwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(Instant.MAX)
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+
+        // When...
+        boolean firstResult = oidcProvider.isJwtValid(validJwt);
+        boolean secondResult = oidcProvider.isJwtValid(validJwt);
+
+        // Then...
+        assertThat(firstResult).isTrue();
+        assertThat(secondResult).isTrue();
+        assertThat(oidcProvider.getSignatureCheckCount()).isEqualTo(1);
+        assertThat(oidcProvider.getVerifiedJwtCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIsJwtValidWithVerifiedJwtChecksSignatureAgainOnceJwtHasExpired() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        JsonObject mockJwk = createMockJwkObject(keyId, mockPublicKey);
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(mockJwk);
+
+        Instant expiry = Instant.now().plus(1, ChronoUnit.HOURS);
+        String validJwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(expiry)
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+
+        // When...
+        oidcProvider.isJwtValid(validJwt);
+
+        // The cached JWT can't be used after it has expired
+        mockTimeService.setCurrentTime(expiry);
+        oidcProvider.isJwtValid(validJwt);
+
+        // Then...
+        assertThat(oidcProvider.getSignatureCheckCount()).isEqualTo(2);
+        assertThat(oidcProvider.getVerifiedJwtCacheHitCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void testIsJwtValidWithVerifiedJwtReturnsFalseOnceIssuerStopsPublishingItsKey() throws Exception {
+        // Given...
+        String issuer = "http://dummy-issuer";
+        String keyId = "mock-key";
+
+        KeyPair mockKeyPair = generateMockRsaKeyPair();
+        RSAPublicKey mockPublicKey =  (RSAPublicKey) mockKeyPair.getPublic();
+        RSAPrivateKey mockPrivateKey =  (RSAPrivateKey) mockKeyPair.getPrivate();
+
+        JsonObject mockJwk = createMockJwkObject(keyId, mockPublicKey);
+        HttpResponse<Object> mockJwkResponse = createMockJwksResponse(mockJwk);
+
+        String validJwt = JWT.create()
+            .withIssuer(issuer)
+            .withKeyId(keyId)
+            .withExpiresAt(Instant.MAX)
+            .sign(Algorithm.RSA256(mockPublicKey, mockPrivateKey));
+
+        MockHttpClient mockHttpClient = new MockHttpClient(createMockOidcDiscoveryResponse());
+        MockTimeService mockTimeService = new MockTimeService(Instant.now());
+        OidcProvider oidcProvider = new OidcProvider(issuer, mockHttpClient, mockTimeService);
+
+        mockHttpClient.setMockResponse(mockJwkResponse);
+
+        // When...
+        boolean resultBeforeRotation = oidcProvider.isJwtValid(validJwt);
+
+        // The issuer rotates its keys, which is noticed when the keys are next due to be refreshed
+        JsonObject rotatedJwk = createMockJwkObject("rotated-key", (RSAPublicKey) generateMockRsaKeyPair().getPublic());
+        mockHttpClient.setMockResponse(createMockJwksResponse(rotatedJwk));
+        boolean resultBeforeRefreshIsDue = oidcProvider.isJwtValid(validJwt);
+
+        mockTimeService.setCurrentTime(mockTimeService.now().plus(11, ChronoUnit.MINUTES));
+        boolean resultAfterRotation = oidcProvider.isJwtValid(validJwt);
+
+        // Then...
+        assertThat(resultBeforeRotation).isTrue();
+        assertThat(resultBeforeRefreshIsDue).isTrue();
+        assertThat(resultAfterRotation).isFalse();
+    }
+
     @Test
     public void testGetOpenIdConfigurationReturnsValidConfig() throws Exception {
         // Given...
@@ -0,0 +1,124 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.authentication.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.Set;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockTimeService;
+
+public class VerifiedJwtCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    public void testUnknownJwtIsNotVerified() throws Exception {
+        // Given...
+        VerifiedJwtCache cache = new VerifiedJwtCache(new MockTimeService(NOW));
+
+        // When...
+        boolean isVerified = cache.isVerified("a.jwt.token");
+
+        // Then...
+        assertThat(isVerified).isFalse();
+        assertThat(cache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testVerifiedJwtIsOnlyTrustedUntilItExpires() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(NOW);
+        VerifiedJwtCache cache = new VerifiedJwtCache(mockTimeService);
+        cache.addVerified("a.jwt.token", "key1", NOW.plusSeconds(60));
+
+        // When...
+        boolean isVerifiedBeforeExpiry = cache.isVerified("a.jwt.token");
+        mockTimeService.setCurrentTime(NOW.plusSeconds(60));
+        boolean isVerifiedAtExpiry = cache.isVerified("a.jwt.token");
+
+        // Then...
+        assertThat(isVerifiedBeforeExpiry).isTrue();
+        assertThat(isVerifiedAtExpiry).isFalse();
+        assertThat(cache.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testJwtWithoutExpiryIsNotCached() throws Exception {
+        // Given...
+        VerifiedJwtCache cache = new VerifiedJwtCache(new MockTimeService(NOW));
+
+        // When...
+        cache.addVerified("a.jwt.token", "key1", null);
+
+        // Then...
+        assertThat(cache.isVerified("a.jwt.token")).isFalse();
+    }
+
+    @Test
+    public void testJwtsSignedByRemovedKeysAreForgotten() throws Exception {
+        // Given...
+        VerifiedJwtCache cache = new VerifiedJwtCache(new MockTimeService(NOW));
+        cache.addVerified("first.jwt.token", "key1", NOW.plusSeconds(60));
+        cache.addVerified("second.jwt.token", "key2", NOW.plusSeconds(60));
+
+        // When...
+        cache.retainKeys(Set.of("key2"));
+
+        // Then...
+        assertThat(cache.isVerified("first.jwt.token")).isFalse();
+        assertThat(cache.isVerified("second.jwt.token")).isTrue();
+    }
+
+    @Test
+    public void testFullCacheRemovesExpiredJwtsToMakeRoom() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(NOW);
+        VerifiedJwtCache cache = new VerifiedJwtCache(mockTimeService, 2);
+        cache.addVerified("first.jwt.token", "key1", NOW.plusSeconds(10));
+        cache.addVerified("second.jwt.token", "key1", NOW.plusSeconds(60));
+
+        // When...
+        cache.addVerified("third.jwt.token", "key1", NOW.plusSeconds(60));
+        boolean isThirdCachedWhileFull = cache.isVerified("third.jwt.token");
+
+        mockTimeService.setCurrentTime(NOW.plusSeconds(10));
+        cache.addVerified("third.jwt.token", "key1", NOW.plusSeconds(60));
+
+        // Then...
+        assertThat(isThirdCachedWhileFull).isFalse();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.isVerified("second.jwt.token")).isTrue();
+        assertThat(cache.isVerified("third.jwt.token")).isTrue();
+    }
+
+    @Test
+    public void testFullCacheIsNotSearchedAgainUntilAJwtCanHaveExpired() throws Exception {
+        // Given...
+        MockTimeService mockTimeService = new MockTimeService(NOW);
+        VerifiedJwtCache cache = new VerifiedJwtCache(mockTimeService, 2);
+        cache.addVerified("first.jwt.token", "key1", NOW.plusSeconds(10));
+        cache.addVerified("second.jwt.token", "key1", NOW.plusSeconds(60));
+
+        // When...
+        for (int i = 0; i < 100; i++) {
+            cache.addVerified("another.jwt.token" + i, "key1", NOW.plusSeconds(60));
+        }
+        long searchCountBeforeExpiry = cache.getExpirySearchCount();
+
+        mockTimeService.setCurrentTime(NOW.plusSeconds(10));
+        cache.addVerified("last.jwt.token", "key1", NOW.plusSeconds(60));
+
+        // Then...
+        assertThat(searchCountBeforeExpiry).isEqualTo(1);
+        assertThat(cache.getExpirySearchCount()).isEqualTo(2);
+        assertThat(cache.isVerified("first.jwt.token")).isFalse();
+        assertThat(cache.isVerified("last.jwt.token")).isTrue();
+    }
+}
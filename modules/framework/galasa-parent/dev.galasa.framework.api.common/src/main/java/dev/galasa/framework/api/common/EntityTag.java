@@ -0,0 +1,94 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Builds HTTP entity tags and checks them against the If-None-Match header sent by clients,
+ * so that routes can answer 304 Not Modified rather than sending content the client already has.
+ */
+public class EntityTag {
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private EntityTag() {
+        // Only static methods
+    }
+
+    /**
+     * @param content the content to hash
+     * @return a URL-safe SHA-256 hash of the content, suitable for the opaque part of an entity tag
+     */
+    public static String hash(byte[] content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static String hash(String content) {
+        return hash(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param opaqueTag the opaque part of the tag, such as a hash of the content
+     * @return a strong entity tag, which changes whenever any byte of the content changes
+     */
+    public static String strong(String opaqueTag) {
+        return "\"" + opaqueTag + "\"";
+    }
+
+    /**
+     * @param opaqueTag the opaque part of the tag, such as a hash of the content's version
+     * @return a weak entity tag, for content which is equivalent while the tag is unchanged
+     */
+    public static String weak(String opaqueTag) {
+        return WEAK_PREFIX + strong(opaqueTag);
+    }
+
+    /**
+     * Compares the tags in an If-None-Match header with the current entity tags of the content.
+     * Tags are compared weakly, as If-None-Match requires, so any "W/" prefixes are ignored.
+     *
+     * @param ifNoneMatch the value of the If-None-Match request header, which may be null
+     * @param eTags the entity tags the content currently has
+     * @return true if the client already has the content, so it should be told it is not modified
+     */
+    public static boolean isMatched(String ifNoneMatch, String... eTags) {
+        boolean isMatched = false;
+        if (ifNoneMatch != null) {
+            for (String requestedTag : ifNoneMatch.split(",")) {
+                requestedTag = removeWeakPrefix(requestedTag.trim());
+                if (requestedTag.equals("*")) {
+                    isMatched = true;
+                } else {
+                    for (String eTag : eTags) {
+                        if (requestedTag.equals(removeWeakPrefix(eTag))) {
+                            isMatched = true;
+                            break;
+                        }
+                    }
+                }
+
+                if (isMatched) {
+                    break;
+                }
+            }
+        }
+        return isMatched;
+    }
+
+    private static String removeWeakPrefix(String eTag) {
+        return eTag.startsWith(WEAK_PREFIX) ? eTag.substring(WEAK_PREFIX.length()) : eTag;
+    }
+}
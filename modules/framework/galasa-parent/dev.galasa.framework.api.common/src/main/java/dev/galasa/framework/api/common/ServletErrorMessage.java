@@ -40,6 +40,9 @@ public enum ServletErrorMessage {
     GAL5008_ERROR_LOCATING_ARTIFACT                   (5008,"E: Error locating artifact ''{0}'' for run with identifier ''{1}''."),
     GAL5009_ERROR_RETRIEVING_ARTIFACT                 (5009,"E: Error retrieving artifact ''{0}'' for run with identifier ''{1}''."),
 
+    // RunLog...
+    GAL5438_INVALID_RUN_LOG_RANGE                     (5438,"E: Error parsing the query parameters. The run log range requested is invalid. ''tail'' cannot be used with a line or byte range, a line range cannot be used with a byte range, ''startLine'' must be 1 or more, and ''lineCount'', ''startByte'', ''byteCount'' and ''tail'' cannot be negative."),
+
     // RunDelete...
     GAL5091_ERROR_RUN_NOT_FOUND_BY_ID                 (5091,"E: Error occurred when seaching for a run with identifier ''{0}''."),
 
@@ -201,7 +204,7 @@ public enum ServletErrorMessage {
     // >>>       Unit tests guarantee that this number is 'free' to use for a new error message.
     // >>>       If you do use this number for a new error template, please incriment this value.
     // >>>
-    public static final int GALxxx_NEXT_MESSAGE_NUMBER_TO_USE = 5438;
+    public static final int GALxxx_NEXT_MESSAGE_NUMBER_TO_USE = 5439;
 
 
     private String template ;
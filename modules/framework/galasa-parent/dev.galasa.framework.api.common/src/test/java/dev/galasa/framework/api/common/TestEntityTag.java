@@ -0,0 +1,59 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.common;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+public class TestEntityTag {
+
+    @Test
+    public void testHashOfTheSameContentIsTheSame() throws Exception {
+        assertThat(EntityTag.hash("some content")).isEqualTo(EntityTag.hash("some content"));
+        assertThat(EntityTag.hash("some content")).isNotEqualTo(EntityTag.hash("some other content"));
+    }
+
+    @Test
+    public void testHashIsSafeToUseInAHeader() throws Exception {
+        assertThat(EntityTag.hash("some content")).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    public void testStrongAndWeakTagsAreQuoted() throws Exception {
+        assertThat(EntityTag.strong("abc")).isEqualTo("\"abc\"");
+        assertThat(EntityTag.weak("abc")).isEqualTo("W/\"abc\"");
+    }
+
+    @Test
+    public void testMissingIfNoneMatchDoesNotMatch() throws Exception {
+        assertThat(EntityTag.isMatched(null, "\"abc\"")).isFalse();
+    }
+
+    @Test
+    public void testIfNoneMatchWithTheSameTagMatches() throws Exception {
+        assertThat(EntityTag.isMatched("\"abc\"", "\"abc\"")).isTrue();
+        assertThat(EntityTag.isMatched("\"xyz\"", "\"abc\"")).isFalse();
+    }
+
+    @Test
+    public void testIfNoneMatchComparesTagsWeakly() throws Exception {
+        assertThat(EntityTag.isMatched("W/\"abc\"", "\"abc\"")).isTrue();
+        assertThat(EntityTag.isMatched("\"abc\"", "W/\"abc\"")).isTrue();
+        assertThat(EntityTag.isMatched("W/\"abc\"", "W/\"abc\"")).isTrue();
+    }
+
+    @Test
+    public void testIfNoneMatchWithAListOfTagsMatchesAnyOfThem() throws Exception {
+        assertThat(EntityTag.isMatched("\"xyz\", \"abc\"", "\"abc\"")).isTrue();
+        assertThat(EntityTag.isMatched("\"abc-gzip\"", "\"abc\"", "\"abc-gzip\"")).isTrue();
+    }
+
+    @Test
+    public void testIfNoneMatchWildcardMatchesAnyTag() throws Exception {
+        assertThat(EntityTag.isMatched("*", "\"abc\"")).isTrue();
+    }
+}
@@ -239,7 +239,8 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public String getParameter(String name) {
-        throw new UnsupportedOperationException("Unimplemented method 'getParameter'");
+        String[] values = parameterMap.get(name);
+        return (values == null || values.length == 0) ? null : values[0];
     }
 
     @Override
@@ -249,7 +250,7 @@ public class MockHttpServletRequest implements HttpServletRequest {
 
     @Override
     public String[] getParameterValues(String name) {
-        throw new UnsupportedOperationException("Unimplemented method 'getParameterValues'");
+        return parameterMap.get(name);
     }
 
     @Override
@@ -94,7 +94,7 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public void setContentLength(int len) {
-        throw new UnsupportedOperationException("Unimplemented method 'setContentLength'");
+        addHeader("Content-Length", String.valueOf(len));
     }
 
     @Override
@@ -175,12 +175,12 @@ public class MockHttpServletResponse implements HttpServletResponse {
 
     @Override
     public void sendError(int sc, String msg) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'sendError'");
+        setStatus(sc);
     }
 
     @Override
     public void sendError(int sc) throws IOException {
-        throw new UnsupportedOperationException("Unimplemented method 'sendError'");
+        setStatus(sc);
     }
 
     @Override
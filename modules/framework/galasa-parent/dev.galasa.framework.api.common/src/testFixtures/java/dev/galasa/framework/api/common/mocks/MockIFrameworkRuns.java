@@ -6,6 +6,7 @@
 package dev.galasa.framework.api.common.mocks;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -49,6 +50,11 @@ public class MockIFrameworkRuns implements IFrameworkRuns{
         throw new UnsupportedOperationException("Unimplemented method 'getAllRuns'");
     }
 
+    @Override
+    public @NotNull Map<String, IRun> getRunsSnapshot() throws FrameworkException {
+        throw new UnsupportedOperationException("Unimplemented method 'getRunsSnapshot'");
+    }
+
     @Override
     public @NotNull List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException {
         if(groupName.equals("invalid")){
@@ -14,6 +14,7 @@ import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import dev.galasa.framework.api.common.EntityTag;
 import dev.galasa.framework.api.common.HttpRequestContext;
 import dev.galasa.framework.api.common.InternalServletException;
 import dev.galasa.framework.api.common.QueryParameters;
@@ -55,6 +56,14 @@ public class PropertyRoute extends CPSRoute{
         String namespace = getNamespaceFromURL(pathInfo);
         String properties = getNamespaceProperties(namespace, queryParams);
         checkNamespaceExists(namespace);
+
+        // Clients which cache properties send back the entity tag they were given, so they
+        // only need the properties again if they have changed. The tag is a hash of the content.
+        String eTag = EntityTag.strong(EntityTag.hash(properties));
+        response.setHeader("ETag", eTag);
+        if (EntityTag.isMatched(request.getHeader("If-None-Match"), eTag)) {
+            return getResponseBuilder().buildResponse(request, response, HttpServletResponse.SC_NOT_MODIFIED);
+        }
         return getResponseBuilder().buildResponse(request, response, "application/json", properties, HttpServletResponse.SC_OK); 
     }
 
@@ -323,6 +323,57 @@ public class TestPropertyRoute extends CpsServletTest{
         
     }
 
+    @Test
+    public void testPropertyQueryWithMatchingETagReturnsNotModified() throws Exception {
+        // Given...
+		String namespace = "framework";
+        setServlet("/framework/properties", namespace, new HashMap<String,String[]>());
+		MockCpsServlet servlet = getServlet();
+        servlet.init();
+        servlet.doGet(getRequest(), getResponse());
+        String eTag = getResponse().getHeader("ETag");
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", eTag);
+        setServlet("/framework/properties", namespace, null, "GET", new MockIConfigurationPropertyStoreService(namespace), headers);
+		servlet = getServlet();
+		HttpServletRequest req = getRequest();
+		HttpServletResponse resp = getResponse();
+        ServletOutputStream outStream = resp.getOutputStream();
+
+        // When...
+        servlet.init();
+        servlet.doGet(req, resp);
+
+        // Then...
+        assertThat(eTag).isNotBlank();
+        assertThat(resp.getStatus()).isEqualTo(304);
+        assertThat(resp.getHeader("ETag")).isEqualTo(eTag);
+        assertThat(outStream.toString()).isEmpty();
+    }
+
+    @Test
+    public void testPropertyQueryWithOutOfDateETagReturnsProperties() throws Exception {
+        // Given...
+		String namespace = "framework";
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", "\"an-old-etag\"");
+        setServlet("/framework/properties", namespace, null, "GET", new MockIConfigurationPropertyStoreService(namespace), headers);
+		MockCpsServlet servlet = getServlet();
+		HttpServletRequest req = getRequest();
+		HttpServletResponse resp = getResponse();
+        ServletOutputStream outStream = resp.getOutputStream();
+
+        // When...
+        servlet.init();
+        servlet.doGet(req, resp);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getHeader("ETag")).isNotEqualTo("\"an-old-etag\"");
+        assertThat(outStream.toString()).isNotEmpty();
+    }
+
 	@Test
     public void testPropertyQueryWithProtectedNamespaceReturnsOk() throws Exception {
         // Given...
@@ -0,0 +1,94 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A single range of bytes requested in an HTTP 'Range' header, such as 'bytes=0-1023'.
+ *
+ * Only one range is supported. Headers asking for several ranges, or which can't be parsed,
+ * are ignored so that the whole content is sent instead, which HTTP allows.
+ */
+public class HttpByteRange {
+
+    // Matches "bytes=<first>-<last>", where either the first or last byte position can be missing
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^\\s*bytes\\s*=\\s*(\\d*)\\s*-\\s*(\\d*)\\s*$");
+
+    // The first and last bytes in the range, or -1 if the range is outside of the content
+    private final long firstByte;
+    private final long lastByte;
+
+    private HttpByteRange(long firstByte, long lastByte) {
+        this.firstByte = firstByte;
+        this.lastByte = lastByte;
+    }
+
+    /**
+     * @param rangeHeader the value of the 'Range' header, which may be null
+     * @param size the size of the content in bytes
+     * @return the range requested, or null if the whole content should be sent
+     */
+    public static HttpByteRange parse(String rangeHeader, long size) {
+        HttpByteRange range = null;
+        if (rangeHeader != null) {
+            Matcher matcher = RANGE_PATTERN.matcher(rangeHeader);
+            if (matcher.matches()) {
+                String first = matcher.group(1);
+                String last = matcher.group(2);
+                try {
+                    if (first.isEmpty() && !last.isEmpty()) {
+                        // A suffix range, for the last few bytes of the content
+                        long suffixLength = Long.parseLong(last);
+                        if (suffixLength > 0 && size > 0) {
+                            range = new HttpByteRange(Math.max(0, size - suffixLength), size - 1);
+                        } else {
+                            range = unsatisfiable();
+                        }
+                    } else if (!first.isEmpty()) {
+                        long firstByte = Long.parseLong(first);
+                        long lastByte = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                        if (lastByte >= firstByte) {
+                            if (firstByte < size) {
+                                range = new HttpByteRange(firstByte, Math.min(lastByte, size - 1));
+                            } else {
+                                range = unsatisfiable();
+                            }
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    // The numbers are too big to be a real range, so send the whole content
+                    range = null;
+                }
+            }
+        }
+        return range;
+    }
+
+    private static HttpByteRange unsatisfiable() {
+        return new HttpByteRange(-1, -1);
+    }
+
+    /**
+     * @return false if none of the requested bytes are in the content
+     */
+    public boolean isSatisfiable() {
+        return firstByte >= 0;
+    }
+
+    public long getFirstByte() {
+        return firstByte;
+    }
+
+    public long getLastByte() {
+        return lastByte;
+    }
+
+    public long getLength() {
+        return lastByte - firstByte + 1;
+    }
+}
@@ -6,6 +6,7 @@
 package dev.galasa.framework.api.ras.internal.common;
 
 import java.io.IOException;
+import java.io.OutputStream;
 
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
@@ -14,4 +15,27 @@ public interface IRunRootArtifact {
     String getPathName();
     byte[] getContent(IRunResult run) throws ResultArchiveStoreException, IOException;
     String getContentType();
+
+    /**
+     * Writes the artifact to a stream. Artifacts that can be large should override this,
+     * so that their content doesn't have to be held in memory all at once.
+     */
+    default void writeContent(IRunResult run, OutputStream out) throws ResultArchiveStoreException, IOException {
+        byte[] content = getContent(run);
+        if (content != null) {
+            out.write(content);
+        }
+    }
+
+    /**
+     * @return the size of the artifact in bytes, or -1 if the run does not have this artifact
+     */
+    default long getSize(IRunResult run) throws ResultArchiveStoreException, IOException {
+        long size = -1;
+        byte[] content = getContent(run);
+        if (content != null) {
+            size = content.length;
+        }
+        return size;
+    }
 }
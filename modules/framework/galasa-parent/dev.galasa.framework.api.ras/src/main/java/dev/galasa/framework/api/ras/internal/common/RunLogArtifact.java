@@ -5,9 +5,11 @@
  */
 package dev.galasa.framework.api.ras.internal.common;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.OutputStream;
 
+import dev.galasa.framework.spi.IRunLogReader;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 
@@ -15,11 +17,30 @@ public class RunLogArtifact implements IRunRootArtifact {
 
     @Override
     public byte[] getContent(IRunResult run) throws ResultArchiveStoreException, IOException {
-        String runLog = run.getLog();
-        if (runLog != null) {
-            return runLog.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        writeContent(run, content);
+        return content.toByteArray();
+    }
+
+    @Override
+    public void writeContent(IRunResult run, OutputStream out) throws ResultArchiveStoreException, IOException {
+        try (IRunLogReader logReader = run.getLogReader()) {
+            if (logReader != null) {
+                RunLogStreamer.forLines(1, -1).copy(logReader, out);
+            }
+        }
+    }
+
+    @Override
+    public long getSize(IRunResult run) throws ResultArchiveStoreException, IOException {
+        long size = run.getLogSize();
+        if (size < 0) {
+            // The store doesn't know, so count the bytes of the log as it is read, rather than holding it all in memory
+            ByteCountingOutputStream counter = new ByteCountingOutputStream();
+            writeContent(run, counter);
+            size = counter.byteCount;
         }
-        return "".getBytes(StandardCharsets.UTF_8);
+        return size;
     }
 
     @Override
@@ -31,4 +52,18 @@ public class RunLogArtifact implements IRunRootArtifact {
     public String getPathName() {
         return "/run.log";
     }
-}
\ No newline at end of file
+
+    private static class ByteCountingOutputStream extends OutputStream {
+        private long byteCount = 0;
+
+        @Override
+        public void write(int b) {
+            byteCount++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) {
+            byteCount += length;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import dev.galasa.framework.spi.IRunLogReader;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * Copies part of a run log from a run log reader to an output stream, a line at a time.
+ *
+ * The log is written out as its lines separated by newlines. The part that is copied can be
+ * a range of lines, a range of bytes, or the last few lines of the log. A streamer can be
+ * given the same reader again after the reader has been refreshed, and carries on from where
+ * it got to, so that a log can be followed while it is still being written.
+ */
+public class RunLogStreamer {
+
+    private static final byte[] LINE_SEPARATOR = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private enum Mode { LINES, BYTES, TAIL }
+
+    private final Mode mode;
+
+    // The first line (counting from 1) or byte (counting from 0) to copy
+    private final long start;
+
+    // The most lines or bytes to copy, or -1 for no limit
+    private final long count;
+
+    private long linesRead = 0;
+    private long bytesRead = 0;
+    private long linesWritten = 0;
+    private long bytesWritten = 0;
+
+    // The last lines read, when copying the end of the log
+    private Deque<String> tailLines;
+
+    private RunLogStreamer(Mode mode, long start, long count) {
+        this.mode = mode;
+        this.start = start;
+        this.count = count;
+        if (mode == Mode.TAIL) {
+            this.tailLines = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * @param startLine the first line to copy, counting from 1
+     * @param lineCount the most lines to copy, or -1 to copy to the end of the log
+     */
+    public static RunLogStreamer forLines(long startLine, long lineCount) {
+        return new RunLogStreamer(Mode.LINES, startLine, lineCount);
+    }
+
+    /**
+     * @param startByte the first byte to copy, counting from 0
+     * @param byteCount the most bytes to copy, or -1 to copy to the end of the log
+     */
+    public static RunLogStreamer forBytes(long startByte, long byteCount) {
+        return new RunLogStreamer(Mode.BYTES, startByte, byteCount);
+    }
+
+    /**
+     * @param lineCount how many lines to copy from the end of the log. Any lines added to the log
+     * after the end has been reached are copied too.
+     */
+    public static RunLogStreamer forTail(long lineCount) {
+        return new RunLogStreamer(Mode.TAIL, 1, lineCount);
+    }
+
+    /**
+     * Copies lines from the reader until it has no more lines, or until everything asked for
+     * has been copied.
+     */
+    public void copy(IRunLogReader logReader, OutputStream out) throws ResultArchiveStoreException, IOException {
+        String line;
+        while (!isComplete() && (line = logReader.readLine()) != null) {
+            processLine(line, out);
+        }
+
+        // The end of the log has been reached, so the last lines are known
+        if (tailLines != null) {
+            for (String tailLine : tailLines) {
+                writeLine(tailLine, out);
+            }
+            tailLines = null;
+        }
+    }
+
+    /**
+     * @return true if everything that was asked for has been copied, so there is no point
+     * reading any more of the log
+     */
+    public boolean isComplete() {
+        boolean isComplete = false;
+        if (count >= 0) {
+            if (mode == Mode.BYTES) {
+                isComplete = bytesWritten >= count;
+            } else if (mode == Mode.LINES) {
+                isComplete = linesWritten >= count;
+            }
+        }
+        return isComplete;
+    }
+
+    private void processLine(String line, OutputStream out) throws IOException {
+        linesRead++;
+        switch (mode) {
+            case BYTES:
+                copyBytesInRange(line, out);
+                break;
+            case TAIL:
+                if (tailLines != null) {
+                    if (count >= 0 && tailLines.size() >= count) {
+                        tailLines.removeFirst();
+                    }
+                    if (count != 0) {
+                        tailLines.addLast(line);
+                    }
+                } else {
+                    writeLine(line, out);
+                }
+                break;
+            default:
+                if (linesRead >= start) {
+                    writeLine(line, out);
+                }
+                break;
+        }
+    }
+
+    private void writeLine(String line, OutputStream out) throws IOException {
+        if (linesWritten > 0) {
+            out.write(LINE_SEPARATOR);
+        }
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+        linesWritten++;
+    }
+
+    private void copyBytesInRange(String line, OutputStream out) throws IOException {
+        byte[] lineBytes = line.getBytes(StandardCharsets.UTF_8);
+        long separatorLength = (linesRead > 1) ? LINE_SEPARATOR.length : 0;
+        long lineStart = bytesRead + separatorLength;
+        long lineEnd = lineStart + lineBytes.length;
+
+        long rangeStart = start + bytesWritten;
+        long rangeEnd = (count < 0) ? Long.MAX_VALUE : start + count;
+
+        // Lines are only ever separated by a single byte, so the separator is in range if its position is
+        if (separatorLength > 0 && bytesRead >= rangeStart && bytesRead < rangeEnd) {
+            out.write(LINE_SEPARATOR);
+            bytesWritten += separatorLength;
+            rangeStart++;
+        }
+
+        long from = Math.max(lineStart, rangeStart);
+        long to = Math.min(lineEnd, rangeEnd);
+        if (from < to) {
+            out.write(lineBytes, (int) (from - lineStart), (int) (to - from));
+            bytesWritten += to - from;
+        }
+        bytesRead = lineEnd;
+    }
+}
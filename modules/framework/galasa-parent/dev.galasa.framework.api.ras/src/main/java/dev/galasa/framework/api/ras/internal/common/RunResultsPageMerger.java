@@ -0,0 +1,325 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+/**
+ * Gets pages of runs from several result archive stores at once, in a single overall order.
+ *
+ * Each store is asked for a page of its runs, already sorted by the requested field, and the
+ * pages are merged together until the merged page is full. The cursor for the next page records,
+ * for each store, the cursor of the store page that the merged page stopped in and how many runs
+ * of that store page have been used. So each store only ever reads a page or two of runs for a
+ * merged page, however far through the results the cursor is.
+ *
+ * Stores are matched to their part of the cursor by their position in the list of stores, as
+ * several stores can have the same name.
+ */
+public class RunResultsPageMerger {
+
+    // Stops one request from reading an unbounded number of runs if a store keeps returning pages
+    public static final int MAX_RUNS_READ = 10000;
+
+    private static final GalasaGson gson = new GalasaGson();
+
+    // The order that runs are in when no sort is asked for
+    private static final RasSortField DEFAULT_SORT = new RasSortField("queued", "desc");
+
+    private static final Map<String, Function<TestStructure, Comparable<?>>> sortFields = Map.of(
+        "queued", TestStructure::getQueued,
+        "endTime", TestStructure::getEndTime,
+        "startTime", TestStructure::getStartTime,
+        "testName", TestStructure::getTestName,
+        "result", TestStructure::getResult
+    );
+
+    private final List<IResultArchiveStoreDirectoryService> stores;
+    private final int pageSize;
+    private final RasSortField primarySort;
+    private final IRasSearchCriteria[] searchCriteria;
+    private final Comparator<TestStructure> comparator;
+
+    private int runsRead = 0;
+    private boolean isReadLimitReached = false;
+
+    /**
+     * @param primarySort the field to sort the runs by, or null to sort them by queued time, latest first.
+     *        It must be one of "queued", "endTime", "startTime", "testName" or "result".
+     * @throws IllegalArgumentException if the runs can't be sorted by the sort field
+     */
+    public RunResultsPageMerger(List<IResultArchiveStoreDirectoryService> stores, int pageSize,
+            RasSortField primarySort, IRasSearchCriteria... searchCriteria) {
+        if (primarySort == null) {
+            primarySort = DEFAULT_SORT;
+        }
+        this.stores = stores;
+        this.pageSize = pageSize;
+        this.primarySort = primarySort;
+        this.searchCriteria = searchCriteria;
+        this.comparator = buildComparator(primarySort);
+    }
+
+    /**
+     * Gets the page of runs that the cursor points to.
+     *
+     * @param pageCursor the cursor returned with the previous page, or null for the first page
+     * @return the page of runs, with the cursor of the next page if there may be more runs
+     */
+    public RasRunResultPage getPage(String pageCursor) throws ResultArchiveStoreException {
+        return mergeRuns(pageCursor, pageSize);
+    }
+
+    /**
+     * Gets the runs from the start of the overall order, until there are no more runs or
+     * {@link #MAX_RUNS_READ} runs have been read from the stores. The stores are still read a
+     * page at a time.
+     *
+     * @return the runs, with the cursor of the next page if the stores may hold more runs
+     */
+    public RasRunResultPage getRunsUpToReadLimit() throws ResultArchiveStoreException {
+        return mergeRuns(null, MAX_RUNS_READ);
+    }
+
+    private RasRunResultPage mergeRuns(String pageCursor, int maxRuns) throws ResultArchiveStoreException {
+        List<StoreCursor> storeCursors = decodeCursor(pageCursor);
+
+        List<StoreRuns> storeRunsList = new ArrayList<>();
+        for (int i = 0; i < stores.size(); i++) {
+            StoreRuns storeRuns = new StoreRuns(stores.get(i));
+            if (!storeCursors.isEmpty()) {
+                storeRuns.resume(storeCursors.get(i));
+            }
+            storeRunsList.add(storeRuns);
+        }
+
+        List<IRunResult> pageRuns = new ArrayList<>();
+        while (pageRuns.size() < maxRuns) {
+
+            // Take the next run from whichever store's next run comes first. Ties go to the
+            // store listed first, so the order is the same every time.
+            StoreRuns nextStoreRuns = null;
+            for (StoreRuns storeRuns : storeRunsList) {
+                TestStructure nextStructure = storeRuns.peek();
+                if (nextStructure != null) {
+                    if (nextStoreRuns == null || comparator.compare(nextStructure, nextStoreRuns.peek()) < 0) {
+                        nextStoreRuns = storeRuns;
+                    }
+                }
+            }
+
+            // If a store couldn't read its next run, a run from another store might be out of order
+            if (nextStoreRuns == null || isReadLimitReached) {
+                break;
+            }
+            pageRuns.add(nextStoreRuns.take());
+        }
+
+        return new RasRunResultPage(pageRuns, encodeCursor(storeRunsList));
+    }
+
+    private static Comparator<TestStructure> buildComparator(RasSortField primarySort) {
+        // The stores have sorted their runs by this field, so merging them by anything else would mix the orders up
+        Function<TestStructure, Comparable<?>> sortField = sortFields.get(primarySort.getFieldName());
+        if (sortField == null) {
+            throw new IllegalArgumentException("Runs can't be sorted by '" + primarySort.getFieldName() + "'");
+        }
+
+        Comparator<TestStructure> comparator = Comparator.comparing(structure -> toSortKey(sortField.apply(structure)),
+            Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        String direction = primarySort.getSortDirection();
+        if (direction != null && direction.toLowerCase().startsWith("desc")) {
+            comparator = comparator.reversed();
+        }
+        return comparator;
+    }
+
+    // Instants and strings can't be compared with each other, but each sort field only ever holds one of them
+    private static String toSortKey(Comparable<?> value) {
+        String sortKey = null;
+        if (value instanceof Instant) {
+            Instant time = (Instant) value;
+            sortKey = String.format("%020d%09d", time.getEpochSecond(), time.getNano());
+        } else if (value != null) {
+            sortKey = value.toString();
+        }
+        return sortKey;
+    }
+
+    /**
+     * Where the merged pages have got to in one store's runs
+     */
+    private static class StoreCursor {
+        private String name;
+
+        // The cursor of the store page being read, or null for the first store page
+        private String pageCursor;
+
+        // How many runs of that store page have already been returned
+        private int position;
+
+        private boolean isExhausted;
+    }
+
+    private class StoreRuns {
+        private final IResultArchiveStoreDirectoryService store;
+
+        private String pageCursor;
+        private String nextCursor;
+        private List<IRunResult> runs = Collections.emptyList();
+        private int position = 0;
+        private boolean isLoaded = false;
+        private boolean isExhausted = false;
+
+        private IRunResult nextRun;
+        private TestStructure nextStructure;
+
+        private StoreRuns(IResultArchiveStoreDirectoryService store) {
+            this.store = store;
+        }
+
+        private void resume(StoreCursor storeCursor) throws ResultArchiveStoreException {
+            if (storeCursor != null) {
+                if (storeCursor.isExhausted) {
+                    isExhausted = true;
+                } else {
+                    loadPage(storeCursor.pageCursor);
+                    position = Math.min(storeCursor.position, runs.size());
+                }
+            }
+        }
+
+        /**
+         * @return the test structure of the next run in this store, or null if there are no more
+         */
+        private TestStructure peek() throws ResultArchiveStoreException {
+            if (nextRun == null) {
+                while (!isExhausted && position >= runs.size()) {
+                    if (isLoaded && nextCursor == null) {
+                        isExhausted = true;
+                    } else if (runsRead >= MAX_RUNS_READ) {
+                        // Leave the rest of the runs for the next page
+                        isReadLimitReached = true;
+                        return null;
+                    } else {
+                        loadPage(nextCursor);
+                    }
+                }
+
+                if (!isExhausted) {
+                    nextRun = runs.get(position);
+                    nextStructure = nextRun.getTestStructure();
+                }
+            }
+            return nextStructure;
+        }
+
+        private IRunResult take() {
+            IRunResult run = nextRun;
+            nextRun = null;
+            nextStructure = null;
+            position++;
+            return run;
+        }
+
+        private void loadPage(String cursor) throws ResultArchiveStoreException {
+            RasRunResultPage page = store.getRunsPage(pageSize, primarySort, cursor, searchCriteria);
+            pageCursor = cursor;
+            nextCursor = page.getNextCursor();
+            runs = page.getRuns();
+            position = 0;
+            isLoaded = true;
+            runsRead += runs.size();
+
+            // Some stores hand back a cursor even when there are no more runs
+            if (runs.isEmpty()) {
+                isExhausted = true;
+            }
+        }
+
+        private StoreCursor toCursor() {
+            StoreCursor storeCursor = new StoreCursor();
+            storeCursor.name = store.getName();
+            if (isExhausted || (isLoaded && position >= runs.size() && nextCursor == null)) {
+                storeCursor.isExhausted = true;
+            } else if (isLoaded && position >= runs.size()) {
+                // Every run of this store page has been used, so the next page starts on the next store page
+                storeCursor.pageCursor = nextCursor;
+            } else {
+                storeCursor.pageCursor = pageCursor;
+                storeCursor.position = position;
+            }
+            return storeCursor;
+        }
+    }
+
+    private String encodeCursor(List<StoreRuns> storeRunsList) {
+        List<StoreCursor> storeCursors = new ArrayList<>();
+        boolean isMoreRuns = false;
+        for (StoreRuns storeRuns : storeRunsList) {
+            StoreCursor storeCursor = storeRuns.toCursor();
+            isMoreRuns = isMoreRuns || !storeCursor.isExhausted;
+            storeCursors.add(storeCursor);
+        }
+
+        String cursor = null;
+        if (isMoreRuns) {
+            String json = gson.toJson(storeCursors);
+            cursor = Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return cursor;
+    }
+
+    /**
+     * @return the cursor of each store, in the same order as the stores, or an empty list for the first page
+     */
+    private List<StoreCursor> decodeCursor(String pageCursor) throws ResultArchiveStoreException {
+        List<StoreCursor> storeCursors = new ArrayList<>();
+        if (pageCursor != null && !pageCursor.isEmpty()) {
+            try {
+                String json = new String(Base64.getUrlDecoder().decode(pageCursor), StandardCharsets.UTF_8);
+                storeCursors.addAll(Arrays.asList(gson.fromJson(json, StoreCursor[].class)));
+            } catch (Exception e) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageCursor + "'", e);
+            }
+
+            // The stores have changed since the cursor was made, so it can't be followed
+            if (!isCursorForStores(storeCursors)) {
+                throw new ResultArchiveStoreException("Invalid page cursor '" + pageCursor + "', the result archive stores have changed");
+            }
+        }
+        return storeCursors;
+    }
+
+    private boolean isCursorForStores(List<StoreCursor> storeCursors) {
+        boolean isCursorForStores = (storeCursors.size() == stores.size());
+        for (int i = 0; isCursorForStores && i < stores.size(); i++) {
+            StoreCursor storeCursor = storeCursors.get(i);
+            isCursorForStores = (storeCursor != null) && Objects.equals(storeCursor.name, stores.get(i).getName());
+        }
+        return isCursorForStores;
+    }
+}
@@ -10,7 +10,10 @@ import static dev.galasa.framework.api.common.ServletErrorMessage.*;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
-import java.nio.channels.ByteChannel;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.FileSystem;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
@@ -20,17 +23,23 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.regex.Matcher;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import dev.galasa.framework.IFileSystem;
 import dev.galasa.framework.api.ras.internal.common.ArtifactsJson;
 import dev.galasa.framework.api.ras.internal.common.ArtifactsProperties;
+import dev.galasa.framework.api.ras.internal.common.HttpByteRange;
 import dev.galasa.framework.api.ras.internal.common.IRunRootArtifact;
 import dev.galasa.framework.api.ras.internal.common.RunLogArtifact;
 import dev.galasa.framework.api.ras.internal.common.StructureJsonArtifact;
+import dev.galasa.framework.api.common.EntityTag;
 import dev.galasa.framework.api.common.HttpRequestContext;
 import dev.galasa.framework.api.common.InternalServletException;
 import dev.galasa.framework.api.common.QueryParameters;
@@ -41,6 +50,7 @@ import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.rbac.RBACException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.GalasaGson;
 
 /**
@@ -64,6 +74,13 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
     // The regex pattern for the "/ras/runs/{run-id}/files/{artifact-path}" endpoint
     private static final String path = "\\/runs\\/" + RUN_ID_PATTERN + "\\/files\\/" + ARTIFACT_PATH_PATTERN;
 
+    // Stored artifacts are copied to the response through a pool of reusable buffers
+    private static final int TRANSFER_BUFFER_SIZE = 256 * 1024;
+    private static final int MAX_POOLED_TRANSFER_BUFFERS = 16;
+    private static final BlockingQueue<byte[]> transferBuffers = new ArrayBlockingQueue<>(MAX_POOLED_TRANSFER_BUFFERS);
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
     private Map<String, IRunRootArtifact> rootArtifacts = new HashMap<>();
 
     public RunArtifactsDownloadRoute(ResponseBuilder responseBuilder, IFileSystem fileSystem, IFramework framework) throws RBACException {
@@ -87,10 +104,10 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         String artifactPath = matcher.group(2);
 
         artifactPath = stripLeadingSlashesFromArtifactPath(artifactPath);
-        return downloadArtifact(runId, artifactPath, response);
+        return downloadArtifact(requestContext.getRequest(), runId, artifactPath, response);
     }
 
-    private HttpServletResponse downloadArtifact(String runId, String artifactPath, HttpServletResponse res) throws InternalServletException, IOException {
+    private HttpServletResponse downloadArtifact(HttpServletRequest req, String runId, String artifactPath, HttpServletResponse res) throws InternalServletException, IOException {
         IRunResult run = null;
         String runName = "";
         String artifactsPrefix = "artifacts/";
@@ -109,9 +126,9 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         try {
             IRunRootArtifact artifact = rootArtifacts.get(artifactPath);
             if (artifact != null) {
-                res = setDownloadResponse(res, artifact.getContent(run), artifact.getContentType());
+                res = setDownloadResponse(req, res, run, artifact);
             } else if (artifactPath.startsWith(artifactsPrefix)) {
-                res = downloadStoredArtifact(res, run, artifactPath.substring(artifactsPrefix.length() - 1));
+                res = downloadStoredArtifact(req, res, run, artifactPath.substring(artifactsPrefix.length() - 1));
             } else {
                 ServletError error = new ServletError(GAL5008_ERROR_LOCATING_ARTIFACT, artifactPath, runName);
                 throw new InternalServletException(error, HttpServletResponse.SC_NOT_FOUND);
@@ -123,46 +140,166 @@ public class RunArtifactsDownloadRoute extends RunArtifactsRoute {
         return res;
     }
 
-    private HttpServletResponse downloadStoredArtifact(HttpServletResponse res, IRunResult run, String artifactPath) throws ResultArchiveStoreException, IOException {
+    private HttpServletResponse downloadStoredArtifact(HttpServletRequest req, HttpServletResponse res, IRunResult run, String artifactPath) throws ResultArchiveStoreException, IOException {
         FileSystem artifactFileSystem = run.getArtifactsRoot().getFileSystem();
         Path artifactLocation = artifactFileSystem.getPath(artifactPath);
+        String contentType = getFileSystem().probeContentType(artifactLocation);
 
         // Open the artifact for reading
         Set<OpenOption> options = new HashSet<>();
         options.add(StandardOpenOption.READ);
-        try (ByteChannel channel = artifactFileSystem.provider().newByteChannel(artifactLocation, options, new FileAttribute<?>[]{});
-            OutputStream outStream = res.getOutputStream()) {
-
-            // Create a buffer to read small amounts of data into to avoid out-of-memory issues
-            int bufferCapacity = 1024;
-            ByteBuffer buffer = ByteBuffer.allocate(bufferCapacity);
+        try (SeekableByteChannel channel = artifactFileSystem.provider().newByteChannel(artifactLocation, options, new FileAttribute<?>[]{})) {
+            long size = channel.size();
+            String eTag = getETag(run, artifactPath, size);
 
-            // Read the artifact and write it to the response's output stream
-            int bytesRead = channel.read(buffer);
-            while (bytesRead > 0) {
-                buffer.flip();
-                byte[] bytes = new byte[bytesRead];
-                buffer.get(bytes);
+            res.setContentType(contentType);
+            res.setHeader("Content-Disposition", "attachment");
+            res.setHeader("Accept-Ranges", "bytes");
+            res.setHeader("ETag", eTag);
 
-                outStream.write(bytes);
+            // The client already has this version of the artifact
+            if (EntityTag.isMatched(req.getHeader("If-None-Match"), eTag)) {
+                res.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return res;
+            }
 
-                buffer.clear();
-                bytesRead = channel.read(buffer);
+            HttpByteRange range = HttpByteRange.parse(req.getHeader("Range"), size);
+            if (range == null) {
+                res.setStatus(HttpServletResponse.SC_OK);
+                try (OutputStream outStream = getDownloadOutputStream(req, res, contentType, size)) {
+                    transferArtifact(channel, 0, size, outStream);
+                }
+            } else if (range.isSatisfiable()) {
+                res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                res.setHeader("Content-Range", "bytes " + range.getFirstByte() + "-" + range.getLastByte() + "/" + size);
+                res.setHeader("Content-Length", Long.toString(range.getLength()));
+                try (OutputStream outStream = res.getOutputStream()) {
+                    transferArtifact(channel, range.getFirstByte(), range.getLength(), outStream);
+                }
+            } else {
+                res.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                res.setHeader("Content-Range", "bytes */" + size);
             }
-            res.setStatus(HttpServletResponse.SC_OK);
-            res.setContentType(getFileSystem().probeContentType(artifactLocation));
-            res.setHeader("Content-Disposition", "attachment");
         }
         return res;
     }
 
-    private HttpServletResponse setDownloadResponse(HttpServletResponse res, byte[] content, String contentType) throws IOException {
-        OutputStream outStream = res.getOutputStream();
+    /**
+     * Copies part of an artifact to the response. File-based artifacts are transferred by the file
+     * channel itself. Otherwise, the artifact is read into a pooled buffer, so that no new memory
+     * is needed for each chunk.
+     */
+    private void transferArtifact(SeekableByteChannel channel, long firstByte, long length, OutputStream outStream) throws IOException {
+        long remaining = length;
+        if (channel instanceof FileChannel) {
+            FileChannel fileChannel = (FileChannel) channel;
+            WritableByteChannel target = Channels.newChannel(outStream);
+            long position = firstByte;
+            while (remaining > 0) {
+                long bytesTransferred = fileChannel.transferTo(position, remaining, target);
+                if (bytesTransferred <= 0) {
+                    break;
+                }
+                position += bytesTransferred;
+                remaining -= bytesTransferred;
+            }
+        } else {
+            if (firstByte > 0) {
+                channel.position(firstByte);
+            }
+
+            byte[] bytes = borrowTransferBuffer();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (remaining > 0) {
+                    buffer.clear();
+                    if (remaining < bytes.length) {
+                        buffer.limit((int) remaining);
+                    }
+
+                    int bytesRead = channel.read(buffer);
+                    if (bytesRead <= 0) {
+                        break;
+                    }
+                    outStream.write(bytes, 0, bytesRead);
+                    remaining -= bytesRead;
+                }
+            } finally {
+                returnTransferBuffer(bytes);
+            }
+        }
+    }
+
+    private static byte[] borrowTransferBuffer() {
+        byte[] buffer = transferBuffers.poll();
+        if (buffer == null) {
+            buffer = new byte[TRANSFER_BUFFER_SIZE];
+        }
+        return buffer;
+    }
+
+    private static void returnTransferBuffer(byte[] buffer) {
+        // If the pool is already full, the buffer is left for the garbage collector
+        transferBuffers.offer(buffer);
+    }
+
+    /**
+     * Gets the stream to write a whole artifact to, which compresses the artifact on the way if it is
+     * text and the client accepts gzip.
+     *
+     * @param size the size of the artifact, or -1 if it isn't known
+     */
+    private OutputStream getDownloadOutputStream(HttpServletRequest req, HttpServletResponse res, String contentType, long size) throws IOException {
+        OutputStream outStream;
+        if (isCompressible(contentType)) {
+            res.setHeader("Vary", "Accept-Encoding");
+        }
+
+        String acceptEncoding = req.getHeader("Accept-Encoding");
+        if (isCompressible(contentType) && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            res.setHeader("Content-Encoding", "gzip");
+            outStream = new GZIPOutputStream(res.getOutputStream(), GZIP_BUFFER_SIZE);
+        } else {
+            if (size >= 0) {
+                res.setHeader("Content-Length", Long.toString(size));
+            }
+            outStream = res.getOutputStream();
+        }
+        return outStream;
+    }
+
+    private boolean isCompressible(String contentType) {
+        boolean isCompressible = false;
+        if (contentType != null) {
+            String mimeType = contentType.toLowerCase();
+            isCompressible = mimeType.startsWith("text/")
+                || mimeType.startsWith("application/json")
+                || mimeType.startsWith("application/xml");
+        }
+        return isCompressible;
+    }
+
+    /**
+     * Builds a weak entity tag for a stored artifact. The artifacts of a run only change while the
+     * run is going, when the artifact's size or the run's end time will have changed too.
+     */
+    private String getETag(IRunResult run, String artifactPath, long size) throws ResultArchiveStoreException {
+        TestStructure testStructure = run.getTestStructure();
+        String version = run.getRunId() + "|" + artifactPath + "|" + size;
+        if (testStructure != null) {
+            version += "|" + testStructure.getQueued() + "|" + testStructure.getEndTime();
+        }
+
+        return EntityTag.weak(EntityTag.hash(version));
+    }
+
+    private HttpServletResponse setDownloadResponse(HttpServletRequest req, HttpServletResponse res, IRunResult run, IRunRootArtifact artifact) throws ResultArchiveStoreException, IOException {
         res.setStatus(HttpServletResponse.SC_OK);
-        res.setContentType(contentType);
+        res.setContentType(artifact.getContentType());
         res.setHeader("Content-Disposition", "attachment");
-        outStream.write(content);
-        outStream.close();
+        try (OutputStream outStream = getDownloadOutputStream(req, res, artifact.getContentType(), -1)) {
+            artifact.writeContent(run, outStream);
+        }
         return res;
     }
 
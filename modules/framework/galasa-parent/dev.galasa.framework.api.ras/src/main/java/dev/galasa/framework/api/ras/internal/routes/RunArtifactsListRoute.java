@@ -98,9 +98,9 @@ public class RunArtifactsListRoute extends RunArtifactsRoute {
     private JsonArray getRootArtifacts(IRunResult run) throws ResultArchiveStoreException, IOException {
         JsonArray artifactRecords = new JsonArray();
         for (IRunRootArtifact rootArtifact : rootArtifacts) {
-            byte[] content = rootArtifact.getContent(run);
-            if (content != null) {
-                artifactRecords.add(getArtifactAsJsonObject(rootArtifact.getPathName(), rootArtifact.getContentType(), content.length));
+            long size = rootArtifact.getSize(run);
+            if (size >= 0) {
+                artifactRecords.add(getArtifactAsJsonObject(rootArtifact.getPathName(), rootArtifact.getContentType(), size));
             }
         }
         return artifactRecords;
@@ -7,61 +7,188 @@ package dev.galasa.framework.api.ras.internal.routes;
 
 import static dev.galasa.framework.api.common.ServletErrorMessage.*;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.regex.Matcher;
+import java.util.zip.GZIPOutputStream;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.api.common.HttpRequestContext;
 import dev.galasa.framework.api.common.InternalServletException;
 import dev.galasa.framework.api.common.QueryParameters;
 import dev.galasa.framework.api.common.ResponseBuilder;
 import dev.galasa.framework.api.common.ServletError;
+import dev.galasa.framework.api.common.SupportedQueryParameterNames;
+import dev.galasa.framework.api.ras.internal.common.RunLogStreamer;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFramework;
+import dev.galasa.framework.spi.IRunLogReader;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
 import dev.galasa.framework.spi.rbac.RBACException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
 
 /**
  * Implementation to retrieve the run log for a given run based on its runId.
+ *
+ * The log is streamed to the response a line at a time. Part of the log can be requested with:
+ * - startLine (counting from 1) and lineCount, for a range of lines
+ * - startByte (counting from 0) and byteCount, for a range of bytes
+ * - tail, for the last lines of the log
+ * - follow=true, to keep the response open and send any lines written while the run is still going
  */
 public class RunLogRoute extends RunsRoute {
 
     protected static final String path = "\\/runs\\/([A-Za-z0-9.\\-=]+)\\/runlog\\/?";
 
+    public static final String QUERY_PARAMETER_START_LINE = "startLine";
+    public static final String QUERY_PARAMETER_LINE_COUNT = "lineCount";
+    public static final String QUERY_PARAMETER_START_BYTE = "startByte";
+    public static final String QUERY_PARAMETER_BYTE_COUNT = "byteCount";
+    public static final String QUERY_PARAMETER_TAIL = "tail";
+    public static final String QUERY_PARAMETER_FOLLOW = "follow";
+    public static final SupportedQueryParameterNames SUPPORTED_QUERY_PARAMETER_NAMES = new SupportedQueryParameterNames(
+        QUERY_PARAMETER_START_LINE,
+        QUERY_PARAMETER_LINE_COUNT,
+        QUERY_PARAMETER_START_BYTE,
+        QUERY_PARAMETER_BYTE_COUNT,
+        QUERY_PARAMETER_TAIL,
+        QUERY_PARAMETER_FOLLOW
+    );
+
+    // How long a request following the log of an unfinished run is kept open for
+    static final long FOLLOW_TIMEOUT_MILLIS = 20 * 1000L;
+    static final long FOLLOW_POLL_INTERVAL_MILLIS = 2 * 1000L;
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     public RunLogRoute(ResponseBuilder responseBuilder, IFramework framework) throws RBACException {
         //  Regex to match endpoint: /ras/runs/{runid}/runlog
         super(responseBuilder, path, framework);
     }
 
+    @Override
+    public SupportedQueryParameterNames getSupportedQueryParameterNames() {
+        return SUPPORTED_QUERY_PARAMETER_NAMES;
+    }
+
     @Override
     public HttpServletResponse handleGetRequest(String pathInfo, QueryParameters queryParams, HttpRequestContext requestContext, HttpServletResponse res) throws ServletException, IOException, FrameworkException {
         HttpServletRequest request = requestContext.getRequest();
         Matcher matcher = this.getPathRegex().matcher(pathInfo);
         matcher.matches();
         String runId = matcher.group(1);
-        String runLog = getRunlog(runId);
-        if (runLog != null) {
-            return getResponseBuilder().buildResponse(request, res, "text/plain", runLog, HttpServletResponse.SC_OK);
+
+        RunLogStreamer logStreamer = getLogStreamer(queryParams);
+        boolean isFollowing = queryParams.getSingleBoolean(QUERY_PARAMETER_FOLLOW, false);
+
+        IRunResult run = getRunByRunId(runId);
+        try (IRunLogReader logReader = run.getLogReader()) {
+            if (logReader == null) {
+                ServletError error = new ServletError(GAL5002_INVALID_RUN_ID, runId);
+                throw new InternalServletException(error, HttpServletResponse.SC_NOT_FOUND);
+            }
+
+            res = getResponseBuilder().buildResponse(request, res, "text/plain", HttpServletResponse.SC_OK);
+            try (OutputStream out = getResponseOutputStream(request, res)) {
+                logStreamer.copy(logReader, out);
+                if (isFollowing) {
+                    followRunLog(runId, run, logReader, logStreamer, out);
+                }
+            }
+        }
+        return res;
+    }
+
+    private RunLogStreamer getLogStreamer(QueryParameters queryParams) throws InternalServletException {
+        boolean isLineRange = queryParams.isParameterPresent(QUERY_PARAMETER_START_LINE) || queryParams.isParameterPresent(QUERY_PARAMETER_LINE_COUNT);
+        boolean isByteRange = queryParams.isParameterPresent(QUERY_PARAMETER_START_BYTE) || queryParams.isParameterPresent(QUERY_PARAMETER_BYTE_COUNT);
+        boolean isTail = queryParams.isParameterPresent(QUERY_PARAMETER_TAIL);
+
+        int startLine = queryParams.getSingleInt(QUERY_PARAMETER_START_LINE, 1);
+        int lineCount = queryParams.getSingleInt(QUERY_PARAMETER_LINE_COUNT, -1);
+        int startByte = queryParams.getSingleInt(QUERY_PARAMETER_START_BYTE, 0);
+        int byteCount = queryParams.getSingleInt(QUERY_PARAMETER_BYTE_COUNT, -1);
+        int tail = queryParams.getSingleInt(QUERY_PARAMETER_TAIL, 0);
+
+        boolean isLineCountValid = (lineCount >= 0 || !queryParams.isParameterPresent(QUERY_PARAMETER_LINE_COUNT));
+        boolean isByteCountValid = (byteCount >= 0 || !queryParams.isParameterPresent(QUERY_PARAMETER_BYTE_COUNT));
+
+        if ((isTail && (isLineRange || isByteRange)) || (isLineRange && isByteRange)
+            || startLine < 1 || startByte < 0 || tail < 0 || !isLineCountValid || !isByteCountValid) {
+            ServletError error = new ServletError(GAL5438_INVALID_RUN_LOG_RANGE);
+            throw new InternalServletException(error, HttpServletResponse.SC_BAD_REQUEST);
+        }
+
+        RunLogStreamer logStreamer;
+        if (isTail) {
+            logStreamer = RunLogStreamer.forTail(tail);
+        } else if (isByteRange) {
+            logStreamer = RunLogStreamer.forBytes(startByte, byteCount);
         } else {
-            ServletError error = new ServletError(GAL5002_INVALID_RUN_ID, runId);
-            throw new InternalServletException(error, HttpServletResponse.SC_NOT_FOUND);
+            logStreamer = RunLogStreamer.forLines(startLine, lineCount);
         }
+        return logStreamer;
     }
 
+    private OutputStream getResponseOutputStream(HttpServletRequest request, HttpServletResponse res) throws IOException {
+        OutputStream out;
+        String acceptEncoding = request.getHeader("Accept-Encoding");
+        res.setHeader("Vary", "Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            res.setHeader("Content-Encoding", "gzip");
 
-    public String getRunlog(String runId) throws ResultArchiveStoreException, InternalServletException {
+            // Sync flush, so that a followed log reaches the client as it is written
+            out = new GZIPOutputStream(res.getOutputStream(), OUTPUT_BUFFER_SIZE, true);
+        } else {
+            out = new BufferedOutputStream(res.getOutputStream(), OUTPUT_BUFFER_SIZE);
+        }
+        return out;
+    }
 
-        IRunResult run = getRunByRunId(runId);
-        String runLog = null;
+    /**
+     * Sends any lines added to the run log until the run finishes, everything asked for has been
+     * sent, or the request has been open for too long. The client can carry on from the next line
+     * with a new request if the run is still going.
+     */
+    private void followRunLog(String runId, IRunResult run, IRunLogReader logReader, RunLogStreamer logStreamer, OutputStream out) throws ResultArchiveStoreException, IOException {
+        long deadline = System.currentTimeMillis() + FOLLOW_TIMEOUT_MILLIS;
+        boolean isRunFinished = isRunFinished(run);
+
+        while (!isRunFinished && !logStreamer.isComplete() && System.currentTimeMillis() < deadline) {
+            out.flush();
+            try {
+                Thread.sleep(FOLLOW_POLL_INTERVAL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
 
-        if (run != null) {
-           runLog = run.getLog();
+            // Fetch the run once, and use it both to check whether the run has finished and to refresh
+            // the log. Checking first means that lines written just before it finished are still sent.
+            IRunResult latestRun;
+            try {
+                latestRun = getRunByRunId(runId);
+            } catch (InternalServletException e) {
+                // The run has been deleted
+                break;
+            }
+            isRunFinished = isRunFinished(latestRun);
+
+            if (!logReader.refresh(latestRun)) {
+                break;
+            }
+            logStreamer.copy(logReader, out);
         }
+    }
 
-        return runLog;
-     }
-}
\ No newline at end of file
+    private boolean isRunFinished(IRunResult run) throws ResultArchiveStoreException {
+        TestStructure testStructure = run.getTestStructure();
+        return testStructure == null || TestRunLifecycleStatus.FINISHED.toString().equals(testStructure.getStatus());
+    }
+}
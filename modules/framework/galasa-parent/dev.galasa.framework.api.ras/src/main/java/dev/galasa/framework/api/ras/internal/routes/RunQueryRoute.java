@@ -21,6 +21,7 @@ import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.api.ras.internal.common.RasDetailsQueryParams;
 import dev.galasa.framework.api.ras.internal.common.RasQueryParameters;
 import dev.galasa.framework.api.ras.internal.common.RunResultUtility;
+import dev.galasa.framework.api.ras.internal.common.RunResultsPageMerger;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
@@ -41,6 +42,7 @@ import dev.galasa.framework.spi.ras.RasSearchCriteriaTags;
 import dev.galasa.framework.spi.ras.RasSearchCriteriaTestName;
 import dev.galasa.framework.spi.ras.RasSortField;
 import dev.galasa.framework.spi.rbac.RBACException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.GalasaGson;
 
 import static dev.galasa.framework.api.common.ServletErrorMessage.*;
@@ -135,7 +137,7 @@ public class RunQueryRoute extends RunsRoute {
 		boolean includeCursor = queryParams.getIncludeCursor();
 		String pageCursor = queryParams.getPageCursor();
 
-		List<RasRunResult> runs = new ArrayList<>();
+		List<IRunResult> runs = new ArrayList<>();
 
 		/*
 		 * Get list of Run Ids from the URL -
@@ -148,12 +150,15 @@ public class RunQueryRoute extends RunsRoute {
 		// Default to sorting in descending order based on the "queued time" of runs
 		RasSortField sortValue = queryParams.getSortValue("from:desc");
 
+		// Check the sort field before asking the RAS stores to sort by it
+		Comparator<TestStructure> runsComparator = buildRunsComparator(queryParams, sortValue);
+
 		RasRunResultPage runsPage = null;
 		String responseJson = null;
 
 		try {
 			if (runIds != null && runIds.size() > 0) {
-				runs = getRunsByIds(runIds, isMethodDetailsExcluded);
+				runs = getRunsByIds(runIds);
 			} else {
 
 				String requestor  = queryParams.getRequestor();
@@ -182,15 +187,15 @@ public class RunQueryRoute extends RunsRoute {
 							runsPage = getRunsPage(pageCursor, pageSize, formatSortField(sortValue), criteria);
 						}
 					} else {
-						runs = getRuns(criteria, isMethodDetailsExcluded);
+						runs = getRuns(pageSize, formatSortField(sortValue), criteria);
 					}
 				}
 
 			}
 
 			if (runsPage == null) {
-				runs = sortResults(runs, queryParams, sortValue);
-				responseJson = buildResponseBody(runs, pageNum, pageSize);
+				runs = sortResults(runs, runsComparator);
+				responseJson = buildResponseBody(runs, pageNum, pageSize, isMethodDetailsExcluded);
 			} else {
 				responseJson = buildResponseBody(runsPage, pageSize, isMethodDetailsExcluded);
 			}
@@ -219,18 +224,19 @@ public class RunQueryRoute extends RunsRoute {
 		return sortField;
 	}
 
-	private List<RasRunResult> getRunsByIds(List<String> runIds, boolean isMethodDetailsExcluded)
+	private List<IRunResult> getRunsByIds(List<String> runIds)
 			throws InternalServletException {
 
-		// Convert each result to the required format
-		List<RasRunResult> runs = new ArrayList<>();
+		List<IRunResult> runs = new ArrayList<>();
 
 		for (String runId : runIds) {
 			try {
 				IRunResult run = getRunByRunId(runId.trim());
 
 				if (run != null) {
-					runs.add(RunResultUtility.toRunResult(run, isMethodDetailsExcluded));
+					// Make sure the run can be read now, so a broken run is reported against its ID
+					run.getTestStructure();
+					runs.add(run);
 				}
 			} catch (ResultArchiveStoreException e) {
 				ServletError error = new ServletError(GAL5002_INVALID_RUN_ID, runId);
@@ -309,29 +315,29 @@ public class RunQueryRoute extends RunsRoute {
 		return critList;
 	}
 
-	private String buildResponseBody(List<RasRunResult> runs, int pageNum, int pageSize)
-			throws InternalServletException {
+	private String buildResponseBody(List<IRunResult> runs, int pageNum, int pageSize, boolean isMethodDetailsExcluded)
+			throws InternalServletException, ResultArchiveStoreException {
 
 		// Splits up the pages based on the page size
-		List<List<RasRunResult>> paginatedResults = ListUtils.partition(runs, pageSize);
+		List<List<IRunResult>> paginatedResults = ListUtils.partition(runs, pageSize);
 
-		// Building the object to be returned by the API and splitting
+		// Building the object to be returned by the API and splitting.
+		// Only the runs on the requested page are converted into the API format.
 		JsonObject runsPage = null;
-		try {
-			if ((pageNum == 1) && paginatedResults.isEmpty()) {
-				// No results at all, so return one page saying that.
-				runsPage = pageToJson(runs, runs.size(), 1, pageSize, 1);
-			} else {
-				runsPage = pageToJson(
-						paginatedResults.get(pageNum - 1),
-						runs.size(),
-						pageNum,
-						pageSize,
-						paginatedResults.size());
+		if ((pageNum == 1) && paginatedResults.isEmpty()) {
+			// No results at all, so return one page saying that.
+			runsPage = pageToJson(new ArrayList<>(), runs.size(), 1, pageSize, 1);
+		} else {
+			if (pageNum < 1 || pageNum > paginatedResults.size()) {
+				ServletError error = new ServletError(GAL5004_ERROR_RETRIEVING_PAGE);
+				throw new InternalServletException(error, HttpServletResponse.SC_BAD_REQUEST);
 			}
-		} catch (IndexOutOfBoundsException e) {
-			ServletError error = new ServletError(GAL5004_ERROR_RETRIEVING_PAGE);
-			throw new InternalServletException(error, HttpServletResponse.SC_BAD_REQUEST, e);
+			runsPage = pageToJson(
+					convertRunsToRunResults(paginatedResults.get(pageNum - 1), isMethodDetailsExcluded),
+					runs.size(),
+					pageNum,
+					pageSize,
+					paginatedResults.size());
 		}
 		return gson.toJson(runsPage);
 	}
@@ -389,22 +395,26 @@ public class RunQueryRoute extends RunsRoute {
 		return obj;
 	}
 
-	private List<RasRunResult> getRuns(List<IRasSearchCriteria> critList, boolean isMethodDetailsExcluded)
-			throws ResultArchiveStoreException, InternalServletException {
+	private List<IRunResult> getRuns(int readPageSize, RasSortField primarySort, List<IRasSearchCriteria> critList)
+			throws ResultArchiveStoreException {
 
 		IRasSearchCriteria[] criteria = new IRasSearchCriteria[critList.size()];
 
 		critList.toArray(criteria);
-		// Collect all the runs from all the RAS stores into a single list
-		List<IRunResult> runs = new ArrayList<>();
-		for (IResultArchiveStoreDirectoryService directoryService : getFramework().getResultArchiveStore()
-				.getDirectoryServices()) {
-			runs.addAll(directoryService.getRuns(criteria));
-		}
 
-		List<RasRunResult> runResults = convertRunsToRunResults(runs, isMethodDetailsExcluded);
-
-		return runResults;
+		// Read the runs from all the RAS stores a page at a time, in sorted order, so that a query
+		// matching a huge number of runs stops once the read limit is reached. The page numbers
+		// and the number of runs in the response then only cover the runs that were read.
+		List<IResultArchiveStoreDirectoryService> directoryServices = getFramework().getResultArchiveStore()
+				.getDirectoryServices();
+		RunResultsPageMerger pageMerger = new RunResultsPageMerger(directoryServices, readPageSize, primarySort, criteria);
+		RasRunResultPage runsRead = pageMerger.getRunsUpToReadLimit();
+
+		if (runsRead.getNextCursor() != null) {
+			logger.warn("Runs query matched more than " + RunResultsPageMerger.MAX_RUNS_READ
+					+ " runs, only the first runs read are being paged");
+		}
+		return runsRead.getRuns();
 	}
 
 	private RasRunResultPage getRunsPage(String pageCursor, int maxResults, RasSortField primarySort,
@@ -414,21 +424,20 @@ public class RunQueryRoute extends RunsRoute {
 
 		critList.toArray(criteria);
 
-		// Collect all the runs from all the RAS stores into a single list
-		List<IRunResult> runs = new ArrayList<>();
-		String nextCursor = null;
-		for (IResultArchiveStoreDirectoryService directoryService : getFramework().getResultArchiveStore()
-				.getDirectoryServices()) {
-			RasRunResultPage runsPage = directoryService.getRunsPage(maxResults, primarySort, pageCursor, criteria);
-			runs.addAll(runsPage.getRuns());
+		List<IResultArchiveStoreDirectoryService> directoryServices = getFramework().getResultArchiveStore()
+				.getDirectoryServices();
 
-			String nextRunsToken = runsPage.getNextCursor();
-			if (nextRunsToken != null) {
-				nextCursor = nextRunsToken;
-			}
+		RasRunResultPage runsPage;
+		if (directoryServices.size() == 1) {
+			// A single RAS sorts and pages its own runs, so its cursors can be handed straight back
+			runsPage = directoryServices.get(0).getRunsPage(maxResults, primarySort, pageCursor, criteria);
+		} else {
+			// Merge the sorted pages of every RAS, so that the runs come back in one overall order
+			RunResultsPageMerger pageMerger = new RunResultsPageMerger(directoryServices, maxResults, primarySort, criteria);
+			runsPage = pageMerger.getPage(pageCursor);
 		}
 
-		return new RasRunResultPage(runs, nextCursor);
+		return runsPage;
 	}
 
 	private List<IRunResult> getRunsByRunName(String runName) throws ResultArchiveStoreException {
@@ -453,12 +462,12 @@ public class RunQueryRoute extends RunsRoute {
 		return runResults;
 	}
 
-	class SortByQueuedTime implements Comparator<RasRunResult> {
+	class SortByQueuedTime implements Comparator<TestStructure> {
 
 		@Override
-		public int compare(RasRunResult a, RasRunResult b) {
-			Instant aQueuedTime = a.getTestStructure().getQueued();
-			Instant bQueuedTime = b.getTestStructure().getQueued();
+		public int compare(TestStructure a, TestStructure b) {
+			Instant aQueuedTime = a.getQueued();
+			Instant bQueuedTime = b.getQueued();
 
 			if (aQueuedTime == null) {
 				if (bQueuedTime == null) {
@@ -473,12 +482,12 @@ public class RunQueryRoute extends RunsRoute {
 		}
 	}
 
-	class SortByEndTime implements Comparator<RasRunResult> {
+	class SortByEndTime implements Comparator<TestStructure> {
 
 		@Override
-		public int compare(RasRunResult a, RasRunResult b) {
-			Instant aEndTime = a.getTestStructure().getEndTime();
-			Instant bEndTime = b.getTestStructure().getEndTime();
+		public int compare(TestStructure a, TestStructure b) {
+			Instant aEndTime = a.getEndTime();
+			Instant bEndTime = b.getEndTime();
 
 			if (aEndTime == null) {
 				if (bEndTime == null) {
@@ -493,12 +502,14 @@ public class RunQueryRoute extends RunsRoute {
 		}
 	}
 
-	class SortByTestClass implements Comparator<RasRunResult> {
+	class SortByTestClass implements Comparator<TestStructure> {
 
+		// The full test name, which is what the RAS stores sort by, so that pages of runs
+		// merged from several stores are in the same order as runs sorted here
 		@Override
-		public int compare(RasRunResult a, RasRunResult b) {
-			String aTestClass = a.getTestStructure().getTestShortName();
-			String bTestClass = b.getTestStructure().getTestShortName();
+		public int compare(TestStructure a, TestStructure b) {
+			String aTestClass = a.getTestName();
+			String bTestClass = b.getTestName();
 
 			if (aTestClass == null) {
 				if (bTestClass == null) {
@@ -513,12 +524,12 @@ public class RunQueryRoute extends RunsRoute {
 		}
 	}
 
-	class SortByResult implements Comparator<RasRunResult> {
+	class SortByResult implements Comparator<TestStructure> {
 
 		@Override
-		public int compare(RasRunResult a, RasRunResult b) {
-			String aResult = a.getTestStructure().getResult();
-			String bResult = b.getTestStructure().getResult();
+		public int compare(TestStructure a, TestStructure b) {
+			String aResult = a.getResult();
+			String bResult = b.getResult();
 
 			if (aResult == null) {
 				if (bResult == null) {
@@ -533,24 +544,40 @@ public class RunQueryRoute extends RunsRoute {
 		}
 	}
 
-	private List<RasRunResult> sortResults(
-			List<RasRunResult> unsortedRuns,
-			RasQueryParameters queryParams,
-			RasSortField sortValue) throws InternalServletException {
+	/**
+	 * A run paired with its test structure, so that the structure is only fetched once while sorting
+	 */
+	private static class SortableRunResult {
+		private final IRunResult run;
+		private final TestStructure testStructure;
 
-		// shallow-clone the input list so we don't change it.
-		List<RasRunResult> runs = new ArrayList<RasRunResult>();
-		runs.addAll(unsortedRuns);
+		private SortableRunResult(IRunResult run) throws ResultArchiveStoreException {
+			this.run = run;
+			this.testStructure = run.getTestStructure();
+		}
+	}
 
-		Comparator<RasRunResult> runsComparator = buildRunsComparator(queryParams, sortValue);
+	private List<IRunResult> sortResults(
+			List<IRunResult> unsortedRuns,
+			Comparator<TestStructure> runsComparator) throws ResultArchiveStoreException {
+
+		List<SortableRunResult> sortableRuns = new ArrayList<>();
+		for (IRunResult run : unsortedRuns) {
+			sortableRuns.add(new SortableRunResult(run));
+		}
 
-		Collections.sort(runs, runsComparator);
+		sortableRuns.sort(Comparator.comparing(sortableRun -> sortableRun.testStructure, runsComparator));
+
+		List<IRunResult> runs = new ArrayList<>();
+		for (SortableRunResult sortableRun : sortableRuns) {
+			runs.add(sortableRun.run);
+		}
 		return runs;
 	}
 
-	private Comparator<RasRunResult> buildRunsComparator(RasQueryParameters queryParams, RasSortField sortField)
+	private Comparator<TestStructure> buildRunsComparator(RasQueryParameters queryParams, RasSortField sortField)
 			throws InternalServletException {
-		Comparator<RasRunResult> runsComparator = null;
+		Comparator<TestStructure> runsComparator = null;
 
 		String sortFieldName = sortField.getFieldName();
 		if (sortFieldName.equals("from")) {
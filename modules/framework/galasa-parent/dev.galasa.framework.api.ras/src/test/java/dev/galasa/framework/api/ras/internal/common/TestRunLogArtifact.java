@@ -0,0 +1,65 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockRunResult;
+import dev.galasa.framework.spi.IRunLogReader;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+public class TestRunLogArtifact {
+
+    /**
+     * A run whose store knows the size of its log, and which fails the test if the log is read
+     */
+    class MockSizedRunResult extends MockRunResult {
+        private final long logSize;
+
+        MockSizedRunResult(long logSize) {
+            super("run1", new TestStructure(), null, null);
+            this.logSize = logSize;
+        }
+
+        @Override
+        public long getLogSize() {
+            return logSize;
+        }
+
+        @Override
+        public IRunLogReader getLogReader() throws ResultArchiveStoreException {
+            throw new ResultArchiveStoreException("The log should not have been read");
+        }
+    }
+
+    @Test
+    public void testSizeKnownByTheStoreIsUsedWithoutReadingTheLog() throws Exception {
+        // Given...
+        RunLogArtifact runLogArtifact = new RunLogArtifact();
+
+        // When...
+        long size = runLogArtifact.getSize(new MockSizedRunResult(1234));
+
+        // Then...
+        assertThat(size).isEqualTo(1234);
+    }
+
+    @Test
+    public void testSizeIsCountedFromTheLogWhenTheStoreDoesNotKnowIt() throws Exception {
+        // Given...
+        RunLogArtifact runLogArtifact = new RunLogArtifact();
+        MockRunResult run = new MockRunResult("run1", new TestStructure(), null, "line 1\nline 2\n");
+
+        // When...
+        long size = runLogArtifact.getSize(run);
+
+        // Then...
+        assertThat(size).isEqualTo("line 1\nline 2".length());
+    }
+}
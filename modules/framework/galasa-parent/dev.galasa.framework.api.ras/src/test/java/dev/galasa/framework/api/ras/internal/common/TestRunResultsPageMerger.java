@@ -0,0 +1,284 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.ras.internal.common;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.util.*;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.MockResultArchiveStoreDirectoryService;
+import dev.galasa.framework.mocks.MockRunResult;
+import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.IRasSearchCriteria;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+
+public class TestRunResultsPageMerger {
+
+    /**
+     * A store which hands back its runs, latest first, a page at a time, using the
+     * index of the next run as its cursor
+     */
+    class MockPagedDirectoryService extends MockResultArchiveStoreDirectoryService {
+        private final String name;
+        private final List<IRunResult> sortedRuns;
+        public int runsReturned = 0;
+
+        public MockPagedDirectoryService(String name, List<IRunResult> sortedRuns) {
+            super(sortedRuns);
+            this.name = name;
+            this.sortedRuns = sortedRuns;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageCursor,
+                IRasSearchCriteria... searchCriterias) throws ResultArchiveStoreException {
+            int start = (pageCursor == null) ? 0 : Integer.parseInt(pageCursor);
+            int end = Math.min(start + maxResults, sortedRuns.size());
+            List<IRunResult> page = new ArrayList<>(sortedRuns.subList(start, end));
+            runsReturned += page.size();
+
+            String nextCursor = (end < sortedRuns.size()) ? Integer.toString(end) : null;
+            return new RasRunResultPage(page, nextCursor);
+        }
+    }
+
+    private List<IRunResult> createRuns(String prefix, int... queuedSeconds) {
+        List<IRunResult> runs = new ArrayList<>();
+        for (int seconds : queuedSeconds) {
+            TestStructure testStructure = new TestStructure();
+            testStructure.setRunName(prefix + seconds);
+            testStructure.setQueued(Instant.ofEpochSecond(seconds));
+            runs.add(new MockRunResult(prefix + seconds, testStructure, null, null));
+        }
+        return runs;
+    }
+
+    private List<String> getRunIds(List<IRunResult> runs) {
+        List<String> runIds = new ArrayList<>();
+        for (IRunResult run : runs) {
+            runIds.add(run.getRunId());
+        }
+        return runIds;
+    }
+
+    @Test
+    public void testPagesFromTwoStoresAreMergedIntoOneOrder() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 90, 70, 60, 20, 10));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", 80, 50, 40, 30));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(store1, store2);
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        // When...
+        List<String> runIds = new ArrayList<>();
+        String cursor = null;
+        int pageCount = 0;
+        do {
+            RasRunResultPage page = new RunResultsPageMerger(stores, 2, sort).getPage(cursor);
+            runIds.addAll(getRunIds(page.getRuns()));
+            cursor = page.getNextCursor();
+            pageCount++;
+        } while (cursor != null);
+
+        // Then...
+        assertThat(runIds).containsExactly("A90", "B80", "A70", "A60", "B50", "B40", "B30", "A20", "A10");
+        assertThat(pageCount).isEqualTo(5);
+    }
+
+    @Test
+    public void testAscendingSortIsMergedInAscendingOrder() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 10, 30));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", 20, 40));
+        RasSortField sort = new RasSortField("queued", "asc");
+
+        // When...
+        RasRunResultPage page = new RunResultsPageMerger(List.of(store1, store2), 10, sort).getPage(null);
+
+        // Then...
+        assertThat(getRunIds(page.getRuns())).containsExactly("A10", "B20", "A30", "B40");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testDeepPagesOnlyReadAroundOnePageFromEachStore() throws Exception {
+        // Given...
+        int[] store1Times = new int[1000];
+        int[] store2Times = new int[1000];
+        for (int i = 0; i < 1000; i++) {
+            store1Times[i] = 100000 - (i * 2);
+            store2Times[i] = 100000 - (i * 2) - 1;
+        }
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", store1Times));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", store2Times));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(store1, store2);
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        String cursor = null;
+        for (int i = 0; i < 50; i++) {
+            cursor = new RunResultsPageMerger(stores, 10, sort).getPage(cursor).getNextCursor();
+        }
+        store1.runsReturned = 0;
+        store2.runsReturned = 0;
+
+        // When...
+        RasRunResultPage page = new RunResultsPageMerger(stores, 10, sort).getPage(cursor);
+
+        // Then...
+        assertThat(getRunIds(page.getRuns())).startsWith("A99500", "B99499");
+        assertThat(store1.runsReturned).isLessThanOrEqualTo(20);
+        assertThat(store2.runsReturned).isLessThanOrEqualTo(20);
+    }
+
+    @Test
+    public void testRunsUpToReadLimitReturnsEveryRunInOrderWhenThereAreFewRuns() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 90, 60, 10));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", 80, 50));
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage runsRead = new RunResultsPageMerger(List.of(store1, store2), 2, sort).getRunsUpToReadLimit();
+
+        // Then...
+        assertThat(getRunIds(runsRead.getRuns())).containsExactly("A90", "B80", "A60", "B50", "A10");
+        assertThat(runsRead.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testRunsUpToReadLimitStopsReadingAtTheLimit() throws Exception {
+        // Given...
+        int runsInEachStore = RunResultsPageMerger.MAX_RUNS_READ;
+        int[] store1Times = new int[runsInEachStore];
+        int[] store2Times = new int[runsInEachStore];
+        for (int i = 0; i < runsInEachStore; i++) {
+            store1Times[i] = 100000 - (i * 2);
+            store2Times[i] = 100000 - (i * 2) - 1;
+        }
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", store1Times));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", store2Times));
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage runsRead = new RunResultsPageMerger(List.of(store1, store2), 100, sort).getRunsUpToReadLimit();
+
+        // Then...
+        assertThat(store1.runsReturned + store2.runsReturned).isLessThanOrEqualTo(RunResultsPageMerger.MAX_RUNS_READ + 100);
+        assertThat(runsRead.getRuns()).hasSizeLessThanOrEqualTo(RunResultsPageMerger.MAX_RUNS_READ);
+        assertThat(getRunIds(runsRead.getRuns())).startsWith("A100000", "B99999", "A99998");
+        assertThat(runsRead.getNextCursor()).isNotNull();
+    }
+
+    @Test
+    public void testInvalidCursorThrowsException() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 10));
+        RunResultsPageMerger pageMerger = new RunResultsPageMerger(List.of(store1), 10, null);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> pageMerger.getPage("not a cursor!"));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("Invalid page cursor");
+    }
+
+    @Test
+    public void testStoresWithTheSameNameKeepTheirOwnPlaceInTheCursor() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("couchdb", createRuns("A", 90, 70, 50, 30));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("couchdb", createRuns("B", 80, 60, 40, 20));
+        List<IResultArchiveStoreDirectoryService> stores = List.of(store1, store2);
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        // When...
+        List<String> runIds = new ArrayList<>();
+        String cursor = null;
+        do {
+            RasRunResultPage page = new RunResultsPageMerger(stores, 3, sort).getPage(cursor);
+            runIds.addAll(getRunIds(page.getRuns()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // Then...
+        assertThat(runIds).containsExactly("A90", "B80", "A70", "B60", "A50", "B40", "A30", "B20");
+    }
+
+    @Test
+    public void testCursorForDifferentStoresThrowsException() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 90, 70));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", 80, 60));
+        RasSortField sort = new RasSortField("queued", "desc");
+        String cursor = new RunResultsPageMerger(List.of(store1, store2), 1, sort).getPage(null).getNextCursor();
+
+        RunResultsPageMerger pageMerger = new RunResultsPageMerger(List.of(store2, store1), 1, sort);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> pageMerger.getPage(cursor));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(ResultArchiveStoreException.class).hasMessageContaining("stores have changed");
+    }
+
+    @Test
+    public void testTestNameSortUsesTheFullTestName() throws Exception {
+        // Given...
+        List<IRunResult> store1Runs = createRuns("A", 10);
+        store1Runs.get(0).getTestStructure().setTestName("dev.galasa.b.ZTest");
+        store1Runs.get(0).getTestStructure().setTestShortName("ZTest");
+        List<IRunResult> store2Runs = createRuns("B", 20);
+        store2Runs.get(0).getTestStructure().setTestName("dev.galasa.c.ATest");
+        store2Runs.get(0).getTestStructure().setTestShortName("ATest");
+
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", store1Runs);
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", store2Runs);
+        RasSortField sort = new RasSortField("testName", "asc");
+
+        // When...
+        RasRunResultPage page = new RunResultsPageMerger(List.of(store1, store2), 10, sort).getPage(null);
+
+        // Then...
+        assertThat(getRunIds(page.getRuns())).containsExactly("A10", "B20");
+    }
+
+    @Test
+    public void testNoSortMergesByQueuedTimeLatestFirst() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 30, 10));
+        MockPagedDirectoryService store2 = new MockPagedDirectoryService("store2", createRuns("B", 40, 20));
+
+        // When...
+        RasRunResultPage page = new RunResultsPageMerger(List.of(store1, store2), 10, null).getPage(null);
+
+        // Then...
+        assertThat(getRunIds(page.getRuns())).containsExactly("B40", "A30", "B20", "A10");
+    }
+
+    @Test
+    public void testUnknownSortFieldIsRejected() throws Exception {
+        // Given...
+        MockPagedDirectoryService store1 = new MockPagedDirectoryService("store1", createRuns("A", 10));
+        RasSortField sort = new RasSortField("requestor", "asc");
+
+        // When...
+        Throwable thrown = catchThrowable(() -> new RunResultsPageMerger(List.of(store1), 10, sort));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("requestor");
+    }
+}
@@ -12,6 +12,7 @@ import dev.galasa.framework.api.ras.internal.RasServletTest;
 import dev.galasa.framework.api.ras.internal.mocks.MockRasServletEnvironment;
 import dev.galasa.framework.api.common.mocks.MockFramework;
 import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockServletOutputStream;
 import dev.galasa.framework.mocks.MockFileSystem;
 import dev.galasa.framework.mocks.MockPath;
 import dev.galasa.framework.spi.IRunResult;
@@ -19,8 +20,12 @@ import dev.galasa.framework.spi.IRunResult;
 import org.junit.Before;
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -691,4 +696,142 @@ public class TestRunArtifactsDownloadServlet extends RasServletTest {
 
 		assertThat( resp.getContentType()).isEqualTo("application/json");
 	}
+
+	private HttpServletResponse downloadArtifact(String fileName, String fileContent, Map<String, String> headerMap) throws Exception {
+		String runId = "12345";
+		MockPath artifactPath = new MockPath(fileName, mockFileSystem);
+		List<IRunResult> mockInputRunResults = generateTestData(runId, "testA", null);
+		mockFileSystem.createFile(artifactPath);
+		mockFileSystem.setFileContents(artifactPath, fileContent);
+
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(new HashMap<>(), "/runs/" + runId + "/files/artifacts" + artifactPath.toString(), headerMap);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockInputRunResults, mockRequest, mockFileSystem);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+
+		servlet.init();
+		servlet.doGet(req,resp);
+		return resp;
+	}
+
+    @Test
+    public void testArtifactWithRangeHeaderReturnsPartialContent() throws Exception {
+		//Given..
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Range", "bytes=6-12");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(206);
+		assertThat(resp.getOutputStream().toString()).isEqualTo("content");
+		assertThat(resp.getHeader("Content-Range")).isEqualTo("bytes 6-12/13");
+		assertThat(resp.getHeader("Content-Length")).isEqualTo("7");
+	}
+
+    @Test
+    public void testArtifactWithSuffixRangeHeaderReturnsEndOfArtifact() throws Exception {
+		//Given..
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Range", "bytes=-4");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(206);
+		assertThat(resp.getOutputStream().toString()).isEqualTo("tent");
+		assertThat(resp.getHeader("Content-Range")).isEqualTo("bytes 9-12/13");
+	}
+
+    @Test
+    public void testArtifactWithRangeBeyondEndReturnsRangeNotSatisfiable() throws Exception {
+		//Given..
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Range", "bytes=100-");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(416);
+		assertThat(resp.getOutputStream().toString()).isEmpty();
+		assertThat(resp.getHeader("Content-Range")).isEqualTo("bytes */13");
+	}
+
+    @Test
+    public void testArtifactWithMatchingETagReturnsNotModified() throws Exception {
+		//Given..
+		HttpServletResponse firstResp = downloadArtifact("/term002.gz", "dummy content", new HashMap<>());
+		String eTag = firstResp.getHeader("ETag");
+		mockFileSystem = new MockFileSystem();
+
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("If-None-Match", eTag);
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(eTag).isNotBlank();
+		assertThat(resp.getStatus()).isEqualTo(304);
+		assertThat(resp.getOutputStream().toString()).isEmpty();
+		assertThat(resp.getHeader("ETag")).isEqualTo(eTag);
+	}
+
+    @Test
+    public void testArtifactWithDifferentETagReturnsOKAndFile() throws Exception {
+		//Given..
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("If-None-Match", "W/\"an-older-version\"");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getOutputStream().toString()).isEqualTo("dummy content");
+		assertThat(resp.getHeader("Content-Length")).isEqualTo("13");
+	}
+
+    @Test
+    public void testTextArtifactIsCompressedWhenClientAcceptsGzip() throws Exception {
+		//Given..
+		String fileContent = "some text content";
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Accept-Encoding", "gzip");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/notes.txt", fileContent, headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getContentType()).isEqualTo("text/plain");
+		assertThat(resp.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+		byte[] compressed = ((MockServletOutputStream) resp.getOutputStream()).toByteArray();
+		ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			in.transferTo(uncompressed);
+		}
+		assertThat(uncompressed.toString(StandardCharsets.UTF_8)).isEqualTo(fileContent);
+	}
+
+    @Test
+    public void testBinaryArtifactIsNotCompressedWhenClientAcceptsGzip() throws Exception {
+		//Given..
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Accept-Encoding", "gzip");
+
+		//When...
+		HttpServletResponse resp = downloadArtifact("/term002.gz", "dummy content", headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getHeader("Content-Encoding")).isNull();
+		assertThat(resp.getOutputStream().toString()).isEqualTo("dummy content");
+	}
 }
\ No newline at end of file
@@ -7,12 +7,16 @@ package dev.galasa.framework.api.ras.internal.routes;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
@@ -26,6 +30,7 @@ import dev.galasa.framework.api.ras.internal.RasServletTest;
 import dev.galasa.framework.api.ras.internal.mocks.MockRasServletEnvironment;
 import dev.galasa.framework.api.common.ServletErrorMessage;
 import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockServletOutputStream;
 import dev.galasa.framework.mocks.MockPath;
 import dev.galasa.framework.mocks.MockRunResult;
 import dev.galasa.framework.spi.IRunResult;
@@ -371,4 +376,103 @@ public class TestRunLogRoute extends RasServletTest {
 		checkErrorStructure(outStream.toString() , ServletErrorMessage.GAL5091_ERROR_RUN_NOT_FOUND_BY_ID.getTemplateNumber() , "GAL5091E", "badRunId" );
 		assertThat(resp.getContentType()).isEqualTo("application/json");
 	}
+
+	private HttpServletResponse getRunLog(String runLog, Map<String, String[]> parameterMap, Map<String, String> headerMap) throws Exception {
+		String runId = "runA";
+		List<IRunResult> mockRunResults = generateTestData(runId, "testName", runLog);
+		MockHttpServletRequest mockRequest = new MockHttpServletRequest(parameterMap, "/runs/" + runId + "/runlog", headerMap);
+		MockRasServletEnvironment mockServletEnvironment = new MockRasServletEnvironment(mockRunResults, mockRequest);
+
+		RasServlet servlet = mockServletEnvironment.getServlet();
+		HttpServletRequest req = mockServletEnvironment.getRequest();
+		HttpServletResponse resp = mockServletEnvironment.getResponse();
+
+		servlet.init();
+		servlet.doGet(req,resp);
+		return resp;
+	}
+
+	@Test
+	public void testRunLogWithLineRangeReturnsRequestedLines() throws Exception {
+		//Given..
+		String runLog = "line 1\nline 2\nline 3\nline 4\nline 5";
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("startLine", new String[] {"2"});
+		parameterMap.put("lineCount", new String[] {"3"});
+
+		//When...
+		HttpServletResponse resp = getRunLog(runLog, parameterMap, new HashMap<>());
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getOutputStream().toString()).isEqualTo("line 2\nline 3\nline 4");
+	}
+
+	@Test
+	public void testRunLogWithTailReturnsLastLines() throws Exception {
+		//Given..
+		String runLog = "line 1\nline 2\nline 3\nline 4\nline 5";
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("tail", new String[] {"2"});
+
+		//When...
+		HttpServletResponse resp = getRunLog(runLog, parameterMap, new HashMap<>());
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getOutputStream().toString()).isEqualTo("line 4\nline 5");
+	}
+
+	@Test
+	public void testRunLogWithByteRangeReturnsRequestedBytes() throws Exception {
+		//Given..
+		String runLog = "line 1\nline 2\nline 3";
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("startByte", new String[] {"4"});
+		parameterMap.put("byteCount", new String[] {"10"});
+
+		//When...
+		HttpServletResponse resp = getRunLog(runLog, parameterMap, new HashMap<>());
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getOutputStream().toString()).isEqualTo(runLog.substring(4, 14));
+	}
+
+	@Test
+	public void testRunLogWithTailAndLineRangeReturnsBadRequest() throws Exception {
+		//Given..
+		Map<String, String[]> parameterMap = new HashMap<String,String[]>();
+		parameterMap.put("tail", new String[] {"2"});
+		parameterMap.put("startLine", new String[] {"2"});
+
+		//When...
+		HttpServletResponse resp = getRunLog("hello world", parameterMap, new HashMap<>());
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(400);
+		checkErrorStructure(resp.getOutputStream().toString(), 5438, "GAL5438E");
+	}
+
+	@Test
+	public void testRunLogIsCompressedWhenClientAcceptsGzip() throws Exception {
+		//Given..
+		String runLog = "line 1\nline 2";
+		Map<String, String> headerMap = new HashMap<String,String>();
+		headerMap.put("Accept-Encoding", "gzip, deflate");
+
+		//When...
+		HttpServletResponse resp = getRunLog(runLog, new HashMap<>(), headerMap);
+
+		// Then...
+		assertThat(resp.getStatus()).isEqualTo(200);
+		assertThat(resp.getHeader("Content-Encoding")).isEqualTo("gzip");
+
+		byte[] compressed = ((MockServletOutputStream) resp.getOutputStream()).toByteArray();
+		ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+			in.transferTo(uncompressed);
+		}
+		assertThat(uncompressed.toString(StandardCharsets.UTF_8)).isEqualTo(runLog);
+	}
 }
\ No newline at end of file
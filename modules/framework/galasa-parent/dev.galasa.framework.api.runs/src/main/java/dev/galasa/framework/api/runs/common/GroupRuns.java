@@ -7,6 +7,7 @@ package dev.galasa.framework.api.runs.common;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +26,7 @@ import dev.galasa.framework.api.common.InternalServletException;
 import dev.galasa.framework.api.common.ProtectedRoute;
 import dev.galasa.framework.api.common.ResponseBuilder;
 import dev.galasa.framework.api.common.ServletError;
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
@@ -93,36 +95,37 @@ public class GroupRuns extends ProtectedRoute {
             
         ScheduleStatus status = new ScheduleStatus();
         status.setComplete(false);
-            
-        for (String className : request.getClassNames()) {
-            // className is in format bundle/testClass
-            String[] classNameSplit = className.split("/");
 
-            SharedEnvironmentPhase senvPhase = null;
-            String sharedEnvironmentPhase = request.getSharedEnvironmentPhase();
-            if (sharedEnvironmentPhase != null) {
-                try {
-                    senvPhase = SharedEnvironmentPhase.valueOf(request.getSharedEnvironmentPhase());
-                } catch (Throwable t) {
-                    ServletError error = new ServletError(GAL5022_UNABLE_TO_PARSE_SHARED_ENVIRONMENT_PHASE,sharedEnvironmentPhase);
-                    throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, t);
-                }
+        SharedEnvironmentPhase senvPhase = null;
+        String sharedEnvironmentPhase = request.getSharedEnvironmentPhase();
+        if (sharedEnvironmentPhase != null) {
+            try {
+                senvPhase = SharedEnvironmentPhase.valueOf(request.getSharedEnvironmentPhase());
+            } catch (Throwable t) {
+                ServletError error = new ServletError(GAL5022_UNABLE_TO_PARSE_SHARED_ENVIRONMENT_PHASE,sharedEnvironmentPhase);
+                throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, t);
             }
+        }
 
-            if (jwtRequestor == null) {
-                jwtRequestor = request.getRequestor(); 
-            }
+        if (jwtRequestor == null) {
+            jwtRequestor = request.getRequestor(); 
+        }
 
-            try {
+        List<SubmitRunRequest> runRequests = new ArrayList<>();
+        for (String className : request.getClassNames()) {
+            // className is in format bundle/testClass
+            String[] classNameSplit = className.split("/");
 
+            try {
                 String submissionId = UUID.randomUUID().toString();
 
-                IRun newRun = framework.getFrameworkRuns().submitRun(
+                runRequests.add(new SubmitRunRequest(
                     request.getRequestorType(),
                     jwtRequestor,
                     classNameSplit[0],
                     classNameSplit[1],
                     groupName,
+                    submissionId,
                     request.getMavenRepository(),
                     request.getObr(),
                     request.getTestStream(),
@@ -132,20 +135,41 @@ public class GroupRuns extends ProtectedRoute {
                     request.getOverrides(), 
                     senvPhase, 
                     request.getSharedEnvironmentRunName(),
-                    "java",
-                    submissionId
-                );
-                
-                status.getRuns().add(newRun.getSerializedRun());
-                
-                // Create an empty RAS record for the submitted run
-                createRunRasRecord(newRun, rasStore, timeService);
-
+                    "java"
+                ));
             } catch (FrameworkException fe) {
                 ServletError error = new ServletError(GAL5021_UNABLE_TO_SUBMIT_RUNS, className);  
                 throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, fe);
             }
         }
+
+        // Submit all the runs together, so the framework can store them in bulk
+        List<IRun> newRuns;
+        try {
+            newRuns = framework.getFrameworkRuns().submitRuns(runRequests);
+        } catch (FrameworkException fe) {
+            ServletError error = new ServletError(GAL5021_UNABLE_TO_SUBMIT_RUNS, String.join(", ", request.getClassNames()));
+            throw new InternalServletException(error, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, fe);
+        }
+
+        // Create an empty RAS record for each submitted run. The runs are all queued by now, so one
+        // failure shouldn't leave the rest of the group without RAS records.
+        InternalServletException rasRecordException = null;
+        for (IRun newRun : newRuns) {
+            status.getRuns().add(newRun.getSerializedRun());
+
+            try {
+                createRunRasRecord(newRun, rasStore, timeService);
+            } catch (InternalServletException e) {
+                if (rasRecordException == null) {
+                    rasRecordException = e;
+                }
+            }
+        }
+
+        if (rasRecordException != null) {
+            throw rasRecordException;
+        }
         return status;
     }
 
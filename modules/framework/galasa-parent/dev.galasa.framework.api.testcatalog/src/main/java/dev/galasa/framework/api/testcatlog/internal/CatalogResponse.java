@@ -0,0 +1,107 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import dev.galasa.framework.api.common.EntityTag;
+
+/**
+ * A JSON response which has already been serialised and compressed, so that it can be sent to
+ * any number of clients without being built again for each of them.
+ *
+ * The entity tag is built from the content, so clients which send it back in If-None-Match are
+ * told the content has not been modified rather than being sent it again. The compressed
+ * content has its own entity tag, as it is a different representation of the same content.
+ */
+public class CatalogResponse {
+
+    private final byte[] content;
+    private final byte[] gzippedContent;
+    private final String eTag;
+    private final String gzippedETag;
+
+    public CatalogResponse(String json) throws IOException {
+        this.content = json.getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream gzippedStream = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(gzippedStream)) {
+            gzipStream.write(content);
+        }
+        this.gzippedContent = gzippedStream.toByteArray();
+
+        String hash = EntityTag.hash(content);
+        this.eTag = EntityTag.strong(hash);
+        this.gzippedETag = EntityTag.strong(hash + "-gzip");
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Sends the content, compressed if the client accepts gzip, or a 304 if the client already has it
+     */
+    public void send(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        boolean isGzipped = isGzipAccepted(req.getHeader("Accept-Encoding"));
+
+        resp.setHeader("Vary", "Accept-Encoding");
+        resp.setHeader("ETag", isGzipped ? gzippedETag : eTag);
+
+        if (EntityTag.isMatched(req.getHeader("If-None-Match"), eTag, gzippedETag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        byte[] body = content;
+        if (isGzipped) {
+            resp.setHeader("Content-Encoding", "gzip");
+            body = gzippedContent;
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    private boolean isGzipAccepted(String acceptEncoding) {
+        boolean isAccepted = false;
+        if (acceptEncoding != null) {
+            for (String encoding : acceptEncoding.split(",")) {
+                String[] parts = encoding.split(";");
+                if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                    // "gzip;q=0" means the client does not want gzip
+                    isAccepted = true;
+                    for (int i = 1; i < parts.length; i++) {
+                        String parameter = parts[i].trim();
+                        if (parameter.startsWith("q=") && isZeroQuality(parameter.substring(2))) {
+                            isAccepted = false;
+                        }
+                    }
+                    break;
+                }
+            }
+        }
+        return isAccepted;
+    }
+
+    private boolean isZeroQuality(String quality) {
+        boolean isZero = false;
+        try {
+            isZero = Double.parseDouble(quality) == 0;
+        } catch (NumberFormatException e) {
+            // Ignore qualities we don't understand
+        }
+        return isZero;
+    }
+}
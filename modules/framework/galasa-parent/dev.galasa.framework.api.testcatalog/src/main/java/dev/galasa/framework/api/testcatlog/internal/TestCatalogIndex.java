@@ -0,0 +1,377 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+/**
+ * An immutable index of the test catalog of one stream, built once when the catalog is loaded
+ * or replaced.
+ *
+ * The whole catalog is held as a ready-to-send response. The test classes are indexed by bundle,
+ * package and tag, so that a catalog filtered by any of those can be built without scanning
+ * every class. The most recently used filtered catalogs are kept too, as clients tend to
+ * ask for the same few filters over and over.
+ *
+ * The index never changes the catalog JSON it was built from, so it can be read by any number
+ * of threads without locking. Only the small cache of filtered catalogs is locked.
+ */
+public class TestCatalogIndex {
+
+    static final int MAX_FILTERED_RESPONSES = 64;
+
+    private static final GalasaGson gson = new GalasaGson();
+
+    private final JsonObject catalog;
+    private final JsonObject summary;
+    private final CatalogResponse response;
+
+    private final Map<String, JsonObject>   classes;
+    private final Map<String, List<String>> classesByBundle;
+    private final Map<String, List<String>> classesByPackage;
+    private final Map<String, List<String>> classesByTag;
+
+    // In least recently used order, so the filter used longest ago is dropped when the cache is full
+    private final Map<CatalogFilter, CatalogResponse> filteredResponses = new LinkedHashMap<CatalogFilter, CatalogResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Entry<CatalogFilter, CatalogResponse> eldest) {
+            return size() > MAX_FILTERED_RESPONSES;
+        }
+    };
+
+    /**
+     * @param json the catalog, exactly as it is to be sent to clients
+     * @param catalog the catalog parsed from the json, or null if the json was empty or could not be parsed
+     */
+    public TestCatalogIndex(String json, JsonObject catalog) throws IOException {
+        this.catalog = (catalog == null) ? new JsonObject() : catalog;
+        this.response = new CatalogResponse(json);
+
+        if (catalog == null) {
+            this.summary = null;
+        } else {
+            this.summary = new JsonObject();
+            summary.add("name", catalog.get("name"));
+            summary.add("build", catalog.get("build"));
+            summary.add("version", catalog.get("version"));
+            summary.add("built", catalog.get("built"));
+        }
+
+        Map<String, JsonObject> classes = new LinkedHashMap<>();
+        Map<String, List<String>> classesByBundle = new LinkedHashMap<>();
+        Map<String, List<String>> classesByPackage = new LinkedHashMap<>();
+        Map<String, List<String>> classesByTag = new LinkedHashMap<>();
+
+        JsonObject jsonClasses = getObject(this.catalog, "classes");
+        for (Entry<String, JsonElement> entry : jsonClasses.entrySet()) {
+            if (entry.getValue().isJsonObject()) {
+                String className = entry.getKey();
+                JsonObject jsonClass = entry.getValue().getAsJsonObject();
+                classes.put(className, jsonClass);
+
+                addToIndex(classesByBundle, getString(jsonClass, "bundle"), className);
+                addToIndex(classesByPackage, getString(jsonClass, "package"), className);
+                for (String tag : getTags(jsonClass)) {
+                    addToIndex(classesByTag, tag, className);
+                }
+            }
+        }
+
+        this.classes = Collections.unmodifiableMap(classes);
+        this.classesByBundle = freeze(classesByBundle);
+        this.classesByPackage = freeze(classesByPackage);
+        this.classesByTag = freeze(classesByTag);
+    }
+
+    /**
+     * @return the name, build, version and built date of the catalog, or null if the catalog was empty.
+     * Callers must not change it.
+     */
+    public JsonObject getSummary() {
+        return summary;
+    }
+
+    /**
+     * @return the whole catalog
+     */
+    public CatalogResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * @return the catalog with only the test classes which match the filter, or the whole
+     * catalog if it could not be parsed
+     */
+    public CatalogResponse getResponse(CatalogFilter filter) throws IOException {
+        // There is no summary when there was no catalog to parse, so nothing to filter
+        if (filter.isEmpty() || summary == null) {
+            return response;
+        }
+
+        CatalogResponse filteredResponse;
+        synchronized (filteredResponses) {
+            filteredResponse = filteredResponses.get(filter);
+        }
+
+        if (filteredResponse == null) {
+            // Build the response without holding the lock, so other filters can still be served.
+            // Filters come from clients, so only a limited number of them are remembered.
+            filteredResponse = new CatalogResponse(gson.toJson(buildFilteredCatalog(filter)));
+            synchronized (filteredResponses) {
+                filteredResponses.put(filter, filteredResponse);
+            }
+        }
+        return filteredResponse;
+    }
+
+    /**
+     * @return the names of the test classes which match the filter, in catalog order
+     */
+    public List<String> getClassNames(CatalogFilter filter) {
+        // Start from the smallest of the indexed lists which apply, rather than every class
+        List<String> candidates = null;
+        if (filter.getBundle() != null) {
+            candidates = smallest(candidates, classesByBundle.getOrDefault(filter.getBundle(), Collections.emptyList()));
+        }
+        if (filter.getPackage() != null) {
+            candidates = smallest(candidates, classesByPackage.getOrDefault(filter.getPackage(), Collections.emptyList()));
+        }
+        for (String tag : filter.getTags()) {
+            candidates = smallest(candidates, classesByTag.getOrDefault(tag, Collections.emptyList()));
+        }
+        if (candidates == null) {
+            candidates = new ArrayList<>(classes.keySet());
+        }
+
+        List<String> classNames = new ArrayList<>();
+        for (String className : candidates) {
+            if (isMatched(className, filter)) {
+                classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+
+    private boolean isMatched(String className, CatalogFilter filter) {
+        JsonObject jsonClass = classes.get(className);
+
+        boolean isMatched = true;
+        if (filter.getBundle() != null && !filter.getBundle().equals(getString(jsonClass, "bundle"))) {
+            isMatched = false;
+        } else if (filter.getPackage() != null && !filter.getPackage().equals(getString(jsonClass, "package"))) {
+            isMatched = false;
+        } else if (filter.getClassPattern() != null && !filter.getClassPattern().matcher(className).matches()) {
+            isMatched = false;
+        } else if (!getTags(jsonClass).containsAll(filter.getTags())) {
+            isMatched = false;
+        }
+        return isMatched;
+    }
+
+    /**
+     * Builds a catalog in the same shape as the whole catalog, but where the classes, packages and
+     * bundles only refer to the test classes which match the filter
+     */
+    private JsonObject buildFilteredCatalog(CatalogFilter filter) {
+        JsonObject jsonClasses = new JsonObject();
+        JsonObject jsonPackages = new JsonObject();
+        JsonObject jsonBundles = new JsonObject();
+
+        JsonObject originalBundles = getObject(catalog, "bundles");
+
+        for (String className : getClassNames(filter)) {
+            JsonObject jsonClass = classes.get(className);
+            jsonClasses.add(className, jsonClass);
+
+            String packageName = getString(jsonClass, "package");
+            if (packageName != null) {
+                getArray(jsonPackages, packageName).add(className);
+            }
+
+            String bundleName = getString(jsonClass, "bundle");
+            if (bundleName != null) {
+                JsonObject jsonBundle = jsonBundles.getAsJsonObject(bundleName);
+                if (jsonBundle == null) {
+                    jsonBundle = new JsonObject();
+                    for (Entry<String, JsonElement> entry : getObject(originalBundles, bundleName).entrySet()) {
+                        if (!entry.getKey().equals("packages")) {
+                            jsonBundle.add(entry.getKey(), entry.getValue());
+                        }
+                    }
+                    jsonBundle.add("packages", new JsonObject());
+                    jsonBundles.add(bundleName, jsonBundle);
+                }
+                if (packageName != null) {
+                    getArray(jsonBundle.getAsJsonObject("packages"), packageName).add(className);
+                }
+            }
+        }
+
+        // Everything else in the catalog, such as the shared environments, is not filtered
+        JsonObject filteredCatalog = new JsonObject();
+        for (Entry<String, JsonElement> entry : catalog.entrySet()) {
+            String name = entry.getKey();
+            if (!name.equals("classes") && !name.equals("packages") && !name.equals("bundles")) {
+                filteredCatalog.add(name, entry.getValue());
+            }
+        }
+        filteredCatalog.add("classes", jsonClasses);
+        filteredCatalog.add("packages", jsonPackages);
+        filteredCatalog.add("bundles", jsonBundles);
+        return filteredCatalog;
+    }
+
+    private static List<String> smallest(List<String> current, List<String> other) {
+        return (current == null || other.size() < current.size()) ? other : current;
+    }
+
+    private static void addToIndex(Map<String, List<String>> index, String key, String className) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(className);
+        }
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, List<String>> index) {
+        Map<String, List<String>> frozenIndex = new LinkedHashMap<>();
+        for (Entry<String, List<String>> entry : index.entrySet()) {
+            frozenIndex.put(entry.getKey(), Collections.unmodifiableList(entry.getValue()));
+        }
+        return Collections.unmodifiableMap(frozenIndex);
+    }
+
+    private static List<String> getTags(JsonObject jsonClass) {
+        List<String> tags = new ArrayList<>();
+        JsonElement jsonTags = jsonClass.get("tags");
+        if (jsonTags != null && jsonTags.isJsonArray()) {
+            for (JsonElement jsonTag : jsonTags.getAsJsonArray()) {
+                if (jsonTag.isJsonPrimitive()) {
+                    tags.add(jsonTag.getAsString());
+                }
+            }
+        }
+        return tags;
+    }
+
+    private static String getString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return (element != null && element.isJsonPrimitive()) ? element.getAsString() : null;
+    }
+
+    private static JsonObject getObject(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return (element != null && element.isJsonObject()) ? element.getAsJsonObject() : new JsonObject();
+    }
+
+    private static JsonArray getArray(JsonObject object, String name) {
+        JsonArray array = object.getAsJsonArray(name);
+        if (array == null) {
+            array = new JsonArray();
+            object.add(name, array);
+        }
+        return array;
+    }
+
+    /**
+     * Which test classes to include in a catalog. Every part of the filter which is set has to
+     * match for a test class to be included.
+     */
+    public static class CatalogFilter {
+        private final String       classGlob;
+        private final Pattern      classPattern;
+        private final String       bundle;
+        private final String       packageName;
+        private final List<String> tags;
+
+        /**
+         * @param classGlob a glob for the full names of the test classes, where '*' matches any
+         * number of characters and '?' matches any one character, or null for any class
+         * @param bundle the bundle the test classes are in, or null for any bundle
+         * @param packageName the package the test classes are in, or null for any package
+         * @param tags tags every test class has to have, or null for no tags
+         */
+        public CatalogFilter(String classGlob, String bundle, String packageName, List<String> tags) {
+            this.classGlob = classGlob;
+            this.classPattern = (classGlob == null) ? null : globToPattern(classGlob);
+            this.bundle = bundle;
+            this.packageName = packageName;
+            this.tags = (tags == null) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(tags));
+        }
+
+        public boolean isEmpty() {
+            return classGlob == null && bundle == null && packageName == null && tags.isEmpty();
+        }
+
+        public Pattern getClassPattern() {
+            return classPattern;
+        }
+
+        public String getBundle() {
+            return bundle;
+        }
+
+        public String getPackage() {
+            return packageName;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        private static Pattern globToPattern(String glob) {
+            StringBuilder regex = new StringBuilder();
+            StringBuilder literal = new StringBuilder();
+            for (char globChar : glob.toCharArray()) {
+                if (globChar == '*' || globChar == '?') {
+                    if (literal.length() > 0) {
+                        regex.append(Pattern.quote(literal.toString()));
+                        literal.setLength(0);
+                    }
+                    regex.append(globChar == '*' ? ".*" : ".");
+                } else {
+                    literal.append(globChar);
+                }
+            }
+            if (literal.length() > 0) {
+                regex.append(Pattern.quote(literal.toString()));
+            }
+            return Pattern.compile(regex.toString());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CatalogFilter)) {
+                return false;
+            }
+            CatalogFilter otherFilter = (CatalogFilter) other;
+            return Objects.equals(classGlob, otherFilter.classGlob)
+                && Objects.equals(bundle, otherFilter.bundle)
+                && Objects.equals(packageName, otherFilter.packageName)
+                && tags.equals(otherFilter.tags);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(classGlob, bundle, packageName, tags);
+        }
+    }
+}
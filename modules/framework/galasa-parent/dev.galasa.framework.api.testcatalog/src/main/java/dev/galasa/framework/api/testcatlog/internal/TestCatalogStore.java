@@ -0,0 +1,186 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+/**
+ * Holds the indexed test catalog of each stream in memory, shared by the test catalog servlets.
+ *
+ * A catalog is only read from disk the first time it is asked for, or when its file has changed
+ * since it was read, for example because it was replaced by another server sharing the catalog
+ * directory. A catalog replaced through this server is indexed as it is written, and the new index
+ * swapped in, so no request ever sees a partly built index.
+ *
+ * The list of catalogs is built from the indexes already held, and is only built again when one
+ * of the catalogs changes.
+ *
+ * A catalog file which can't be parsed, for example because it is still being written, is indexed
+ * as it is, so it is still sent to clients exactly as it is stored but is left out of the list.
+ */
+public class TestCatalogStore {
+
+    // Older servers kept the list of catalogs in this file, so it is not a catalog itself
+    private static final String OLD_CACHE_FILE_NAME = "cache.json";
+
+    private static final Log logger = LogFactory.getLog(TestCatalogStore.class);
+
+    private static final GalasaGson gson = new GalasaGson();
+
+    private static class CachedCatalog {
+        private final FileTime         lastModified;
+        private final long             size;
+        private final TestCatalogIndex index;
+
+        private CachedCatalog(BasicFileAttributes attributes, TestCatalogIndex index) {
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.index = index;
+        }
+
+        private boolean isCurrent(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+
+    private static class CachedCatalogList {
+        private final Map<String, TestCatalogIndex> indexes;
+        private final CatalogResponse               response;
+
+        private CachedCatalogList(Map<String, TestCatalogIndex> indexes, CatalogResponse response) {
+            this.indexes = indexes;
+            this.response = response;
+        }
+
+        private boolean isCurrent(Map<String, TestCatalogIndex> currentIndexes) {
+            boolean isCurrent = indexes.size() == currentIndexes.size();
+            if (isCurrent) {
+                for (Entry<String, TestCatalogIndex> entry : currentIndexes.entrySet()) {
+                    if (indexes.get(entry.getKey()) != entry.getValue()) {
+                        isCurrent = false;
+                        break;
+                    }
+                }
+            }
+            return isCurrent;
+        }
+    }
+
+    private static final Map<Path, CachedCatalog>     catalogs     = new ConcurrentHashMap<>();
+    private static final Map<Path, CachedCatalogList> catalogLists = new ConcurrentHashMap<>();
+
+    private TestCatalogStore() {
+    }
+
+    /**
+     * @param catalogFile the file the stream's catalog is stored in
+     * @return the index of the catalog, or null if the stream has no catalog
+     */
+    public static TestCatalogIndex getCatalog(Path catalogFile) throws IOException {
+        if (!Files.isRegularFile(catalogFile)) {
+            catalogs.remove(catalogFile);
+            return null;
+        }
+
+        // Read the attributes before the content, so if the file changes while it is being read
+        // the attributes are out of date and the file is read again next time
+        BasicFileAttributes attributes = Files.readAttributes(catalogFile, BasicFileAttributes.class);
+        CachedCatalog cachedCatalog = catalogs.get(catalogFile);
+        if (cachedCatalog == null || !cachedCatalog.isCurrent(attributes)) {
+            String json = new String(Files.readAllBytes(catalogFile), StandardCharsets.UTF_8);
+            JsonObject catalog = null;
+            try {
+                catalog = gson.fromJson(json, JsonObject.class);
+            } catch (JsonParseException e) {
+                logger.warn("Unable to parse the test catalog in " + catalogFile + ", it will be sent unfiltered. Reason: "
+                        + e.getMessage());
+            }
+
+            // Two threads may both read a changed file, but they build the same index
+            cachedCatalog = new CachedCatalog(attributes, new TestCatalogIndex(json, catalog));
+            catalogs.put(catalogFile, cachedCatalog);
+        }
+        return cachedCatalog.index;
+    }
+
+    /**
+     * Writes the stream's catalog and swaps in its new index
+     *
+     * @param catalogFile the file the stream's catalog is stored in
+     * @param json the catalog as it was sent
+     * @param catalog the catalog parsed from the json
+     */
+    public static void putCatalog(Path catalogFile, String json, JsonObject catalog) throws IOException {
+        TestCatalogIndex index = new TestCatalogIndex(json, catalog);
+
+        Files.write(catalogFile, json.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+
+        BasicFileAttributes attributes = Files.readAttributes(catalogFile, BasicFileAttributes.class);
+        catalogs.put(catalogFile, new CachedCatalog(attributes, index));
+    }
+
+    /**
+     * @param catalogDirectory the directory the catalogs are stored in
+     * @return the name, build, version and built date of every catalog in the directory
+     */
+    public static CatalogResponse getCatalogList(Path catalogDirectory) throws IOException {
+        List<Path> catalogFiles = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(catalogDirectory)) {
+            stream.filter(path -> Files.isRegularFile(path))
+                .filter(path -> !path.getFileName().toString().equals(OLD_CACHE_FILE_NAME))
+                .forEach(catalogFiles::add);
+        }
+        Collections.sort(catalogFiles);
+
+        Map<String, TestCatalogIndex> indexes = new LinkedHashMap<>();
+        for (Path catalogFile : catalogFiles) {
+            TestCatalogIndex index = getCatalog(catalogFile);
+            if (index != null) {
+                indexes.put(catalogFile.getFileName().toString(), index);
+            }
+        }
+
+        CachedCatalogList cachedList = catalogLists.get(catalogDirectory);
+        if (cachedList == null || !cachedList.isCurrent(indexes)) {
+            JsonObject jsonCatalogs = new JsonObject();
+            for (Entry<String, TestCatalogIndex> entry : indexes.entrySet()) {
+                JsonObject summary = entry.getValue().getSummary();
+                if (summary != null) {
+                    jsonCatalogs.add(entry.getKey(), summary);
+                }
+            }
+            JsonObject jsonList = new JsonObject();
+            jsonList.add("catalogs", jsonCatalogs);
+
+            cachedList = new CachedCatalogList(indexes, new CatalogResponse(gson.toJson(jsonList)));
+            catalogLists.put(catalogDirectory, cachedList);
+        }
+        return cachedList.response;
+    }
+}
@@ -10,7 +10,8 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -34,6 +35,7 @@ import org.osgi.service.component.annotations.ServiceScope;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
+import dev.galasa.framework.api.testcatlog.internal.TestCatalogIndex.CatalogFilter;
 import dev.galasa.framework.spi.utils.GalasaGson;
 
 /**
@@ -75,19 +77,16 @@ public class TestcatalogStreams extends HttpServlet {
 //				return;
 //			}
 
-            Path actualFile = catalogDirectory.resolve(streamName);
-
-            if (!Files.exists(actualFile)) {
+            // *** The catalog is only read from disk if it has changed since it was last indexed
+            TestCatalogIndex catalog = TestCatalogStore.getCatalog(catalogDirectory.resolve(streamName));
+            if (catalog == null) {
                 resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Test Catalog is missing");
                 return;
             }
 
-            resp.setContentType("application/json");
-            resp.setContentLengthLong(Files.size(actualFile));
-
-            Files.copy(actualFile, resp.getOutputStream());
-
-            resp.setStatus(200);
+            CatalogFilter filter = new CatalogFilter(req.getParameter("class"), req.getParameter("bundle"),
+                    req.getParameter("package"), getParameterValues(req, "tag"));
+            catalog.getResponse(filter).send(req, resp);
         } catch (JsonParseException e) {
             throw new IOException("Problem processing the test catalog request", e); // NOSONAR TODO put in proper json
                                                                                      // error response
@@ -133,10 +132,8 @@ public class TestcatalogStreams extends HttpServlet {
                 return;
             }
 
-            Path actualFile = catalogDirectory.resolve(streamName);
-
-            Files.write(actualFile, jsonData.getBytes("utf-8"), StandardOpenOption.CREATE,
-                    StandardOpenOption.TRUNCATE_EXISTING);
+            // *** Index the new catalog as it is written, so the next request doesn't have to read it back
+            TestCatalogStore.putCatalog(catalogDirectory.resolve(streamName), jsonData, tc);
 
             logger.info("Test Catalog written for stream " + streamName);
 
@@ -150,6 +147,11 @@ public class TestcatalogStreams extends HttpServlet {
         }
     }
 
+    private List<String> getParameterValues(HttpServletRequest req, String name) {
+        String[] values = req.getParameterValues(name);
+        return (values == null) ? null : Arrays.asList(values);
+    }
+
     private boolean checkPath(HttpServletResponse resp, String path) throws IOException {
         Matcher m = patternValidStreamName.matcher(path);
         if (!m.matches()) {
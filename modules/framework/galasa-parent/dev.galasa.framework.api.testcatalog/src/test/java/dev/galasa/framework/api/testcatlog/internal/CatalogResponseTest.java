@@ -0,0 +1,163 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockHttpServletResponse;
+import dev.galasa.framework.api.common.mocks.MockServletOutputStream;
+
+public class CatalogResponseTest {
+
+    private static final String JSON = "{\"name\":\"mystream\",\"classes\":{}}";
+
+    private MockHttpServletResponse send(CatalogResponse response, Map<String, String> headers) throws IOException {
+        MockHttpServletRequest req = new MockHttpServletRequest("/", headers);
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        response.send(req, resp);
+        return resp;
+    }
+
+    private byte[] getBody(MockHttpServletResponse resp) throws IOException {
+        return ((MockServletOutputStream) resp.getOutputStream()).toByteArray();
+    }
+
+    private String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return IOUtils.toString(gzipStream, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testSendWithoutAcceptEncodingSendsUncompressedContent() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+
+        // When...
+        MockHttpServletResponse resp = send(response, new HashMap<>());
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getContentType()).isEqualTo("application/json");
+        assertThat(resp.getHeader("Content-Encoding")).isNull();
+        assertThat(resp.getHeader("ETag")).isEqualTo(response.getETag());
+        assertThat(resp.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(new String(getBody(resp), StandardCharsets.UTF_8)).isEqualTo(JSON);
+        assertThat(resp.getHeader("Content-Length")).isEqualTo(String.valueOf(getBody(resp).length));
+    }
+
+    @Test
+    public void testSendWithGzipAcceptedSendsCompressedContent() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", "deflate, GZIP;q=0.8");
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(resp.getHeader("ETag")).isNotEqualTo(response.getETag());
+        assertThat(gunzip(getBody(resp))).isEqualTo(JSON);
+        assertThat(resp.getHeader("Content-Length")).isEqualTo(String.valueOf(getBody(resp).length));
+    }
+
+    @Test
+    public void testSendWithGzipRefusedSendsUncompressedContent() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", "gzip;q=0, identity");
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getHeader("Content-Encoding")).isNull();
+        assertThat(resp.getHeader("ETag")).isEqualTo(response.getETag());
+        assertThat(new String(getBody(resp), StandardCharsets.UTF_8)).isEqualTo(JSON);
+    }
+
+    @Test
+    public void testSendWithMatchingETagReturnsNotModified() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", "\"someothertag\", " + response.getETag());
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(resp.getHeader("ETag")).isEqualTo(response.getETag());
+        assertThat(getBody(resp)).isEmpty();
+    }
+
+    @Test
+    public void testSendWithMatchingWeakGzipETagReturnsNotModified() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept-Encoding", "gzip");
+        String gzippedETag = send(response, headers).getHeader("ETag");
+        headers.put("If-None-Match", "W/" + gzippedETag);
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(getBody(resp)).isEmpty();
+    }
+
+    @Test
+    public void testSendWithWildcardETagReturnsNotModified() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", "*");
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+    }
+
+    @Test
+    public void testSendWithETagOfOtherContentSendsContent() throws Exception {
+        // Given...
+        CatalogResponse response = new CatalogResponse(JSON);
+        CatalogResponse oldResponse = new CatalogResponse("{\"name\":\"mystream\"}");
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", oldResponse.getETag());
+
+        // When...
+        MockHttpServletResponse resp = send(response, headers);
+
+        // Then...
+        assertThat(oldResponse.getETag()).isNotEqualTo(response.getETag());
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(new String(getBody(resp), StandardCharsets.UTF_8)).isEqualTo(JSON);
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockHttpServletResponse;
+import dev.galasa.framework.api.testcatlog.internal.TestCatalogIndex.CatalogFilter;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+public class TestCatalogIndexTest {
+
+    private static final GalasaGson gson = new GalasaGson();
+
+    private void addClass(JsonObject catalog, String bundle, String packageName, String className, String... tags) {
+        JsonObject jsonClass = new JsonObject();
+        jsonClass.addProperty("name", className);
+        jsonClass.addProperty("bundle", bundle);
+        jsonClass.addProperty("package", packageName);
+        JsonArray jsonTags = new JsonArray();
+        for (String tag : tags) {
+            jsonTags.add(tag);
+        }
+        jsonClass.add("tags", jsonTags);
+        catalog.getAsJsonObject("classes").add(className, jsonClass);
+
+        JsonObject jsonPackages = catalog.getAsJsonObject("packages");
+        if (!jsonPackages.has(packageName)) {
+            jsonPackages.add(packageName, new JsonArray());
+        }
+        jsonPackages.getAsJsonArray(packageName).add(className);
+
+        JsonObject jsonBundles = catalog.getAsJsonObject("bundles");
+        if (!jsonBundles.has(bundle)) {
+            JsonObject jsonBundle = new JsonObject();
+            jsonBundle.addProperty("bundleName", bundle);
+            jsonBundle.add("packages", new JsonObject());
+            jsonBundles.add(bundle, jsonBundle);
+        }
+        JsonObject jsonBundlePackages = jsonBundles.getAsJsonObject(bundle).getAsJsonObject("packages");
+        if (!jsonBundlePackages.has(packageName)) {
+            jsonBundlePackages.add(packageName, new JsonArray());
+        }
+        jsonBundlePackages.getAsJsonArray(packageName).add(className);
+    }
+
+    private JsonObject createCatalog() {
+        JsonObject catalog = new JsonObject();
+        catalog.addProperty("name", "mystream");
+        catalog.addProperty("build", "1234");
+        catalog.addProperty("version", "0.1.0");
+        catalog.addProperty("built", "2026-10-18T10:00:00Z");
+        catalog.add("classes", new JsonObject());
+        catalog.add("packages", new JsonObject());
+        catalog.add("bundles", new JsonObject());
+        catalog.add("sharedEnvironments", new JsonObject());
+
+        addClass(catalog, "my.bundle", "my.tests", "my.tests.LoginTest", "smoke", "ui");
+        addClass(catalog, "my.bundle", "my.tests", "my.tests.LogoutTest", "ui");
+        addClass(catalog, "my.bundle", "my.tests.api", "my.tests.api.ApiTest", "smoke");
+        addClass(catalog, "other.bundle", "other.tests", "other.tests.OtherTest");
+        return catalog;
+    }
+
+    private TestCatalogIndex createIndex(JsonObject catalog) throws Exception {
+        return new TestCatalogIndex(gson.toJson(catalog), catalog);
+    }
+
+    private JsonObject getFilteredCatalog(TestCatalogIndex index, CatalogFilter filter) throws Exception {
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        index.getResponse(filter).send(new MockHttpServletRequest("/", new HashMap<>()), resp);
+        return gson.fromJson(resp.getOutputStream().toString(), JsonObject.class);
+    }
+
+    @Test
+    public void testSummaryHasTheCatalogsNameBuildVersionAndBuiltDate() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        JsonObject summary = index.getSummary();
+
+        // Then...
+        assertThat(summary.keySet()).containsExactly("name", "build", "version", "built");
+        assertThat(summary.get("name").getAsString()).isEqualTo("mystream");
+        assertThat(summary.get("build").getAsString()).isEqualTo("1234");
+    }
+
+    @Test
+    public void testEmptyFilterReturnsTheWholeCatalog() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        CatalogResponse response = index.getResponse(new CatalogFilter(null, null, null, null));
+
+        // Then...
+        assertThat(response).isSameAs(index.getResponse());
+    }
+
+    @Test
+    public void testClassGlobFilterMatchesWholeClassNames() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> starMatches = index.getClassNames(new CatalogFilter("my.tests.Log*Test", null, null, null));
+        List<String> questionMatches = index.getClassNames(new CatalogFilter("my.tests.Log??tTest", null, null, null));
+        List<String> partialMatches = index.getClassNames(new CatalogFilter("LoginTest", null, null, null));
+
+        // Then...
+        assertThat(starMatches).containsExactly("my.tests.LoginTest", "my.tests.LogoutTest");
+        assertThat(questionMatches).containsExactly("my.tests.LogoutTest");
+        assertThat(partialMatches).isEmpty();
+    }
+
+    @Test
+    public void testClassGlobFilterTreatsRegexCharactersLiterally() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> matches = index.getClassNames(new CatalogFilter("my.tests.LoginTest|.*", null, null, null));
+
+        // Then...
+        assertThat(matches).isEmpty();
+    }
+
+    @Test
+    public void testBundleFilterReturnsTheBundlesClasses() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> matches = index.getClassNames(new CatalogFilter(null, "other.bundle", null, null));
+        List<String> unknownBundleMatches = index.getClassNames(new CatalogFilter(null, "unknown.bundle", null, null));
+
+        // Then...
+        assertThat(matches).containsExactly("other.tests.OtherTest");
+        assertThat(unknownBundleMatches).isEmpty();
+    }
+
+    @Test
+    public void testPackageFilterReturnsOnlyThatPackagesClasses() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> matches = index.getClassNames(new CatalogFilter(null, null, "my.tests", null));
+
+        // Then...
+        assertThat(matches).containsExactly("my.tests.LoginTest", "my.tests.LogoutTest");
+    }
+
+    @Test
+    public void testTagFilterReturnsClassesWithEveryTag() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> smokeMatches = index.getClassNames(new CatalogFilter(null, null, null, Arrays.asList("smoke")));
+        List<String> smokeUiMatches = index.getClassNames(new CatalogFilter(null, null, null, Arrays.asList("smoke", "ui")));
+
+        // Then...
+        assertThat(smokeMatches).containsExactly("my.tests.LoginTest", "my.tests.api.ApiTest");
+        assertThat(smokeUiMatches).containsExactly("my.tests.LoginTest");
+    }
+
+    @Test
+    public void testCombinedFiltersMustAllMatch() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        List<String> matches = index.getClassNames(new CatalogFilter("*Test", "my.bundle", "my.tests.api", Arrays.asList("smoke")));
+
+        // Then...
+        assertThat(matches).containsExactly("my.tests.api.ApiTest");
+    }
+
+    @Test
+    public void testFilteredCatalogOnlyRefersToMatchingClasses() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        JsonObject filteredCatalog = getFilteredCatalog(index, new CatalogFilter(null, null, null, Arrays.asList("smoke")));
+
+        // Then...
+        assertThat(filteredCatalog.get("name").getAsString()).isEqualTo("mystream");
+        assertThat(filteredCatalog.has("sharedEnvironments")).isTrue();
+        assertThat(filteredCatalog.getAsJsonObject("classes").keySet())
+            .containsExactly("my.tests.LoginTest", "my.tests.api.ApiTest");
+        assertThat(filteredCatalog.getAsJsonObject("packages").keySet()).containsExactly("my.tests", "my.tests.api");
+        assertThat(filteredCatalog.getAsJsonObject("packages").getAsJsonArray("my.tests")).hasSize(1);
+        assertThat(filteredCatalog.getAsJsonObject("bundles").keySet()).containsExactly("my.bundle");
+
+        JsonObject jsonBundle = filteredCatalog.getAsJsonObject("bundles").getAsJsonObject("my.bundle");
+        assertThat(jsonBundle.get("bundleName").getAsString()).isEqualTo("my.bundle");
+        assertThat(jsonBundle.getAsJsonObject("packages").getAsJsonArray("my.tests")).hasSize(1);
+    }
+
+    @Test
+    public void testFilteredResponseIsReusedForAnEqualFilter() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+
+        // When...
+        CatalogResponse firstResponse = index.getResponse(new CatalogFilter(null, "my.bundle", null, Arrays.asList("ui")));
+        CatalogResponse secondResponse = index.getResponse(new CatalogFilter(null, "my.bundle", null, Arrays.asList("ui")));
+
+        // Then...
+        assertThat(secondResponse).isSameAs(firstResponse);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedFilteredResponseIsDroppedWhenTheCacheIsFull() throws Exception {
+        // Given...
+        TestCatalogIndex index = createIndex(createCatalog());
+        CatalogResponse firstResponse = index.getResponse(new CatalogFilter("my.tests.*0", null, null, null));
+        CatalogResponse secondResponse = index.getResponse(new CatalogFilter("my.tests.*1", null, null, null));
+        for (int i = 2; i < TestCatalogIndex.MAX_FILTERED_RESPONSES; i++) {
+            index.getResponse(new CatalogFilter("my.tests.*" + i, null, null, null));
+        }
+
+        // When...
+        // The first filter is used again, so the second is now the least recently used
+        CatalogResponse firstResponseAgain = index.getResponse(new CatalogFilter("my.tests.*0", null, null, null));
+        index.getResponse(new CatalogFilter("my.tests.Another*", null, null, null));
+
+        // Then...
+        assertThat(firstResponseAgain).isSameAs(firstResponse);
+        assertThat(index.getResponse(new CatalogFilter("my.tests.*0", null, null, null))).isSameAs(firstResponse);
+        assertThat(index.getResponse(new CatalogFilter("my.tests.*1", null, null, null))).isNotSameAs(secondResponse);
+    }
+
+    @Test
+    public void testUnparsedCatalogIsSentWholeWhateverTheFilter() throws Exception {
+        // Given...
+        TestCatalogIndex index = new TestCatalogIndex("{\"name\":\"half-written", null);
+
+        // When...
+        CatalogResponse response = index.getResponse(new CatalogFilter(null, "my.bundle", null, null));
+
+        // Then...
+        assertThat(index.getSummary()).isNull();
+        assertThat(response).isSameAs(index.getResponse());
+    }
+}
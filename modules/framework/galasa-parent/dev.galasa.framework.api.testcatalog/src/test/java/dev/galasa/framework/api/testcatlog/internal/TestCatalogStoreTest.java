@@ -0,0 +1,262 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.api.testcatlog.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import dev.galasa.framework.api.common.mocks.MockHttpServletRequest;
+import dev.galasa.framework.api.common.mocks.MockHttpServletResponse;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+public class TestCatalogStoreTest {
+
+    private static final GalasaGson gson = new GalasaGson();
+
+    private Path catalogDirectory;
+
+    @Before
+    public void before() throws IOException {
+        this.catalogDirectory = Files.createTempDirectory("galasa_junit_testcatalog_");
+    }
+
+    @After
+    public void after() throws IOException {
+        if (this.catalogDirectory != null && Files.exists(this.catalogDirectory)) {
+            FileUtils.deleteDirectory(this.catalogDirectory.toFile());
+        }
+    }
+
+    private String createCatalogJson(String name, String build) {
+        return "{\"name\":\"" + name + "\",\"build\":\"" + build + "\",\"version\":\"0.1.0\",\"built\":\"2026-10-18\","
+            + "\"classes\":{\"my.tests.MyTest\":{\"bundle\":\"my.bundle\",\"package\":\"my.tests\",\"tags\":[\"smoke\"]}},"
+            + "\"packages\":{\"my.tests\":[\"my.tests.MyTest\"]},"
+            + "\"bundles\":{\"my.bundle\":{\"packages\":{\"my.tests\":[\"my.tests.MyTest\"]}}}}";
+    }
+
+    private Path writeCatalogFile(String streamName, String json, long lastModifiedMillis) throws IOException {
+        Path catalogFile = catalogDirectory.resolve(streamName);
+        Files.write(catalogFile, json.getBytes(StandardCharsets.UTF_8));
+        // Set the time rather than rely on the file system noticing a quick change
+        Files.setLastModifiedTime(catalogFile, FileTime.fromMillis(lastModifiedMillis));
+        return catalogFile;
+    }
+
+    private TestcatalogStreams createStreamsServlet() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("framework.testcatalog.directory", catalogDirectory.toUri().toString());
+        TestcatalogStreams servlet = new TestcatalogStreams();
+        servlet.activate(properties);
+        return servlet;
+    }
+
+    @Test
+    public void testGetCatalogOfMissingFileReturnsNull() throws Exception {
+        // Given...
+        Path catalogFile = catalogDirectory.resolve("missing");
+
+        // When...
+        TestCatalogIndex index = TestCatalogStore.getCatalog(catalogFile);
+
+        // Then...
+        assertThat(index).isNull();
+    }
+
+    @Test
+    public void testGetCatalogOfUnchangedFileReturnsTheSameIndex() throws Exception {
+        // Given...
+        Path catalogFile = writeCatalogFile("mystream", createCatalogJson("mystream", "1"), 1000000);
+
+        // When...
+        TestCatalogIndex firstIndex = TestCatalogStore.getCatalog(catalogFile);
+        TestCatalogIndex secondIndex = TestCatalogStore.getCatalog(catalogFile);
+
+        // Then...
+        assertThat(secondIndex).isSameAs(firstIndex);
+    }
+
+    @Test
+    public void testGetCatalogReloadsTheFileOnceItChanges() throws Exception {
+        // Given...
+        Path catalogFile = writeCatalogFile("mystream", createCatalogJson("mystream", "1"), 1000000);
+        TestCatalogIndex oldIndex = TestCatalogStore.getCatalog(catalogFile);
+
+        // When...
+        writeCatalogFile("mystream", createCatalogJson("mystream", "2"), 2000000);
+        TestCatalogIndex newIndex = TestCatalogStore.getCatalog(catalogFile);
+
+        // Then...
+        assertThat(newIndex).isNotSameAs(oldIndex);
+        assertThat(oldIndex.getSummary().get("build").getAsString()).isEqualTo("1");
+        assertThat(newIndex.getSummary().get("build").getAsString()).isEqualTo("2");
+    }
+
+    @Test
+    public void testPutCatalogSwapsInTheNewIndexWithoutReadingItBack() throws Exception {
+        // Given...
+        Path catalogFile = catalogDirectory.resolve("mystream");
+        String json = createCatalogJson("mystream", "3");
+
+        // When...
+        TestCatalogStore.putCatalog(catalogFile, json, gson.fromJson(json, JsonObject.class));
+        TestCatalogIndex index = TestCatalogStore.getCatalog(catalogFile);
+        TestCatalogIndex indexAgain = TestCatalogStore.getCatalog(catalogFile);
+
+        // Then...
+        assertThat(new String(Files.readAllBytes(catalogFile), StandardCharsets.UTF_8)).isEqualTo(json);
+        assertThat(index.getSummary().get("build").getAsString()).isEqualTo("3");
+        assertThat(indexAgain).isSameAs(index);
+    }
+
+    @Test
+    public void testGetCatalogListSummarisesEachCatalogButNotTheOldCacheFile() throws Exception {
+        // Given...
+        writeCatalogFile("stream-b", createCatalogJson("stream-b", "2"), 1000000);
+        writeCatalogFile("stream-a", createCatalogJson("stream-a", "1"), 1000000);
+        writeCatalogFile("cache.json", "{\"catalogs\":{}}", 1000000);
+
+        // When...
+        CatalogResponse catalogList = TestCatalogStore.getCatalogList(catalogDirectory);
+        CatalogResponse catalogListAgain = TestCatalogStore.getCatalogList(catalogDirectory);
+
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+        catalogList.send(new MockHttpServletRequest("/", new HashMap<>()), resp);
+        JsonObject jsonCatalogs = gson.fromJson(resp.getOutputStream().toString(), JsonObject.class).getAsJsonObject("catalogs");
+
+        // Then...
+        assertThat(catalogListAgain).isSameAs(catalogList);
+        assertThat(jsonCatalogs.keySet()).containsExactly("stream-a", "stream-b");
+        assertThat(jsonCatalogs.getAsJsonObject("stream-b").get("build").getAsString()).isEqualTo("2");
+    }
+
+    @Test
+    public void testGetCatalogListIsRebuiltOnceACatalogChanges() throws Exception {
+        // Given...
+        writeCatalogFile("mystream", createCatalogJson("mystream", "1"), 1000000);
+        CatalogResponse oldList = TestCatalogStore.getCatalogList(catalogDirectory);
+
+        // When...
+        writeCatalogFile("mystream", createCatalogJson("mystream", "2"), 2000000);
+        CatalogResponse newList = TestCatalogStore.getCatalogList(catalogDirectory);
+
+        // Then...
+        assertThat(newList.getETag()).isNotEqualTo(oldList.getETag());
+    }
+
+    @Test
+    public void testGetStreamSendsTheStoredCatalogAsItIs() throws Exception {
+        // Given...
+        String json = createCatalogJson("mystream", "1");
+        writeCatalogFile("mystream", json, 1000000);
+        TestcatalogStreams servlet = createStreamsServlet();
+
+        MockHttpServletRequest req = new MockHttpServletRequest("/mystream", new HashMap<>());
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // When...
+        servlet.doGet(req, resp);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getOutputStream().toString()).isEqualTo(json);
+    }
+
+    @Test
+    public void testGetStreamWithFiltersSendsOnlyMatchingClasses() throws Exception {
+        // Given...
+        writeCatalogFile("mystream", createCatalogJson("mystream", "1"), 1000000);
+        TestcatalogStreams servlet = createStreamsServlet();
+
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("tag", new String[] { "regression" });
+        MockHttpServletRequest req = new MockHttpServletRequest(parameters, "/mystream");
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // When...
+        servlet.doGet(req, resp);
+
+        // Then...
+        JsonObject filteredCatalog = gson.fromJson(resp.getOutputStream().toString(), JsonObject.class);
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(filteredCatalog.get("name").getAsString()).isEqualTo("mystream");
+        assertThat(filteredCatalog.getAsJsonObject("classes").keySet()).isEmpty();
+    }
+
+    @Test
+    public void testGetStreamWithMatchingETagReturnsNotModified() throws Exception {
+        // Given...
+        writeCatalogFile("mystream", createCatalogJson("mystream", "1"), 1000000);
+        TestcatalogStreams servlet = createStreamsServlet();
+
+        MockHttpServletResponse firstResp = new MockHttpServletResponse();
+        servlet.doGet(new MockHttpServletRequest("/mystream", new HashMap<>()), firstResp);
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("If-None-Match", firstResp.getHeader("ETag"));
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // When...
+        servlet.doGet(new MockHttpServletRequest("/mystream", headers), resp);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_MODIFIED);
+        assertThat(resp.getOutputStream().toString()).isEmpty();
+    }
+
+    @Test
+    public void testGetStreamOfUnparseableCatalogSendsItAsItIs() throws Exception {
+        // Given...
+        String halfWrittenJson = "{\"name\":\"mystream\",\"classes\":{";
+        writeCatalogFile("mystream", halfWrittenJson, 1000000);
+        TestcatalogStreams servlet = createStreamsServlet();
+
+        Map<String, String[]> parameters = new HashMap<>();
+        parameters.put("bundle", new String[] { "my.bundle" });
+        MockHttpServletRequest req = new MockHttpServletRequest(parameters, "/mystream");
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // When...
+        servlet.doGet(req, resp);
+        CatalogResponse catalogList = TestCatalogStore.getCatalogList(catalogDirectory);
+        MockHttpServletResponse listResp = new MockHttpServletResponse();
+        catalogList.send(new MockHttpServletRequest("/", new HashMap<>()), listResp);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(200);
+        assertThat(resp.getOutputStream().toString()).isEqualTo(halfWrittenJson);
+        JsonObject jsonList = gson.fromJson(listResp.getOutputStream().toString(), JsonObject.class);
+        assertThat(jsonList.getAsJsonObject("catalogs").keySet()).isEmpty();
+    }
+
+    @Test
+    public void testGetStreamOfMissingCatalogReturnsNotFound() throws Exception {
+        // Given...
+        TestcatalogStreams servlet = createStreamsServlet();
+        MockHttpServletResponse resp = new MockHttpServletResponse();
+
+        // When...
+        servlet.doGet(new MockHttpServletRequest("/missing", new HashMap<>()), resp);
+
+        // Then...
+        assertThat(resp.getStatus()).isEqualTo(HttpServletResponse.SC_NOT_FOUND);
+    }
+}
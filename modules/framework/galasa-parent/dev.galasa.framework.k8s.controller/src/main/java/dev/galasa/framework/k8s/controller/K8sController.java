@@ -128,7 +128,8 @@ public class K8sController {
             logger.info("Setting Namespace to '" + namespace + "'");
 
             IKubernetesApiClient apiClient = new KubernetesApiClient(api, protoClient);
-            KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(apiClient, namespace, galasaServiceInstallName);
+            KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(
+                apiClient, namespace, galasaServiceInstallName, timeService, KubernetesEngineFacade.DEFAULT_ACTIVE_POD_CACHE_TTL);
 
             String podName = getEnvironmentVariableOrDefault(PODNAME_ENV_VAR, "k8s-controller");
             logger.info("Setting Pod Name to '" + podName + "'");
@@ -219,7 +220,12 @@ public class K8sController {
         runCleanup = new RunPodCleanup(settings, kubeEngineFacade, frameworkRuns);
         schedulePodCleanup();
 
-        podScheduler = new TestPodScheduler(env, dss, cps, settings, kubeEngineFacade, frameworkRuns, timeService);
+        // Keep an index of the queued runs up to date from DSS watch events, so that new runs are
+        // scheduled as soon as they are submitted rather than on the next poll
+        QueuedRunIndex queuedRunIndex = new QueuedRunIndex(frameworkRuns, timeService);
+        podScheduler = new TestPodScheduler(env, dss, cps, settings, kubeEngineFacade, timeService, queuedRunIndex);
+        PodSchedulerTrigger podSchedulerTrigger = new PodSchedulerTrigger(scheduledExecutorService, podScheduler);
+        queuedRunIndex.startWatching(dss, podSchedulerTrigger::requestPass);
         schedulePoll();
      
         RunInterruptHandler interruptedRunHandler = new RunInterruptHandler(kubeEngineFacade, frameworkRuns, settings, timeService, ras);
@@ -0,0 +1,71 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Runs the pod scheduler soon after a run is queued, without running it once for every run.
+ *
+ * Each scheduling pass checks that etcd and the RAS are ready before it does anything else,
+ * so a burst of queued runs should not turn into a burst of passes. The first request schedules
+ * a pass a short delay later, and any requests made before that pass starts are served by it.
+ * A request made while a pass is running schedules one more pass, so no queued run is missed.
+ */
+public class PodSchedulerTrigger implements Runnable {
+
+    public static final long DEFAULT_DELAY_MILLIS = 500;
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Runnable podScheduler;
+    private final long delayMillis;
+
+    private final AtomicBoolean isPassPending = new AtomicBoolean(false);
+
+    public PodSchedulerTrigger(ScheduledExecutorService scheduledExecutorService, Runnable podScheduler) {
+        this(scheduledExecutorService, podScheduler, DEFAULT_DELAY_MILLIS);
+    }
+
+    public PodSchedulerTrigger(ScheduledExecutorService scheduledExecutorService, Runnable podScheduler, long delayMillis) {
+        this.scheduledExecutorService = scheduledExecutorService;
+        this.podScheduler = podScheduler;
+        this.delayMillis = delayMillis;
+    }
+
+    /**
+     * Asks for a scheduling pass. Does nothing if a pass has already been asked for and hasn't started yet.
+     */
+    public void requestPass() {
+        if (isPassPending.compareAndSet(false, true)) {
+            if (scheduledExecutorService.isShutdown()) {
+                isPassPending.set(false);
+            } else {
+                try {
+                    scheduledExecutorService.schedule(this, delayMillis, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // The controller is shutting down, the pass isn't needed
+                    logger.debug("Scheduling pass not requested, the executor has been shut down");
+                    isPassPending.set(false);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        // Clear the flag before the pass starts, so that a run queued during the pass asks for another one
+        isPassPending.set(false);
+        podScheduler.run();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IFrameworkRuns;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * An in-memory index of the queued runs which this controller could schedule, ordered
+ * by the time each run was queued.
+ *
+ * The index is seeded from a full snapshot of the runs in the DSS, and is then kept up to date
+ * by watching the "run." prefix of the DSS. A full reconciliation against the DSS is still done
+ * periodically, in case a watch event was missed.
+ *
+ * Watch events are delivered on the DSS watcher thread, which must not block, so they are only
+ * queued up here. They are applied the next time the scheduling thread calls {@link #refresh()}.
+ */
+public class QueuedRunIndex implements IDynamicStatusStoreWatcher {
+
+    public static final Duration DEFAULT_RECONCILE_INTERVAL = Duration.ofMinutes(5);
+
+    // The keys we are interested in look like "run.U1234.status" or "run.U1234.interruptReason"
+    private static final Pattern RUN_KEY_PATTERN = Pattern.compile(
+        "^run[.](\\w+)[.](" + DssPropertyKeyRunNameSuffix.STATUS + "|" + DssPropertyKeyRunNameSuffix.INTERRUPT_REASON + ")$");
+
+    private final Log logger = LogFactory.getLog(getClass());
+
+    private final IFrameworkRuns frameworkRuns;
+    private final ITimeService timeService;
+    private final Duration reconcileInterval;
+
+    // Oldest queued run first. The run name breaks ties so that two runs queued at the same instant are both kept.
+    private final NavigableSet<IRun> queuedRuns = new TreeSet<>(
+        Comparator.comparing(IRun::getQueued).thenComparing(IRun::getName));
+    private final Map<String, IRun> queuedRunsByName = new HashMap<>();
+
+    private final Queue<RunChange> pendingChanges = new ConcurrentLinkedQueue<>();
+
+    private volatile Runnable newQueuedRunListener;
+    private volatile boolean isReconcileRequested = true;
+    private Instant lastReconciledTime;
+    private UUID watchId;
+
+    public QueuedRunIndex(IFrameworkRuns frameworkRuns, ITimeService timeService) {
+        this(frameworkRuns, timeService, DEFAULT_RECONCILE_INTERVAL);
+    }
+
+    public QueuedRunIndex(IFrameworkRuns frameworkRuns, ITimeService timeService, Duration reconcileInterval) {
+        this.frameworkRuns = frameworkRuns;
+        this.timeService = timeService;
+        this.reconcileInterval = reconcileInterval;
+    }
+
+    /**
+     * Starts watching the DSS for changes to runs, so the index no longer needs a full
+     * reconciliation on every scheduling poll.
+     * @param dss the DSS to watch
+     * @param newQueuedRunListener called on the DSS watcher thread when a run is queued. It must not block.
+     */
+    public synchronized void startWatching(IDynamicStatusStoreService dss, Runnable newQueuedRunListener) throws DynamicStatusStoreException {
+        this.newQueuedRunListener = newQueuedRunListener;
+        this.watchId = dss.watchPrefix(this, "run.");
+        this.isReconcileRequested = true;
+    }
+
+    public synchronized void stopWatching(IDynamicStatusStoreService dss) throws DynamicStatusStoreException {
+        if (watchId != null) {
+            dss.unwatch(watchId);
+            watchId = null;
+        }
+        newQueuedRunListener = null;
+    }
+
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (key != null && event != null) {
+            Matcher matcher = RUN_KEY_PATTERN.matcher(key);
+            if (matcher.find()) {
+                String runName = matcher.group(1);
+                String suffix = matcher.group(2);
+
+                boolean isNowQueued = event != Event.DELETE
+                    && DssPropertyKeyRunNameSuffix.STATUS.toString().equals(suffix)
+                    && TestRunLifecycleStatus.QUEUED.toString().equals(newValue);
+
+                pendingChanges.add(new RunChange(runName, isNowQueued));
+
+                Runnable listener = newQueuedRunListener;
+                if (isNowQueued && listener != null) {
+                    listener.run();
+                }
+            }
+        }
+    }
+
+    /**
+     * Brings the index up to date. A full reconciliation with the DSS is done if one is due,
+     * otherwise only the changes reported by the DSS watch since the last refresh are applied.
+     */
+    public synchronized void refresh() throws FrameworkException {
+        Instant now = timeService.now();
+        if (isReconcileDue(now)) {
+            reconcile(now);
+        } else {
+            applyPendingChanges();
+        }
+    }
+
+    /**
+     * Applies the changes reported by the DSS watch since the last refresh, without
+     * doing a full reconciliation even if one is due.
+     */
+    public synchronized void applyWatchedChanges() throws FrameworkException {
+        applyPendingChanges();
+    }
+
+    /**
+     * Removes and returns the run which has been queued the longest.
+     * @return the oldest queued run, or null if there are no queued runs.
+     */
+    public synchronized IRun pollNextRun() {
+        IRun run = queuedRuns.pollFirst();
+        if (run != null) {
+            queuedRunsByName.remove(run.getName());
+        }
+        return run;
+    }
+
+    public synchronized boolean isEmpty() {
+        return queuedRuns.isEmpty();
+    }
+
+    public synchronized int size() {
+        return queuedRuns.size();
+    }
+
+    /**
+     * Asks for the next refresh to re-read every run from the DSS.
+     */
+    public void requestReconcile() {
+        isReconcileRequested = true;
+    }
+
+    private boolean isReconcileDue(Instant now) {
+        // Without a watch the index has no other way of finding new runs, so it is rebuilt on every refresh
+        return isReconcileRequested
+            || watchId == null
+            || lastReconciledTime == null
+            || !now.isBefore(lastReconciledTime.plus(reconcileInterval));
+    }
+
+    private void reconcile(Instant now) throws FrameworkException {
+        // Anything that happened before the snapshot is read will be reflected in the snapshot
+        pendingChanges.clear();
+        isReconcileRequested = false;
+
+        queuedRuns.clear();
+        queuedRunsByName.clear();
+        for (IRun run : frameworkRuns.getRunsSnapshot().values()) {
+            addIfSchedulable(run);
+        }
+        lastReconciledTime = now;
+
+        logger.debug("Queued run index reconciled with the DSS, " + queuedRuns.size() + " runs are queued");
+    }
+
+    private void applyPendingChanges() throws FrameworkException {
+        RunChange change;
+        while ((change = pendingChanges.poll()) != null) {
+            removeRun(change.runName);
+            if (change.isNowQueued) {
+                addIfSchedulable(frameworkRuns.getRun(change.runName));
+            }
+        }
+    }
+
+    private void addIfSchedulable(IRun run) {
+        if (isSchedulable(run)) {
+            queuedRuns.add(run);
+            queuedRunsByName.put(run.getName(), run);
+        }
+    }
+
+    private void removeRun(String runName) {
+        IRun existingRun = queuedRunsByName.remove(runName);
+        if (existingRun != null) {
+            queuedRuns.remove(existingRun);
+        }
+    }
+
+    /**
+     * Local runs and runs that have been interrupted are never scheduled by this controller.
+     */
+    static boolean isSchedulable(IRun run) {
+        return run != null
+            && TestRunLifecycleStatus.QUEUED.toString().equals(run.getStatus())
+            && run.getQueued() != null
+            && !run.isLocal()
+            && run.getInterruptReason() == null;
+    }
+
+    private static class RunChange {
+        private final String runName;
+        private final boolean isNowQueued;
+
+        public RunChange(String runName, boolean isNowQueued) {
+            this.runName = runName;
+            this.isNowQueued = isNowQueued;
+        }
+    }
+}
@@ -10,11 +10,9 @@ import java.nio.file.Paths;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -33,6 +31,7 @@ import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1Affinity;
 import io.kubernetes.client.openapi.models.V1Container;
 import io.kubernetes.client.openapi.models.V1EnvVar;
+import io.kubernetes.client.openapi.models.V1LabelSelector;
 import io.kubernetes.client.openapi.models.V1NodeAffinity;
 import io.kubernetes.client.openapi.models.V1NodeSelectorRequirement;
 import io.kubernetes.client.openapi.models.V1NodeSelectorTerm;
@@ -43,6 +42,7 @@ import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1ResourceRequirements;
 import io.kubernetes.client.openapi.models.V1SecretVolumeSource;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.Counter;
@@ -57,6 +57,8 @@ public class TestPodScheduler implements Runnable {
     private static final String ENCRYPTION_KEYS_PATH_ENV = FrameworkEncryptionService.ENCRYPTION_KEYS_PATH_ENV;
     public static final String ENCRYPTION_KEYS_VOLUME_NAME = "encryption-keys";
 
+    public static final String NODE_HOSTNAME_TOPOLOGY_KEY = "kubernetes.io/hostname";
+
     private static final String CPS_ENV_VAR   = "GALASA_CONFIG_STORE";
     private static final String DSS_ENV_VAR   = "GALASA_DYNAMICSTATUS_STORE";
     private static final String CREDS_ENV_VAR = "GALASA_CREDENTIALS_STORE";
@@ -67,8 +69,8 @@ public class TestPodScheduler implements Runnable {
     private final ISettings                   settings;
 
     private final IDynamicStatusStoreService dss;
-    private final IFrameworkRuns             runs;
-    private final QueuedComparator           queuedComparator = new QueuedComparator();
+    private final QueuedRunIndex             queuedRunIndex;
+    private final AtomicBoolean              isScheduling     = new AtomicBoolean(false);
 
     private Counter                          submittedRuns;
     private Environment                      env              = new SystemEnvironment();
@@ -86,11 +88,23 @@ public class TestPodScheduler implements Runnable {
         IFrameworkRuns runs, 
         ITimeService timeService
     ) {
+        this(env, dss, cps, settings, kubeEngineFacade, timeService, new QueuedRunIndex(runs, timeService));
+    }
+
+    public TestPodScheduler( 
+        Environment env, 
+        IDynamicStatusStoreService dss, 
+        IConfigurationPropertyStoreService cps, 
+        ISettings settings, 
+        KubernetesEngineFacade kubeEngineFacade,
+        ITimeService timeService,
+        QueuedRunIndex queuedRunIndex
+    ) {
 
         this.env = env;
+        this.queuedRunIndex = queuedRunIndex;
         this.settings = settings;
         this.kubeEngineFacade = kubeEngineFacade;
-        this.runs = runs;
         this.dss = dss;
         this.timeService = timeService;
 
@@ -102,80 +116,92 @@ public class TestPodScheduler implements Runnable {
 
     @Override
     public void run() {
+        // The scheduler is run on a timer and also whenever the DSS tells us a new run has been queued,
+        // so make sure only one thread is launching pods at a time.
+        if (!isScheduling.compareAndSet(false, true)) {
+            logger.debug("Already looking for new runs");
+            return;
+        }
+
+        try {
+            scheduleQueuedRuns();
+        } finally {
+            isScheduling.set(false);
+        }
+    }
+
+    private void scheduleQueuedRuns() {
         if (!kubeEngineFacade.isEtcdAndRasReady()) {
             logger.warn("etcd or RAS pods are not ready, waiting for them to be ready before scheduling new runs");
         } else {
             logger.info("Looking for new runs");
     
             try {
-                // *** No we are not, get all the queued runs
-                List<IRun> queuedRuns = this.runs.getQueuedRuns();
+                // *** No we are not, bring the queued runs up to date
+                queuedRunIndex.refresh();
                 // TODO filter by capability
     
-                // Remove all the local runs and any runs that have been interrupted
-                Iterator<IRun> queuedRunsIterator = queuedRuns.iterator();
-                while (queuedRunsIterator.hasNext()) {
-                    IRun run = queuedRunsIterator.next();
-                    if (run.isLocal() || run.getInterruptReason() != null) {
-                        queuedRunsIterator.remove();
-                    }
-                }
-    
-                while (!queuedRuns.isEmpty()) {
+                while (!queuedRunIndex.isEmpty()) {
                     // *** Check we are not at max engines
-                    List<V1Pod> pods = this.kubeEngineFacade.getTestPods(settings.getEngineLabel());
-                    kubeEngineFacade.getActivePods(pods);
-    
-                    logger.info("Active runs=" + pods.size() + ",max=" + settings.getMaxEngines());
-    
-                    int currentActive = pods.size();
-                    if (currentActive >= settings.getMaxEngines()) {
+                    int currentActive = kubeEngineFacade.getActiveTestPodCount(settings.getEngineLabel());
+                    int maxEngines = settings.getMaxEngines();
+
+                    logger.info("Active runs=" + currentActive + ",max=" + maxEngines);
+
+                    if (currentActive >= maxEngines) {
                         logger.info(
-                                "Not looking for runs, currently at maximim engines (" + settings.getMaxEngines() + ")");
+                                "Not looking for runs, currently at maximim engines (" + maxEngines + ")");
                         break;
                     }
-    
-                    // List<IRun> activeRuns = this.runs.getActiveRuns();
-    
+
                     // TODO Create the group algorithim same as the galasa scheduler
-    
-                    // *** Build pool lists
-                    // HashMap<String, Pool> queuePools = getPools(queuedRuns);
-                    // HashMap<String, Pool> activePools = getPools(activeRuns);
-    
-                    // *** cheat for the moment
-                    Collections.sort(queuedRuns, queuedComparator);
-    
-                    IRun selectedRun = queuedRuns.remove(0);
-    
-                    startPod(selectedRun);
-    
-                    if (!queuedRuns.isEmpty()) {
-                        // Slight delay to allow Kubernetes to catch up....
-                        //
-                        // Why do this ? 
-                        //
-                        // If we don't do this, then all the tests get scheduled on the same node, and the 
-                        // node will run out of memory.
-                        //
-                        // We assume that's because the usage statistics on a pod are not synchronized totally at
-                        // real-time, but have a lag in which they catch up. Hopefully this delay is greater
-                        // than the lag and when we actually schedule the next pod it gets evenly distributed over
-                        // the nodes which are available.
-                        //
-                        // This may or may not be necessary if the scheduling policies in the cluster are changed. Not sure.
+
+                    // *** Launch as many of the oldest queued runs as there are free engines. The test pods
+                    // have a topology spread constraint, so Kubernetes spreads them over the nodes as they
+                    // are created rather than us having to wait between each launch.
+                    int freeEngines = maxEngines - currentActive;
+                    boolean isAllocationFailed = false;
+                    for (int launched = 0; launched < freeEngines && !queuedRunIndex.isEmpty() && !isAllocationFailed; launched++) {
+                        isAllocationFailed = !startPod(queuedRunIndex.pollNextRun());
+                    }
+
+                    if (isAllocationFailed) {
+                        // The run has left the index but may still be queued, so rebuild the index from
+                        // the DSS next time rather than lose the run until the next reconciliation
+                        queuedRunIndex.requestReconcile();
+                        break;
+                    }
+
+                    // Pick up any runs which have been queued or taken by another controller since we started
+                    queuedRunIndex.applyWatchedChanges();
+
+                    if (!queuedRunIndex.isEmpty()) {
+                        // Some runs may not have been launched because another controller took them,
+                        // so pause before the next batch to let Kubernetes catch up.
                         long launchIntervalMilliseconds = settings.getKubeLaunchIntervalMillisecs();
-                        timeService.sleepMillis(launchIntervalMilliseconds); 
-                    } 
+                        timeService.sleepMillis(launchIntervalMilliseconds);
+                    }
                 }
             } catch (Exception e) {
                 logger.error("Unable to poll for new runs", e);
+                // Our view of the queue may now be out of step with the DSS, so rebuild it next time
+                queuedRunIndex.requestReconcile();
             }
         }
     }
 
+    public QueuedRunIndex getQueuedRunIndex() {
+        return queuedRunIndex;
+    }
 
-    protected void startPod(IRun run) {
+    /**
+     * Allocates the run to this controller and starts its test pod.
+     *
+     * @return false if the run could not be allocated because of an error, so it may still be queued,
+     * or true if the run has been dealt with, even if it was taken by another controller or its pod
+     * could not be started
+     */
+    protected boolean startPod(IRun run) {
         String runName = run.getName();
         String engineName = this.settings.getEngineLabel() + "-" + runName.toLowerCase();
 
@@ -186,6 +212,7 @@ public class TestPodScheduler implements Runnable {
 
         logger.info("Received run " + runName);
 
+        boolean isAllocationAttempted = false;
         try {
             // *** First attempt to allocate the run to this controller
             Instant now = timeService.now();
@@ -194,9 +221,11 @@ public class TestPodScheduler implements Runnable {
             props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.CONTROLLER, settings.getPodName());
             props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.ALLOCATED, now.toString());
             props.put("run." + runName + "." + DssPropertyKeyRunNameSuffix.ALLOCATE_TIMEOUT, expire.toString());
-            if (!this.dss.putSwap("run." + runName + "."+DssPropertyKeyRunNameSuffix.STATUS, "queued", "allocated", props)) {
+            boolean isAllocated = this.dss.putSwap("run." + runName + "."+DssPropertyKeyRunNameSuffix.STATUS, "queued", "allocated", props);
+            isAllocationAttempted = true;
+            if (!isAllocated) {
                 logger.info("run allocated by another controller");
-                return;
+                return true;
             }
 
             V1Pod newPodDefinition = createTestPodDefinition(runName, engineName, run.isTrace());
@@ -249,6 +278,9 @@ public class TestPodScheduler implements Runnable {
         } catch (Exception e) {
             logger.error("Failed to start new test pod", e);
         }
+
+        // Once the DSS has answered the allocation, the run is no longer queued whatever happened to its pod
+        return isAllocationAttempted;
     }
 
     V1Pod createTestPodDefinition(String runName, String engineName, boolean isTraceEnabled) {
@@ -309,12 +341,33 @@ public class TestPodScheduler implements Runnable {
             }
         }
 
+        podSpec.addTopologySpreadConstraintsItem(createEngineSpreadConstraint());
+
         podSpec.setVolumes(createTestPodVolumes());
         podSpec.addContainersItem(createTestContainerDefinition(runName, engineName, isTraceEnabled));
         return newPod;
     }
 
 
+    /*
+    * Spreads the engine pods for this controller evenly over the nodes in the cluster.
+    *
+    * The Kubernetes scheduler counts the pods it has already placed when applying this constraint,
+    * so a batch of pods created together is spread out even before the nodes' usage statistics
+    * have caught up. Pods are still scheduled if the spread cannot be satisfied.
+    */
+    private V1TopologySpreadConstraint createEngineSpreadConstraint() {
+        V1LabelSelector engineSelector = new V1LabelSelector();
+        engineSelector.putMatchLabelsItem(KubernetesEngineFacade.ENGINE_CONTROLLER_LABEL_KEY, this.settings.getEngineLabel());
+
+        V1TopologySpreadConstraint spreadConstraint = new V1TopologySpreadConstraint();
+        spreadConstraint.setMaxSkew(1);
+        spreadConstraint.setTopologyKey(NODE_HOSTNAME_TOPOLOGY_KEY);
+        spreadConstraint.setWhenUnsatisfiable("ScheduleAnyway");
+        spreadConstraint.setLabelSelector(engineSelector);
+        return spreadConstraint;
+    }
+
     /*
     * Tolerations are supplied as a string in the form:
     * "node-label1=Operator1:Condition1,node-label2=Operator2:Condition2"
@@ -497,15 +550,6 @@ public class TestPodScheduler implements Runnable {
         }
     }
 
-    private class QueuedComparator implements Comparator<IRun> {
-
-        @Override
-        public int compare(IRun o1, IRun o2) {
-            return o1.getQueued().compareTo(o2.getQueued());
-        }
-
-    }
-
     private V1EnvVar createValueEnv(String name, String value) {
         V1EnvVar env = new V1EnvVar();
         env.setName(name);
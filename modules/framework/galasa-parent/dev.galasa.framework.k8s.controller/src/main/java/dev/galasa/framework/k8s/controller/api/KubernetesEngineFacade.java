@@ -5,9 +5,14 @@
  */
 package dev.galasa.framework.k8s.controller.api;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.validation.constraints.NotNull;
 
@@ -15,6 +20,8 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.framework.k8s.controller.K8sControllerException;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1ContainerStatus;
@@ -34,6 +41,8 @@ public class KubernetesEngineFacade {
     private static final String ETCD_APP_SUFFIX = "-etcd";
     private static final String RAS_APP_SUFFIX = "-ras";
 
+    public static final Duration DEFAULT_ACTIVE_POD_CACHE_TTL = Duration.ofSeconds(30);
+
     private final Log logger = LogFactory.getLog(getClass());
 
     private IKubernetesApiClient apiClient;
@@ -41,10 +50,32 @@ public class KubernetesEngineFacade {
     private String namespace;
     private String galasaServiceInstallName;
 
+    private ITimeService timeService;
+    private Duration activePodCacheTtl;
+
+    // The names of the active test pods for one engine label. This is kept up to date locally as this
+    // controller creates and deletes pods, and is re-synced with Kubernetes whenever the test pods are
+    // listed, so the scheduler does not need to list every pod before each launch.
+    private final Set<String> activeTestPodNames = new HashSet<>();
+    private String activeTestPodsEngineLabel;
+    private Instant activeTestPodsExpiry;
+
     public KubernetesEngineFacade(IKubernetesApiClient apiClient, String namespace, String galasaServiceInstallName) {
+        this(apiClient, namespace, galasaServiceInstallName, new SystemTimeService(), DEFAULT_ACTIVE_POD_CACHE_TTL);
+    }
+
+    public KubernetesEngineFacade(
+        IKubernetesApiClient apiClient,
+        String namespace,
+        String galasaServiceInstallName,
+        ITimeService timeService,
+        Duration activePodCacheTtl
+    ) {
         this.apiClient = apiClient;
         this.namespace = namespace;
         this.galasaServiceInstallName = galasaServiceInstallName;
+        this.timeService = timeService;
+        this.activePodCacheTtl = activePodCacheTtl;
     }
 
     public @NotNull List<V1Pod> getTestPods( String engineLabel ) throws K8sControllerException {
@@ -59,9 +90,72 @@ public class KubernetesEngineFacade {
             throw new K8sControllerException("Failed retrieving pods", e);
         }
 
+        resyncActiveTestPods(engineLabel, pods);
         return pods;
     }
 
+    /**
+     * Gets the number of active test pods with the given engine label. The count is served from a local
+     * cache which only lists the pods from Kubernetes again once it is older than the cache time-to-live.
+     * Pods created or deleted through this facade are reflected in the count straight away.
+     */
+    public int getActiveTestPodCount(String engineLabel) throws K8sControllerException {
+        synchronized (activeTestPodNames) {
+            if (!isActiveTestPodCacheValid(engineLabel)) {
+                // Listing the pods re-syncs the cache
+                getTestPods(engineLabel);
+            }
+            return activeTestPodNames.size();
+        }
+    }
+
+    /**
+     * Forces the next call to {@link #getActiveTestPodCount(String)} to list the test pods from Kubernetes.
+     */
+    public void invalidateActiveTestPodCache() {
+        synchronized (activeTestPodNames) {
+            activeTestPodsExpiry = null;
+        }
+    }
+
+    private boolean isActiveTestPodCacheValid(String engineLabel) {
+        return engineLabel.equals(activeTestPodsEngineLabel)
+            && activeTestPodsExpiry != null
+            && timeService.now().isBefore(activeTestPodsExpiry);
+    }
+
+    private void resyncActiveTestPods(String engineLabel, List<V1Pod> pods) {
+        synchronized (activeTestPodNames) {
+            activeTestPodNames.clear();
+            for (V1Pod pod : getActivePods(pods)) {
+                activeTestPodNames.add(getPodName(pod));
+            }
+            activeTestPodsEngineLabel = engineLabel;
+            activeTestPodsExpiry = timeService.now().plus(activePodCacheTtl);
+        }
+    }
+
+    private void updateCachedTestPod(V1Pod pod, boolean isActive) {
+        if (pod != null && pod.getMetadata() != null) {
+            Map<String, String> labels = pod.getMetadata().getLabels();
+            synchronized (activeTestPodNames) {
+                if (labels != null && activeTestPodsEngineLabel != null
+                    && activeTestPodsEngineLabel.equals(labels.get(ENGINE_CONTROLLER_LABEL_KEY))) {
+
+                    if (isActive) {
+                        activeTestPodNames.add(getPodName(pod));
+                    } else {
+                        activeTestPodNames.remove(getPodName(pod));
+                    }
+                }
+            }
+        }
+    }
+
+    private String getPodName(V1Pod pod) {
+        return pod.getMetadata().getName();
+    }
+
     public V1Pod getTestPod( String runName) throws K8sControllerException {
         List<V1Pod> pods = new LinkedList<>();
         try {
@@ -84,6 +178,7 @@ public class KubernetesEngineFacade {
             String podName = pod.getMetadata().getName();
             logger.info("Deleting pod " + podName);
             apiClient.deletePod(namespace, podName);
+            updateCachedTestPod(pod, false);
         } catch (ApiException e) {
             logger.error("Failed to delete engine pod :-\n" + e.getResponseBody(), e);
         } catch (Exception e) {
@@ -130,6 +225,9 @@ public class KubernetesEngineFacade {
 
     public V1Pod createNamespacedPod(V1Pod newPodDefinition) throws ApiException {
         V1Pod pod = apiClient.createNamespacedPod(namespace, newPodDefinition);
+
+        // A newly-created pod may not have a status yet, but it will be using one of our engine slots
+        updateCachedTestPod(newPodDefinition, true);
         return pod;
     }
 
@@ -7,6 +7,8 @@ package dev.galasa.framework.k8s.controller;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,6 +19,7 @@ import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.mocks.MockISettings;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesPodTestUtils;
+import dev.galasa.framework.mocks.MockTimeService;
 import io.kubernetes.client.openapi.models.V1Pod;
 
 public class KubernetesEngineFacadeTest {
@@ -234,4 +237,52 @@ public class KubernetesEngineFacadeTest {
         // Then...
         assertThat(isReadyGotBack).isFalse();
     }
+
+    @Test
+    public void testActiveTestPodCountIsCachedUntilTheCacheExpires() throws Exception {
+        // Given...
+        List<V1Pod> mockPods = new ArrayList<>();
+        mockPods.add(mockKubeTestUtils.createMockTestPod("RUN1", "running"));
+        mockPods.add(mockKubeTestUtils.createMockTestPod("RUN2", "failed"));
+
+        MockTimeService mockTimeService = new MockTimeService(Instant.EPOCH);
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade facade = new KubernetesEngineFacade(mockApiClient, "myNamespace", "myGalasaService", mockTimeService, Duration.ofSeconds(30));
+
+        int initialCount = facade.getActiveTestPodCount(MockISettings.ENGINE_LABEL);
+
+        // When...
+        // A pod is added behind the facade's back, which it won't see until the cache expires
+        mockPods.add(mockKubeTestUtils.createMockTestPod("RUN3", "running"));
+        int cachedCount = facade.getActiveTestPodCount(MockISettings.ENGINE_LABEL);
+
+        mockTimeService.setCurrentTime(Instant.EPOCH.plusSeconds(30));
+        int refreshedCount = facade.getActiveTestPodCount(MockISettings.ENGINE_LABEL);
+
+        // Then...
+        assertThat(initialCount).isEqualTo(1);
+        assertThat(cachedCount).isEqualTo(1);
+        assertThat(refreshedCount).isEqualTo(2);
+    }
+
+    @Test
+    public void testActiveTestPodCountIncludesPodsCreatedAndExcludesPodsDeletedThroughTheFacade() throws Exception {
+        // Given...
+        List<V1Pod> mockPods = new ArrayList<>();
+        V1Pod existingPod = mockKubeTestUtils.createMockTestPod("RUN1", "running");
+        mockPods.add(existingPod);
+
+        MockKubernetesApiClient mockApiClient = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade facade = new KubernetesEngineFacade(mockApiClient, "myNamespace", "myGalasaService", new MockTimeService(Instant.EPOCH), Duration.ofSeconds(30));
+        facade.getActiveTestPodCount(MockISettings.ENGINE_LABEL);
+
+        // When...
+        facade.createNamespacedPod(mockKubeTestUtils.createMockTestPod("RUN2", "pending"));
+        facade.createNamespacedPod(mockKubeTestUtils.createMockTestPod("RUN3", "pending"));
+        facade.deletePod(existingPod);
+
+        // Then...
+        assertThat(facade.getActiveTestPodCount(MockISettings.ENGINE_LABEL)).isEqualTo(2);
+        assertThat(mockApiClient.podsLaunched).hasSize(2);
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PodSchedulerTriggerTest {
+
+    // A long delay, so that scheduled passes stay in the executor's queue until the test runs them
+    private static final long DELAY_MILLIS = 60000;
+
+    private ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+
+    @After
+    public void after() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testManyRequestsBeforeThePassStartsScheduleOnePass() throws Exception {
+        // Given...
+        AtomicInteger passCount = new AtomicInteger();
+        PodSchedulerTrigger trigger = new PodSchedulerTrigger(executor, passCount::incrementAndGet, DELAY_MILLIS);
+
+        // When...
+        for (int i = 0; i < 100; i++) {
+            trigger.requestPass();
+        }
+
+        // Then...
+        assertThat(executor.getQueue()).hasSize(1);
+        assertThat(passCount.get()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRequestAfterThePassStartsSchedulesAnotherPass() throws Exception {
+        // Given...
+        AtomicInteger passCount = new AtomicInteger();
+        PodSchedulerTrigger trigger = new PodSchedulerTrigger(executor, passCount::incrementAndGet, DELAY_MILLIS);
+        trigger.requestPass();
+        executor.getQueue().clear();
+
+        // When...
+        trigger.run();
+        trigger.requestPass();
+
+        // Then...
+        assertThat(passCount.get()).isEqualTo(1);
+        assertThat(executor.getQueue()).hasSize(1);
+    }
+
+    @Test
+    public void testRequestAfterShutdownDoesNothing() throws Exception {
+        // Given...
+        AtomicInteger passCount = new AtomicInteger();
+        PodSchedulerTrigger trigger = new PodSchedulerTrigger(executor, passCount::incrementAndGet, DELAY_MILLIS);
+        executor.shutdown();
+
+        // When...
+        trigger.requestPass();
+
+        // Then...
+        assertThat(executor.getQueue()).isEmpty();
+        assertThat(passCount.get()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.k8s.controller;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.mocks.MockFrameworkRuns;
+import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
+import dev.galasa.framework.mocks.MockRun;
+import dev.galasa.framework.mocks.MockTimeService;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.Result;
+
+public class QueuedRunIndexTest {
+
+    class MockWatchableDss extends MockIDynamicStatusStoreService {
+        @Override
+        public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+            return UUID.randomUUID();
+        }
+    }
+
+    private MockRun createQueuedRun(String runName, Instant queuedTime) {
+        MockRun run = new MockRun("bundle", "class", runName, "stream", "obr", "repo", "requestor", false);
+        run.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+        run.setQueued(queuedTime);
+        return run;
+    }
+
+    @Test
+    public void testRefreshWithoutWatchBuildsIndexOfSchedulableRunsInQueuedOrder() throws Exception {
+        // Given...
+        Instant now = Instant.EPOCH;
+
+        MockRun newestRun = createQueuedRun("U1", now.plusSeconds(20));
+        MockRun oldestRun = createQueuedRun("U2", now);
+        MockRun middleRun = createQueuedRun("U3", now.plusSeconds(10));
+
+        MockRun localRun = new MockRun("bundle", "class", "L4", "stream", "obr", "repo", "requestor", true);
+        localRun.setStatus(TestRunLifecycleStatus.QUEUED.toString());
+
+        MockRun interruptedRun = createQueuedRun("U5", now);
+        interruptedRun.setInterruptReason(Result.CANCELLED);
+
+        MockRun runningRun = createQueuedRun("U6", now);
+        runningRun.setStatus(TestRunLifecycleStatus.RUNNING.toString());
+
+        List<IRun> runs = List.of(newestRun, oldestRun, middleRun, localRun, interruptedRun, runningRun);
+        QueuedRunIndex index = new QueuedRunIndex(new MockFrameworkRuns(runs), new MockTimeService(now));
+
+        // When...
+        index.refresh();
+
+        // Then...
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(index.pollNextRun()).isEqualTo(oldestRun);
+        assertThat(index.pollNextRun()).isEqualTo(middleRun);
+        assertThat(index.pollNextRun()).isEqualTo(newestRun);
+        assertThat(index.pollNextRun()).isNull();
+        assertThat(index.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void testNewlyQueuedRunIsAddedFromWatchEventAndListenerIsCalled() throws Exception {
+        // Given...
+        Instant now = Instant.EPOCH;
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("U1", now));
+
+        QueuedRunIndex index = new QueuedRunIndex(new MockFrameworkRuns(runs), new MockTimeService(now));
+
+        AtomicInteger listenerCallCount = new AtomicInteger(0);
+        index.startWatching(new MockWatchableDss(), () -> listenerCallCount.incrementAndGet());
+        index.refresh();
+
+        // When...
+        MockRun newRun = createQueuedRun("U2", now.plusSeconds(1));
+        runs.add(newRun);
+        index.propertyModified("run.U2.status", Event.NEW, null, "queued");
+        index.refresh();
+
+        // Then...
+        assertThat(listenerCallCount.get()).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.pollNextRun().getName()).isEqualTo("U1");
+        assertThat(index.pollNextRun()).isEqualTo(newRun);
+    }
+
+    @Test
+    public void testRunIsRemovedWhenWatchEventSaysItIsNoLongerQueued() throws Exception {
+        // Given...
+        Instant now = Instant.EPOCH;
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("U1", now));
+        runs.add(createQueuedRun("U2", now.plusSeconds(1)));
+        runs.add(createQueuedRun("U3", now.plusSeconds(2)));
+
+        QueuedRunIndex index = new QueuedRunIndex(new MockFrameworkRuns(runs), new MockTimeService(now));
+        index.startWatching(new MockWatchableDss(), () -> {});
+        index.refresh();
+
+        // When...
+        index.propertyModified("run.U1.status", Event.MODIFIED, "queued", "allocated");
+        index.propertyModified("run.U2.interruptReason", Event.NEW, null, Result.CANCELLED);
+        index.propertyModified("run.U2.heartbeat", Event.NEW, null, now.toString());
+        index.refresh();
+
+        // Then...
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.pollNextRun().getName()).isEqualTo("U3");
+    }
+
+    @Test
+    public void testIndexIsReconciledWithTheDssOnceTheReconcileIntervalHasPassed() throws Exception {
+        // Given...
+        Instant now = Instant.EPOCH;
+        List<IRun> runs = new ArrayList<>();
+        runs.add(createQueuedRun("U1", now));
+
+        MockTimeService mockTimeService = new MockTimeService(now);
+        QueuedRunIndex index = new QueuedRunIndex(new MockFrameworkRuns(runs), mockTimeService, Duration.ofMinutes(1));
+        index.startWatching(new MockWatchableDss(), () -> {});
+        index.refresh();
+
+        // A run is added to the DSS, but the watch event for it is missed
+        runs.add(createQueuedRun("U2", now));
+
+        // When...
+        index.refresh();
+        int sizeBeforeReconcile = index.size();
+
+        mockTimeService.setCurrentTime(now.plus(Duration.ofMinutes(1)));
+        index.refresh();
+
+        // Then...
+        assertThat(sizeBeforeReconcile).isEqualTo(1);
+        assertThat(index.size()).isEqualTo(2);
+    }
+}
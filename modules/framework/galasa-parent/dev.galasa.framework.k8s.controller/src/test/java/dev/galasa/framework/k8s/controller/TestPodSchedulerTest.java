@@ -11,6 +11,7 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.kubernetes.client.openapi.models.V1Pod;
 
@@ -21,6 +22,7 @@ import dev.galasa.framework.TestRunLifecycleStatus;
 import dev.galasa.framework.k8s.controller.api.KubernetesEngineFacade;
 import dev.galasa.framework.k8s.controller.mocks.MockISettings;
 import dev.galasa.framework.k8s.controller.mocks.MockKubernetesApiClient;
+import dev.galasa.framework.k8s.controller.mocks.MockKubernetesPodTestUtils;
 import dev.galasa.framework.mocks.MockCPSStore;
 import dev.galasa.framework.mocks.MockEnvironment;
 import dev.galasa.framework.mocks.MockIDynamicStatusStoreService;
@@ -28,6 +30,7 @@ import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.mocks.MockFrameworkRuns;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.creds.FrameworkEncryptionService;
@@ -41,6 +44,7 @@ import io.kubernetes.client.openapi.models.V1PodSpec;
 import io.kubernetes.client.openapi.models.V1PodStatus;
 import io.kubernetes.client.openapi.models.V1PreferredSchedulingTerm;
 import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.kubernetes.client.openapi.models.V1Volume;
 import io.kubernetes.client.openapi.models.V1VolumeMount;
 import io.prometheus.client.CollectorRegistry;
@@ -123,6 +127,14 @@ public class TestPodSchedulerTest {
 
         assertThat(terms.contains(preferredSchedulingTerm));
 
+        // Check the podspec spreads the engine pods over the nodes
+        assertThat(podSpec.getTopologySpreadConstraints()).hasSize(1);
+        V1TopologySpreadConstraint spreadConstraint = podSpec.getTopologySpreadConstraints().get(0);
+        assertThat(spreadConstraint.getTopologyKey()).isEqualTo(TestPodScheduler.NODE_HOSTNAME_TOPOLOGY_KEY);
+        assertThat(spreadConstraint.getWhenUnsatisfiable()).isEqualTo("ScheduleAnyway");
+        assertThat(spreadConstraint.getLabelSelector().getMatchLabels())
+            .containsEntry(KubernetesEngineFacade.ENGINE_CONTROLLER_LABEL_KEY, settings.getEngineLabel());
+
         // Check the podspec's node tolerances are as expected
         String[] nodeTolerationsStringList = settings.getNodeTolerations().split(",");
 
@@ -629,4 +641,107 @@ public class TestPodSchedulerTest {
         assertThat(api.podsLaunched).hasSize(0);
         assertThat(mockDss.get("run."+testRunName+"."+DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("queued");
     }
+
+    @Test
+    public void testQueuedRunsAreLaunchedInOneBatchUpToTheFreeEngineCapacity() throws Exception {
+        // Given...
+        MockEnvironment mockEnvironment = new MockEnvironment();
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService();
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+
+        Instant now = Instant.EPOCH;
+        List<IRun> runs = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            String testRunName = "U" + i;
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            run.setQueued(now.plusSeconds(i));
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+        mockPods.add(new MockKubernetesPodTestUtils().createMockTestPod("U0", "running"));
+
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(
+            api, "myNamespace", galasaServiceInstallName, mockTimeService, KubernetesEngineFacade.DEFAULT_ACTIVE_POD_CACHE_TTL);
+
+        MockISettings settings = new MockISettings();
+        MockCPSStore mockCPS = new MockCPSStore(null);
+
+        TestPodScheduler podScheduler = new TestPodScheduler(mockEnvironment, mockDss, mockCPS, settings, kubeEngineFacade, mockFrameworkRuns, mockTimeService);
+
+        // When...
+        podScheduler.run();
+
+        // Then...
+        // One engine was already active, so only the four oldest runs fill the remaining slots
+        assertThat(api.podsLaunched).extracting(pod -> pod.getMetadata().getLabels().get(TestPodScheduler.GALASA_RUN_POD_LABEL))
+            .containsExactly("U1", "U2", "U3", "U4");
+        assertThat(mockDss.get("run.U5." + DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo(queuedStatus);
+
+        // The launches are not spaced out, there is just one pause after the batch
+        assertThat(mockTimeService.now()).isEqualTo(now.plusMillis(settings.getKubeLaunchIntervalMillisecs()));
+    }
+
+    @Test
+    public void testRunWhichFailsToBeAllocatedIsLaunchedOnTheNextPoll() throws Exception {
+        // Given...
+        String queuedStatus = TestRunLifecycleStatus.QUEUED.toString();
+        AtomicInteger putSwapFailuresLeft = new AtomicInteger(1);
+        MockIDynamicStatusStoreService mockDss = new MockIDynamicStatusStoreService() {
+            @Override
+            public boolean putSwap(String key, String oldValue, String newValue, Map<String, String> others) throws DynamicStatusStoreException {
+                if (putSwapFailuresLeft.getAndDecrement() > 0) {
+                    throw new DynamicStatusStoreException("simulated DSS failure");
+                }
+                return super.putSwap(key, oldValue, newValue, others);
+            }
+        };
+
+        Instant now = Instant.EPOCH;
+        List<IRun> runs = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            String testRunName = "U" + i;
+            MockRun run = createMockRun(testRunName);
+            run.setStatus(queuedStatus);
+            run.setQueued(now.plusSeconds(i));
+            runs.add(run);
+            mockDss.put("run." + testRunName + "." + DssPropertyKeyRunNameSuffix.STATUS, queuedStatus);
+        }
+        MockFrameworkRuns mockFrameworkRuns = new MockFrameworkRuns(runs);
+
+        String galasaServiceInstallName = "myGalasaService";
+        List<V1Pod> mockPods = new ArrayList<V1Pod>();
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-etcd", true));
+        mockPods.add(createPodWithReadiness(galasaServiceInstallName + "-ras", true));
+
+        MockTimeService mockTimeService = new MockTimeService(now);
+        MockKubernetesApiClient api = new MockKubernetesApiClient(mockPods);
+        KubernetesEngineFacade kubeEngineFacade = new KubernetesEngineFacade(api, "myNamespace", galasaServiceInstallName);
+
+        // Watching the DSS means the index is only rebuilt from scratch when it is asked to be
+        QueuedRunIndex queuedRunIndex = new QueuedRunIndex(mockFrameworkRuns, mockTimeService);
+        queuedRunIndex.startWatching(mockDss, () -> {});
+
+        TestPodScheduler podScheduler = new TestPodScheduler(new MockEnvironment(), mockDss, new MockCPSStore(null),
+            new MockISettings(), kubeEngineFacade, mockTimeService, queuedRunIndex);
+
+        // When...
+        podScheduler.run();
+        List<V1Pod> podsLaunchedByFirstPoll = new ArrayList<>(api.podsLaunched);
+        podScheduler.run();
+
+        // Then...
+        assertThat(podsLaunchedByFirstPoll).isEmpty();
+        assertThat(api.podsLaunched).extracting(pod -> pod.getMetadata().getLabels().get(TestPodScheduler.GALASA_RUN_POD_LABEL))
+            .containsExactly("U1", "U2");
+        assertThat(mockDss.get("run.U1." + DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("allocated");
+    }
 }
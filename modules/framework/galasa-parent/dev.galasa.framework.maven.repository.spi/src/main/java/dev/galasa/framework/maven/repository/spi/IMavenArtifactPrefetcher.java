@@ -0,0 +1,21 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.maven.repository.spi;
+
+import java.util.List;
+
+public interface IMavenArtifactPrefetcher {
+
+    /**
+     * Download artifacts into the local repository before they are opened, several at a time.
+     * Artifacts that can't be downloaded are left for when they are opened, which reports the problem.
+     *
+     * @param artifactReferences references in the form mvn:groupId/artifactId/version/type. Any
+     *                           references which are not mvn: references are ignored.
+     */
+    void prefetch(List<String> artifactReferences);
+
+}
@@ -7,20 +7,36 @@ package dev.galasa.framework.maven.repository.internal;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -30,29 +46,148 @@ import org.apache.maven.artifact.repository.metadata.Versioning;
 import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.url.AbstractURLStreamHandlerService;
 import org.osgi.service.url.URLConstants;
 import org.osgi.service.url.URLStreamHandlerService;
 
+import dev.galasa.framework.maven.repository.spi.IMavenArtifactPrefetcher;
 import dev.galasa.framework.maven.repository.spi.IMavenRepository;
 
-@Component(service = { URLStreamHandlerService.class }, property = { URLConstants.URL_HANDLER_PROTOCOL + "=mvn" })
-public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerService {
+@Component(service = { URLStreamHandlerService.class, IMavenArtifactPrefetcher.class }, property = { URLConstants.URL_HANDLER_PROTOCOL + "=mvn" })
+public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerService implements IMavenArtifactPrefetcher {
 
     private static final Log               logger                = LogFactory
             .getLog(GalasaMavenUrlHandlerService.class);
     private static final DateTimeFormatter dtf                   = DateTimeFormatter.ofPattern("uuuuMMddHHmmss");
 
+    // A directory of downloaded artifacts named after their checksums, which can be shared by several pods
+    public static final String             SHARED_CACHE_PROPERTY = "galasa.maven.shared.cache";
+    public static final String             PREFETCH_THREADS_PROPERTY = "galasa.maven.prefetch.threads";
+    private static final int               DEFAULT_PREFETCH_THREADS = 8;
+    private static final long              PREFETCH_THREAD_IDLE_SECONDS = 60;
+
+    private static final String            MAVEN_PREFIX          = "mvn:";
+    private static final String            PARTIAL_DOWNLOAD_SUFFIX = ".part";
+
+    // The checksum files published alongside artifacts, strongest first
+    private static final String[][]        CHECKSUM_ALGORITHMS   = { { "sha256", "SHA-256" }, { "sha1", "SHA-1" } };
+    private static final String[]          NO_CHECKSUM_ALGORITHM = {};
+
     @Reference
     private IMavenRepository               galasaRepository;
 
+    private final Path                     sharedCacheDirectory;
+
+    // Every prefetch shares these threads, so concurrent prefetches don't multiply the downloads in flight
+    private final ThreadPoolExecutor       prefetchExecutor;
+
+    // Stops two threads fetching the same artifact at the same time. A lock is removed once
+    // no thread is using it, so the map doesn't grow with every artifact ever fetched.
+    private final ConcurrentHashMap<Path, ArtifactLock> artifactLocks = new ConcurrentHashMap<>();
+
+    // The checksum algorithm each remote repository was last found to publish, so that it is
+    // asked for first, or NO_CHECKSUM_ALGORITHM if the repository doesn't publish checksums
+    private final ConcurrentHashMap<String, String[]> repositoryChecksumAlgorithms = new ConcurrentHashMap<>();
+
+    public GalasaMavenUrlHandlerService() {
+        this(null, getSharedCacheDirectory(), Integer.getInteger(PREFETCH_THREADS_PROPERTY, DEFAULT_PREFETCH_THREADS));
+    }
+
+    public GalasaMavenUrlHandlerService(IMavenRepository galasaRepository, Path sharedCacheDirectory, int prefetchThreads) {
+        this.galasaRepository = galasaRepository;
+        this.sharedCacheDirectory = sharedCacheDirectory;
+        this.prefetchExecutor = createPrefetchExecutor(Math.max(1, prefetchThreads));
+    }
+
+    private static ThreadPoolExecutor createPrefetchExecutor(int prefetchThreads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(prefetchThreads, prefetchThreads,
+                PREFETCH_THREAD_IDLE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "galasa-maven-prefetch-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        // Prefetching only happens while bundles are being loaded, so don't keep idle threads around
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Deactivate
+    public void deactivate() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private static Path getSharedCacheDirectory() {
+        Path sharedCache = null;
+        String sharedCacheProperty = System.getProperty(SHARED_CACHE_PROPERTY);
+        if (sharedCacheProperty != null && !sharedCacheProperty.trim().isEmpty()) {
+            sharedCache = Paths.get(sharedCacheProperty.trim());
+        }
+        return sharedCache;
+    }
+
     @Override
     public URLConnection openConnection(URL arg0) throws IOException {
 
-        String[] parts = arg0.getPath().split("/");
+        String[] parts = parseArtifactReference(arg0.getPath(), arg0.toString());
+        URL result = fetchArtifact(parts[0], parts[1], parts[2], parts[3]);
+        if (result == null) {
+            throw new IOException("Unable to locate maven artifact " + arg0);
+        }
+
+        return result.openConnection();
+    }
+
+    @Override
+    public void prefetch(List<String> artifactReferences) {
+        List<String[]> artifacts = new ArrayList<>();
+        for (String artifactReference : artifactReferences) {
+            if (artifactReference != null && artifactReference.startsWith(MAVEN_PREFIX)) {
+                try {
+                    artifacts.add(parseArtifactReference(artifactReference.substring(MAVEN_PREFIX.length()), artifactReference));
+                } catch (MalformedURLException e) {
+                    logger.debug("Not prefetching invalid maven artifact reference " + artifactReference, e);
+                }
+            }
+        }
+
+        if (artifacts.isEmpty()) {
+            return;
+        }
+
+        logger.debug("Prefetching " + artifacts.size() + " maven artifacts");
+        List<Future<URL>> fetches = new ArrayList<>();
+        try {
+            for (String[] parts : artifacts) {
+                fetches.add(prefetchExecutor.submit(() -> fetchArtifact(parts[0], parts[1], parts[2], parts[3])));
+            }
+
+            for (int i = 0; i < fetches.size(); i++) {
+                try {
+                    fetches.get(i).get();
+                } catch (ExecutionException e) {
+                    // It will be fetched again, and the problem reported, when it is opened
+                    logger.debug("Unable to prefetch maven artifact " + String.join(":", artifacts.get(i)), e.getCause());
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            // The service is being deactivated, each artifact will be fetched when it is opened
+            logger.debug("Not prefetching maven artifacts, the service has been deactivated");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Future<URL> fetch : fetches) {
+                fetch.cancel(true);
+            }
+        }
+    }
+
+    private String[] parseArtifactReference(String path, String reference) throws MalformedURLException {
+        String[] parts = path.split("/");
         if (parts.length != 4) {
-            throw new MalformedURLException("Must have 4 parts in the maven artifact reference - " + arg0);
+            throw new MalformedURLException("Must have 4 parts in the maven artifact reference - " + reference);
         }
 
         String groupId = parts[0].trim();
@@ -61,24 +196,19 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
         String packaging = parts[3].trim();
 
         if (groupId.isEmpty()) {
-            throw new MalformedURLException("groupId is missing - " + arg0);
+            throw new MalformedURLException("groupId is missing - " + reference);
         }
         if (artifactId.isEmpty()) {
-            throw new MalformedURLException("artifactId is missing - " + arg0);
+            throw new MalformedURLException("artifactId is missing - " + reference);
         }
         if (version.isEmpty()) {
-            throw new MalformedURLException("version is missing - " + arg0);
+            throw new MalformedURLException("version is missing - " + reference);
         }
         if (packaging.isEmpty()) {
-            throw new MalformedURLException("packaging is missing - " + arg0);
+            throw new MalformedURLException("packaging is missing - " + reference);
         }
 
-        URL result = fetchArtifact(groupId, artifactId, version, packaging);
-        if (result == null) {
-            throw new IOException("Unable to locate maven artifact " + arg0);
-        }
-
-        return result.openConnection();
+        return new String[] { groupId, artifactId, version, packaging };
     }
 
     private URL fetchArtifact(String groupid, String artifactid, String version,
@@ -123,14 +253,49 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
 
         Files.createDirectories(pathLocalFile.getParent());
 
-        if (version.endsWith("-SNAPSHOT")) {
-            URL remoteArtifact = fetchSnapshotArtifact(pathLocalFile, groupid, artifactid, version, type);
-            return remoteArtifact == null ? localFile : remoteArtifact;
-        } else {
-            return fetchReleaseArtifact(pathLocalFile, groupid, artifactid, version, type);
+        ArtifactLock artifactLock = lockArtifact(pathLocalFile);
+        try {
+            synchronized (artifactLock) {
+                if (version.endsWith("-SNAPSHOT")) {
+                    URL remoteArtifact = fetchSnapshotArtifact(pathLocalFile, groupid, artifactid, version, type);
+                    return remoteArtifact == null ? localFile : remoteArtifact;
+                } else {
+                    return fetchReleaseArtifact(pathLocalFile, groupid, artifactid, version, type);
+                }
+            }
+        } finally {
+            unlockArtifact(pathLocalFile);
         }
     }
 
+    /**
+     * @return the lock for an artifact, counting this thread as one of its users
+     */
+    private ArtifactLock lockArtifact(Path localArtifact) {
+        // compute() is atomic for each key, so it guards the count of users too
+        return artifactLocks.compute(localArtifact, (path, artifactLock) -> {
+            if (artifactLock == null) {
+                artifactLock = new ArtifactLock();
+            }
+            artifactLock.users++;
+            return artifactLock;
+        });
+    }
+
+    /**
+     * Stop counting this thread as a user of an artifact's lock, removing the lock once nothing is using it
+     */
+    private void unlockArtifact(Path localArtifact) {
+        artifactLocks.computeIfPresent(localArtifact, (path, artifactLock) -> {
+            artifactLock.users--;
+            return artifactLock.users == 0 ? null : artifactLock;
+        });
+    }
+
+    int getArtifactLockCount() {
+        return artifactLocks.size();
+    }
+
     private String resolveLatest(String groupid, String artifactid, String type) throws IOException {
         Path tempMetadata = null;
         for (URL remoteRepository : galasaRepository.getRemoteRepositories()) {
@@ -255,15 +420,7 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
                 buildArtifactFilename(artifactid, snapshotSuffix, type));
         logger.debug("Attempting to download snapshot" + urlRemoteFile);
 
-        URLConnection connection = urlRemoteFile.openConnection();
-        connection.setConnectTimeout(300000);
-        connection.setReadTimeout(300000);
-        connection.setDoOutput(false);
-        connection.connect();
-
-        try {
-            Files.copy(connection.getInputStream(), localArtifact, StandardCopyOption.REPLACE_EXISTING);
-        } catch (FileNotFoundException e) {
+        if (!downloadArtifact(repository, urlRemoteFile, localArtifact, 300000, 300000)) {
             return null;
         }
 
@@ -324,29 +481,281 @@ public class GalasaMavenUrlHandlerService extends AbstractURLStreamHandlerServic
                     " with connection timeout of "+Integer.toString(connectionTimeoutMilliSecs)+"ms "+
                     "and read timeout of "+Integer.toString(readTimeoutMilliSecs)+"ms "
                     );
+        try {
+            if (!downloadArtifact(repository, urlRemoteFile, localArtifact, connectionTimeoutMilliSecs, readTimeoutMilliSecs)) {
+                logger.trace("Release artifact "+ urlRemoteFile+" failed to download. File not found." );
+                return false;
+            }
+        } catch (Exception e) {
+            // Re-throw any exception after tracing it.
+            logger.trace("Release artifact "+ urlRemoteFile+" failed to download.",e );
+            throw e ; 
+        }
+
+        logger.trace("Release artifact downloaded from " + urlRemoteFile);
+
+        return true;
+    }
+
+    /**
+     * Download an artifact into the local repository, checking it against the checksum file published
+     * with it if there is one. Artifacts with a known checksum are copied from the shared cache
+     * instead if they are in it, and are added to the shared cache once they have been downloaded.
+     * 
+     * An artifact is downloaded into a partial file first, so that a download which is interrupted
+     * is never mistaken for the whole artifact, and can be carried on from where it got to.
+     * 
+     * @return true if the artifact was downloaded, false if the remote repository doesn't have it
+     */
+    private boolean downloadArtifact(URL repository, URL urlRemoteFile, Path localArtifact, int connectionTimeoutMilliSecs, int readTimeoutMilliSecs) throws IOException {
+        ArtifactChecksum checksum = fetchChecksum(repository, urlRemoteFile, connectionTimeoutMilliSecs, readTimeoutMilliSecs);
+        if (checksum != null && copyFromSharedCache(checksum, localArtifact)) {
+            logger.trace("Artifact " + urlRemoteFile + " copied from the shared cache");
+            return true;
+        }
+
+        Path partialArtifact = localArtifact.resolveSibling(localArtifact.getFileName().toString() + PARTIAL_DOWNLOAD_SUFFIX);
+        boolean isResumed = Files.exists(partialArtifact);
+        if (!downloadToPartialFile(urlRemoteFile, partialArtifact, connectionTimeoutMilliSecs, readTimeoutMilliSecs)) {
+            Files.deleteIfExists(partialArtifact);
+            return false;
+        }
+
+        if (checksum != null && !checksum.matches(partialArtifact)) {
+            Files.deleteIfExists(partialArtifact);
+
+            // The artifact may have changed since the partial file was downloaded, so try once more from the start
+            if (isResumed && downloadToPartialFile(urlRemoteFile, partialArtifact, connectionTimeoutMilliSecs, readTimeoutMilliSecs)
+                    && checksum.matches(partialArtifact)) {
+                logger.debug("Artifact " + urlRemoteFile + " downloaded again after its partial download failed its checksum");
+            } else {
+                Files.deleteIfExists(partialArtifact);
+                throw new IOException("Artifact " + urlRemoteFile + " does not match its " + checksum.getAlgorithm() + " checksum");
+            }
+        }
+
+        Files.move(partialArtifact, localArtifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        if (checksum != null) {
+            addToSharedCache(checksum, localArtifact);
+        }
+        return true;
+    }
+
+    /**
+     * Download a file, carrying on from the end of the partial file if there is one and the
+     * remote repository supports ranges
+     * 
+     * @return true if the file was downloaded, false if the remote repository doesn't have it
+     */
+    private boolean downloadToPartialFile(URL urlRemoteFile, Path partialFile, int connectionTimeoutMilliSecs, int readTimeoutMilliSecs) throws IOException {
+        long partialSize = Files.exists(partialFile) ? Files.size(partialFile) : 0;
+
         URLConnection connection = urlRemoteFile.openConnection();
         connection.setDoOutput(false);
-
         connection.setConnectTimeout(connectionTimeoutMilliSecs);
         connection.setReadTimeout(readTimeoutMilliSecs);
 
+        boolean isHttp = connection instanceof HttpURLConnection;
+        if (isHttp && partialSize > 0) {
+            logger.debug("Resuming download of " + urlRemoteFile + " from byte " + partialSize);
+            connection.setRequestProperty("Range", "bytes=" + partialSize + "-");
+        }
+
         try {
             logger.debug("Connecting now...");
             connection.connect();
             logger.debug("Connected OK...");
-            Files.copy(connection.getInputStream(), localArtifact, StandardCopyOption.REPLACE_EXISTING);
+
+            int responseCode = isHttp ? ((HttpURLConnection) connection).getResponseCode() : HttpURLConnection.HTTP_OK;
+            if (responseCode == 416) {
+                // The partial file is no shorter than the artifact, so it isn't part of this artifact
+                Files.deleteIfExists(partialFile);
+                return downloadToPartialFile(urlRemoteFile, partialFile, connectionTimeoutMilliSecs, readTimeoutMilliSecs);
+            }
+
+            try (InputStream inputStream = connection.getInputStream()) {
+                if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+                    try (OutputStream outputStream = Files.newOutputStream(partialFile, StandardOpenOption.APPEND)) {
+                        inputStream.transferTo(outputStream);
+                    }
+                } else {
+                    Files.copy(inputStream, partialFile, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
         } catch (FileNotFoundException e) {
-            logger.trace("Release artifact "+ urlRemoteFile+" failed to download. File not found." );
             return false;
-        } catch (Exception e) {
-            // Re-throw any exception after tracing it.
-            logger.trace("Release artifact "+ urlRemoteFile+" failed to download.",e );
-            throw e ; 
         }
+        return true;
+    }
 
-        logger.trace("Release artifact downloaded from " + urlRemoteFile);
+    /**
+     * Repositories publish the same kinds of checksum for all their artifacts, so the kind last found in
+     * a repository is asked for first, and a repository found not to publish checksums isn't asked again.
+     * This keeps the requests made before each download down to one, or none.
+     * 
+     * @return the checksum published alongside an artifact, or null if there isn't one
+     */
+    private ArtifactChecksum fetchChecksum(URL repository, URL urlRemoteFile, int connectionTimeoutMilliSecs, int readTimeoutMilliSecs) {
+        String repositoryKey = repository.toExternalForm();
+        String[] publishedAlgorithm = repositoryChecksumAlgorithms.get(repositoryKey);
+        if (publishedAlgorithm == NO_CHECKSUM_ALGORITHM) {
+            return null;
+        }
 
-        return true;
+        List<String[]> algorithms = new ArrayList<>();
+        if (publishedAlgorithm != null) {
+            algorithms.add(publishedAlgorithm);
+        }
+        for (String[] algorithm : CHECKSUM_ALGORITHMS) {
+            if (algorithm != publishedAlgorithm) {
+                algorithms.add(algorithm);
+            }
+        }
+
+        ArtifactChecksum checksum = null;
+        boolean isChecksumMissing = true;
+        for (String[] algorithm : algorithms) {
+            try {
+                URL urlChecksum = new URL(urlRemoteFile.toExternalForm() + "." + algorithm[0]);
+                URLConnection connection = urlChecksum.openConnection();
+                connection.setDoOutput(false);
+                connection.setConnectTimeout(connectionTimeoutMilliSecs);
+                connection.setReadTimeout(readTimeoutMilliSecs);
+                connection.connect();
+
+                String content;
+                try (InputStream inputStream = connection.getInputStream()) {
+                    content = new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).trim();
+                }
+
+                // Some checksum files also hold the name of the file after the checksum
+                String[] words = content.split("\\s+");
+                if (!words[0].isEmpty() && words[0].matches("[0-9a-fA-F]+")) {
+                    checksum = new ArtifactChecksum(algorithm[0], algorithm[1], words[0].toLowerCase());
+                    repositoryChecksumAlgorithms.put(repositoryKey, algorithm);
+                    break;
+                }
+                isChecksumMissing = false;
+            } catch (FileNotFoundException e) {
+                // Not every repository publishes every kind of checksum
+                logger.trace("No " + algorithm[0] + " checksum for " + urlRemoteFile);
+            } catch (IOException e) {
+                logger.trace("Unable to read the " + algorithm[0] + " checksum for " + urlRemoteFile, e);
+                isChecksumMissing = false;
+            }
+        }
+
+        // Only stop asking once the repository has said it has none, not after a failure which may not happen again
+        if (checksum == null && isChecksumMissing) {
+            logger.debug("Repository " + repositoryKey + " does not publish checksums, artifacts downloaded from it will not be checked");
+            repositoryChecksumAlgorithms.put(repositoryKey, NO_CHECKSUM_ALGORITHM);
+        }
+        return checksum;
+    }
+
+    private Path getSharedCachePath(ArtifactChecksum checksum) {
+        String value = checksum.getValue();
+        return sharedCacheDirectory.resolve(checksum.getExtension()).resolve(value.substring(0, 2)).resolve(value);
+    }
+
+    private boolean copyFromSharedCache(ArtifactChecksum checksum, Path localArtifact) {
+        boolean isCopied = false;
+        if (sharedCacheDirectory != null) {
+            Path cachedArtifact = getSharedCachePath(checksum);
+            Path partialArtifact = localArtifact.resolveSibling(localArtifact.getFileName().toString() + PARTIAL_DOWNLOAD_SUFFIX);
+            try {
+                if (Files.exists(cachedArtifact)) {
+                    Files.copy(cachedArtifact, partialArtifact, StandardCopyOption.REPLACE_EXISTING);
+                    if (checksum.matches(partialArtifact)) {
+                        Files.move(partialArtifact, localArtifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        isCopied = true;
+                    } else {
+                        logger.debug("Ignoring damaged artifact " + cachedArtifact + " in the shared cache");
+                        Files.deleteIfExists(partialArtifact);
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Unable to copy artifact " + cachedArtifact + " from the shared cache", e);
+            }
+        }
+        return isCopied;
+    }
+
+    private void addToSharedCache(ArtifactChecksum checksum, Path localArtifact) {
+        if (sharedCacheDirectory != null) {
+            Path cachedArtifact = getSharedCachePath(checksum);
+            if (!Files.exists(cachedArtifact)) {
+                try {
+                    // Other pods may be reading the shared cache, so only ever move whole files into it
+                    Files.createDirectories(cachedArtifact.getParent());
+                    Path tempArtifact = Files.createTempFile(cachedArtifact.getParent(), checksum.getValue(), ".tmp");
+                    try {
+                        Files.copy(localArtifact, tempArtifact, StandardCopyOption.REPLACE_EXISTING);
+                        Files.move(tempArtifact, cachedArtifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } finally {
+                        Files.deleteIfExists(tempArtifact);
+                    }
+                } catch (IOException e) {
+                    logger.debug("Unable to add artifact " + localArtifact + " to the shared cache", e);
+                }
+            }
+        }
+    }
+
+    private static class ArtifactLock {
+        // Only changed inside the artifactLocks map's compute methods
+        private int users;
+    }
+
+    /**
+     * A checksum published alongside an artifact in a maven repository
+     */
+    private static class ArtifactChecksum {
+        private final String extension;
+        private final String algorithm;
+        private final String value;
+
+        private ArtifactChecksum(String extension, String algorithm, String value) {
+            this.extension = extension;
+            this.algorithm = algorithm;
+            this.value = value;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public boolean matches(Path file) throws IOException {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IOException("Checksum algorithm " + algorithm + " is not available", e);
+            }
+
+            try (InputStream inputStream = Files.newInputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                int bytesRead;
+                while ((bytesRead = inputStream.read(buffer)) != -1) {
+                    digest.update(buffer, 0, bytesRead);
+                }
+            }
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return value.equals(hex.toString());
+        }
     }
 
     public URL buildArtifactUrl(URL repository, String groupid, String artifactid, String version,
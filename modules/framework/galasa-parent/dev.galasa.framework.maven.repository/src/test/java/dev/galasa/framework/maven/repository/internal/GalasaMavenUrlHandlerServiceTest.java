@@ -8,11 +8,65 @@ package dev.galasa.framework.maven.repository.internal;
 import static org.assertj.core.api.Assertions.*;
 
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 
 public class GalasaMavenUrlHandlerServiceTest {
 
-    
+    private Path tempDirectory;
+    private Path localRepository;
+    private Path remoteRepository;
+    private Path sharedCache;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDirectory = Files.createTempDirectory("galasa_junit_maven_");
+        localRepository = Files.createDirectories(tempDirectory.resolve("local"));
+        remoteRepository = Files.createDirectories(tempDirectory.resolve("remote"));
+        sharedCache = tempDirectory.resolve("shared");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        try (Stream<Path> paths = Files.walk(tempDirectory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    private GalasaMavenUrlHandlerService createHandlerService(Path sharedCacheDirectory) throws Exception {
+        GalasaMavenRepository galasaRepository = new GalasaMavenRepository();
+        galasaRepository.setRepositories(localRepository.toUri().toURL(), List.of(remoteRepository.toUri().toURL()));
+        return new GalasaMavenUrlHandlerService(galasaRepository, sharedCacheDirectory, 4);
+    }
+
+    private Path getArtifactPath(Path repository, String artifactId) {
+        return repository.resolve("my/group").resolve(artifactId).resolve("1.0.0").resolve(artifactId + "-1.0.0.jar");
+    }
+
+    private Path createRemoteArtifact(String artifactId, String content) throws Exception {
+        Path artifact = getArtifactPath(remoteRepository, artifactId);
+        Files.createDirectories(artifact.getParent());
+        Files.write(artifact, content.getBytes(StandardCharsets.UTF_8));
+        return artifact;
+    }
+
+    private String sha256(String content) throws Exception {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
     @Test
     public void TestCanCreateHandlerServiceObject() {
         new GalasaMavenUrlHandlerService();
@@ -39,4 +93,142 @@ public class GalasaMavenUrlHandlerServiceTest {
 
         assertThat(url.toString()).doesNotContain("//myGroupId");
     }
+
+    @Test
+    public void TestPrefetchDownloadsAllArtifactsToLocalRepository() throws Exception {
+        // Given...
+        for (int i = 0; i < 10; i++) {
+            createRemoteArtifact("bundle" + i, "content of bundle" + i);
+        }
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+
+        // When...
+        service.prefetch(List.of(
+            "mvn:my.group/bundle0/1.0.0/jar", "mvn:my.group/bundle1/1.0.0/jar", "mvn:my.group/bundle2/1.0.0/jar",
+            "mvn:my.group/bundle3/1.0.0/jar", "mvn:my.group/bundle4/1.0.0/jar", "mvn:my.group/bundle5/1.0.0/jar",
+            "mvn:my.group/bundle6/1.0.0/jar", "mvn:my.group/bundle7/1.0.0/jar", "mvn:my.group/bundle8/1.0.0/jar",
+            "mvn:my.group/bundle9/1.0.0/jar", "file:/not/a/maven/artifact.jar", "mvn:not/enough/parts"));
+
+        // Then...
+        for (int i = 0; i < 10; i++) {
+            assertThat(getArtifactPath(localRepository, "bundle" + i)).hasContent("content of bundle" + i);
+        }
+    }
+
+    @Test
+    public void TestPrefetchesShareThreadsAndLeaveNoArtifactLocksBehind() throws Exception {
+        // Given...
+        createRemoteArtifact("bundle0", "content of bundle0");
+        createRemoteArtifact("bundle1", "content of bundle1");
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle0/1.0.0/jar"));
+        service.prefetch(List.of("mvn:my.group/bundle0/1.0.0/jar", "mvn:my.group/bundle1/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "bundle0")).hasContent("content of bundle0");
+        assertThat(getArtifactPath(localRepository, "bundle1")).hasContent("content of bundle1");
+        assertThat(service.getArtifactLockCount()).isEqualTo(0);
+    }
+
+    @Test
+    public void TestPrefetchAfterDeactivateDoesNotThrowException() throws Exception {
+        // Given...
+        createRemoteArtifact("bundle", "content of bundle");
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+        service.deactivate();
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "bundle")).doesNotExist();
+    }
+
+    @Test
+    public void TestPrefetchOfMissingArtifactDoesNotThrowException() throws Exception {
+        // Given...
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/missing/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "missing")).doesNotExist();
+    }
+
+    @Test
+    public void TestArtifactNotMatchingItsChecksumIsNotStored() throws Exception {
+        // Given...
+        Path remoteArtifact = createRemoteArtifact("bundle", "content of bundle");
+        Files.writeString(remoteArtifact.resolveSibling("bundle-1.0.0.jar.sha256"), sha256("something else") + "  bundle-1.0.0.jar");
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle/1.0.0/jar"));
+
+        // Then...
+        Path localArtifact = getArtifactPath(localRepository, "bundle");
+        assertThat(localArtifact).doesNotExist();
+        assertThat(localArtifact.resolveSibling("bundle-1.0.0.jar.part")).doesNotExist();
+    }
+
+    @Test
+    public void TestDownloadedArtifactIsAddedToSharedCache() throws Exception {
+        // Given...
+        Path remoteArtifact = createRemoteArtifact("bundle", "content of bundle");
+        String checksum = sha256("content of bundle");
+        Files.writeString(remoteArtifact.resolveSibling("bundle-1.0.0.jar.sha256"), checksum);
+        GalasaMavenUrlHandlerService service = createHandlerService(sharedCache);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "bundle")).hasContent("content of bundle");
+        assertThat(sharedCache.resolve("sha256").resolve(checksum.substring(0, 2)).resolve(checksum)).hasContent("content of bundle");
+    }
+
+    @Test
+    public void TestArtifactInSharedCacheIsNotDownloadedAgain() throws Exception {
+        // Given...
+        Path remoteArtifact = createRemoteArtifact("bundle", "content of bundle");
+        String checksum = sha256("content of bundle");
+        Files.writeString(remoteArtifact.resolveSibling("bundle-1.0.0.jar.sha256"), checksum);
+
+        // Another pod has already downloaded the artifact, so the remote one is never read
+        Path cachedArtifact = sharedCache.resolve("sha256").resolve(checksum.substring(0, 2)).resolve(checksum);
+        Files.createDirectories(cachedArtifact.getParent());
+        Files.writeString(cachedArtifact, "content of bundle");
+        Files.delete(remoteArtifact);
+
+        GalasaMavenUrlHandlerService service = createHandlerService(sharedCache);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "bundle")).hasContent("content of bundle");
+    }
+
+    @Test
+    public void TestLeftOverPartialDownloadIsReplaced() throws Exception {
+        // Given...
+        Path remoteArtifact = createRemoteArtifact("bundle", "content of bundle");
+        Files.writeString(remoteArtifact.resolveSibling("bundle-1.0.0.jar.sha1"), "not a checksum!");
+
+        Path partialArtifact = getArtifactPath(localRepository, "bundle").resolveSibling("bundle-1.0.0.jar.part");
+        Files.createDirectories(partialArtifact.getParent());
+        Files.writeString(partialArtifact, "content of an older bun");
+
+        GalasaMavenUrlHandlerService service = createHandlerService(null);
+
+        // When...
+        service.prefetch(List.of("mvn:my.group/bundle/1.0.0/jar"));
+
+        // Then...
+        assertThat(getArtifactPath(localRepository, "bundle")).hasContent("content of bundle");
+        assertThat(partialArtifact).doesNotExist();
+    }
 }
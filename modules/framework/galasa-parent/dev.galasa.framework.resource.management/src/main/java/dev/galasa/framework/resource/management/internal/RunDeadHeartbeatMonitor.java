@@ -9,12 +9,14 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
@@ -33,6 +35,8 @@ public class RunDeadHeartbeatMonitor implements Runnable {
     private final IResourceManagement                resourceManagement;
     private final IConfigurationPropertyStoreService cps;
     private final IFrameworkRuns                     frameworkRuns;
+    private final IDynamicStatusStoreService         dss;
+    private final RunStateCache                      runStates;
     private final Log                                logger ;
     private final ITimeService                       timeService ;
 
@@ -45,20 +49,31 @@ public class RunDeadHeartbeatMonitor implements Runnable {
     protected RunDeadHeartbeatMonitor(
         IFramework framework, IResourceManagement resourceManagement,
         IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
-        IConfigurationPropertyStoreService cps) throws FrameworkException {
+        IConfigurationPropertyStoreService cps, RunStateCache runStates) throws FrameworkException {
 
         this(framework, resourceManagement, dss, 
             runResourceManagement, cps, 
             LogFactory.getLog(RunDeadHeartbeatMonitor.class),
-            new SystemTimeService()
+            new SystemTimeService(),
+            runStates
         );
     }
 
     protected RunDeadHeartbeatMonitor(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
             IConfigurationPropertyStoreService cps, Log logger, ITimeService timeService) throws FrameworkException {
+        this(framework, resourceManagement, dss, runResourceManagement, cps, logger, timeService,
+            new RunStateCache(framework.getFrameworkRuns(), dss));
+    }
+
+    protected RunDeadHeartbeatMonitor(IFramework framework, IResourceManagement resourceManagement,
+            IDynamicStatusStoreService dss, IResourceManagementProvider runResourceManagement,
+            IConfigurationPropertyStoreService cps, Log logger, ITimeService timeService,
+            RunStateCache runStates) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.dss = dss;
+        this.runStates = runStates;
         this.cps = cps;
         this.logger = logger;
         this.logger.info("Run Dead Heartbeat Monitor initialised");
@@ -73,7 +88,7 @@ public class RunDeadHeartbeatMonitor implements Runnable {
         logger.info("Starting Run Dead Heartbeat search");
         try {
             logger.trace("Fetching list of Active Runs");
-            List<IRun> runs = frameworkRuns.getActiveRuns();
+            List<IRun> runs = runStates.getActiveRuns();
             logger.trace("Active Run count = " + runs.size());
             for (IRun run : runs) {
                 if (run.isSharedEnvironment()) {
@@ -160,7 +175,14 @@ public class RunDeadHeartbeatMonitor implements Runnable {
         throws DynamicStatusStoreException {
 
         Instant expires = heartbeat.plusSeconds(defaultDeadHeartbeatTimeSecs);
-                
+
+        if (expires.compareTo(now) <= 0) {
+            // The run may have come from the run state cache, which can be behind the DSS if a
+            // watch event was missed, so check the heartbeat in the DSS before interrupting the run
+            heartbeat = getLatestHeartbeat(runName, heartbeat);
+            expires = heartbeat.plusSeconds(defaultDeadHeartbeatTimeSecs);
+        }
+
         if (expires.compareTo(now) <= 0) {
             logger.trace("Run " + runName + " has a dead heartbeat");
             String lastHeartbeat = dtf.format(LocalDateTime.ofInstant(heartbeat, ZoneId.systemDefault()));
@@ -177,6 +199,22 @@ public class RunDeadHeartbeatMonitor implements Runnable {
         }
     }
 
+    /**
+     * @return the heartbeat of the run in the DSS, or the given heartbeat if the DSS doesn't have a valid one
+     */
+    private Instant getLatestHeartbeat(String runName, Instant heartbeat) throws DynamicStatusStoreException {
+        Instant latestHeartbeat = heartbeat;
+        String dssHeartbeat = this.dss.get("run." + runName + "." + DssPropertyKeyRunNameSuffix.HEARTBEAT);
+        if (dssHeartbeat != null) {
+            try {
+                latestHeartbeat = Instant.parse(dssHeartbeat);
+            } catch (DateTimeParseException e) {
+                logger.warn("Run " + runName + " has an invalid heartbeat '" + dssHeartbeat + "'");
+            }
+        }
+        return latestHeartbeat;
+    }
+
     private void processRunWithNoHeartbeat( 
         String runName, Instant now, int defaultDeadHeartbeatTimeSecs) 
         throws DynamicStatusStoreException {
@@ -25,13 +25,15 @@ public class RunExpiredSharedEnvironment implements Runnable {
     private final IResourceManagement                resourceManagement;
     private final IDynamicStatusStoreService         dss;
     private final IFrameworkRuns                     frameworkRuns;
+    private final RunStateCache                      runStates;
     private final Log                                logger = LogFactory.getLog(this.getClass());
 
     protected RunExpiredSharedEnvironment(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, RunResourceManagement runResourceManagement,
-            IConfigurationPropertyStoreService cps) throws FrameworkException {
+            IConfigurationPropertyStoreService cps, RunStateCache runStates) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStates = runStates;
         this.dss = dss;
         this.logger.info("Run Expired Shared Environment Monitor initialised");
     }
@@ -43,7 +45,7 @@ public class RunExpiredSharedEnvironment implements Runnable {
         logger.info("Starting Expired Shared Environment search");
         try {
             logger.trace("Fetching list of Active Runs");
-            List<IRun> runs = frameworkRuns.getActiveRuns();
+            List<IRun> runs = runStates.getActiveRuns();
             logger.trace("Active Run count = " + runs.size());
             for (IRun run : runs) {
                 if (!run.isSharedEnvironment()) {
@@ -28,6 +28,7 @@ public class RunFinishedRuns implements Runnable {
     private final IResourceManagement                resourceManagement;
     private final IConfigurationPropertyStoreService cps;
     private final IFrameworkRuns                     frameworkRuns;
+    private final RunStateCache                      runStates;
     private final Log                                logger = LogFactory.getLog(this.getClass());
 
     private final DateTimeFormatter                  dtf    = DateTimeFormatter.ofPattern("yyyy-MM-dd hh:mm:ss")
@@ -35,9 +36,10 @@ public class RunFinishedRuns implements Runnable {
 
     protected RunFinishedRuns(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, RunResourceManagement runResourceManagement,
-            IConfigurationPropertyStoreService cps) throws FrameworkException {
+            IConfigurationPropertyStoreService cps, RunStateCache runStates) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStates = runStates;
         this.cps = cps;
         this.logger.info("Finished Runs Monitor initialised");
     }
@@ -57,7 +59,7 @@ public class RunFinishedRuns implements Runnable {
 
         logger.info("Starting Finished Run search");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = runStates.getAllRuns();
             for (IRun run : runs) {
                 String runName = run.getName();
 
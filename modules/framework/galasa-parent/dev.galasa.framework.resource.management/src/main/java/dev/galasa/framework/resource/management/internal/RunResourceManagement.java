@@ -11,6 +11,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
@@ -21,11 +22,16 @@ import dev.galasa.framework.spi.ResourceManagerException;
 
 @Component(service = { IResourceManagementProvider.class })
 public class RunResourceManagement implements IResourceManagementProvider {
+
+    // How often the run monitors' view of the runs is checked against the whole of the DSS
+    private static final int RUN_STATE_RESYNC_INTERVAL_SECONDS = 300;
+
     private final Log                          logger = LogFactory.getLog(getClass());
     private IFramework                         framework;
     private IResourceManagement                resourceManagement;
     private IDynamicStatusStoreService         dss;
     private IConfigurationPropertyStoreService cps;
+    private RunStateCache                      runStates;
 
     @Override
     public boolean initialise(IFramework framework, IResourceManagement resourceManagement)
@@ -45,30 +51,47 @@ public class RunResourceManagement implements IResourceManagementProvider {
     @Override
     public void start() {
 
+        try {
+            this.runStates = new RunStateCache(this.framework.getFrameworkRuns(), this.dss);
+        } catch (FrameworkException e) {
+            logger.error("Unable to initialise the run state cache", e);
+            return;
+        }
+
+        // If the first load fails, a later resync will pick the runs up
+        this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
+                this::resyncRunStates,
+                RUN_STATE_RESYNC_INTERVAL_SECONDS, RUN_STATE_RESYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        try {
+            this.runStates.start();
+        } catch (DynamicStatusStoreException e) {
+            logger.error("Unable to watch runs in the DSS, the run monitors will read every run from the DSS each time", e);
+        }
+
         try {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
-                    new RunDeadHeartbeatMonitor(this.framework, this.resourceManagement, this.dss, this, cps),
+                    new RunDeadHeartbeatMonitor(this.framework, this.resourceManagement, this.dss, this, cps, this.runStates),
                     this.framework.getRandom().nextInt(20), 20, TimeUnit.SECONDS);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Run Dead Heartbeat monitor", e);
         }
         try {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
-                    new RunExpiredSharedEnvironment(this.framework, this.resourceManagement, this.dss, this, cps),
+                    new RunExpiredSharedEnvironment(this.framework, this.resourceManagement, this.dss, this, cps, this.runStates),
                     this.framework.getRandom().nextInt(1), 5, TimeUnit.MINUTES);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Run Dead Heartbeat monitor", e);
         }
         try {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
-                    new RunFinishedRuns(this.framework, this.resourceManagement, this.dss, this, cps),
+                    new RunFinishedRuns(this.framework, this.resourceManagement, this.dss, this, cps, this.runStates),
                     this.framework.getRandom().nextInt(20), 20, TimeUnit.SECONDS);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Finished Run monitor", e);
         }
         try {
             this.resourceManagement.getScheduledExecutorService().scheduleWithFixedDelay(
-                    new RunWaitingRuns(this.framework, this.resourceManagement, this.dss, this, cps),
+                    new RunWaitingRuns(this.framework, this.resourceManagement, this.dss, this, cps, this.runStates),
                     this.framework.getRandom().nextInt(20), 20, TimeUnit.SECONDS);
         } catch (FrameworkException e) {
             logger.error("Unable to initialise Finished Run monitor", e);
@@ -77,6 +100,17 @@ public class RunResourceManagement implements IResourceManagementProvider {
 
     @Override
     public void shutdown() {
+        if (this.runStates != null) {
+            this.runStates.stop();
+        }
+    }
+
+    private void resyncRunStates() {
+        try {
+            this.runStates.resync();
+        } catch (Exception e) {
+            logger.error("Unable to resynchronise run states from the DSS", e);
+        }
     }
 
     @Override
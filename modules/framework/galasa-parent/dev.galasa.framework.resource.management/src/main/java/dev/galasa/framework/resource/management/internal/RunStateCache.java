@@ -0,0 +1,239 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import dev.galasa.framework.RunImpl;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+import dev.galasa.framework.spi.IFrameworkRuns;
+import dev.galasa.framework.spi.IRun;
+
+/**
+ * An in-memory copy of the run properties in the DSS, which is kept up to date by watching
+ * the "run." prefix.
+ *
+ * The run monitors read runs from here, rather than each of them scanning the whole "run."
+ * prefix of the DSS on their own schedule. The DSS is only scanned when the cache is started,
+ * and when it is resynchronised in case a watch event was missed.
+ *
+ * Until the cache has been started, or if the DSS could not be watched, runs are read
+ * straight from the DSS.
+ */
+public class RunStateCache implements IDynamicStatusStoreWatcher {
+
+    private static final String  RUN_PREFIX  = "run.";
+
+    // The key we get from the DSS is something like this:
+    // run.U4657.heartbeat
+    private static final Pattern runPattern  = Pattern.compile("^\\Qrun.\\E(\\w+)\\Q.\\E.*$");
+
+    private final IFrameworkRuns             frameworkRuns;
+    private final IDynamicStatusStoreService dss;
+    private final Log                        logger;
+
+    // All guarded by this
+    private final Map<String, CachedRun>     runs = new HashMap<>();
+    private long                             eventSequence = 0;
+    private boolean                          isSynchronised = false;
+    private UUID                             watchId;
+
+    private static class CachedRun {
+        private final Map<String, String> properties = new HashMap<>();
+
+        // The sequence number of the last watch event for this run, so a resync which
+        // started before the event does not overwrite it
+        private long lastEventSequence;
+
+        // Built the first time the run is asked for after it has changed
+        private IRun run;
+    }
+
+    public RunStateCache(IFrameworkRuns frameworkRuns, IDynamicStatusStoreService dss) {
+        this(frameworkRuns, dss, LogFactory.getLog(RunStateCache.class));
+    }
+
+    public RunStateCache(IFrameworkRuns frameworkRuns, IDynamicStatusStoreService dss, Log logger) {
+        this.frameworkRuns = frameworkRuns;
+        this.dss = dss;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts watching the runs in the DSS, and loads the current state of every run.
+     */
+    public void start() throws DynamicStatusStoreException {
+        UUID newWatchId = this.dss.watchPrefix(this, RUN_PREFIX);
+        synchronized (this) {
+            this.watchId = newWatchId;
+        }
+        resync();
+    }
+
+    public void stop() {
+        UUID oldWatchId;
+        synchronized (this) {
+            oldWatchId = this.watchId;
+            this.watchId = null;
+            this.isSynchronised = false;
+            this.runs.clear();
+        }
+
+        if (oldWatchId != null) {
+            try {
+                this.dss.unwatch(oldWatchId);
+            } catch (DynamicStatusStoreException e) {
+                logger.warn("Unable to stop watching runs in the DSS", e);
+            }
+        }
+    }
+
+    /**
+     * Reloads the state of every run from the DSS, replacing what is in the cache
+     * unless a run has changed since the reload started.
+     */
+    public void resync() throws DynamicStatusStoreException {
+        long startSequence;
+        synchronized (this) {
+            if (this.watchId == null) {
+                return;
+            }
+            startSequence = this.eventSequence;
+        }
+
+        logger.trace("Resynchronising run states from the DSS");
+        Map<String, String> allRunProperties = this.dss.getPrefix(RUN_PREFIX);
+
+        Map<String, CachedRun> loadedRuns = new HashMap<>();
+        for (Map.Entry<String, String> entry : allRunProperties.entrySet()) {
+            Matcher matcher = runPattern.matcher(entry.getKey());
+            if (matcher.find()) {
+                String runName = matcher.group(1);
+                loadedRuns.computeIfAbsent(runName, k -> new CachedRun()).properties.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        synchronized (this) {
+            if (this.watchId == null) {
+                return;
+            }
+
+            Iterator<Map.Entry<String, CachedRun>> iterator = this.runs.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CachedRun> entry = iterator.next();
+                if (entry.getValue().lastEventSequence <= startSequence) {
+                    iterator.remove();
+                }
+            }
+
+            for (Map.Entry<String, CachedRun> entry : loadedRuns.entrySet()) {
+                this.runs.putIfAbsent(entry.getKey(), entry.getValue());
+            }
+
+            this.isSynchronised = true;
+        }
+        logger.trace("Resynchronised run states from the DSS");
+    }
+
+    /**
+     * @return every run in the DSS
+     */
+    public List<IRun> getAllRuns() throws FrameworkException {
+        synchronized (this) {
+            if (this.isSynchronised) {
+                return getCachedRuns(false);
+            }
+        }
+        return this.frameworkRuns.getAllRuns();
+    }
+
+    /**
+     * @return the runs which have a heartbeat, are allocated or are shared environments
+     */
+    public List<IRun> getActiveRuns() throws FrameworkException {
+        synchronized (this) {
+            if (this.isSynchronised) {
+                return getCachedRuns(true);
+            }
+        }
+        return this.frameworkRuns.getActiveRuns();
+    }
+
+    private List<IRun> getCachedRuns(boolean isActiveOnly) {
+        List<IRun> cachedRuns = new ArrayList<>();
+        for (Map.Entry<String, CachedRun> entry : this.runs.entrySet()) {
+            CachedRun cachedRun = entry.getValue();
+            if (cachedRun.properties.isEmpty()) {
+                // The run has been deleted
+                continue;
+            }
+
+            if (cachedRun.run == null) {
+                try {
+                    cachedRun.run = new RunImpl(entry.getKey(), cachedRun.properties);
+                } catch (RuntimeException e) {
+                    // One run with a bad property shouldn't stop the monitors seeing the others
+                    logger.warn("Unable to read run " + entry.getKey() + " from the DSS, it will be ignored: " + e.getMessage());
+                    continue;
+                }
+            }
+
+            IRun run = cachedRun.run;
+            // The same active runs as the framework would return
+            if (!isActiveOnly
+                || run.getHeartbeat() != null
+                || "allocated".equals(run.getStatus())
+                || run.isSharedEnvironment()) {
+                cachedRuns.add(run);
+            }
+        }
+        return cachedRuns;
+    }
+
+    /**
+     * The DSS is telling us that a run property has changed, so update our copy of it.
+     */
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        if (event == null || key == null) {
+            return;
+        }
+
+        Matcher matcher = runPattern.matcher(key);
+        if (!matcher.find()) {
+            return;
+        }
+        String runName = matcher.group(1);
+
+        synchronized (this) {
+            this.eventSequence++;
+
+            // Deleted runs are kept with no properties until the next resync, so that a resync which
+            // was already underway can't bring them back
+            CachedRun cachedRun = this.runs.computeIfAbsent(runName, k -> new CachedRun());
+            if (event == Event.DELETE || newValue == null) {
+                cachedRun.properties.remove(key);
+            } else {
+                cachedRun.properties.put(key, newValue);
+            }
+            cachedRun.lastEventSequence = this.eventSequence;
+            cachedRun.run = null;
+        }
+    }
+}
@@ -27,15 +27,17 @@ public class RunWaitingRuns implements Runnable {
 
     private final IResourceManagement        resourceManagement;
     private final IFrameworkRuns             frameworkRuns;
+    private final RunStateCache              runStates;
     private final IDynamicStatusStoreService dss;
     private final Log                        logger = LogFactory.getLog(this.getClass());
 
     protected RunWaitingRuns(IFramework framework, IResourceManagement resourceManagement,
             IDynamicStatusStoreService dss, RunResourceManagement runResourceManagement,
-            IConfigurationPropertyStoreService cps) throws FrameworkException {
+            IConfigurationPropertyStoreService cps, RunStateCache runStates) throws FrameworkException {
         this.resourceManagement = resourceManagement;
         this.dss = dss;
         this.frameworkRuns = framework.getFrameworkRuns();
+        this.runStates = runStates;
         this.logger.info("Waiting Runs Monitor initialised");
     }
 
@@ -43,7 +45,7 @@ public class RunWaitingRuns implements Runnable {
     public void run() {
         logger.info("Starting Waiting Run search");
         try {
-            List<IRun> runs = frameworkRuns.getAllRuns();
+            List<IRun> runs = runStates.getAllRuns();
             for (IRun run : runs) {
                 String runName = run.getName();
 
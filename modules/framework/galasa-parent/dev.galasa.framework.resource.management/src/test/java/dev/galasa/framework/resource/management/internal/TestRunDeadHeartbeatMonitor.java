@@ -16,6 +16,7 @@ import org.junit.Test;
 import dev.galasa.framework.mocks.*;
 
 import dev.galasa.framework.resource.management.internal.mocks.*;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IFrameworkRuns;
@@ -433,4 +434,123 @@ public class TestRunDeadHeartbeatMonitor {
         assertThat(resourceManagement.isSuccessFul).isEqualTo(true);
     }
 
+    private RunDeadHeartbeatMonitor createMonitorWithRunStateCache(MockFrameworkRunsExtended frameworkRuns,
+            MockWatchableDSSStore dss, MockResourceManagementExtended resourceManagement, MockLog log,
+            Instant now) throws Exception {
+        MockFramework framework = new MockFramework() {
+            @Override
+            public IFrameworkRuns getFrameworkRuns() throws FrameworkException {
+                return frameworkRuns;
+            };
+        };
+        RunStateCache runStates = new RunStateCache(frameworkRuns, dss, log);
+        runStates.start();
+
+        return new RunDeadHeartbeatMonitor(framework, resourceManagement, dss,
+            new MockResourceManagementProvider(), new MockCPSStore(new HashMap<String,String>()), log,
+            new MockTimeService(now), runStates);
+    }
+
+    @Test
+    public void testRunWithStaleCachedHeartbeatIsNotInterruptedIfTheDssHeartbeatIsLive() throws Exception {
+        // Given...
+        Instant lastCachedHeartbeat = Instant.parse("2024-01-01T10:00:00Z");
+        Instant now = lastCachedHeartbeat.plusSeconds(400);
+
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "running");
+        dssProperties.put("run.U1.heartbeat", lastCachedHeartbeat.toString());
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        MockFrameworkRunsExtended frameworkRuns = new MockFrameworkRunsExtended(new ArrayList<>());
+        MockResourceManagementExtended resourceManagement = new MockResourceManagementExtended();
+        MockLog log = new MockLog();
+        RunDeadHeartbeatMonitor monitor = createMonitorWithRunStateCache(frameworkRuns, dss, resourceManagement, log, now);
+
+        // The run keeps beating, but the watch has dropped so the cache doesn't hear about it
+        dssProperties.put("run.U1.heartbeat", now.minusSeconds(10).toString());
+
+        // When...
+        monitor.run();
+
+        // Then...
+        assertThat(frameworkRuns.runNamesInterrupted).isEmpty();
+        assertThat(log.contains("Run U1 heartbeat is ok")).isTrue();
+        assertThat(resourceManagement.isSuccessFul).isTrue();
+    }
+
+    @Test
+    public void testRunWithStaleCachedAndDssHeartbeatsIsInterrupted() throws Exception {
+        // Given...
+        Instant lastHeartbeat = Instant.parse("2024-01-01T10:00:00Z");
+        Instant now = lastHeartbeat.plusSeconds(400);
+
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "running");
+        dssProperties.put("run.U1.heartbeat", lastHeartbeat.toString());
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        MockFrameworkRunsExtended frameworkRuns = new MockFrameworkRunsExtended(new ArrayList<>());
+        MockResourceManagementExtended resourceManagement = new MockResourceManagementExtended();
+        RunDeadHeartbeatMonitor monitor = createMonitorWithRunStateCache(frameworkRuns, dss, resourceManagement, new MockLog(), now);
+
+        // When...
+        monitor.run();
+
+        // Then...
+        assertThat(frameworkRuns.runNamesInterrupted).containsExactly("U1");
+    }
+
+    @Test
+    public void testRunHeartbeatSeenThroughAWatchEventIsUsed() throws Exception {
+        // Given...
+        Instant firstHeartbeat = Instant.parse("2024-01-01T10:00:00Z");
+        Instant now = firstHeartbeat.plusSeconds(400);
+
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "running");
+        dssProperties.put("run.U1.heartbeat", firstHeartbeat.toString());
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        MockFrameworkRunsExtended frameworkRuns = new MockFrameworkRunsExtended(new ArrayList<>());
+        MockResourceManagementExtended resourceManagement = new MockResourceManagementExtended();
+        RunDeadHeartbeatMonitor monitor = createMonitorWithRunStateCache(frameworkRuns, dss, resourceManagement, new MockLog(), now);
+
+        String newHeartbeat = now.minusSeconds(10).toString();
+        dssProperties.put("run.U1.heartbeat", newHeartbeat);
+        dss.watcher.propertyModified("run.U1.heartbeat", Event.MODIFIED, firstHeartbeat.toString(), newHeartbeat);
+
+        // When...
+        monitor.run();
+
+        // Then...
+        assertThat(frameworkRuns.runNamesInterrupted).isEmpty();
+    }
+
+    @Test
+    public void testRunWithAnUnreadablePropertyDoesNotStopOtherRunsBeingChecked() throws Exception {
+        // Given...
+        Instant lastHeartbeat = Instant.parse("2024-01-01T10:00:00Z");
+        Instant now = lastHeartbeat.plusSeconds(400);
+
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "running");
+        dssProperties.put("run.U1.heartbeat", lastHeartbeat.toString());
+        dssProperties.put("run.U2.status", "running");
+        dssProperties.put("run.U2.heartbeat", "not a time");
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        MockFrameworkRunsExtended frameworkRuns = new MockFrameworkRunsExtended(new ArrayList<>());
+        MockResourceManagementExtended resourceManagement = new MockResourceManagementExtended();
+        MockLog log = new MockLog();
+        RunDeadHeartbeatMonitor monitor = createMonitorWithRunStateCache(frameworkRuns, dss, resourceManagement, log, now);
+
+        // When...
+        monitor.run();
+
+        // Then...
+        assertThat(frameworkRuns.runNamesInterrupted).containsExactly("U1");
+        assertThat(log.contains("Scan of runs failed")).isFalse();
+        assertThat(resourceManagement.isSuccessFul).isTrue();
+    }
 }
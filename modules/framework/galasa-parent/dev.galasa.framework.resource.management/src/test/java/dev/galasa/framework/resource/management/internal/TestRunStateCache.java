@@ -0,0 +1,132 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.*;
+
+import org.junit.Test;
+
+import dev.galasa.framework.mocks.*;
+import dev.galasa.framework.resource.management.internal.mocks.MockWatchableDSSStore;
+import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IRun;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher.Event;
+
+public class TestRunStateCache {
+
+    class MockFrameworkRunsNotToBeUsed extends MockFrameworkRuns {
+        @Override
+        public List<IRun> getAllRuns() throws FrameworkException {
+            throw new FrameworkException("The runs should have come from the cache");
+        }
+
+        @Override
+        public List<IRun> getActiveRuns() throws FrameworkException {
+            throw new FrameworkException("The runs should have come from the cache");
+        }
+    }
+
+    private List<String> getRunNames(List<IRun> runs) {
+        List<String> runNames = new ArrayList<>();
+        for (IRun run : runs) {
+            runNames.add(run.getName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testRunsAreReadFromTheFrameworkUntilTheCacheIsStarted() throws Exception {
+        // Given...
+        MockRun run = new MockRun("myBundle", "myClass", "U1", "myStream", "myObr", "myRepo", "myRequestor", false);
+        MockFrameworkRuns frameworkRuns = new MockFrameworkRuns(List.of(run));
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(new HashMap<>());
+
+        RunStateCache runStates = new RunStateCache(frameworkRuns, dss, new MockLog());
+
+        // When...
+        List<IRun> runs = runStates.getAllRuns();
+
+        // Then...
+        assertThat(runs).containsExactly(run);
+        assertThat(dss.getPrefixCount).isEqualTo(0);
+    }
+
+    @Test
+    public void testRunsAreServedFromMemoryAndKeptUpToDateByWatchEvents() throws Exception {
+        // Given...
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "running");
+        dssProperties.put("run.U1.heartbeat", "2024-01-01T10:00:00Z");
+        dssProperties.put("run.U2.status", "queued");
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        RunStateCache runStates = new RunStateCache(new MockFrameworkRunsNotToBeUsed(), dss, new MockLog());
+        runStates.start();
+
+        // When...
+        dss.watcher.propertyModified("run.U2.status", Event.MODIFIED, "queued", "allocated");
+        dss.watcher.propertyModified("run.U3.status", Event.NEW, null, "queued");
+        dss.watcher.propertyModified("run.U1.heartbeat", Event.DELETE, "2024-01-01T10:00:00Z", null);
+        dss.watcher.propertyModified("run.U1.status", Event.DELETE, "running", null);
+        dss.watcher.propertyModified("dss.something.else", Event.NEW, null, "value");
+
+        List<IRun> allRuns = runStates.getAllRuns();
+        List<IRun> activeRuns = runStates.getActiveRuns();
+
+        // Then...
+        assertThat(getRunNames(allRuns)).containsExactlyInAnyOrder("U2", "U3");
+        assertThat(getRunNames(activeRuns)).containsExactly("U2");
+        assertThat(activeRuns.get(0).getStatus()).isEqualTo("allocated");
+
+        // Only the first load should have scanned the DSS
+        assertThat(dss.getPrefixCount).isEqualTo(1);
+    }
+
+    @Test
+    public void testResyncPicksUpChangesWhichWereNotWatched() throws Exception {
+        // Given...
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U1.status", "finished");
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        RunStateCache runStates = new RunStateCache(new MockFrameworkRunsNotToBeUsed(), dss, new MockLog());
+        runStates.start();
+
+        dssProperties.remove("run.U1.status");
+        dssProperties.put("run.U2.status", "waiting");
+
+        // When...
+        runStates.resync();
+
+        // Then...
+        List<IRun> allRuns = runStates.getAllRuns();
+        assertThat(getRunNames(allRuns)).containsExactly("U2");
+        assertThat(allRuns.get(0).getStatus()).isEqualTo("waiting");
+    }
+
+    @Test
+    public void testRunsAreReadFromTheFrameworkAgainOnceTheCacheIsStopped() throws Exception {
+        // Given...
+        MockRun run = new MockRun("myBundle", "myClass", "U1", "myStream", "myObr", "myRepo", "myRequestor", false);
+        MockFrameworkRuns frameworkRuns = new MockFrameworkRuns(List.of(run));
+        Map<String, String> dssProperties = new HashMap<>();
+        dssProperties.put("run.U2.status", "queued");
+        MockWatchableDSSStore dss = new MockWatchableDSSStore(dssProperties);
+
+        RunStateCache runStates = new RunStateCache(frameworkRuns, dss, new MockLog());
+        runStates.start();
+        assertThat(getRunNames(runStates.getAllRuns())).containsExactly("U2");
+
+        // When...
+        runStates.stop();
+
+        // Then...
+        assertThat(runStates.getAllRuns()).containsExactly(run);
+        assertThat(dss.watcher).isNull();
+    }
+}
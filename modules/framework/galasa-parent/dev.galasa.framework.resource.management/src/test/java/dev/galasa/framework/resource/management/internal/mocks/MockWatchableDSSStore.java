@@ -0,0 +1,43 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.resource.management.internal.mocks;
+
+import java.util.Map;
+import java.util.UUID;
+
+import dev.galasa.framework.mocks.MockDSSStore;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
+
+/**
+ * A DSS which remembers who is watching it, so that tests can send watch events, or drop
+ * them by changing the properties without telling the watcher
+ */
+public class MockWatchableDSSStore extends MockDSSStore {
+    public IDynamicStatusStoreWatcher watcher;
+    public int getPrefixCount = 0;
+
+    public MockWatchableDSSStore(Map<String, String> valueMap) {
+        super(valueMap);
+    }
+
+    @Override
+    public Map<String, String> getPrefix(String keyPrefix) throws DynamicStatusStoreException {
+        getPrefixCount++;
+        return super.getPrefix(keyPrefix);
+    }
+
+    @Override
+    public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+        this.watcher = watcher;
+        return UUID.randomUUID();
+    }
+
+    @Override
+    public void unwatch(UUID watchId) throws DynamicStatusStoreException {
+        this.watcher = null;
+    }
+}
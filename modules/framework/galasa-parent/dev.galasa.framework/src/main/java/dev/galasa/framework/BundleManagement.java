@@ -5,10 +5,16 @@
  */
 package dev.galasa.framework;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.text.*;
 
 import org.apache.commons.io.IOUtils;
@@ -17,19 +23,35 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.felix.bundlerepository.Capability;
 import org.apache.felix.bundlerepository.Property;
 import org.apache.felix.bundlerepository.Reason;
+import org.apache.felix.bundlerepository.Repository;
 import org.apache.felix.bundlerepository.RepositoryAdmin;
 import org.apache.felix.bundlerepository.Resolver;
 import org.apache.felix.bundlerepository.Resource;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
 import org.osgi.framework.InvalidSyntaxException;
+import org.osgi.framework.ServiceReference;
 
+import dev.galasa.framework.BundleResolutionCache.CachedBundle;
+import dev.galasa.framework.maven.repository.spi.IMavenArtifactPrefetcher;
 import dev.galasa.framework.spi.FrameworkException;
 
 public class BundleManagement {
 
     private static final Log logger = LogFactory.getLog(BundleManagement.class);
 
+    // Null if OBR resolutions are not being cached
+    private static volatile BundleResolutionCache resolutionCache;
+
+    /**
+     * Turns caching of OBR resolutions on or off for every bundle loaded from here on
+     * @param cache the cache to use, or null to resolve every bundle with the OBR resolver
+     */
+    public static void setResolutionCache(BundleResolutionCache cache) {
+        resolutionCache = cache;
+    }
+
     /**
      * Load a bundle from the OSGi Bundle Repository
      * @param repositoryAdmin
@@ -40,6 +62,13 @@ public class BundleManagement {
     public static void loadBundle(RepositoryAdmin repositoryAdmin, BundleContext bundleContext, String bundleSymbolicName) throws FrameworkException {
 
         logger.trace("Installing bundle " + bundleSymbolicName);
+
+        // A previous run with the same OBRs may have already worked out which bundles are needed
+        String cacheKey = getResolutionCacheKey(repositoryAdmin, bundleContext, bundleSymbolicName);
+        if (cacheKey != null && installCachedResolution(bundleContext, bundleSymbolicName, cacheKey)) {
+            return;
+        }
+
         Resolver resolver = repositoryAdmin.resolver();
         String filterString = "(symbolicname=" + bundleSymbolicName + ")";
         Resource[] resources = null;
@@ -53,7 +82,7 @@ public class BundleManagement {
                 throw new FrameworkException("Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
             // *** Only load the first one
-            addResource(bundleContext, bundleSymbolicName, resolver, resources[0]);
+            addResource(bundleContext, bundleSymbolicName, resolver, resources[0], cacheKey);
         } catch (FrameworkException e) {
             throw new FrameworkException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
                     e);
@@ -90,7 +119,8 @@ public class BundleManagement {
                 }
                 if(gherkinSupport) {
                     if (!isBundleActive(bundleContext, resource.getSymbolicName())) {
-                        addResource(bundleContext, resource.getSymbolicName(), resolver, resource);
+                        // The resolver is shared by all the manager bundles, so its resolutions can't be cached
+                        addResource(bundleContext, resource.getSymbolicName(), resolver, resource, null);
                     }
                 }
             }
@@ -106,9 +136,10 @@ public class BundleManagement {
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @param cacheKey the key to cache the resolution under, or null if it is not to be cached
      * @throws LauncherException
      */
-    private static void addResource(BundleContext bundleContext, String bundleSymbolicName, Resolver resolver, Resource resource) throws FrameworkException {
+    private static void addResource(BundleContext bundleContext, String bundleSymbolicName, Resolver resolver, Resource resource, String cacheKey) throws FrameworkException {
         logger.trace("Resouce: " + resource);
         resolver.add(resource);
 
@@ -140,6 +171,7 @@ public class BundleManagement {
 
 
             if (!resourceHasReferenceUrl) {
+                prefetchResources(bundleContext, resource, requiredResources, optionalResources);
                 resolver.deploy(Resolver.START);
             } else {
                 // *** The Resolver can't cope with reference: URIs which is valid for Felix.
@@ -180,6 +212,11 @@ public class BundleManagement {
                 throw new FrameworkException(msg);
             }
 
+            // reference: URIs point at bundles being developed, which can change at any time
+            if (cacheKey != null && !resourceHasReferenceUrl) {
+                cacheResolution(bundleSymbolicName, cacheKey, resource, requiredResources, optionalResources);
+            }
+
             printBundles(bundleContext);
         } else {
             logger.error("Unable to resolve " + resource.toString());
@@ -192,6 +229,165 @@ public class BundleManagement {
 
     }
 
+    /**
+     * @return the key to cache the resolution of the bundle under, or null if resolutions are not being cached
+     */
+    static String getResolutionCacheKey(RepositoryAdmin repositoryAdmin, BundleContext bundleContext, String bundleSymbolicName) {
+        BundleResolutionCache cache = resolutionCache;
+        String cacheKey = null;
+        if (cache != null) {
+            List<String> repositories = new ArrayList<>();
+            for (Repository repository : repositoryAdmin.listRepositories()) {
+                repositories.add(repository.getURI() + " " + repository.getLastModified());
+            }
+            cacheKey = cache.getKey(repositories, bundleSymbolicName, getInstalledBundleLocations(bundleContext));
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Install and start the bundles that a previous run installed to load a bundle, without
+     * using the OBR resolver. Each bundle is checked against the checksum it had when it was
+     * resolved, and if any have changed, the bundles are uninstalled again so that the bundle can
+     * be resolved from scratch.
+     * 
+     * @return true if the bundle was installed, false if it needs to be resolved
+     * @throws FrameworkException
+     */
+    static boolean installCachedResolution(BundleContext bundleContext, String bundleSymbolicName, String cacheKey) throws FrameworkException {
+        BundleResolutionCache cache = resolutionCache;
+        List<CachedBundle> cachedBundles = (cache == null) ? null : cache.get(cacheKey);
+        if (cachedBundles == null) {
+            return false;
+        }
+
+        logger.trace("Installing bundle " + bundleSymbolicName + " from the OBR resolution cache");
+        Set<String> alreadyInstalledLocations = new HashSet<>(getInstalledBundleLocations(bundleContext));
+        ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+        try {
+            for (CachedBundle cachedBundle : cachedBundles) {
+                String location = cachedBundle.getLocation();
+                if (!alreadyInstalledLocations.add(location)) {
+                    continue;
+                }
+
+                // Install from the bytes that were checked, so the bundle can't change in between
+                byte[] bundleContent;
+                try (InputStream is = new URL(location).openStream()) {
+                    bundleContent = IOUtils.toByteArray(is);
+                }
+                if (!BundleResolutionCache.checksum(bundleContent).equals(cachedBundle.getChecksum())) {
+                    throw new IOException("Bundle " + location + " has changed since it was resolved");
+                }
+                bundlesToStart.add(bundleContext.installBundle(location, new ByteArrayInputStream(bundleContent)));
+            }
+        } catch (IOException | BundleException e) {
+            logger.debug("Unable to use the OBR resolution cache for bundle " + bundleSymbolicName + ", it will be resolved again: " + e.getMessage());
+            for (Bundle bundle : bundlesToStart) {
+                try {
+                    bundle.uninstall();
+                } catch (BundleException uninstallException) {
+                    throw new FrameworkException("Unable to uninstall bundles installed from the OBR resolution cache", uninstallException);
+                }
+            }
+            try {
+                cache.remove(cacheKey);
+            } catch (IOException removeException) {
+                logger.debug("Unable to remove the OBR resolution cache entry for bundle " + bundleSymbolicName);
+            }
+            return false;
+        }
+
+        try {
+            for (Bundle bundle : bundlesToStart) {
+                bundle.start();
+            }
+        } catch (BundleException e) {
+            throw new FrameworkException("Unable to start bundles installed from the OBR resolution cache", e);
+        }
+
+        if (!isBundleActive(bundleContext, bundleSymbolicName)) {
+            String msg = MessageFormat.format("Bundle ''{0}'' failed to install and activate",bundleSymbolicName);
+            throw new FrameworkException(msg);
+        }
+
+        printBundles(bundleContext);
+        return true;
+    }
+
+    /**
+     * Save the bundles the OBR resolver deployed to load a bundle, so that later runs can
+     * install them directly. Failing to save them doesn't stop the bundle being used.
+     */
+    static void cacheResolution(String bundleSymbolicName, String cacheKey, Resource resource, Resource[] requiredResources, Resource[] optionalResources) {
+        BundleResolutionCache cache = resolutionCache;
+        if (cache == null) {
+            return;
+        }
+
+        Set<String> locations = new LinkedHashSet<>();
+        for (Resource requiredResource : requiredResources) {
+            locations.add(requiredResource.getURI());
+        }
+        for (Resource optionalResource : optionalResources) {
+            locations.add(optionalResource.getURI());
+        }
+        locations.add(resource.getURI());
+
+        try {
+            // If a bundle changes after the resolver read it, its checksum won't match next time, so it gets resolved again
+            List<CachedBundle> cachedBundles = new ArrayList<>();
+            for (String location : locations) {
+                try (InputStream is = new URL(location).openStream()) {
+                    cachedBundles.add(new CachedBundle(location, BundleResolutionCache.checksum(IOUtils.toByteArray(is))));
+                }
+            }
+            cache.put(cacheKey, cachedBundles);
+        } catch (IOException e) {
+            logger.debug("Unable to cache the OBR resolution of bundle " + bundleSymbolicName + ": " + e.getMessage());
+        }
+    }
+
+    private static List<String> getInstalledBundleLocations(BundleContext bundleContext) {
+        List<String> locations = new ArrayList<>();
+        for (Bundle bundle : bundleContext.getBundles()) {
+            locations.add(bundle.getLocation());
+        }
+        return locations;
+    }
+
+    /**
+     * Download the bundles chosen by the resolver all at once, rather than one at a
+     * time as each bundle is installed
+     * 
+     * @param bundleContext
+     * @param resource
+     * @param requiredResources
+     * @param optionalResources
+     */
+    private static void prefetchResources(BundleContext bundleContext, Resource resource, Resource[] requiredResources, Resource[] optionalResources) {
+        ServiceReference<IMavenArtifactPrefetcher> prefetcherReference = bundleContext.getServiceReference(IMavenArtifactPrefetcher.class);
+        if (prefetcherReference != null) {
+            IMavenArtifactPrefetcher prefetcher = bundleContext.getService(prefetcherReference);
+            if (prefetcher != null) {
+                try {
+                    List<String> artifactReferences = new ArrayList<>();
+                    for (Resource requiredResource : requiredResources) {
+                        artifactReferences.add(requiredResource.getURI());
+                    }
+                    for (Resource optionalResource : optionalResources) {
+                        artifactReferences.add(optionalResource.getURI());
+                    }
+                    artifactReferences.add(resource.getURI());
+
+                    prefetcher.prefetch(artifactReferences);
+                } finally {
+                    bundleContext.ungetService(prefetcherReference);
+                }
+            }
+        }
+    }
+
     /**
      * Is the supplied active in the OSGi framework
      * @param bundleContext
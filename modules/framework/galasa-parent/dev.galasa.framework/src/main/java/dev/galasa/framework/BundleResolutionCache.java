@@ -0,0 +1,183 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Remembers which bundles the OBR resolver installed to load a bundle, so that later test runs
+ * with the same OBRs can install the same bundles without running the resolver again.
+ *
+ * Each resolution is stored in its own properties file, named after a hash of everything that
+ * the resolver's answer depends on: the OBRs that were loaded, the bundles that were already
+ * installed, and the bundle that was asked for. The checksum of each bundle is stored with its
+ * location, so that a bundle which has changed since it was resolved can be spotted.
+ *
+ * The files are in the same format as the ones galasa-boot writes when it loads the framework,
+ * so both can share a cache directory. galasa-boot is not a bundle, so the code can't be shared.
+ */
+public class BundleResolutionCache {
+
+    private static final String CACHE_FILE_SUFFIX = ".properties";
+
+    private static final String PROP_BUNDLE_COUNT = "bundle.count";
+    private static final String PROP_BUNDLE_PREFIX = "bundle.";
+    private static final String PROP_LOCATION_SUFFIX = ".location";
+    private static final String PROP_CHECKSUM_SUFFIX = ".sha256";
+
+    private final Path cacheDirectory;
+
+    /**
+     * @param cacheDirectory the directory to store resolutions in
+     */
+    public BundleResolutionCache(Path cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * A bundle installed as part of a resolution
+     */
+    public static class CachedBundle {
+        private final String location;
+        private final String checksum;
+
+        public CachedBundle(String location, String checksum) {
+            this.location = location;
+            this.checksum = checksum;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public String getChecksum() {
+            return checksum;
+        }
+    }
+
+    /**
+     * @param repositories something which identifies each loaded OBR and its content, such as its
+     * URI and when it was last modified
+     * @param bundleSymbolicName the bundle being loaded
+     * @param installedLocations the locations of the bundles installed before the bundle is loaded
+     * @return the key to store the resolution of the bundle under
+     */
+    public String getKey(Collection<String> repositories, String bundleSymbolicName, Collection<String> installedLocations) {
+        StringBuilder keySource = new StringBuilder();
+
+        // OBRs can be added in any order, e.g. by test streams, without changing what the resolver does
+        for (String repository : new TreeSet<>(repositories)) {
+            keySource.append("repository=").append(repository).append('\n');
+        }
+        for (String installedLocation : new TreeSet<>(installedLocations)) {
+            keySource.append("installed=").append(installedLocation).append('\n');
+        }
+        keySource.append("bundle=").append(bundleSymbolicName).append('\n');
+
+        return toHex(newDigest().digest(keySource.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * @return the bundles stored under the key, in the order they should be installed, or null if
+     * there are none or they couldn't be read
+     */
+    public List<CachedBundle> get(String key) {
+        List<CachedBundle> bundles = null;
+        Path cacheFile = getCacheFile(key);
+        if (Files.isRegularFile(cacheFile)) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                properties.load(in);
+
+                int count = Integer.parseInt(properties.getProperty(PROP_BUNDLE_COUNT));
+                List<CachedBundle> cachedBundles = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    String location = properties.getProperty(PROP_BUNDLE_PREFIX + i + PROP_LOCATION_SUFFIX);
+                    String checksum = properties.getProperty(PROP_BUNDLE_PREFIX + i + PROP_CHECKSUM_SUFFIX);
+                    if (location == null || checksum == null) {
+                        throw new IOException("Bundle " + i + " is missing from " + cacheFile);
+                    }
+                    cachedBundles.add(new CachedBundle(location, checksum));
+                }
+                bundles = cachedBundles;
+            } catch (IOException | RuntimeException e) {
+                // A damaged file is no worse than no file, the bundle just gets resolved again
+                bundles = null;
+            }
+        }
+        return bundles;
+    }
+
+    /**
+     * Stores the bundles installed by a resolution under the key, replacing anything already stored
+     */
+    public void put(String key, List<CachedBundle> bundles) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(PROP_BUNDLE_COUNT, Integer.toString(bundles.size()));
+        for (int i = 0; i < bundles.size(); i++) {
+            CachedBundle bundle = bundles.get(i);
+            properties.setProperty(PROP_BUNDLE_PREFIX + i + PROP_LOCATION_SUFFIX, bundle.getLocation());
+            properties.setProperty(PROP_BUNDLE_PREFIX + i + PROP_CHECKSUM_SUFFIX, bundle.getChecksum());
+        }
+
+        // Write to a temporary file first, so that other runs sharing the directory never read half a file
+        Files.createDirectories(cacheDirectory);
+        Path tempFile = Files.createTempFile(cacheDirectory, key, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tempFile)) {
+                properties.store(out, null);
+            }
+            Files.move(tempFile, getCacheFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public void remove(String key) throws IOException {
+        Files.deleteIfExists(getCacheFile(key));
+    }
+
+    private Path getCacheFile(String key) {
+        return cacheDirectory.resolve(key + CACHE_FILE_SUFFIX);
+    }
+
+    /**
+     * @return the checksum of a bundle's content
+     */
+    public static String checksum(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java runtime has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -478,6 +478,18 @@ public class Framework implements IFramework, IShuttableFramework {
             }
         }
 
+        // *** Shutdown the RBAC Service, which watches the Dynamic Status Store
+        if (this.rbacService != null) {
+            try {
+                shutdownLogger.trace("Shutting down the RBAC Service");
+                this.rbacService.shutdown();
+                this.rbacService = null;
+            } catch (Throwable t) {
+                error = true;
+                shutdownLogger.error("Failed to shutdown the RBAC Service", t);
+            }
+        }
+
         // *** Shutdown the Dynamic Status Store
         if (this.dssStore != null) {
             try {
@@ -19,6 +19,8 @@ import dev.galasa.framework.spi.creds.*;
 public class FrameworkInitialisation implements IFrameworkInitialisation {
 
     private static final String                      USER_HOME = "user.home";
+    private static final String                      OBR_RESOLUTION_CACHE_PROP = "framework.obr.resolution.cache";
+    private static final String                      OBR_RESOLUTION_CACHE_DIR_PROP = "framework.obr.resolution.cache.dir";
     protected Framework                              framework;
 
     private final URI                                uriConfigurationPropertyStore;
@@ -146,6 +148,8 @@ public class FrameworkInitialisation implements IFrameworkInitialisation {
         }
         logger.info("Galasa home folder is "+this.galasaHome);
 
+        BundleManagement.setResolutionCache(createResolutionCache(bootstrapProperties));
+
         // *** Copy the the bootstrap properties to the override properties so that they
         // are available to the managers
         overrideProperties.putAll(bootstrapProperties);
@@ -192,6 +196,25 @@ public class FrameworkInitialisation implements IFrameworkInitialisation {
         
     }
 
+    /**
+     * Create the cache of OBR resolutions if it has been turned on in the bootstrap with
+     * framework.obr.resolution.cache=true. It is off by default.
+     *
+     * @return The cache, or null if resolutions are not to be cached
+     */
+    private BundleResolutionCache createResolutionCache(Properties bootstrapProperties) {
+        BundleResolutionCache cache = null;
+        if (Boolean.parseBoolean(bootstrapProperties.getProperty(OBR_RESOLUTION_CACHE_PROP, "false"))) {
+            String cacheDirectory = bootstrapProperties.getProperty(OBR_RESOLUTION_CACHE_DIR_PROP);
+            if (cacheDirectory == null || cacheDirectory.trim().isEmpty()) {
+                cacheDirectory = this.galasaHome + "/obr-resolution-cache";
+            }
+            logger.info("Caching OBR resolutions in " + cacheDirectory.trim());
+            cache = new BundleResolutionCache(Paths.get(cacheDirectory.trim()));
+        }
+        return cache;
+    }
+
     private static BundleContext getBundleContext() {
         return FrameworkUtil.getBundle(FrameworkInitialisation.class).getBundleContext();
     }
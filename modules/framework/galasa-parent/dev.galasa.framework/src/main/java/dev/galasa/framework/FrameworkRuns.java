@@ -8,11 +8,13 @@ package dev.galasa.framework;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -33,10 +35,14 @@ import dev.galasa.framework.beans.Property;
 import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.spi.AbstractManager;
 import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
+import dev.galasa.framework.spi.DssAdd;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
+import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
+import dev.galasa.framework.spi.IDssAction;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IFrameworkRuns;
@@ -64,6 +70,12 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     private final String                             RUN_PREFIX   = "run.";
 
+    // etcd rejects transactions with more operations than this by default
+    private static final int                         MAX_DSS_ACTIONS_PER_TRANSACTION = 128;
+
+    // Run numbers reserved from the DSS by this instance but not used yet, by run type prefix
+    private final Map<String, RunNumberBlock>        reservedRunNumbers = new HashMap<>();
+
     private ITimeService timeService;
 
     private final GalasaGson gson = new GalasaGson();
@@ -82,74 +94,66 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     @Override
     public List<IRun> getActiveRuns() throws FrameworkException {
-
-        List<IRun> runs = getAllRuns();
-        Iterator<IRun> iruns = runs.iterator();
-        while (iruns.hasNext()) {
-            IRun run = iruns.next();
-
-            if (run.getHeartbeat() != null) {
-                continue;
-            }
-
-            if ("allocated".equals(run.getStatus())) {
-                continue;
-            }
-
-            if (run.isSharedEnvironment()) {
-                continue;
+        List<IRun> activeRuns = new LinkedList<>();
+        for (IRun run : getRunsSnapshot().values()) {
+            if (run.getHeartbeat() != null
+                || "allocated".equals(run.getStatus())
+                || run.isSharedEnvironment()) {
+                activeRuns.add(run);
             }
-
-            iruns.remove();
         }
-
-        return runs;
+        return activeRuns;
     }
 
     @Override
     public @NotNull List<IRun> getQueuedRuns() throws FrameworkException {
-        List<IRun> runs = getAllRuns();
-        Iterator<IRun> iruns = runs.iterator();
-        while (iruns.hasNext()) {
-            IRun run = iruns.next();
-
-            if (!"queued".equals(run.getStatus())) {
-                iruns.remove();
+        List<IRun> queuedRuns = new LinkedList<>();
+        for (IRun run : getRunsSnapshot().values()) {
+            if ("queued".equals(run.getStatus())) {
+                queuedRuns.add(run);
             }
         }
-
-        return runs;
+        return queuedRuns;
     }
 
     @Override
     public List<IRun> getAllRuns() throws FrameworkException {
-        HashMap<String, IRun> runs = new HashMap<>();
+        return new LinkedList<>(getRunsSnapshot().values());
+    }
 
-        logger.trace("Fetching all run keys from DSS");
-        Collection<String> runPropertiesKeys = dss.getPrefixKeysOnly(RUN_PREFIX);
-        logger.trace("Fetched all run keys from DSS");
-        for (String key : runPropertiesKeys) {
-            Matcher matcher = runPattern.matcher(key);
+    @Override
+    public @NotNull Map<String, IRun> getRunsSnapshot() throws FrameworkException {
+
+        // Read every run property in one DSS call, rather than reading the keys and then
+        // going back to the DSS once for each run that was found.
+        logger.trace("Fetching all run properties from DSS");
+        Map<String, String> allRunProperties = dss.getPrefix(RUN_PREFIX);
+        logger.trace("Fetched all run properties from DSS");
+
+        // Group the properties by run name in a single pass
+        Map<String, Map<String, String>> propertiesByRunName = new HashMap<>();
+        for (Map.Entry<String, String> entry : allRunProperties.entrySet()) {
+            Matcher matcher = runPattern.matcher(entry.getKey());
             if (matcher.find()) {
                 String runName = matcher.group(1);
-
-                if (!runs.containsKey(runName)) {
-                    runs.put(runName, new RunImpl(runName, this.dss));
-                }
+                propertiesByRunName.computeIfAbsent(runName, k -> new HashMap<>()).put(entry.getKey(), entry.getValue());
             }
         }
 
-        LinkedList<IRun> returnRuns = new LinkedList<>(runs.values());
+        Map<String, IRun> runs = new HashMap<>();
+        for (Map.Entry<String, Map<String, String>> runEntry : propertiesByRunName.entrySet()) {
+            String runName = runEntry.getKey();
+            runs.put(runName, new RunImpl(runName, runEntry.getValue()));
+        }
 
-        return returnRuns;
+        return Collections.unmodifiableMap(runs);
     }
 
     @Override
     public List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException {
-        List<IRun> allRuns = this.getAllRuns();
         List<IRun> groupedRuns = new LinkedList<IRun>();
 
-        for (IRun run : allRuns) {
+        for (IRun run : getRunsSnapshot().values()) {
             if (groupName.equals(run.getGroup())) {
                 groupedRuns.add(run);
             }
@@ -216,7 +220,144 @@ public class FrameworkRuns implements IFrameworkRuns {
         return submitRun(runRequest);
     }
 
+    @Override
+    public @NotNull List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException {
+        for (SubmitRunRequest runRequest : runRequests) {
+            setRunRequestDefaultsIfNotSet(runRequest);
+        }
+
+        IRun[] runs = new IRun[runRequests.size()];
+        try {
+            storeRuns(runRequests, runs);
+        } catch (FrameworkException e) {
+            // Don't leave some of the runs queued when the caller is told they couldn't be submitted
+            deleteStoredRuns(runRequests, runs, e);
+            throw e;
+        }
+        return Arrays.asList(runs);
+    }
+
+    private void storeRuns(List<SubmitRunRequest> runRequests, IRun[] runs) throws FrameworkException {
+        // Runs with the same type prefix can have their names reserved together
+        Map<String, List<Integer>> positionsByTypePrefix = new LinkedHashMap<>();
+        for (int position = 0; position < runRequests.size(); position++) {
+            SubmitRunRequest runRequest = runRequests.get(position);
+            if (runRequest.getSharedEnvironmentPhase() != null) {
+                runs[position] = submitSharedEnvironmentRun(runRequest);
+            } else {
+                String typePrefix = getRunTypePrefix(runRequest.getRunType());
+                positionsByTypePrefix.computeIfAbsent(typePrefix, k -> new ArrayList<>()).add(position);
+            }
+        }
+
+        try {
+            for (Map.Entry<String, List<Integer>> entry : positionsByTypePrefix.entrySet()) {
+                submitRunsWithTypePrefix(entry.getKey(), entry.getValue(), runRequests, runs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FrameworkException("Interrupted", e);
+        } catch (Exception e) {
+            throw new FrameworkException("Problem submitting jobs", e);
+        }
+    }
+
+    /**
+     * Deletes the runs that were stored before submitting a batch of runs failed. A shared
+     * environment being discarded existed before the batch, so it is left alone.
+     */
+    private void deleteStoredRuns(List<SubmitRunRequest> runRequests, IRun[] runs, FrameworkException submitException) {
+        for (int position = 0; position < runs.length; position++) {
+            IRun run = runs[position];
+            if (run != null && runRequests.get(position).getSharedEnvironmentPhase() != SharedEnvironmentPhase.DISCARD) {
+                try {
+                    delete(run.getName());
+                } catch (DynamicStatusStoreException e) {
+                    logger.error("Unable to delete run " + run.getName() + " after the runs submitted with it failed", e);
+                    submitException.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Submits runs which share a type prefix, reserving all their run numbers at once and
+     * storing as many runs as will fit in each DSS transaction
+     */
+    private void submitRunsWithTypePrefix(String typePrefix, List<Integer> positions, List<SubmitRunRequest> runRequests, IRun[] runs)
+            throws FrameworkException, InterruptedException {
+        RunNumberAllocation allocation = new RunNumberAllocation(typePrefix, getPrefixMaxNumber(typePrefix));
+        List<Integer> runNumbers = takeRunNumbers(allocation, positions.size());
+
+        Map<Integer, String> transactionRunNames = new LinkedHashMap<>();
+        Map<Integer, Map<String, String>> transactionRunProperties = new HashMap<>();
+        List<IDssAction> transactionActions = new ArrayList<>();
+
+        for (int i = 0; i < positions.size(); i++) {
+            int position = positions.get(i);
+            String runName = typePrefix + runNumbers.get(i);
+            Map<String, String> runProperties = getRunProperties(runName, runRequests.get(position));
+
+            if (!transactionActions.isEmpty() && transactionActions.size() + runProperties.size() > MAX_DSS_ACTIONS_PER_TRANSACTION) {
+                storeRunsInTransaction(allocation, transactionRunNames, transactionRunProperties, transactionActions, runRequests, runs);
+                transactionRunNames.clear();
+                transactionRunProperties.clear();
+                transactionActions.clear();
+            }
+
+            // The test property is only added if it isn't set yet, which guards against the run name already being in use
+            String testKey = getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST);
+            for (Map.Entry<String, String> property : runProperties.entrySet()) {
+                if (property.getKey().equals(testKey)) {
+                    transactionActions.add(new DssAdd(property.getKey(), property.getValue()));
+                } else {
+                    transactionActions.add(new DssUpdate(property.getKey(), property.getValue()));
+                }
+            }
+            transactionRunNames.put(position, runName);
+            transactionRunProperties.put(position, runProperties);
+        }
+
+        if (!transactionActions.isEmpty()) {
+            storeRunsInTransaction(allocation, transactionRunNames, transactionRunProperties, transactionActions, runRequests, runs);
+        }
+    }
+
+    private void storeRunsInTransaction(RunNumberAllocation allocation, Map<Integer, String> runNames, Map<Integer, Map<String, String>> runProperties,
+            List<IDssAction> actions, List<SubmitRunRequest> runRequests, IRun[] runs) throws FrameworkException, InterruptedException {
+        try {
+            this.dss.performActions(actions.toArray(new IDssAction[0]));
+
+            for (Map.Entry<Integer, String> entry : runNames.entrySet()) {
+                int position = entry.getKey();
+                runs[position] = new RunImpl(entry.getValue(), runProperties.get(position));
+            }
+        } catch (DynamicStatusStoreMatchException e) {
+            // At least one of the run names is in use already, which is possible once the
+            // run numbers have wrapped around, so store these runs one at a time instead
+            logger.debug("Run names clashed when storing " + runNames.size() + " runs together, storing them one at a time");
+            for (Map.Entry<Integer, String> entry : runNames.entrySet()) {
+                int position = entry.getKey();
+                String runName = storeRunWithFreeName(allocation, entry.getValue(), runRequests.get(position));
+                runs[position] = new RunImpl(runName, this.dss);
+            }
+        }
+    }
+
     private boolean storeRun(String runName, SubmitRunRequest runRequest) throws DynamicStatusStoreException {
+        Map<String, String> runProperties = getRunProperties(runName, runRequest);
+
+        // *** See if we can setup the runnumber properties (clashes possible if low max
+        // number or sharing prefix
+        String testKey = getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST);
+        String bundleTest = runProperties.remove(testKey);
+        return this.dss.putSwap(testKey, null, bundleTest, runProperties);
+    }
+
+    /**
+     * @return all the DSS properties of a newly submitted run, including its test property
+     */
+    private Map<String, String> getRunProperties(String runName, SubmitRunRequest runRequest) throws DynamicStatusStoreException {
         String bundleName = runRequest.getBundleName();
         String testName = runRequest.getTestName();
         String bundleTest = runRequest.getBundleTest();
@@ -292,9 +433,8 @@ public class FrameworkRuns implements IFrameworkRuns {
             otherRunProperties.put(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.OVERRIDES), gson.toJson(overridesArray));
         }
 
-        // *** See if we can setup the runnumber properties (clashes possible if low max
-        // number or sharing prefix
-        return this.dss.putSwap(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST), null, bundleTest, otherRunProperties);
+        otherRunProperties.put(getSuffixedRunDssKey(runName, DssPropertyKeyRunNameSuffix.TEST), bundleTest);
+        return otherRunProperties;
     }
 
     @Override
@@ -466,6 +606,22 @@ public class FrameworkRuns implements IFrameworkRuns {
         return maxNumber;
     }
 
+    /**
+     * Get how many run numbers to reserve from the DSS at a time for the given type prefix
+     */
+    private int getPrefixBlockSize(String typePrefix) throws ConfigurationPropertyStoreException {
+        int blockSize = 1;
+        String sBlockSize = AbstractManager.nulled(this.cps.getProperty("request.prefix", "block.size", typePrefix));
+        if (sBlockSize != null) {
+            try {
+                blockSize = Math.max(1, Integer.parseInt(sBlockSize));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring request.prefix." + typePrefix + ".block.size, '" + sBlockSize + "' is not a whole number. Reserving run numbers one at a time");
+            }
+        }
+        return blockSize;
+    }
+
     /**
      * Sets the relevant DSS properties when a shared environment run is being discarded
      */
@@ -495,48 +651,95 @@ public class FrameworkRuns implements IFrameworkRuns {
 
     private String assignNewRunName(SubmitRunRequest runRequest) throws FrameworkException, InterruptedException {
         String typePrefix = getRunTypePrefix(runRequest.getRunType());
-        int maxNumber = getPrefixMaxNumber(typePrefix);
+        RunNumberAllocation allocation = new RunNumberAllocation(typePrefix, getPrefixMaxNumber(typePrefix));
         runRequest.setSharedEnvironmentPhase(null);
 
-        // *** Now loop until we find the next free number for this run type
-        String runName = null;
-        boolean maxlooped = false;
-        while (runName == null) {
-            String pLastused = "request.prefix." + typePrefix + ".lastused";
-            String sLatestNumber = this.dss.get(pLastused);
-            int latestNumber = 0;
-            if (sLatestNumber != null && !sLatestNumber.trim().isEmpty()) {
-                latestNumber = Integer.parseInt(sLatestNumber);
-            }
+        String runName = typePrefix + takeRunNumbers(allocation, 1).get(0);
+        return storeRunWithFreeName(allocation, runName, runRequest);
+    }
 
-            // *** Add 1 to the run number and see if we get it
-            latestNumber++;
-            if (latestNumber > maxNumber) { // *** have we gone past the maximum number
-                if (maxlooped) {
-                    throw new FrameworkException("Not enough request type numbers available, looped twice");
-                }
-                latestNumber = 1;
-                maxlooped = true; // *** Safety check to make sure we havent gone through all the numbers again
+    /**
+     * Stores the run, taking the next run number each time the run name turns out to be in use already
+     * @return the name the run was stored with
+     */
+    private String storeRunWithFreeName(RunNumberAllocation allocation, String runName, SubmitRunRequest runRequest)
+            throws FrameworkException, InterruptedException {
+        while (!storeRun(runName, runRequest)) {
+            Thread.sleep(this.framework.getRandom().nextInt(200)); // *** Wait for a bit, to avoid race
+            // conditions
+            runName = allocation.typePrefix + takeRunNumbers(allocation, 1).get(0); // *** Try again
+        }
+        return runName;
+    }
+
+    /**
+     * Takes the next run numbers for a type prefix.
+     *
+     * Numbers left over from the block this instance reserved last time are used first. Any more
+     * are reserved from the DSS with a single swap of the prefix's last used number, which moves
+     * it on by the numbers needed or by the prefix's block size, whichever is larger. Leftover
+     * numbers are kept for later submissions, so with a block size above 1 most submissions don't
+     * need to change the last used number at all. Numbers which are never used, for example
+     * because the server stops, are skipped.
+     */
+    private List<Integer> takeRunNumbers(RunNumberAllocation allocation, int count) throws FrameworkException, InterruptedException {
+        String typePrefix = allocation.typePrefix;
+        List<Integer> runNumbers = new ArrayList<>();
+
+        // Only one thread reserves numbers at a time, so that the threads in this instance
+        // don't compete with each other to swap the last used number
+        synchronized (reservedRunNumbers) {
+            RunNumberBlock block = reservedRunNumbers.get(typePrefix);
+            while (block != null && block.hasNext() && runNumbers.size() < count) {
+                runNumbers.add(block.next());
             }
 
-            String sNewNumber = Integer.toString(latestNumber);
-            if (!this.dss.putSwap(pLastused, sLatestNumber, sNewNumber)) {
-                Thread.sleep(this.framework.getRandom().nextInt(200)); // *** Wait for a bit, to avoid race
-                // conditions
-                continue; // Try again with the new latest number
+            int blockSize = 1;
+            if (runNumbers.size() < count) {
+                blockSize = getPrefixBlockSize(typePrefix);
             }
 
-            String tempRunName = typePrefix + sNewNumber;
+            // *** Now loop until we have reserved enough numbers for this run type
+            String pLastused = "request.prefix." + typePrefix + ".lastused";
+            while (runNumbers.size() < count) {
+                String sLatestNumber = this.dss.get(pLastused);
+                long latestNumber = 0;
+                if (sLatestNumber != null && !sLatestNumber.trim().isEmpty()) {
+                    latestNumber = Integer.parseInt(sLatestNumber);
+                }
+
+                long firstNumber = latestNumber + 1;
+                if (firstNumber > allocation.maxNumber) { // *** have we gone past the maximum number
+                    if (allocation.isMaxLooped) {
+                        throw new FrameworkException("Not enough request type numbers available, looped twice");
+                    }
+                    firstNumber = 1;
+                    allocation.isMaxLooped = true; // *** Safety check to make sure we havent gone through all the numbers again
+                }
+
+                // Blocks never go past the maximum number, the next block starts again from 1
+                int numbersToReserve = Math.max(count - runNumbers.size(), blockSize);
+                long lastNumber = Math.max(firstNumber, Math.min(firstNumber + numbersToReserve - 1, allocation.maxNumber));
+
+                if (!this.dss.putSwap(pLastused, sLatestNumber, Long.toString(lastNumber))) {
+                    Thread.sleep(this.framework.getRandom().nextInt(200)); // *** Wait for a bit, to avoid race
+                    // conditions
+                    continue; // Try again with the new latest number
+                }
 
-            if (!storeRun(tempRunName, runRequest)) {
-                Thread.sleep(this.framework.getRandom().nextInt(200)); // *** Wait for a bit, to avoid race
-                // conditions
-                continue; // *** Try again
+                block = new RunNumberBlock((int) firstNumber, (int) lastNumber);
+                while (block.hasNext() && runNumbers.size() < count) {
+                    runNumbers.add(block.next());
+                }
             }
 
-            runName = tempRunName; // *** Got it
+            if (block != null && block.hasNext()) {
+                reservedRunNumbers.put(typePrefix, block);
+            } else {
+                reservedRunNumbers.remove(typePrefix);
+            }
         }
-        return runName;
+        return runNumbers;
     }
 
     private IRun submitSharedEnvironmentRun(SubmitRunRequest runRequest) throws FrameworkException {
@@ -634,4 +837,39 @@ public class FrameworkRuns implements IFrameworkRuns {
     private String getSuffixedRunDssKey(String runName, DssPropertyKeyRunNameSuffix suffix) throws DynamicStatusStoreException {
         return getRunDssPrefix(runName) + suffix.toString();
     }
-}
\ No newline at end of file
+
+    /**
+     * The state of taking run numbers for one submission
+     */
+    private static class RunNumberAllocation {
+        private final String typePrefix;
+        private final int maxNumber;
+        private boolean isMaxLooped = false;
+
+        private RunNumberAllocation(String typePrefix, int maxNumber) {
+            this.typePrefix = typePrefix;
+            this.maxNumber = maxNumber;
+        }
+    }
+
+    /**
+     * A range of run numbers reserved from the DSS
+     */
+    private static class RunNumberBlock {
+        private int nextNumber;
+        private final int lastNumber;
+
+        private RunNumberBlock(int firstNumber, int lastNumber) {
+            this.nextNumber = firstNumber;
+            this.lastNumber = lastNumber;
+        }
+
+        private boolean hasNext() {
+            return nextNumber <= lastNumber;
+        }
+
+        private int next() {
+            return nextNumber++;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import dev.galasa.ManagerException;
+import dev.galasa.framework.spi.IManager;
+import dev.galasa.framework.spi.ResourceUnavailableException;
+import dev.galasa.framework.spi.utils.ITimeService;
+
+/**
+ * Runs a provisioning phase across the active managers, as a graph of the dependencies between
+ * them given by {@link IManager#areYouProvisionalDependentOn(IManager)}.
+ *
+ * A manager is only called once every manager it depends on has finished, or for phases which
+ * tear down, once every manager which depends on it has finished. Managers which don't depend on
+ * each other are called at the same time, up to the given number of threads. With one thread, the
+ * managers are called one after another in provisioning order.
+ *
+ * When a manager fails, no more managers are started, the managers already running are allowed to
+ * finish, and the failure of the earliest manager in provisioning order is reported, so the same
+ * failure is reported however the threads were scheduled.
+ */
+public class ManagerProvisioningGraph {
+
+    /**
+     * A provisioning phase to call on each manager
+     */
+    public interface ManagerPhase {
+        void provision(IManager manager) throws ManagerException, ResourceUnavailableException;
+    }
+
+    /**
+     * Thrown when a manager fails during a provisioning phase
+     */
+    public static class ManagerPhaseFailure extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private final transient IManager manager;
+
+        public ManagerPhaseFailure(IManager manager, Throwable cause) {
+            super(cause);
+            this.manager = manager;
+        }
+
+        public IManager getManager() {
+            return manager;
+        }
+    }
+
+    private final List<IManager> managers;
+    private final ITimeService   timeService;
+
+    // For each manager, the positions of the managers it depends on, and the managers which depend on it
+    private final List<List<Integer>> dependencies = new ArrayList<>();
+    private final List<List<Integer>> dependents   = new ArrayList<>();
+
+    /**
+     * @param managers the active managers, already sorted into provisioning order
+     */
+    public ManagerProvisioningGraph(List<IManager> managers, ITimeService timeService) {
+        this.managers = new ArrayList<>(managers);
+        this.timeService = timeService;
+
+        for (int i = 0; i < this.managers.size(); i++) {
+            dependencies.add(new ArrayList<>());
+            dependents.add(new ArrayList<>());
+        }
+
+        // Managers are sorted, so a manager can only depend on managers before it
+        for (int i = 0; i < this.managers.size(); i++) {
+            for (int j = 0; j < i; j++) {
+                if (this.managers.get(i).areYouProvisionalDependentOn(this.managers.get(j))) {
+                    dependencies.get(i).add(j);
+                    dependents.get(j).add(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calls the phase on every manager.
+     *
+     * @param phase the phase to call
+     * @param isReversed true if the phase tears down, so dependent managers are called first
+     * @param maxThreads how many managers can be called at the same time
+     * @param timings filled in with how long each manager took as it finishes, including managers
+     * which failed. Synchronize on the map to read it while managers are still running.
+     * @throws ManagerPhaseFailure if a manager failed
+     */
+    public void run(ManagerPhase phase, boolean isReversed, int maxThreads, Map<IManager, Duration> timings) throws ManagerPhaseFailure {
+        if (maxThreads <= 1 || managers.size() <= 1) {
+            runInOrder(phase, isReversed, timings);
+        } else {
+            runConcurrently(phase, isReversed, maxThreads, timings);
+        }
+    }
+
+    private void runInOrder(ManagerPhase phase, boolean isReversed, Map<IManager, Duration> timings) throws ManagerPhaseFailure {
+        for (int position = 0; position < managers.size(); position++) {
+            IManager manager = managers.get(getManagerIndex(position, isReversed));
+            Instant startTime = timeService.now();
+            try {
+                phase.provision(manager);
+            } catch (ManagerException | ResourceUnavailableException | RuntimeException e) {
+                throw new ManagerPhaseFailure(manager, e);
+            } finally {
+                Duration timeTaken = Duration.between(startTime, timeService.now());
+                synchronized (timings) {
+                    timings.put(manager, timeTaken);
+                }
+            }
+        }
+    }
+
+    private void runConcurrently(ManagerPhase phase, boolean isReversed, int maxThreads, Map<IManager, Duration> timings) throws ManagerPhaseFailure {
+        // Positions are in the order the managers would be called in by a single thread,
+        // so the earliest position is the one to report if several managers fail
+        int managerCount = managers.size();
+        int[] waitingFor = new int[managerCount];
+        PriorityQueue<Integer> readyPositions = new PriorityQueue<>();
+        for (int position = 0; position < managerCount; position++) {
+            waitingFor[position] = getPrerequisites(getManagerIndex(position, isReversed), isReversed).size();
+            if (waitingFor[position] == 0) {
+                readyPositions.add(position);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(maxThreads, managerCount), new ProvisioningThreadFactory());
+        CompletionService<ManagerTaskResult> completionService = new ExecutorCompletionService<>(executor);
+
+        ManagerTaskResult firstFailure = null;
+        try {
+            int runningCount = 0;
+            do {
+                // Don't start any more managers once one has failed
+                while (firstFailure == null && !readyPositions.isEmpty()) {
+                    int position = readyPositions.poll();
+                    IManager manager = managers.get(getManagerIndex(position, isReversed));
+                    completionService.submit(() -> provision(phase, manager, position, timings));
+                    runningCount++;
+                }
+
+                if (runningCount > 0) {
+                    ManagerTaskResult result = completionService.take().get();
+                    runningCount--;
+
+                    if (result.failure != null) {
+                        if (firstFailure == null || result.position < firstFailure.position) {
+                            firstFailure = result;
+                        }
+                    } else {
+                        for (int followerIndex : getFollowers(getManagerIndex(result.position, isReversed), isReversed)) {
+                            int followerPosition = getPosition(followerIndex, isReversed);
+                            waitingFor[followerPosition]--;
+                            if (waitingFor[followerPosition] == 0) {
+                                readyPositions.add(followerPosition);
+                            }
+                        }
+                    }
+                }
+            } while (runningCount > 0 || (firstFailure == null && !readyPositions.isEmpty()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new ManagerPhaseFailure(null, e);
+        } catch (ExecutionException e) {
+            // Tasks catch everything themselves, so this should not happen
+            executor.shutdownNow();
+            throw new ManagerPhaseFailure(null, e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        if (firstFailure != null) {
+            throw new ManagerPhaseFailure(managers.get(getManagerIndex(firstFailure.position, isReversed)), firstFailure.failure);
+        }
+    }
+
+    private ManagerTaskResult provision(ManagerPhase phase, IManager manager, int position, Map<IManager, Duration> timings) {
+        Throwable failure = null;
+        Instant startTime = timeService.now();
+        try {
+            phase.provision(manager);
+        } catch (Throwable t) {
+            // Hand everything back to the calling thread, which decides what to report
+            failure = t;
+        } finally {
+            Duration timeTaken = Duration.between(startTime, timeService.now());
+            synchronized (timings) {
+                timings.put(manager, timeTaken);
+            }
+        }
+        return new ManagerTaskResult(position, failure);
+    }
+
+    private static class ManagerTaskResult {
+        private final int position;
+        private final Throwable failure;
+
+        private ManagerTaskResult(int position, Throwable failure) {
+            this.position = position;
+            this.failure = failure;
+        }
+    }
+
+    private int getManagerIndex(int position, boolean isReversed) {
+        return isReversed ? managers.size() - 1 - position : position;
+    }
+
+    private int getPosition(int managerIndex, boolean isReversed) {
+        return isReversed ? managers.size() - 1 - managerIndex : managerIndex;
+    }
+
+    private List<Integer> getPrerequisites(int managerIndex, boolean isReversed) {
+        return isReversed ? dependents.get(managerIndex) : dependencies.get(managerIndex);
+    }
+
+    private List<Integer> getFollowers(int managerIndex, boolean isReversed) {
+        return isReversed ? dependencies.get(managerIndex) : dependents.get(managerIndex);
+    }
+
+    private static class ProvisioningThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "galasa-provisioning-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -63,12 +63,20 @@ public class RunImpl implements IRun {
     private static final GalasaGson gson = new GalasaGson();
 
     public RunImpl(String name, IDynamicStatusStoreService dss) throws DynamicStatusStoreException {
+        this(name, dss.getPrefix("run." + name + "."));
+    }
+
+    /**
+     * Creates a run from properties that have already been read from the DSS, so that
+     * many runs can be built from a single bulk read of the "run." prefix.
+     * @param name The name of the run
+     * @param runProperties The DSS properties of this run, keyed by their full "run.[name].[suffix]" key
+     */
+    public RunImpl(String name, Map<String, String> runProperties) {
         this.name = name;
 
         String prefix = "run." + name + ".";
 
-        Map<String, String> runProperties = dss.getPrefix("run." + this.name);
-
         String sHeartbeat = runProperties.get(prefix + DssPropertyKeyRunNameSuffix.HEARTBEAT);
         if (sHeartbeat != null) {
             this.heartbeat = Instant.parse(sHeartbeat);
@@ -8,10 +8,16 @@ package dev.galasa.framework;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.text.*;
 
 import javax.validation.constraints.NotNull;
@@ -30,14 +36,21 @@ import org.osgi.framework.InvalidSyntaxException;
 import org.osgi.framework.ServiceReference;
 
 import dev.galasa.ManagerException;
+import dev.galasa.ResultArchiveStoreContentType;
+import dev.galasa.SetContentType;
+import dev.galasa.framework.ManagerProvisioningGraph.ManagerPhase;
+import dev.galasa.framework.ManagerProvisioningGraph.ManagerPhaseFailure;
+import dev.galasa.framework.spi.ConfigurationPropertyStoreException;
 import dev.galasa.framework.spi.FrameworkException;
 import dev.galasa.framework.spi.FrameworkResourceUnavailableException;
+import dev.galasa.framework.spi.IConfigurationPropertyStoreService;
 import dev.galasa.framework.spi.IFramework;
 import dev.galasa.framework.spi.IManager;
 import dev.galasa.framework.spi.ResourceUnavailableException;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.language.GalasaMethod;
 import dev.galasa.framework.spi.language.GalasaTest;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 
 public class TestRunManagers implements ITestRunManagers {
 
@@ -50,6 +63,14 @@ public class TestRunManagers implements ITestRunManagers {
 
     private final RepositoryAdmin repositoryAdmin;
 
+    private ManagerProvisioningGraph provisioningGraph;
+
+    // How many managers can be provisioned at the same time, set by framework.manager.provisioning.threads
+    private int provisioningThreads = 1;
+
+    // How long each manager took in each provisioning phase, keyed by phase and manager class name
+    private final Map<String, Long> provisioningTimings = new TreeMap<>();
+
     public TestRunManagers(IFramework framework, GalasaTest galasaTest) throws FrameworkException {
         this.framework = framework;
         this.bundleContext = FrameworkUtil.getBundle(getClass()).getBundleContext();
@@ -69,6 +90,33 @@ public class TestRunManagers implements ITestRunManagers {
         logger.debug("The following Managers are sorted in provisioning order:-");
         reportManagers(false);
 
+        this.provisioningGraph = new ManagerProvisioningGraph(activeManagers, new SystemTimeService());
+        this.provisioningThreads = getProvisioningThreads();
+    }
+
+    /**
+     * @return how many managers can be provisioned at the same time. Defaults to 1, which provisions
+     * the managers one after another in provisioning order.
+     */
+    private int getProvisioningThreads() throws FrameworkException {
+        int threads = 1;
+        IConfigurationPropertyStoreService cps = framework.getConfigurationPropertyService("framework");
+        String threadsProperty = null;
+        try {
+            threadsProperty = cps.getProperty("manager.provisioning", "threads");
+        } catch (ConfigurationPropertyStoreException e) {
+            throw new FrameworkException("Unable to read the manager provisioning threads property", e);
+        }
+
+        if (threadsProperty != null && !threadsProperty.isBlank()) {
+            try {
+                threads = Math.max(1, Integer.parseInt(threadsProperty.trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid value '" + threadsProperty + "' for framework.manager.provisioning.threads, managers will be provisioned one at a time");
+            }
+        }
+        logger.debug("Managers will be provisioned with " + threads + " thread(s)");
+        return threads;
     }
 
     /**
@@ -270,6 +318,13 @@ public class TestRunManagers implements ITestRunManagers {
     private void loadBundle(String bundleSymbolicName) throws FrameworkException {
 
         logger.trace("Installing bundle " + bundleSymbolicName);
+
+        // A previous run with the same OBRs may have already worked out which bundles are needed
+        String cacheKey = BundleManagement.getResolutionCacheKey(repositoryAdmin, bundleContext, bundleSymbolicName);
+        if (cacheKey != null && BundleManagement.installCachedResolution(bundleContext, bundleSymbolicName, cacheKey)) {
+            return;
+        }
+
         Resolver resolver = repositoryAdmin.resolver();
         String filterString = "(symbolicname=" + bundleSymbolicName + ")";
         Resource[] resources = null;
@@ -283,8 +338,12 @@ public class TestRunManagers implements ITestRunManagers {
                 throw new FrameworkException(
                         "Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
+            // Several versions of the bundle share one resolver, so only a single resolution can be cached
+            if (resources.length > 1) {
+                cacheKey = null;
+            }
             for (Resource resource : resources) {
-                addResource(bundleSymbolicName, resolver, resource);
+                addResource(bundleSymbolicName, resolver, resource, cacheKey);
             }
         } catch (FrameworkException e) {
             throw new FrameworkException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
@@ -298,9 +357,10 @@ public class TestRunManagers implements ITestRunManagers {
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @param cacheKey the key to cache the resolution under, or null if it is not to be cached
      * @throws LauncherException
      */
-    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource)
+    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource, String cacheKey)
             throws FrameworkException {
         logger.trace("Resouce: " + resource);
 
@@ -367,6 +427,11 @@ public class TestRunManagers implements ITestRunManagers {
                 throw new FrameworkException(msg);
             }
 
+            // reference: URIs point at bundles being developed, which can change at any time
+            if (cacheKey != null && !resourceHasReferenceUrl) {
+                BundleManagement.cacheResolution(bundleSymbolicName, cacheKey, resource, requiredResources, optionalResources);
+            }
+
             printBundles();
         } else {
             logger.error("Unable to resolve " + resource.toString());
@@ -474,55 +539,104 @@ public class TestRunManagers implements ITestRunManagers {
 
     @Override
     public void provisionGenerate() throws FrameworkException {
-        for (IManager manager : activeManagers) {
-            try {
-                manager.provisionGenerate();
-            } catch (ResourceUnavailableException e) {
-                throw new FrameworkResourceUnavailableException("Resources unavailable during provision generate", e);
-            } catch (ManagerException e) {
-                throw new FrameworkException(
-                        "Problem in provision generate for manager " + manager.getClass().getName(), e);
+        try {
+            runProvisioningPhase("generate", manager -> manager.provisionGenerate(), false);
+        } catch (ManagerPhaseFailure e) {
+            if (e.getCause() instanceof ResourceUnavailableException) {
+                throw new FrameworkResourceUnavailableException("Resources unavailable during provision generate", e.getCause());
             }
+            throw toFrameworkException("Problem in provision generate for manager ", e);
         }
     }
 
     @Override
     public void provisionBuild() throws FrameworkException {
-        for (IManager manager : activeManagers) {
-            try {
-                manager.provisionBuild();
-            } catch (ManagerException e) {
-                throw new FrameworkException("Problem in provision build for manager " + manager.getClass().getName(),
-                        e);
-            }
+        try {
+            runProvisioningPhase("build", manager -> manager.provisionBuild(), false);
+        } catch (ManagerPhaseFailure e) {
+            throw toFrameworkException("Problem in provision build for manager ", e);
         }
     }
 
     @Override
     public void provisionStart() throws FrameworkException {
-        for (IManager manager : activeManagers) {
-            try {
-                manager.provisionStart();
-            } catch (ManagerException e) {
-                throw new FrameworkException("Problem in provision start for manager " + manager.getClass().getName(),
-                        e);
-            }
-
+        try {
+            runProvisioningPhase("start", manager -> manager.provisionStart(), false);
+        } catch (ManagerPhaseFailure e) {
+            throw toFrameworkException("Problem in provision start for manager ", e);
         }
     }
 
     @Override
     public void provisionStop() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionStop();
+        try {
+            runProvisioningPhase("stop", manager -> manager.provisionStop(), true);
+        } catch (ManagerPhaseFailure e) {
+            throw toUncheckedException(e);
         }
     }
 
     @Override
     public void provisionDiscard() {
-        for (IManager manager : activeManagersReversed) {
-            manager.provisionDiscard();
+        try {
+            runProvisioningPhase("discard", manager -> manager.provisionDiscard(), true);
+        } catch (ManagerPhaseFailure e) {
+            throw toUncheckedException(e);
+        }
+    }
+
+    private void runProvisioningPhase(String phaseName, ManagerPhase phase, boolean isReversed) throws ManagerPhaseFailure {
+        Map<IManager, Duration> timings = new LinkedHashMap<>();
+        try {
+            provisioningGraph.run(phase, isReversed, provisioningThreads, timings);
+        } finally {
+            synchronized (timings) {
+                for (Map.Entry<IManager, Duration> timing : timings.entrySet()) {
+                    provisioningTimings.put("provision." + phaseName + "." + timing.getKey().getClass().getName(), timing.getValue().toMillis());
+                }
+            }
+            saveProvisioningTimings();
+        }
+    }
+
+    /**
+     * Records how long each manager took to provision in the RAS, so slow managers can be spotted
+     */
+    private void saveProvisioningTimings() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# How long each manager took in each provisioning phase, in milliseconds\n\n");
+        for (Map.Entry<String, Long> timing : provisioningTimings.entrySet()) {
+            sb.append(timing.getKey()).append("=").append(timing.getValue()).append("\n");
+        }
+
+        try {
+            Path timingsFile = framework.getResultArchiveStore().getStoredArtifactsRoot().resolve("framework").resolve("manager_provisioning.properties");
+            Files.write(timingsFile, sb.toString().getBytes(StandardCharsets.UTF_8), new SetContentType(ResultArchiveStoreContentType.TEXT));
+        } catch (Exception e) {
+            logger.warn("Unable to save the manager provisioning timings", e);
+        }
+    }
+
+    private FrameworkException toFrameworkException(String message, ManagerPhaseFailure failure) {
+        // Unchecked problems from managers are passed on as they are, as they were before managers could run concurrently
+        Throwable cause = failure.getCause();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        String managerName = (failure.getManager() == null) ? "unknown" : failure.getManager().getClass().getName();
+        return new FrameworkException(message + managerName, cause);
+    }
+
+    private RuntimeException toUncheckedException(ManagerPhaseFailure failure) {
+        Throwable cause = failure.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        } else if (cause instanceof Error) {
+            throw (Error) cause;
         }
+        return new IllegalStateException(cause);
     }
 
     @Override
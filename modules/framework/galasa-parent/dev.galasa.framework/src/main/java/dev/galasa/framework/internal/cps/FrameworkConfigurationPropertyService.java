@@ -5,6 +5,8 @@
  */
 package dev.galasa.framework.internal.cps;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -69,10 +71,9 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
      * @param infixes - the hierachal structure above, supplied in order, e.g
      *                "PLEXMA", "MVMA"
      * @return - string value for the key requested
-     * @throws ConfigurationPropertyStoreException - throws the caught exception
-     *                                             from the
-     *                                             getValueAndMakeAccessRecord()
-     *                                             method.
+     * @throws ConfigurationPropertyStoreException - throws an exception if the
+     *                                             registered CPS service is not
+     *                                             available.
      */
     public String getProperty(@NotNull String prefix, @NotNull String suffix, String... infixes)
             throws ConfigurationPropertyStoreException {
@@ -80,9 +81,22 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
             infixes = new String[0];
         }
         String[] keys = createOrderedKeyList(prefix, suffix, infixes);
+
+        // Only the keys tried before the first override can come from the CPS, so fetch
+        // all of those in one go rather than asking the store for each key in turn
+        int firstOverrideIndex = 0;
+        while (firstOverrideIndex < keys.length && overrides.getProperty(keys[firstOverrideIndex]) == null) {
+            firstOverrideIndex++;
+        }
+
+        Map<String, String> cpsValues = Collections.emptyMap();
+        if (firstOverrideIndex > 0) {
+            cpsValues = cpsStore.getProperties(Arrays.asList(keys).subList(0, firstOverrideIndex));
+        }
+
         String value = null;
         for (String key : keys) {
-            value = getValueAndMakeAccessRecord(key);
+            value = getValueAndMakeAccessRecord(key, cpsValues);
             if (value != null) {
                 return value.trim();
             }
@@ -192,12 +206,11 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
      * 
      * @param key - generated from the prefix, suffix and infixes provided to the
      *            getProprty().
+     * @param cpsValues - the values already fetched from the CPS store for the keys
+     *            being searched
      * @return - String value returned from either CPS store or the overrides.
-     * @throws ConfigurationPropertyStoreException - throws an exception is the
-     *                                             registered CPS service is not
-     *                                             available.
      */
-    private String getValueAndMakeAccessRecord(String key) throws ConfigurationPropertyStoreException {
+    private String getValueAndMakeAccessRecord(String key, Map<String, String> cpsValues) {
         String value;
 
         value = overrides.getProperty(key);
@@ -206,7 +219,7 @@ public class FrameworkConfigurationPropertyService implements IConfigurationProp
             return value;
         }
 
-        value = cpsStore.getProperty(key);
+        value = cpsValues.get(key);
         if (value != null) {
             recordPropertyAccessed(key,value,"cps");
             return value;
@@ -0,0 +1,76 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.cts;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer which removes confidential text from everything written to it before passing it on,
+ * so large outputs can be scrubbed without holding all of the text in memory.
+ *
+ * The last few characters written may be held back until more text arrives, in case they are the
+ * start of a confidential text. They are written out when the writer is closed.
+ */
+public class ConfidentialTextFilterWriter extends Writer {
+
+    private final Writer out;
+    private final ConfidentialTextScrubber.Scrubbing scrubbing;
+    private boolean isClosed = false;
+
+    public ConfidentialTextFilterWriter(Writer out, ConfidentialTextScrubber scrubber) {
+        this.out = out;
+        this.scrubbing = scrubber.startScrubbing(out);
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        checkNotClosed();
+        scrubbing.append((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        checkNotClosed();
+        for (int i = off; i < off + len; i++) {
+            scrubbing.append(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        checkNotClosed();
+        scrubbing.append(str, off, off + len);
+    }
+
+    /**
+     * Flushes the text which is known not to be confidential. Text which might still turn out to
+     * be the start of a confidential text is held back until more is written or the writer is closed.
+     */
+    @Override
+    public void flush() throws IOException {
+        checkNotClosed();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!isClosed) {
+            isClosed = true;
+            try {
+                scrubbing.finish();
+            } finally {
+                out.close();
+            }
+        }
+    }
+
+    private void checkNotClosed() throws IOException {
+        if (isClosed) {
+            throw new IOException("Writer has been closed");
+        }
+    }
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.cts;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * An Aho-Corasick automaton which finds every registered confidential text in a single pass
+ * over the input, no matter how many texts have been registered.
+ *
+ * Where registered texts overlap in the input, the one that starts first is replaced, and if
+ * several start at the same place the longest one is replaced.
+ *
+ * A scrubber is immutable once built, so it can be shared between threads without locking.
+ * Building one takes time in proportion to the total length of its texts, so a new scrubber is
+ * built for a set of texts rather than for each text as it is registered.
+ */
+public class ConfidentialTextScrubber {
+
+    private static final ConfidentialTextScrubber EMPTY = new ConfidentialTextScrubber(Collections.emptyList(), Collections.emptyList());
+
+    private final Node root = new Node();
+    private final int longestTextLength;
+
+    /**
+     * @param texts the texts to replace
+     * @param tags the tag to replace each text with, in the same order as the texts
+     */
+    public ConfidentialTextScrubber(List<String> texts, List<String> tags) {
+        int longest = 0;
+        for (int i = 0; i < texts.size(); i++) {
+            String text = texts.get(i);
+            if (!text.isEmpty()) {
+                addToTrie(text, tags.get(i));
+                longest = Math.max(longest, text.length());
+            }
+        }
+        this.longestTextLength = longest;
+
+        buildFailureLinks();
+    }
+
+    public static ConfidentialTextScrubber empty() {
+        return EMPTY;
+    }
+
+    public boolean isEmpty() {
+        return longestTextLength == 0;
+    }
+
+    /**
+     * Replaces every registered text found in the given text with its tag.
+     * @return the scrubbed text, or the same string if nothing needed to be replaced.
+     */
+    public String scrub(String text) {
+        if (text == null || isEmpty() || text.isEmpty()) {
+            return text;
+        }
+
+        StringBuilder scrubbedText = new StringBuilder(text.length());
+        Scrubbing scrubbing = startScrubbing(scrubbedText);
+        try {
+            scrubbing.append(text, 0, text.length());
+            scrubbing.finish();
+        } catch (IOException e) {
+            // A StringBuilder never throws an IOException
+            throw new UncheckedIOException(e);
+        }
+
+        String result = text;
+        if (scrubbing.getReplacementCount() > 0) {
+            result = scrubbedText.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Starts scrubbing a stream of text. Characters are passed on to the output as soon as
+     * they are known not to be part of a registered text, so at most the length of the longest
+     * registered text is held back at any time.
+     */
+    public Scrubbing startScrubbing(Appendable output) {
+        return new Scrubbing(output);
+    }
+
+    private void addToTrie(String text, String tag) {
+        Node node = root;
+        for (int i = 0; i < text.length(); i++) {
+            node = node.children.computeIfAbsent(text.charAt(i), c -> new Node());
+        }
+        node.textLength = text.length();
+        node.tag = tag;
+    }
+
+    private void buildFailureLinks() {
+        Queue<Node> nodesToVisit = new ArrayDeque<>();
+        for (Node child : root.children.values()) {
+            child.failure = root;
+            nodesToVisit.add(child);
+        }
+
+        while (!nodesToVisit.isEmpty()) {
+            Node node = nodesToVisit.poll();
+            for (Map.Entry<Character, Node> entry : node.children.entrySet()) {
+                char c = entry.getKey();
+                Node child = entry.getValue();
+
+                Node failure = node.failure;
+                while (failure != root && !failure.children.containsKey(c)) {
+                    failure = failure.failure;
+                }
+                Node failureTarget = failure.children.get(c);
+                child.failure = (failureTarget != null) ? failureTarget : root;
+
+                // The nearest node along the failure chain which ends a registered text
+                child.output = (child.failure.tag != null) ? child.failure : child.failure.output;
+
+                nodesToVisit.add(child);
+            }
+        }
+    }
+
+    private Node step(Node node, char c) {
+        Node next = node.children.get(c);
+        while (next == null && node != root) {
+            node = node.failure;
+            next = node.children.get(c);
+        }
+        return (next != null) ? next : root;
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private Node failure;
+        private Node output;
+        private int textLength;
+        private String tag;
+    }
+
+    private static class Match {
+        private final long start;
+        private final long end;
+        private final String tag;
+
+        Match(long start, long end, String tag) {
+            this.start = start;
+            this.end = end;
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * The state of one stream of text being scrubbed. Not thread-safe.
+     */
+    public class Scrubbing {
+        private final Appendable output;
+
+        // Characters which have been read but not yet written to the output.
+        // heldBackText[heldBackOffset] is the character at position heldBackStart in the stream.
+        private final StringBuilder heldBackText = new StringBuilder();
+        private int heldBackOffset = 0;
+        private long heldBackStart = 0;
+
+        private long position = 0;
+        private Node state = root;
+        private final List<Match> candidates = new ArrayList<>();
+        private long replacementCount = 0;
+
+        private Scrubbing(Appendable output) {
+            this.output = output;
+        }
+
+        public void append(CharSequence text, int start, int end) throws IOException {
+            for (int i = start; i < end; i++) {
+                append(text.charAt(i));
+            }
+        }
+
+        public void append(char c) throws IOException {
+            heldBackText.append(c);
+
+            long charPosition = position++;
+            state = step(state, c);
+
+            Node node = (state.tag != null) ? state : state.output;
+            while (node != null) {
+                long matchStart = charPosition - node.textLength + 1;
+                if (matchStart >= heldBackStart) {
+                    candidates.add(new Match(matchStart, charPosition, node.tag));
+                }
+                node = node.output;
+            }
+
+            // No match found from now on can start before this position
+            long earliestFutureMatchStart = position - longestTextLength + 1;
+            release(earliestFutureMatchStart);
+        }
+
+        /**
+         * Writes out everything still held back. No more text may be appended afterwards.
+         */
+        public void finish() throws IOException {
+            release(Long.MAX_VALUE);
+        }
+
+        public long getReplacementCount() {
+            return replacementCount;
+        }
+
+        private void release(long earliestFutureMatchStart) throws IOException {
+            Match match = findLeftmostLongestCandidate();
+            while (match != null && match.start < earliestFutureMatchStart) {
+                writeHeldBackTextBefore(match.start);
+                output.append(match.tag);
+                replacementCount++;
+                discardHeldBackTextBefore(match.end + 1);
+
+                removeCandidatesStartingBefore(heldBackStart);
+                match = findLeftmostLongestCandidate();
+            }
+
+            long releaseUpTo = earliestFutureMatchStart;
+            if (match != null) {
+                releaseUpTo = Math.min(releaseUpTo, match.start);
+            }
+            writeHeldBackTextBefore(releaseUpTo);
+        }
+
+        private Match findLeftmostLongestCandidate() {
+            Match best = null;
+            for (Match candidate : candidates) {
+                if (best == null || candidate.start < best.start
+                    || (candidate.start == best.start && candidate.end > best.end)) {
+                    best = candidate;
+                }
+            }
+            return best;
+        }
+
+        private void removeCandidatesStartingBefore(long position) {
+            Iterator<Match> iterator = candidates.iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().start < position) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void writeHeldBackTextBefore(long position) throws IOException {
+            int count = heldBackCountBefore(position);
+            if (count > 0) {
+                output.append(heldBackText, heldBackOffset, heldBackOffset + count);
+                skipHeldBackText(count);
+            }
+        }
+
+        private void discardHeldBackTextBefore(long position) {
+            skipHeldBackText(heldBackCountBefore(position));
+        }
+
+        private int heldBackCountBefore(long position) {
+            long heldBackEnd = heldBackStart + (heldBackText.length() - heldBackOffset);
+            return (int) (Math.min(position, heldBackEnd) - Math.min(position, heldBackStart));
+        }
+
+        private void skipHeldBackText(int count) {
+            heldBackOffset += count;
+            heldBackStart += count;
+
+            // Compact the buffer now and again rather than shifting it on every character
+            if (heldBackOffset == heldBackText.length()) {
+                heldBackText.setLength(0);
+                heldBackOffset = 0;
+            } else if (heldBackOffset > 4096 && heldBackOffset > heldBackText.length() / 2) {
+                heldBackText.delete(0, heldBackOffset);
+                heldBackOffset = 0;
+            }
+        }
+    }
+}
@@ -5,9 +5,9 @@
  */
 package dev.galasa.framework.internal.cts;
 
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -23,6 +23,13 @@ import dev.galasa.framework.spi.IConfidentialTextService;
  */
 public class FrameworkConfidentialTextService implements IConfidentialTextService {
     private List<ConfidentialText> confidentialTexts = new ArrayList<>();
+
+    private List<String> texts = new ArrayList<>();
+    private List<String> tags = new ArrayList<>();
+
+    // Built when it is next needed after texts have been registered, so registering several texts
+    // in a row only builds it once. Swapped in whole, so scrubbing only locks when it is null.
+    private volatile ConfidentialTextScrubber scrubber = ConfidentialTextScrubber.empty();
     private Log                    logger            = LogFactory.getLog(FrameworkConfidentialTextService.class);
 
     /**
@@ -34,7 +41,7 @@ public class FrameworkConfidentialTextService implements IConfidentialTextServic
      * @param text    - the word or phrase the manager wants obscuring.
      * @param comment - a comment explaining the conidential text.
      */
-    public void registerText(String text, String comment) {
+    public synchronized void registerText(String text, String comment) {
         String number = Integer.toString(confidentialTexts.size() + 1);
         StringBuilder builder = new StringBuilder();
         final String star = "*";
@@ -51,6 +58,9 @@ public class FrameworkConfidentialTextService implements IConfidentialTextServic
 
         ConfidentialText ct = new ConfidentialText(text, builder.toString(), comment);
         confidentialTexts.add(ct);
+        texts.add(ct.getText());
+        tags.add(ct.getTag());
+        scrubber = null;
 
         logger.info("Confidential text registered as '" + ct.replacementTag + "', with comment " + ct.getComment());
     }
@@ -62,13 +72,32 @@ public class FrameworkConfidentialTextService implements IConfidentialTextServic
      * @param text - the log or text that needs checking for confidential text.
      */
     public String removeConfidentialText(String text) {
+        return getScrubber().scrub(text);
+    }
 
-        for (ConfidentialText confidentials : confidentialTexts) {
-            text = text.replaceAll(Matcher.quoteReplacement(confidentials.getText()), confidentials.getTag());
-        }
-
-        return text;
+    /**
+     * This method wraps a writer so that any registered strings are removed from
+     * the text written to it. The writer must be closed to write out the end of
+     * the text.
+     * 
+     * @param output - the writer to pass the obscured text on to.
+     */
+    public Writer createConfidentialTextFilter(Writer output) {
+        return new ConfidentialTextFilterWriter(output, getScrubber());
+    }
 
+    private ConfidentialTextScrubber getScrubber() {
+        ConfidentialTextScrubber currentScrubber = scrubber;
+        if (currentScrubber == null) {
+            synchronized (this) {
+                currentScrubber = scrubber;
+                if (currentScrubber == null) {
+                    currentScrubber = new ConfidentialTextScrubber(texts, tags);
+                    scrubber = currentScrubber;
+                }
+            }
+        }
+        return currentScrubber;
     }
 
     /**
@@ -8,21 +8,17 @@ package dev.galasa.framework.internal.ras.directory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Base64;
-import java.util.Base64.Encoder;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.function.Consumer;
-import java.util.stream.Stream;
 
 import javax.validation.constraints.NotNull;
 
-import org.apache.commons.logging.Log;
-import org.apache.commons.logging.LogFactory;
-
 import dev.galasa.framework.spi.IResultArchiveStoreDirectoryService;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
@@ -37,18 +33,30 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
     public final static String ID_PREFIX = "local-";
 
+    private static final String DEFAULT_SORT_FIELD = "queued";
+
     private final Path baseDirectory;
     private final GalasaGson gson;
+    private final DirectoryRASRunIndex runIndex;
 
     protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson) {
+        this(baseDirectory, gson, (baseDirectory == null) ? null : new DirectoryRASRunIndex(baseDirectory, gson));
+    }
+
+    protected DirectoryRASDirectoryService(@NotNull Path baseDirectory, GalasaGson gson, DirectoryRASRunIndex runIndex) {
         this.baseDirectory = baseDirectory;
         this.gson = gson;
+        this.runIndex = runIndex;
     }
 
     @Override
     public @NotNull List<IRunResult> getRuns(@NotNull IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException{
+        return new ArrayList<>(getMatchingRuns(searchCriteria));
+    }
+
+    private List<DirectoryRASRunResult> getMatchingRuns(IRasSearchCriteria... searchCriteria) throws ResultArchiveStoreException {
 
-        ArrayList<IRunResult> runs = new ArrayList<>();
+        ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
 
         List<DirectoryRASRunResult> allRuns = getAllRuns();
 
@@ -56,8 +64,9 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for(DirectoryRASRunResult run : allRuns) {
             matched = true;
+            TestStructure summary = run.getRunSummary();
             for(IRasSearchCriteria criteria : searchCriteria) {
-                if(!criteria.criteriaMatched(run.getTestStructure())) {
+                if(!criteria.criteriaMatched(summary)) {
                     matched = false;
                     break;
                 }
@@ -77,17 +86,150 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (runName.equals(run.getTestStructure().getRunName())) {
+            if (runName.equals(run.getRunSummary().getRunName())) {
                 matchingRuns.add(run);
             }
         }
         return matchingRuns;
     }
 
+    /**
+     * Gets a page of the matching runs, sorted by the given field, or by queued time with the
+     * latest first if no sort is given. The page token is the position of the last run on the
+     * previous page in that order, so runs added since the previous page don't shift the next page.
+     */
     @Override
     public @NotNull RasRunResultPage getRunsPage(int maxResults, RasSortField primarySort, String pageToken, @NotNull IRasSearchCriteria... searchCriteria)
             throws ResultArchiveStoreException {
-        return new RasRunResultPage(getRuns(searchCriteria));
+
+        String sortFieldName = DEFAULT_SORT_FIELD;
+        boolean isAscending = false;
+        if (primarySort != null && primarySort.getFieldName() != null) {
+            sortFieldName = primarySort.getFieldName();
+            isAscending = !"desc".equalsIgnoreCase(primarySort.getSortDirection())
+                && !"descending".equalsIgnoreCase(primarySort.getSortDirection());
+        }
+
+        List<SortableRun> sortedRuns = new ArrayList<>();
+        for (DirectoryRASRunResult run : getMatchingRuns(searchCriteria)) {
+            sortedRuns.add(new SortableRun(getSortKey(run.getRunSummary(), sortFieldName), run.getRunId(), run));
+        }
+
+        Comparator<SortableRun> comparator = SortableRun.ASCENDING_ORDER;
+        if (!isAscending) {
+            comparator = comparator.reversed();
+        }
+        sortedRuns.sort(comparator);
+
+        int startIndex = 0;
+        SortableRun previousRun = decodePageToken(pageToken);
+        if (previousRun != null) {
+            int foundIndex = Collections.binarySearch(sortedRuns, previousRun, comparator);
+            startIndex = (foundIndex >= 0) ? foundIndex + 1 : -(foundIndex + 1);
+        }
+
+        int endIndex = sortedRuns.size();
+        if (maxResults > 0) {
+            endIndex = Math.min(startIndex + maxResults, sortedRuns.size());
+        }
+
+        List<IRunResult> pageRuns = new ArrayList<>();
+        for (SortableRun sortableRun : sortedRuns.subList(startIndex, endIndex)) {
+            pageRuns.add(sortableRun.run);
+        }
+
+        String nextPageToken = null;
+        if (endIndex < sortedRuns.size() && endIndex > startIndex) {
+            nextPageToken = encodePageToken(sortedRuns.get(endIndex - 1));
+        }
+
+        return new RasRunResultPage(pageRuns, nextPageToken);
+    }
+
+    private static class SortableRun {
+
+        private static final Comparator<SortableRun> ASCENDING_ORDER = Comparator
+            .comparing((SortableRun sortableRun) -> sortableRun.sortKey, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(sortableRun -> sortableRun.runId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+        private final String sortKey;
+        private final String runId;
+        private final transient DirectoryRASRunResult run;
+
+        private SortableRun(String sortKey, String runId, DirectoryRASRunResult run) {
+            this.sortKey = sortKey;
+            this.runId = runId;
+            this.run = run;
+        }
+    }
+
+    private String getSortKey(TestStructure summary, String sortFieldName) {
+        String sortKey;
+        switch (sortFieldName.toLowerCase()) {
+            case "endtime":
+            case "end":
+                sortKey = getTimeSortKey(summary.getEndTime());
+                break;
+            case "starttime":
+            case "start":
+                sortKey = getTimeSortKey(summary.getStartTime());
+                break;
+            case "testname":
+                sortKey = summary.getTestName();
+                break;
+            case "testshortname":
+                sortKey = summary.getTestShortName();
+                break;
+            case "runname":
+                sortKey = summary.getRunName();
+                break;
+            case "bundle":
+                sortKey = summary.getBundle();
+                break;
+            case "requestor":
+                sortKey = summary.getRequestor();
+                break;
+            case "result":
+                sortKey = summary.getResult();
+                break;
+            case "status":
+                sortKey = summary.getStatus();
+                break;
+            case "group":
+                sortKey = summary.getGroup();
+                break;
+            default:
+                sortKey = getTimeSortKey(summary.getQueued());
+                break;
+        }
+        return sortKey;
+    }
+
+    // Pads times so that they sort correctly as strings
+    private String getTimeSortKey(Instant time) {
+        String sortKey = null;
+        if (time != null) {
+            sortKey = String.format("%020d%09d", time.getEpochSecond(), time.getNano());
+        }
+        return sortKey;
+    }
+
+    private String encodePageToken(SortableRun lastRun) {
+        String json = gson.toJson(lastRun);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private SortableRun decodePageToken(String pageToken) throws ResultArchiveStoreException {
+        SortableRun previousRun = null;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            try {
+                String json = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+                previousRun = gson.fromJson(json, SortableRun.class);
+            } catch (Exception e) {
+                throw new ResultArchiveStoreException("Invalid page token '" + pageToken + "'", e);
+            }
+        }
+        return previousRun;
     }
 
     @Override
@@ -107,7 +249,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getRunSummary();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     requestors.add(testStructure.getRequestor());
                 }
@@ -125,7 +267,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result != null) {
 
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getRunSummary();
                 if(testStructure != null && testStructure.getTestName()!=null) {
                     key = testStructure.getBundle()+"/"+testStructure.getTestName();
                     if(!tests.containsKey(key)){
@@ -144,7 +286,7 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         for (DirectoryRASRunResult result : getAllRuns()) {
             if(result!=null) {
-                TestStructure testStructure = result.getTestStructure();
+                TestStructure testStructure = result.getRunSummary();
                 if(testStructure != null  ) {
                     if(testStructure.getResult()==null) {
                         results.add("UNKNOWN");
@@ -159,13 +301,19 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
         return new ArrayList<>(results);
     }
 
+    /**
+     * @return every run in the RAS directory, from the run index. The test structure of each run
+     * is only read if it is asked for.
+     */
     protected @NotNull List<DirectoryRASRunResult> getAllRuns() throws ResultArchiveStoreException {
 
         try {
             ArrayList<DirectoryRASRunResult> runs = new ArrayList<>();
 
-            try (Stream<Path> stream = Files.list(Paths.get(baseDirectory.toUri()))) {
-                stream.forEach(new ConsumeRuns(baseDirectory, runs, gson));
+            for (DirectoryRASRunIndex.IndexedRun indexedRun : runIndex.getRuns()) {
+                String directoryName = indexedRun.getDirectoryName();
+                runs.add(new DirectoryRASRunResult(baseDirectory.resolve(directoryName), gson,
+                    DirectoryRASRunIndex.getRunId(directoryName), indexedRun.getSummary()));
             }
 
             return runs;
@@ -176,44 +324,6 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
     }
 
-    private static class ConsumeRuns implements Consumer<Path> {
-
-        private final Path                        base;
-        private final List<DirectoryRASRunResult> results;
-        private final GalasaGson                        gson;
-        private final Encoder                     encoder;
-
-        private final Log                  logger = LogFactory.getLog(ConsumeRuns.class);
-
-        public ConsumeRuns(Path base, List<DirectoryRASRunResult> results, GalasaGson gson) {
-            this.base    = base;
-            this.results = results;
-            this.gson    = gson;
-            this.encoder = Base64.getEncoder();
-        }
-
-        @Override
-        public void accept(Path path) {
-            if (!Files.isDirectory(path)) {
-                return;
-            }
-
-            Path structureFile = path.resolve("structure.json");
-            if (Files.exists(structureFile)) {
-                try {
-                    Path relativePath = base.relativize(path);
-                    String id = ID_PREFIX + this.encoder.encodeToString(relativePath.toString().getBytes(StandardCharsets.UTF_8));
-
-                    results.add(new DirectoryRASRunResult(path, gson, id));
-                } catch (Throwable t) {
-                    logger.trace("Unable to create a run result from " + structureFile.toString());
-                }
-            }
-
-        }
-
-    }
-
     @Override
     public IRunResult getRunById(@NotNull String runId) throws ResultArchiveStoreException {
         if (!runId.startsWith(ID_PREFIX)) {
@@ -249,11 +359,11 @@ public class DirectoryRASDirectoryService implements IResultArchiveStoreDirector
 
         List<IRunResult> matchingRuns = new ArrayList<>();
         for (DirectoryRASRunResult run : allRuns) {
-            if (groupName.equals(run.getTestStructure().getGroup())) {
+            if (groupName.equals(run.getRunSummary().getGroup())) {
                 matchingRuns.add(run);
             }
         }
         return matchingRuns;
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.validation.constraints.NotNull;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.framework.spi.utils.GalasaGsonBuilder;
+
+/**
+ * A persistent index of the runs in a local directory RAS, so that queries don't have to
+ * read the structure.json of every run.
+ *
+ * The index is an append-only file in the base RAS directory, holding one line per update
+ * of a run's test structure, with only the fields that runs are searched and sorted by. The
+ * latest line for a run wins. Each query reads just the lines appended since the last query.
+ * Run directories are only scanned again when runs have been added to or removed from the RAS
+ * directory, which catches runs written without updating the index. The file is rewritten
+ * without superseded lines once they outnumber the runs in the index.
+ *
+ * Several processes can share a RAS directory, so the index file is locked while it is read
+ * or written.
+ */
+public class DirectoryRASRunIndex {
+
+    public static final String INDEX_FILE_NAME = ".ras-runs.index";
+
+    private static final String STRUCTURE_FILE_NAME = "structure.json";
+
+    // Compact once this many lines are superseded, so small indexes are not rewritten too often
+    private static final int MIN_SUPERSEDED_LINES_BEFORE_COMPACTING = 1000;
+
+    // File locks are held by the whole JVM, so threads in this JVM also need to take turns
+    private static final Map<Path, Object> jvmLocks = new ConcurrentHashMap<>();
+
+    /**
+     * A line in the index file. The first line of the file only holds the generation of the
+     * file, which changes whenever the file is compacted.
+     */
+    private static class IndexRecord {
+        private String        generation;
+        private String        directory;
+        private long          modified;
+        private TestStructure structure;
+    }
+
+    /**
+     * A run in the index.
+     */
+    public static class IndexedRun {
+        private final String        directoryName;
+        private final long          modified;
+        private final TestStructure summary;
+
+        private IndexedRun(String directoryName, long modified, TestStructure summary) {
+            this.directoryName = directoryName;
+            this.modified = modified;
+            this.summary = summary;
+        }
+
+        /**
+         * @return the name of the run directory, relative to the base RAS directory
+         */
+        public String getDirectoryName() {
+            return directoryName;
+        }
+
+        /**
+         * @return the fields of the run's test structure that runs are searched and sorted by
+         */
+        public TestStructure getSummary() {
+            return summary;
+        }
+    }
+
+    private final Log        logger = LogFactory.getLog(getClass());
+
+    private final Path       baseDirectory;
+    private final Path       indexFile;
+    private final Object     jvmLock;
+    private final GalasaGson structureGson;
+    private final Gson       indexGson = new GalasaGsonBuilder(false).getGson();
+
+    private final Map<String, IndexedRun> runs = new HashMap<>();
+
+    private boolean  isIndexRead = false;
+    private String   generation;
+    private long     indexReadOffset = 0;
+    private long     indexLineCount = 0;
+    private FileTime baseDirectoryScannedTime;
+
+    public DirectoryRASRunIndex(@NotNull Path baseDirectory, GalasaGson structureGson) {
+        this.baseDirectory = baseDirectory;
+        this.indexFile = baseDirectory.resolve(INDEX_FILE_NAME);
+        this.jvmLock = jvmLocks.computeIfAbsent(indexFile.toAbsolutePath().normalize(), k -> new Object());
+        this.structureGson = structureGson;
+    }
+
+    /**
+     * Brings the index up to date and returns every run in it.
+     */
+    public synchronized @NotNull List<IndexedRun> getRuns() throws ResultArchiveStoreException {
+        try {
+            synchronized (jvmLock) {
+                readNewIndexLines();
+                scanRunDirectoriesIfChanged();
+                compactIfNeeded();
+            }
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Unable to read the RAS run index " + indexFile.toString(), e);
+        }
+        return new ArrayList<>(runs.values());
+    }
+
+    /**
+     * Records the latest test structure of a run, which has just been written to its run directory.
+     */
+    public void recordRun(@NotNull Path runDirectory, @NotNull TestStructure testStructure) throws ResultArchiveStoreException {
+        try {
+            IndexRecord record = createRecord(runDirectory, testStructure);
+            synchronized (jvmLock) {
+                appendRecords(List.of(record));
+            }
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Unable to update the RAS run index " + indexFile.toString(), e);
+        }
+    }
+
+    private IndexRecord createRecord(Path runDirectory, TestStructure testStructure) throws IOException {
+        IndexRecord record = new IndexRecord();
+        record.directory = baseDirectory.relativize(runDirectory).toString();
+        record.modified = Files.getLastModifiedTime(runDirectory.resolve(STRUCTURE_FILE_NAME)).toMillis();
+        record.structure = summarise(testStructure);
+        return record;
+    }
+
+    private void readNewIndexLines() throws IOException {
+        if (!Files.exists(indexFile)) {
+            resetIndex();
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ);
+             FileLock lock = channel.lock(0, Long.MAX_VALUE, true)) {
+
+            // Start again if the file was compacted since it was last read
+            String firstLine = readFirstLine(channel);
+            IndexRecord header = parseRecord(firstLine);
+            String fileGeneration = (header == null) ? null : header.generation;
+            if (!isIndexRead || !Objects.equals(generation, fileGeneration) || channel.size() < indexReadOffset) {
+                resetIndex();
+                generation = fileGeneration;
+                isIndexRead = true;
+            }
+
+            channel.position(indexReadOffset);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long lineStart = indexReadOffset;
+            long position = indexReadOffset;
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    position++;
+                    if (b == '\n') {
+                        applyLine(new String(line.toByteArray(), StandardCharsets.UTF_8));
+                        line.reset();
+                        lineStart = position;
+                    } else {
+                        line.write(b);
+                    }
+                }
+                buffer.clear();
+            }
+
+            // A line without a newline is still being written, so read it next time
+            indexReadOffset = lineStart;
+        }
+    }
+
+    private String readFirstLine(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        channel.read(buffer, 0);
+        buffer.flip();
+        String start = StandardCharsets.UTF_8.decode(buffer).toString();
+        int newline = start.indexOf('\n');
+        return (newline < 0) ? start : start.substring(0, newline);
+    }
+
+    private void applyLine(String line) {
+        indexLineCount++;
+        IndexRecord record = parseRecord(line);
+        if (record != null && record.directory != null && record.structure != null) {
+            runs.put(record.directory, new IndexedRun(record.directory, record.modified, record.structure));
+        }
+    }
+
+    private IndexRecord parseRecord(String line) {
+        IndexRecord record = null;
+        if (!line.isBlank()) {
+            try {
+                record = indexGson.fromJson(line, IndexRecord.class);
+            } catch (JsonParseException e) {
+                logger.trace("Ignoring an unreadable line in the RAS run index " + indexFile.toString());
+            }
+        }
+        return record;
+    }
+
+    private void resetIndex() {
+        runs.clear();
+        isIndexRead = false;
+        generation = null;
+        indexReadOffset = 0;
+        indexLineCount = 0;
+        baseDirectoryScannedTime = null;
+    }
+
+    private void scanRunDirectoriesIfChanged() throws IOException {
+        FileTime baseDirectoryTime = Files.getLastModifiedTime(baseDirectory);
+        if (baseDirectoryTime.equals(baseDirectoryScannedTime)) {
+            return;
+        }
+
+        Set<String> foundDirectories = new HashSet<>();
+        List<IndexRecord> newRecords = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(baseDirectory)) {
+            stream.filter(Files::isDirectory).forEach(runDirectory -> {
+                Path structureFile = runDirectory.resolve(STRUCTURE_FILE_NAME);
+                String directoryName = baseDirectory.relativize(runDirectory).toString();
+                try {
+                    long modified = Files.getLastModifiedTime(structureFile).toMillis();
+                    foundDirectories.add(directoryName);
+
+                    IndexedRun indexedRun = runs.get(directoryName);
+                    if (indexedRun == null || indexedRun.modified != modified) {
+                        newRecords.add(createRecord(runDirectory, readTestStructure(structureFile)));
+                    }
+                } catch (Exception e) {
+                    logger.trace("Unable to index the run in " + runDirectory.toString());
+                }
+            });
+        }
+
+        runs.keySet().retainAll(foundDirectories);
+        for (IndexRecord record : newRecords) {
+            runs.put(record.directory, new IndexedRun(record.directory, record.modified, record.structure));
+        }
+        if (!newRecords.isEmpty()) {
+            appendRecords(newRecords);
+        }
+
+        baseDirectoryScannedTime = baseDirectoryTime;
+    }
+
+    private TestStructure readTestStructure(Path structureFile) throws IOException {
+        return structureGson.fromJson(new String(Files.readAllBytes(structureFile), StandardCharsets.UTF_8), TestStructure.class);
+    }
+
+    private void appendRecords(List<IndexRecord> records) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (IndexRecord record : records) {
+            lines.append(indexGson.toJson(record)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+             FileLock lock = channel.lock()) {
+            if (channel.size() == 0) {
+                lines.insert(0, createHeaderLine());
+            }
+            writeFully(channel, lines.toString());
+        }
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long supersededLines = indexLineCount - runs.size() - 1;
+        if (supersededLines < MIN_SUPERSEDED_LINES_BEFORE_COMPACTING || supersededLines < runs.size()) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+             FileLock lock = channel.lock()) {
+
+            // Another process may have added lines since they were read, so don't lose them
+            if (channel.size() != indexReadOffset) {
+                return;
+            }
+
+            String header = createHeaderLine();
+            StringBuilder content = new StringBuilder(header);
+            for (IndexedRun run : runs.values()) {
+                IndexRecord record = new IndexRecord();
+                record.directory = run.directoryName;
+                record.modified = run.modified;
+                record.structure = run.summary;
+                content.append(indexGson.toJson(record)).append('\n');
+            }
+
+            // Rewrite the file in place, so that processes appending to it keep writing to the same file
+            channel.truncate(0);
+            channel.position(0);
+            writeFully(channel, content.toString());
+
+            generation = parseRecord(header.trim()).generation;
+            indexReadOffset = channel.size();
+            indexLineCount = runs.size() + 1;
+        }
+    }
+
+    private String createHeaderLine() {
+        IndexRecord header = new IndexRecord();
+        header.generation = UUID.randomUUID().toString();
+        return indexGson.toJson(header) + "\n";
+    }
+
+    private void writeFully(FileChannel channel, String content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(content.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Copies only the fields of a test structure that runs are searched and sorted by, leaving
+     * out the methods, which make up most of a test structure.
+     */
+    private static TestStructure summarise(TestStructure testStructure) {
+        TestStructure summary = new TestStructure();
+        summary.setRunName(testStructure.getRunName());
+        summary.setBundle(testStructure.getBundle());
+        summary.setTestName(testStructure.getTestName());
+        summary.setTestShortName(testStructure.getTestShortName());
+        summary.setRequestor(testStructure.getRequestor());
+        summary.setStatus(testStructure.getStatus());
+        summary.setResult(testStructure.getResult());
+        summary.setGroup(testStructure.getGroup());
+        summary.setSubmissionId(testStructure.getSubmissionId());
+        summary.setQueued(testStructure.getQueued());
+        summary.setStartTime(testStructure.getStartTime());
+        summary.setEndTime(testStructure.getEndTime());
+        for (String tag : testStructure.getTags()) {
+            summary.addTag(tag);
+        }
+        return summary;
+    }
+
+    /**
+     * @return the ID of the run in the given run directory
+     */
+    public static String getRunId(String directoryName) {
+        return DirectoryRASDirectoryService.ID_PREFIX + Base64.getEncoder().encodeToString(directoryName.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -7,54 +7,103 @@ package dev.galasa.framework.internal.ras.directory;
 
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
 import com.google.gson.JsonIOException;
 import com.google.gson.JsonSyntaxException;
 
+import dev.galasa.framework.spi.IRunLogReader;
 import dev.galasa.framework.spi.IRunResult;
 import dev.galasa.framework.spi.ResultArchiveStoreException;
+import dev.galasa.framework.spi.ras.RunLogLineReader;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 import dev.galasa.framework.spi.utils.GalasaGson;
 
 public class DirectoryRASRunResult implements IRunResult {
 
     private final Path                           runDirectory;
-    private final TestStructure                  testStructure;
-    private final DirectoryRASFileSystemProvider fileSystemProvider;
+    private final GalasaGson                     gson;
     private final String                         id;
+    private final TestStructure                  summary;
+
+    private TestStructure                        testStructure;
+    private DirectoryRASFileSystemProvider       fileSystemProvider;
 
     protected DirectoryRASRunResult(Path runDirectory, GalasaGson gson, String id)
             throws JsonSyntaxException, JsonIOException, IOException {
         this.runDirectory = runDirectory;
+        this.gson         = gson;
         this.id           = id;
+        this.summary      = null;
 
-        Path structureFile = this.runDirectory.resolve("structure.json");
-        
-        try (InputStreamReader in = new InputStreamReader(Files.newInputStream(structureFile))){
-           this.testStructure = gson.fromJson(in, TestStructure.class);
-        }
-    
-
+        this.testStructure = readTestStructure();
         this.fileSystemProvider = new DirectoryRASFileSystemProvider(this.runDirectory);
     }
+
+    /**
+     * Creates a run result from the run index, which only reads the run's test structure
+     * and artifacts if they are asked for.
+     */
+    protected DirectoryRASRunResult(Path runDirectory, GalasaGson gson, String id, TestStructure summary) {
+        this.runDirectory = runDirectory;
+        this.gson         = gson;
+        this.id           = id;
+        this.summary      = summary;
+    }
     
     //for testing purposes
     protected DirectoryRASRunResult() {
     	this.testStructure = null;
     	this.runDirectory = null;
+    	this.gson = null;
     	this.fileSystemProvider = null;
     	this.id                 = null;
+    	this.summary            = null;
+    }
+
+    private TestStructure readTestStructure() throws IOException {
+        Path structureFile = this.runDirectory.resolve("structure.json");
+        
+        try (InputStreamReader in = new InputStreamReader(Files.newInputStream(structureFile))){
+           return gson.fromJson(in, TestStructure.class);
+        }
+    }
+
+    /**
+     * @return the fields of the test structure that runs are searched and sorted by, which is
+     * the whole test structure if this run did not come from the run index
+     */
+    public TestStructure getRunSummary() throws ResultArchiveStoreException {
+        if (this.summary != null) {
+            return this.summary;
+        }
+        return getTestStructure();
     }
 
     @Override
-    public TestStructure getTestStructure() throws ResultArchiveStoreException {
+    public synchronized TestStructure getTestStructure() throws ResultArchiveStoreException {
+        if (this.testStructure == null && this.runDirectory != null) {
+            try {
+                this.testStructure = readTestStructure();
+            } catch (Exception e) {
+                throw new ResultArchiveStoreException("Unable to read the test structure of run " + this.id, e);
+            }
+        }
         return this.testStructure;
     }
 
     @Override
-    public Path getArtifactsRoot() throws ResultArchiveStoreException {
+    public synchronized Path getArtifactsRoot() throws ResultArchiveStoreException {
+        if (this.fileSystemProvider == null) {
+            try {
+                this.fileSystemProvider = new DirectoryRASFileSystemProvider(this.runDirectory);
+            } catch (IOException e) {
+                throw new ResultArchiveStoreException("Unable to read the artifacts of run " + this.id, e);
+            }
+        }
         return this.fileSystemProvider.getActualFileSystem().getPath("/");
     }
 
@@ -73,6 +122,22 @@ public class DirectoryRASRunResult implements IRunResult {
         return "";
     }
 
+    @Override
+    public IRunLogReader getLogReader() throws ResultArchiveStoreException {
+
+        Path runLog = runDirectory.resolve("run.log");
+        if (Files.exists(runLog)) {
+            try {
+                // Unlike Files.newBufferedReader, this replaces any bytes that aren't valid UTF-8 rather than failing part way through
+                return new RunLogLineReader(new InputStreamReader(Files.newInputStream(runLog), StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                throw new ResultArchiveStoreException("Unable to read the run log at " + runLog.toString(), e);
+            }
+        }
+
+        return new RunLogLineReader(new StringReader(""));
+    }
+
     public void discard() throws ResultArchiveStoreException {
         //TODO
     }
@@ -20,6 +20,8 @@ import java.util.Objects;
 
 import javax.validation.constraints.NotNull;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.osgi.service.component.annotations.Component;
 
 import dev.galasa.framework.spi.IFramework;
@@ -40,6 +42,8 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     private static final Charset           UTF8     = Charset.forName("utf-8");
 
+    private final Log                      logger   = LogFactory.getLog(getClass());
+
     private final IFramework               framework;                           // NOSONAR
     private final URI                      rasUri;
     private final Path                     baseDirectory;
@@ -54,6 +58,8 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
 
     private DirectoryRASFileSystemProvider provider;
 
+    private final DirectoryRASRunIndex     runIndex;
+
     private long                           runLogLineCount;
 
     public DirectoryResultArchiveStoreService(IFramework framework, URI rasUri) throws ResultArchiveStoreException {
@@ -68,6 +74,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
             throw new ResultArchiveStoreException(
                     "Unable to create the RAS base directory '" + this.baseDirectory + "'", e);
         }
+        this.runIndex = new DirectoryRASRunIndex(this.baseDirectory, gson);
 
         // *** Get the runname to create the directory
         final String runName = this.framework.getTestRunName();
@@ -207,6 +214,13 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
         } catch (final Exception e) {
             throw new ResultArchiveStoreException("Unable to write the test structure", e);
         }
+
+        // The run index is only there to speed up queries, so the run carries on if it can't be updated
+        try {
+            this.runIndex.recordRun(this.runDirectory, testStructure);
+        } catch (final ResultArchiveStoreException e) {
+            logger.warn("Unable to update the RAS run index for run directory " + this.runDirectory, e);
+        }
     }
 
     /*
@@ -235,7 +249,7 @@ public class DirectoryResultArchiveStoreService implements IResultArchiveStoreSe
     @Override
     public @NotNull List<IResultArchiveStoreDirectoryService> getDirectoryServices() {
         ArrayList<IResultArchiveStoreDirectoryService> dirs = new ArrayList<>(1);
-        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson));
+        dirs.add(new DirectoryRASDirectoryService(this.baseDirectory, gson, this.runIndex));
         return dirs;
     }
 
@@ -16,4 +16,6 @@ public interface CacheRBAC {
     boolean isActionPermitted(String loginId, String actionId) throws RBACException;
 
     void invalidateUser(String loginId) throws RBACException;
+
+    void shutdown() throws RBACException;
 }
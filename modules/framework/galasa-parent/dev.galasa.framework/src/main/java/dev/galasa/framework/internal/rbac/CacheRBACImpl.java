@@ -5,47 +5,107 @@
  */
 package dev.galasa.framework.internal.rbac;
 
+import java.time.Instant;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.IDynamicStatusStoreService;
+import dev.galasa.framework.spi.IDynamicStatusStoreWatcher;
 import dev.galasa.framework.spi.auth.AuthStoreException;
 import dev.galasa.framework.spi.auth.IAuthStoreService;
 import dev.galasa.framework.spi.auth.IUser;
 import dev.galasa.framework.spi.rbac.RBACException;
 import dev.galasa.framework.spi.rbac.RBACService;
 import dev.galasa.framework.spi.rbac.Role;
+import dev.galasa.framework.spi.utils.ITimeService;
+import dev.galasa.framework.spi.utils.SystemTimeService;
 
 import org.apache.commons.logging.*;
 
-public class CacheRBACImpl implements CacheRBAC {
+/**
+ * Caches the actions that each user is allowed to perform.
+ *
+ * Users' actions are shared between API servers in the DSS, and each server also keeps a near
+ * cache of them in memory, so that most permission checks don't need to go to the DSS. A
+ * server's near cache is kept in step with the DSS by watching the users' DSS properties, so
+ * a user's actions are dropped from every server as soon as they are changed or invalidated.
+ * In case watch events are missed, entries in the near cache are only used for a short time
+ * before being read from the DSS again. If the watch can't be set up, the near cache is not used.
+ */
+public class CacheRBACImpl implements CacheRBAC, IDynamicStatusStoreWatcher {
 
     // Only keep users-to-actions entries in the cache for 24 hours
     private static final long CACHED_ACTIONS_TIME_TO_LIVE_SECS = 24 * 60 * 60;
 
+    // Only use users-to-actions entries in the near cache for 60 seconds
+    private static final long NEAR_CACHE_TIME_TO_LIVE_SECS = 60;
+
     private static final String USER_PROPERTY_PREFIX = "user.";
     private static final String ACTIONS_PROPERTY_SUFFIX = ".actions";
 
+    private static class CachedUserActions {
+        private final Set<String> actionIds;
+        private final Instant expiresAt;
+
+        private CachedUserActions(Set<String> actionIds, Instant expiresAt) {
+            this.actionIds = actionIds;
+            this.expiresAt = expiresAt;
+        }
+    }
+
     private IDynamicStatusStoreService dssService;
     private IAuthStoreService authStoreService;
     private RBACService rbacService;
+    private ITimeService timeService;
     private final Log logger = LogFactory.getLog(getClass());
 
+    private final Map<String, CachedUserActions> nearCache = new ConcurrentHashMap<>();
+    private volatile boolean isNearCacheEnabled = false;
+    private UUID nearCacheWatchId;
+
+    // Counts the invalidations seen, so that actions read from the DSS before an invalidation
+    // aren't put into the near cache after it
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final AtomicLong nearCacheHitCount = new AtomicLong();
+    private final AtomicLong nearCacheMissCount = new AtomicLong();
+
     public CacheRBACImpl(
         IDynamicStatusStoreService dssService,
         IAuthStoreService authStoreService,
         RBACService rbacService
+    ) {
+        this(dssService, authStoreService, rbacService, new SystemTimeService());
+    }
+
+    public CacheRBACImpl(
+        IDynamicStatusStoreService dssService,
+        IAuthStoreService authStoreService,
+        RBACService rbacService,
+        ITimeService timeService
     ) {
         this.dssService = dssService;
         this.authStoreService = authStoreService;
         this.rbacService = rbacService;
+        this.timeService = timeService;
+
+        try {
+            nearCacheWatchId = dssService.watchPrefix(this, USER_PROPERTY_PREFIX);
+            isNearCacheEnabled = true;
+        } catch (DynamicStatusStoreException e) {
+            logger.warn("Unable to watch the cached user actions in the DSS, user actions will not be cached in memory", e);
+        }
     }
 
     @Override
-    public synchronized void addUser(String loginId, Set<String> actionIds) throws RBACException {
+    public void addUser(String loginId, Set<String> actionIds) throws RBACException {
         try {
             String commaSeparatedActionIds = String.join(",", actionIds);
             String actionsKey = getUserActionsPropertyKey(loginId);
@@ -56,14 +116,83 @@ public class CacheRBACImpl implements CacheRBAC {
     }
 
     @Override
-    public synchronized boolean isActionPermitted(String loginId, String actionId) throws RBACException {
+    public boolean isActionPermitted(String loginId, String actionId) throws RBACException {
+        Set<String> userActions = null;
+
+        CachedUserActions cachedUserActions = nearCache.get(loginId);
+        if (cachedUserActions != null && isNearCacheEnabled && timeService.now().isBefore(cachedUserActions.expiresAt)) {
+            nearCacheHitCount.incrementAndGet();
+            userActions = cachedUserActions.actionIds;
+        } else {
+            nearCacheMissCount.incrementAndGet();
+            userActions = getUserActions(loginId);
+        }
+
+        // Check if the user is allowed to perform the given action
+        return userActions.contains(actionId);
+    }
 
-        boolean isActionPermitted = false;
+    @Override
+    public void invalidateUser(String loginId) throws RBACException {
+        try {
+            String userActionsKey = getUserActionsPropertyKey(loginId);
+            dssService.delete(userActionsKey);
+        } catch (DynamicStatusStoreException e) {
+            throw new RBACException("Failed to delete cached user actions", e);
+        } finally {
+            // Don't rely on the watch for this server, as the event may arrive after the next check
+            invalidateNearCache(loginId);
+        }
+    }
+
+    @Override
+    public synchronized void shutdown() throws RBACException {
+        // Without the watch the near cache can't be kept in step with the DSS, so stop using it
+        isNearCacheEnabled = false;
+        nearCache.clear();
+
+        if (nearCacheWatchId != null) {
+            try {
+                dssService.unwatch(nearCacheWatchId);
+                nearCacheWatchId = null;
+            } catch (DynamicStatusStoreException e) {
+                throw new RBACException("Failed to stop watching the cached user actions in the DSS", e);
+            }
+        }
+    }
+
+    @Override
+    public void propertyModified(String key, Event event, String oldValue, String newValue) {
+        // Any change to a user's actions in the DSS means this server's copy may be out of date
+        String loginId = getLoginIdFromPropertyKey(key);
+        if (loginId != null) {
+            invalidateNearCache(loginId);
+        } else {
+            invalidationCount.incrementAndGet();
+            nearCache.clear();
+        }
+    }
+
+    public long getNearCacheHitCount() {
+        return nearCacheHitCount.get();
+    }
+
+    public long getNearCacheMissCount() {
+        return nearCacheMissCount.get();
+    }
+
+    /**
+     * Gets the user's actions from the DSS, or from the auth store if they aren't in the DSS,
+     * and puts them into the near cache
+     */
+    private Set<String> getUserActions(String loginId) throws RBACException {
+        long invalidationCountBeforeRead = invalidationCount.get();
+        Set<String> userActions = new HashSet<>();
+        boolean isUserKnown = true;
         try {
             String userActionsKey = getUserActionsPropertyKey(loginId);
             String commaSeparatedUserActions = dssService.get(userActionsKey);
 
-            Set<String> userActions = new HashSet<>();
             if (commaSeparatedUserActions == null) {
                 // Cache miss, so get the user's actions from the auth store
                 IUser user = getUserFromAuthStore(loginId);
@@ -71,7 +200,7 @@ public class CacheRBACImpl implements CacheRBAC {
                     // The user record doesn't exist.
                     // So we know the user isn't permitted right now.
                     logger.info("User does not have a user record. Permission denied.");
-                    isActionPermitted = false;
+                    isUserKnown = false;
                 } else {
 
                     userActions = getUserActionsFromAuthStore(user);
@@ -82,26 +211,24 @@ public class CacheRBACImpl implements CacheRBAC {
             } else {
                 userActions = Set.of(commaSeparatedUserActions.split(","));
             }
-
-            // Check if the user is allowed to perform the given action
-            isActionPermitted = userActions.contains(actionId);
         } catch (DynamicStatusStoreException e) {
             throw new RBACException("Error occurred when accessing the DSS", e);
         }
-        return isActionPermitted;
-    }
 
-    @Override
-    public synchronized void invalidateUser(String loginId) throws RBACException {
-        try {
-            String userActionsKey = getUserActionsPropertyKey(loginId);
-            dssService.delete(userActionsKey);
-        } catch (DynamicStatusStoreException e) {
-            throw new RBACException("Failed to delete cached user actions", e);
+        // Users without a user record aren't cached, so they are allowed in as soon as their record is created
+        if (isNearCacheEnabled && isUserKnown && invalidationCount.get() == invalidationCountBeforeRead) {
+            Instant expiresAt = timeService.now().plusSeconds(NEAR_CACHE_TIME_TO_LIVE_SECS);
+            nearCache.put(loginId, new CachedUserActions(Set.copyOf(userActions), expiresAt));
         }
+        return userActions;
+    }
+
+    private void invalidateNearCache(String loginId) {
+        invalidationCount.incrementAndGet();
+        nearCache.remove(loginId);
     }
 
-    private synchronized IUser getUserFromAuthStore(String loginId) throws RBACException {
+    private IUser getUserFromAuthStore(String loginId) throws RBACException {
         IUser user = null;
         try {
             user = authStoreService.getUserByLoginId(loginId);
@@ -123,4 +250,20 @@ public class CacheRBACImpl implements CacheRBAC {
         // dss.rbac.user.<loginId>.actions = <comma-separated action IDs>
         return USER_PROPERTY_PREFIX + loginId + ACTIONS_PROPERTY_SUFFIX;
     }
+
+    /**
+     * @return the login ID from a users-to-actions DSS property key, or null if the key isn't one
+     */
+    private String getLoginIdFromPropertyKey(String key) {
+        String loginId = null;
+        if (key != null && key.endsWith(ACTIONS_PROPERTY_SUFFIX)) {
+            // Login IDs can contain '.' characters, so only remove the known start and end of the key
+            int loginIdStart = key.indexOf(USER_PROPERTY_PREFIX);
+            int loginIdEnd = key.length() - ACTIONS_PROPERTY_SUFFIX.length();
+            if (loginIdStart == 0 && loginIdEnd > USER_PROPERTY_PREFIX.length()) {
+                loginId = key.substring(USER_PROPERTY_PREFIX.length(), loginIdEnd);
+            }
+        }
+        return loginId;
+    }
 }
@@ -224,4 +224,9 @@ public class RBACServiceImpl implements RBACService {
     public void invalidateUser(String loginId) throws RBACException {
         userActionsCache.invalidateUser(loginId);
     }
+
+    @Override
+    public void shutdown() throws RBACException {
+        userActionsCache.shutdown();
+    }
 }
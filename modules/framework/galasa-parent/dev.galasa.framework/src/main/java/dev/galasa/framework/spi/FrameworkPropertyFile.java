@@ -17,13 +17,19 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Properties;
 import java.util.Set;
-import java.util.HashSet;
+import java.util.TreeMap;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
@@ -48,20 +54,31 @@ import dev.galasa.framework.spi.IFrameworkPropertyFileWatcher.Event;
  * and the watchng of values inside the properties.
  * </p>
  * 
+ * <p>
+ * Reads do not take any locks. The properties are held in an immutable sorted
+ * snapshot, which is replaced as a whole after every change, so readers always
+ * see a consistent set of properties and prefix lookups only visit the keys
+ * that match. Changes are made one property file at a time, so writes to
+ * different files, such as the CPS and DSS, do not wait for each other.
+ * </p>
  *  
  *
  */
 
 public class FrameworkPropertyFile implements FileAlterationListener {
-    private Properties             currentProperties = new Properties();
-    private HashMap<UUID, Watch>   watches           = new HashMap<>();
+    private volatile NavigableMap<String, String> currentProperties = Collections.emptyNavigableMap();
+    private Map<UUID, Watch>       watches           = new ConcurrentHashMap<>();
     private URI                    file;
     private File                   propertyFile;
     private String                 parent;
-    private FileAlterationObserver observer;
+    private volatile FileAlterationObserver observer;
     private FileAlterationMonitor  monitor;
+    private final ReentrantLock    fileLock;
     private static Log             fpfLog            = LogFactory.getLog(FrameworkPropertyFile.class);
 
+    // One lock per property file, as file locks are held by the whole JVM rather than by a thread
+    private static final Map<String, ReentrantLock> fileLocks = new ConcurrentHashMap<>();
+
     /**
      * <p>
      * This constructor loads the properties store in the file into memory. For the
@@ -77,6 +94,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
         this.file = file;
         this.propertyFile = new File(file);
         this.parent = propertyFile.getParent();
+        this.fileLock = fileLocks.computeIfAbsent(propertyFile.getAbsolutePath(), k -> new ReentrantLock());
 
         load();
 
@@ -98,9 +116,9 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param key
      * @return - corresponding value from the key, null if non-exsisting
      */
-    public synchronized String get(final String key) {
-        observer.checkAndNotify();
-        return currentProperties.getProperty(key);
+    public String get(final String key) {
+        checkForFileChanges();
+        return currentProperties.get(key);
 
     }
 
@@ -114,16 +132,9 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      *                  store.
      * @return A map of any size or null. The key is a string which starts with the specified prefix.
      */
-    public synchronized Map<String, String> getPrefix(String keyPrefix) {
-        Map<String, String> values = new HashMap<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                values.put(key, currentProperties.getProperty(key));
-            }
-        }
-        return values;
+    public Map<String, String> getPrefix(String keyPrefix) {
+        checkForFileChanges();
+        return new HashMap<>(getPrefixEntries(currentProperties, keyPrefix));
     }
 
     /**
@@ -134,16 +145,9 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param keyPrefix A common key prefix to a number of keys in the property store.
      * @return A collection of any size or null of keys which start with the specified prefix.
      */
-    public synchronized Collection<String> getPrefixKeysOnly(String keyPrefix) {
-        Collection<String> keys = new ArrayList<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(keyPrefix)) {
-                keys.add(key);
-            }
-        }
-        return keys;
+    public Collection<String> getPrefixKeysOnly(String keyPrefix) {
+        checkForFileChanges();
+        return new ArrayList<>(getPrefixEntries(currentProperties, keyPrefix).keySet());
     }
 
     /**
@@ -154,18 +158,64 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * 
      * @return - List of namespaces
      */
-    public synchronized List<String> getNamespaces() {
+    public List<String> getNamespaces() {
         List<String> namespaces = new ArrayList<>();
-        observer.checkAndNotify();
-        for (Object k : currentProperties.keySet()) {
-            String name = ((String)k).substring(0,((String)k).indexOf("."));
-            if(!namespaces.contains(name)) {
-                namespaces.add(name);
+        checkForFileChanges();
+        NavigableMap<String, String> properties = currentProperties;
+
+        // The keys are sorted, so jump over all the keys of each namespace in turn
+        String key = properties.isEmpty() ? null : properties.firstKey();
+        while (key != null) {
+            int dotIndex = key.indexOf(".");
+            if (dotIndex < 0) {
+                key = properties.higherKey(key);
+            } else {
+                String name = key.substring(0, dotIndex);
+                if (!namespaces.contains(name)) {
+                    namespaces.add(name);
+                }
+                key = properties.ceilingKey(name + (char) ('.' + 1));
             }
         }
         return namespaces;
     }
 
+    /**
+     * @return a view of the properties whose keys start with the prefix, found without
+     * looking at any of the other keys
+     */
+    private static NavigableMap<String, String> getPrefixEntries(NavigableMap<String, String> properties, String keyPrefix) {
+        // Every key starting with the prefix sorts before the prefix with its last character
+        // incremented. Trailing characters that can't be incremented are dropped first, and if
+        // there are none left, every key from the prefix onwards starts with it.
+        int endLength = keyPrefix.length();
+        while (endLength > 0 && keyPrefix.charAt(endLength - 1) == Character.MAX_VALUE) {
+            endLength--;
+        }
+        if (endLength == 0) {
+            return properties.tailMap(keyPrefix, true);
+        }
+
+        String prefixEnd = keyPrefix.substring(0, endLength - 1) + (char) (keyPrefix.charAt(endLength - 1) + 1);
+        return properties.subMap(keyPrefix, true, prefixEnd, false);
+    }
+
+    /**
+     * Picks up changes made to the file by other JVMs. Readers don't wait for this if another
+     * thread is already checking or changing the file, as the properties will be up to date
+     * once that thread is done.
+     */
+    private void checkForFileChanges() {
+        FileAlterationObserver currentObserver = this.observer;
+        if (currentObserver != null && fileLock.tryLock()) {
+            try {
+                currentObserver.checkAndNotify();
+            } finally {
+                fileLock.unlock();
+            }
+        }
+    }
+
     /**
      * <p>
      * This method deletes a k-v pair from the property store. As the properties
@@ -176,25 +226,15 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      *            properties.
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void delete(String key) throws FrameworkPropertyFileException {
-        // Make the current properties as close to the values in the file as 
-        // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        // There is a small window here when another JVM may write to the file,
-        // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                this.currentProperties.remove(key);
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete the key: " + key, e);
-                throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
-            }
+    public void delete(String key) throws FrameworkPropertyFileException {
+        try {
+            update(changes -> {
+                changes.remove(key);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to delete the key: " + key, e);
+            throw new FrameworkPropertyFileException("Unable to delete key: " + key, e);
         }
     }
 
@@ -205,28 +245,17 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param keys - a set of string keys to remove from properties
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void delete(Set<String> keys) throws FrameworkPropertyFileException {
-        // Make the current properties as close to the values in the file as 
-        // we can. So when we write they are up-to-date.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        // There is a small window here when another JVM may write to the file,
-        // which will get lost when we over-write it.
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+    public void delete(Set<String> keys) throws FrameworkPropertyFileException {
+        try {
+            update(changes -> {
                 for (String key : keys) {
-                    this.currentProperties.remove(key);
+                    changes.remove(key);
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to delete keys", e);
-                throw new FrameworkPropertyFileException("Unable to delete keys.", e);
-            }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to delete keys", e);
+            throw new FrameworkPropertyFileException("Unable to delete keys.", e);
         }
     }
 
@@ -236,141 +265,91 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param prefix - a prefix of keys to remove from properties
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void deletePrefix(String prefix) throws FrameworkPropertyFileException {
-        Set<String> deleteKeys = new HashSet<>();
-
-        // refresh our cache of properties from the file contents.
-        // Note that we can't do this while holding a write lock as the check
-        // attempts to get a read lock which fails, as the write lock is held.
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        // There is a small timing window here where another JVM will enter and write a
-        // new set of properties to the file. We have no lock protecting it, so are 
-        // likely to over-write the file with our property cache values...
-        // Meaning this code is not able to protect itself from other JVMs interfering, and 
-        // vice-versa.
-
-        synchronized (FrameworkPropertyFile.class) {
-            try {
-                // Block other JVMs from writing to the property file while we delete things.
-                try (FileChannel fileChannel = getWriteChannel(false)) {
-
-                    // Gather the list of keys to be deleted.
-                    for (Object k : currentProperties.keySet()) {
-                        String key = (String) k;
-                        if (key.startsWith(prefix)) {
-                            deleteKeys.add(key);
-                        }
-                    }
-
-                    // Make a note of the current property values, so we retain a before... and after...
-                    // set to be used later notifying any observers of property changes.
-                    Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                    // Now delete the keys
-                    for (String key : deleteKeys) {
-                        this.currentProperties.remove(key);
-                    }
-
-                    write(fileChannel, this.currentProperties);
-                    fileModified(this.currentProperties, oldProperties);
-                }
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
-            }
+    public void deletePrefix(String prefix) throws FrameworkPropertyFileException {
+        try {
+            update(changes -> {
+                changes.removePrefix(prefix);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new FrameworkPropertyFileException("Unable to delete key prefix: " + prefix, e);
         }
     }
 
-    public synchronized void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
+    public void performActions(IDssAction... actions) throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
+        try {
+            update(changes -> {
                 for(IDssAction action : actions) {
                     if (action instanceof DssAdd) {
-                        performActionsAdd((DssAdd) action);
+                        performActionsAdd(changes, (DssAdd) action);
                     } else if (action instanceof DssDelete) {
-                        performActionsDelete((DssDelete) action);
+                        performActionsDelete(changes, (DssDelete) action);
                     } else if (action instanceof DssDeletePrefix) {
-                        performActionsDeletePrefix((DssDeletePrefix) action);
+                        performActionsDeletePrefix(changes, (DssDeletePrefix) action);
                     } else if (action instanceof DssUpdate) {
-                        performActionsUpdate((DssUpdate) action);
+                        performActionsUpdate(changes, (DssUpdate) action);
                     } else if (action instanceof DssSwap) {
-                        performActionsSwap((DssSwap) action);
+                        performActionsSwap(changes, (DssSwap) action);
                     } else {
                         throw new DynamicStatusStoreException("Unrecognised DSS Action - " + action.getClass().getName());
                     }
                 }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Failed to update file with DSS actions", e);
-                throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
-            }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to update file with DSS actions", e);
+            throw new DynamicStatusStoreException("Failed to update file with DSS actions", e);
         }
     }
 
-    private void performActionsAdd(DssAdd dssAdd) throws DynamicStatusStoreMatchException {
+    private void performActionsAdd(PropertyChanges changes, DssAdd dssAdd) throws DynamicStatusStoreMatchException {
         String key = dssAdd.getKey();
         String value = dssAdd.getValue();
 
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = changes.get(key);
         if (currentValue != null) {
             throw new DynamicStatusStoreMatchException("Attempt to add new property '" + key + "' but it already exists");
         }
 
-        this.currentProperties.put(key, value);
+        changes.put(key, value);
     }
 
 
-    private void performActionsDelete(DssDelete dssDelete) throws DynamicStatusStoreMatchException {
+    private void performActionsDelete(PropertyChanges changes, DssDelete dssDelete) throws DynamicStatusStoreMatchException {
         String key = dssDelete.getKey();
         String oldValue = dssDelete.getOldValue();
 
         if (oldValue != null) {
-            String currentValue = this.currentProperties.getProperty(key);
+            String currentValue = changes.get(key);
             if (!oldValue.equals(currentValue)) {
                 throw new DynamicStatusStoreMatchException("Attempt to delete property '" + key + "', but current value '" + currentValue + "' does not match required value '" +oldValue + "'");
             }
         }
 
-        this.currentProperties.remove(key);
+        changes.remove(key);
     }
 
 
-    private void performActionsDeletePrefix(DssDeletePrefix dssDeletePrefix) {
-        ArrayList<String> toBeDeleted = new ArrayList<>();
-        for (Object k : this.currentProperties.keySet()) {
-            String key = (String) k;
-            if (key.startsWith(dssDeletePrefix.getPrefix())) {
-                toBeDeleted.add(key);
-            }
-        }
-        
-        for(String key : toBeDeleted) {
-            this.currentProperties.remove(key);
-        }
-        
+    private void performActionsDeletePrefix(PropertyChanges changes, DssDeletePrefix dssDeletePrefix) {
+        changes.removePrefix(dssDeletePrefix.getPrefix());
     }
 
 
-    private void performActionsUpdate(DssUpdate dssUpdate) {
+    private void performActionsUpdate(PropertyChanges changes, DssUpdate dssUpdate) {
         String key   = dssUpdate.getKey();
         String value = dssUpdate.getValue();
 
-        this.currentProperties.put(key, value);
+        changes.put(key, value);
     }
 
 
-    private void performActionsSwap(DssSwap dssSwap) throws DynamicStatusStoreMatchException {
+    private void performActionsSwap(PropertyChanges changes, DssSwap dssSwap) throws DynamicStatusStoreMatchException {
         String key      = dssSwap.getKey();
         String newValue = dssSwap.getNewValue();
         String oldValue = dssSwap.getOldValue();
         
-        String currentValue = this.currentProperties.getProperty(key);
+        String currentValue = changes.get(key);
 
         if (oldValue == null) {
             if (currentValue != null) {
@@ -382,7 +361,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
             }
         }
         
-        this.currentProperties.put(key, newValue);
+        changes.put(key, newValue);
     }
 
 
@@ -396,7 +375,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param newProperties - the most up to date properties in memory
      * @throws IOException
      */
-    public synchronized void write(FileChannel fileChannel, Properties newProperties) throws IOException {
+    public void write(FileChannel fileChannel, Properties newProperties) throws IOException {
         fileChannel.truncate(0);
         OutputStream out = Channels.newOutputStream(fileChannel);
         newProperties.store(out, null);
@@ -414,54 +393,39 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param value - String value
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void set(String key, String value) throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.put(key, value);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
-                throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
-            }
+    public void set(String key, String value) throws FrameworkPropertyFileException {
+        try {
+            update(changes -> {
+                changes.put(key, value);
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to set key value pair: " + key + ":" + value, e);
+            throw new FrameworkPropertyFileException("Failed Setting value: " + key + "=" + value, e);
         }
     }
 
     /**
      * <p>
-     * This method is used for setting multiple k-v pairs into the file. This method
-     * is sycnronized on the class to ensure all values are set before any other
-     * work is completed
+     * This method is used for setting multiple k-v pairs into the file. All the
+     * values are set before any other change is made to the file.
      * </p>
      * 
      * @param values - a String String map of k-v pairs.
      * @throws FrameworkPropertyFileException
      * @throws IOException
      */
-    public synchronized void set(Map<String, String> values) throws FrameworkPropertyFileException, IOException {
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                this.currentProperties.putAll(values);
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-            } catch (IOException e) {
-                fpfLog.error("Unable to set values", e);
-                throw new FrameworkPropertyFileException("Unable to set values", e);
-            }
+    public void set(Map<String, String> values) throws FrameworkPropertyFileException, IOException {
+        try {
+            update(changes -> {
+                for (Map.Entry<String, String> entry : values.entrySet()) {
+                    changes.put(entry.getKey(), entry.getValue());
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Unable to set values", e);
+            throw new FrameworkPropertyFileException("Unable to set values", e);
         }
     }
 
@@ -562,8 +526,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * </p>
      * 
      * <p>
-     * This method is sycnronized on the class to ensure all values are set before
-     * any other work is completed
+     * All the values are set before any other change is made to the file.
      * </p>
      * 
      * <p>
@@ -577,35 +540,9 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return returns a boolean which informs if the set took place.
      * @throws FrameworkPropertyFileException
      */
-    public synchronized boolean setAtomic(String key, String oldValue, String newValue)
+    public boolean setAtomic(String key, String oldValue, String newValue)
             throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
-                } else {
-                    if (oldValue == null) {
-                        return false;
-                    }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
-                        return false;
-                    }
-                }
-
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
-                return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
-            }
-        }
+        return setAtomic(key, oldValue, newValue, Collections.emptyMap());
     }
 
     /**
@@ -616,8 +553,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * </p>
      * 
      * <p>
-     * This method is sycnronized on the class to ensure all values are set before
-     * any other work is completed
+     * All the values are set before any other change is made to the file.
      * </p>
      * 
      * <p>
@@ -632,37 +568,143 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - boolean for if the atomic set was done
      * @throws FrameworkPropertyFileException
      */
-    public synchronized boolean setAtomic(String key, String oldValue, String newValue, Map<String, String> otherValues)
+    public boolean setAtomic(String key, String oldValue, String newValue, Map<String, String> otherValues)
             throws FrameworkPropertyFileException {
-
-        if (observer!=null) {
-            observer.checkAndNotify();
-        }
-
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getWriteChannel(false)) {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-
-                if (oldValue == null && oldProperties.get(key) == null) {
-                    this.currentProperties.put(key, newValue);
+        try {
+            return update(changes -> {
+                String currentValue = changes.get(key);
+                if (oldValue == null && currentValue == null) {
+                    changes.put(key, newValue);
                 } else {
                     if (oldValue == null) {
                         return false;
                     }
-                    if (!this.currentProperties.replace(key, oldValue, newValue)) {
+                    if (!oldValue.equals(currentValue)) {
                         return false;
                     }
+                    changes.put(key, newValue);
                 }
 
-                this.currentProperties.putAll(otherValues);
+                for (Map.Entry<String, String> entry : otherValues.entrySet()) {
+                    changes.put(entry.getKey(), entry.getValue());
+                }
+                return true;
+            });
+        } catch (IOException e) {
+            fpfLog.error("Failed to set Atomically", e);
+            throw new FrameworkPropertyFileException("Failed to set atomically", e);
+        }
+    }
 
-                write(fileChannel, this.currentProperties);
-                fileModified(this.currentProperties, oldProperties);
+    /**
+     * A set of changes to the properties, made by a single update.
+     */
+    private interface PropertyUpdate<E extends Exception> {
+        /**
+         * @return true if the changes should be written, false to leave the properties as they are
+         */
+        boolean apply(PropertyChanges changes) throws E;
+    }
+
+    /**
+     * <p>
+     * This method makes a set of changes to the properties, and writes them to the file.
+     * </p>
+     * 
+     * <p>
+     * The changes are made to a copy of the current properties, which replaces them once
+     * it has been written. Each change is recorded as it is made, so that watchers can be
+     * told about just the properties that changed.
+     * </p>
+     */
+    private <E extends Exception> boolean update(PropertyUpdate<E> update) throws IOException, E {
+        fileLock.lock();
+        try {
+            // Make the current properties as close to the values in the file as 
+            // we can. So when we write they are up-to-date.
+            FileAlterationObserver currentObserver = this.observer;
+            if (currentObserver != null) {
+                currentObserver.checkAndNotify();
+            }
+
+            // There is a small window here when another JVM may write to the file,
+            // which will get lost when we over-write it.
+            try (FileChannel fileChannel = getWriteChannel(false)) {
+                PropertyChanges changes = new PropertyChanges(this.currentProperties);
+                if (!update.apply(changes)) {
+                    return false;
+                }
+
+                if (changes.isChanged()) {
+                    write(fileChannel, changes.toProperties());
+                    this.currentProperties = changes.getNewProperties();
+                    notifyWatchers(changes.getChangedKeys(), changes.getOldValues(), this.currentProperties);
+                }
                 return true;
-            } catch (IOException e) {
-                fpfLog.error("Failed to set Atomically", e);
-                throw new FrameworkPropertyFileException("Failed to set atomically", e);
             }
+        } finally {
+            fileLock.unlock();
+        }
+    }
+
+    /**
+     * A working copy of the properties, which records the old value of each property it changes.
+     */
+    private static class PropertyChanges {
+        private final TreeMap<String, String> newProperties;
+        private final Map<String, String>     oldValues = new LinkedHashMap<>();
+
+        private PropertyChanges(NavigableMap<String, String> currentProperties) {
+            this.newProperties = new TreeMap<>(currentProperties);
+        }
+
+        private String get(String key) {
+            return newProperties.get(key);
+        }
+
+        private void put(String key, String value) {
+            recordChange(key, newProperties.put(key, value));
+        }
+
+        private void remove(String key) {
+            if (newProperties.containsKey(key)) {
+                recordChange(key, newProperties.remove(key));
+            }
+        }
+
+        private void removePrefix(String prefix) {
+            // Copy the keys, as the view can't be iterated over while keys are removed from it
+            for (String key : new ArrayList<>(getPrefixEntries(newProperties, prefix).keySet())) {
+                remove(key);
+            }
+        }
+
+        private void recordChange(String key, String oldValue) {
+            if (!oldValues.containsKey(key)) {
+                oldValues.put(key, oldValue);
+            }
+        }
+
+        private boolean isChanged() {
+            return !oldValues.isEmpty();
+        }
+
+        private Set<String> getChangedKeys() {
+            return oldValues.keySet();
+        }
+
+        private Map<String, String> getOldValues() {
+            return oldValues;
+        }
+
+        private NavigableMap<String, String> getNewProperties() {
+            return Collections.unmodifiableNavigableMap(newProperties);
+        }
+
+        private Properties toProperties() {
+            Properties properties = new Properties();
+            properties.putAll(newProperties);
+            return properties;
         }
     }
 
@@ -674,7 +716,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @throws FrameworkPropertyFileException
      */
     public synchronized void destroy() throws FrameworkPropertyFileException {
-        currentProperties = null;
+        currentProperties = Collections.emptyNavigableMap();
         observer = null;
         try {
             if (monitor != null) {
@@ -696,31 +738,42 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @param newProperties - loaded from file
      * @param oldProperties - in memory currently
      */
-    private synchronized void fileModified(Properties newProperties, Properties oldProperties) {
-        // Checks a list of Strings that are keys to watch. Compares file to loaded.
-        for (Watch watch : this.watches.values()) {
-            for (Object oNewKey : newProperties.keySet()) {
-                String newKey = (String) oNewKey;
-                String newValue = newProperties.getProperty(newKey);
-                if (watch.matchKey(newKey)) {
-                    String oldValue = oldProperties.getProperty(newKey);
-                    if (oldValue == null) {
-                        watch.watcher.propertyModified(newKey, Event.NEW, oldValue, newValue);
-                    } else if (!oldValue.equals(newValue)) {
-                        watch.watcher.propertyModified(newKey, Event.MODIFIED, oldValue, newValue);
-                    }
-                }
+    private void fileModified(NavigableMap<String, String> newProperties, NavigableMap<String, String> oldProperties) {
+        Set<String> changedKeys = new LinkedHashSet<>();
+        for (Map.Entry<String, String> entry : newProperties.entrySet()) {
+            if (!entry.getValue().equals(oldProperties.get(entry.getKey()))) {
+                changedKeys.add(entry.getKey());
             }
+        }
+        for (String oldKey : oldProperties.keySet()) {
+            if (!newProperties.containsKey(oldKey)) {
+                changedKeys.add(oldKey);
+            }
+        }
+        notifyWatchers(changedKeys, oldProperties, newProperties);
+    }
 
-            // Check for deleted properties
-            for (Object oOldKey : oldProperties.keySet()) {
-                String oldKey = (String) oOldKey;
-                String oldValue = oldProperties.getProperty(oldKey);
-
-                if (watch.matchKey(oldKey)) {
-                    String newValue = newProperties.getProperty(oldKey);
+    /**
+     * Tells each watcher about the changed properties it is watching.
+     * 
+     * @param changedKeys - the keys of the properties that changed
+     * @param oldValues   - the values of the changed properties before they changed
+     * @param newProperties - the properties after the change
+     */
+    private void notifyWatchers(Set<String> changedKeys, Map<String, String> oldValues, Map<String, String> newProperties) {
+        for (Watch watch : this.watches.values()) {
+            for (String key : changedKeys) {
+                if (watch.matchKey(key)) {
+                    String oldValue = oldValues.get(key);
+                    String newValue = newProperties.get(key);
                     if (newValue == null) {
-                        watch.watcher.propertyModified(oldKey, Event.DELETE, oldValue, newValue);
+                        if (oldValue != null) {
+                            watch.watcher.propertyModified(key, Event.DELETE, oldValue, newValue);
+                        }
+                    } else if (oldValue == null) {
+                        watch.watcher.propertyModified(key, Event.NEW, oldValue, newValue);
+                    } else if (!oldValue.equals(newValue)) {
+                        watch.watcher.propertyModified(key, Event.MODIFIED, oldValue, newValue);
                     }
                 }
             }
@@ -737,7 +790,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - a read file channel
      * @throws IOException
      */
-    private synchronized FileChannel getReadChannel(boolean shared) throws IOException {
+    private FileChannel getReadChannel(boolean shared) throws IOException {
         Path path = Paths.get(file);
         FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ);
         try {
@@ -759,7 +812,7 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * @return - a write file channel
      * @throws IOException
      */
-    private synchronized FileChannel getWriteChannel(boolean shared) throws IOException {
+    private FileChannel getWriteChannel(boolean shared) throws IOException {
         Path path = Paths.get(file);
         FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.WRITE);
         try {
@@ -779,26 +832,31 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * 
      * *
      * <p>
-     * This method is sycnronized on the class to ensure all values are set before
-     * any other work is completed
+     * No other changes are made to the file while it is loaded.
      * </p>
      * 
      * @throws FrameworkPropertyFileException
      */
-    public synchronized void load() throws FrameworkPropertyFileException {
+    public void load() throws FrameworkPropertyFileException {
         Properties newProperties = new Properties();
-        synchronized (FrameworkPropertyFile.class) {
-            try (FileChannel fileChannel = getReadChannel(true)) {
-                InputStream in = Channels.newInputStream(fileChannel);
-                newProperties.load(in);
-                in.close();
-            } catch (IOException e) {
-                fpfLog.error("Unable to Load Property from file", e);
-                throw new FrameworkPropertyFileException(
-                        "Unable to Load Property from file: " + propertyFile.toString(), e);
+        fileLock.lock();
+        try (FileChannel fileChannel = getReadChannel(true)) {
+            InputStream in = Channels.newInputStream(fileChannel);
+            newProperties.load(in);
+            in.close();
+
+            TreeMap<String, String> sortedProperties = new TreeMap<>();
+            for (String key : newProperties.stringPropertyNames()) {
+                sortedProperties.put(key, newProperties.getProperty(key));
             }
+            this.currentProperties = Collections.unmodifiableNavigableMap(sortedProperties);
+        } catch (IOException e) {
+            fpfLog.error("Unable to Load Property from file", e);
+            throw new FrameworkPropertyFileException(
+                    "Unable to Load Property from file: " + propertyFile.toString(), e);
+        } finally {
+            fileLock.unlock();
         }
-        this.currentProperties = newProperties;
     }
 
     /**
@@ -830,15 +888,16 @@ public class FrameworkPropertyFile implements FileAlterationListener {
      * exception is logged
      * </p>
      */
-    public synchronized void onFileChange(File file) {
-        synchronized (FrameworkPropertyFile.class) {
-            try {
-                Properties oldProperties = (Properties) this.currentProperties.clone();
-                load();
-                fileModified(this.currentProperties, oldProperties);
-            } catch (FrameworkPropertyFileException e) {
-                fpfLog.error("Error encounted loading file changes", e);
-            }
+    public void onFileChange(File file) {
+        fileLock.lock();
+        try {
+            NavigableMap<String, String> oldProperties = this.currentProperties;
+            load();
+            fileModified(this.currentProperties, oldProperties);
+        } catch (FrameworkPropertyFileException e) {
+            fpfLog.error("Error encounted loading file changes", e);
+        } finally {
+            fileLock.unlock();
         }
     }
 
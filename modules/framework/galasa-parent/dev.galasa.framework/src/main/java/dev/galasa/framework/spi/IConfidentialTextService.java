@@ -5,6 +5,10 @@
  */
 package dev.galasa.framework.spi;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
 /**
  * The confidential text services provides a manager with the ability to
  * registered passwords, usernames, keys and other confidnetial texts so that
@@ -31,6 +35,33 @@ public interface IConfidentialTextService {
      */
     String removeConfidentialText(String text);
 
+    /**
+     * Wraps a writer so that registered texts are removed from anything written to
+     * it. The returned writer must be closed to write out the end of the output.
+     * 
+     * By default, the whole output is held in memory and passed through
+     * {@link #removeConfidentialText(String)} when the writer is closed. Services
+     * which can obscure text as it is written should override this.
+     * 
+     * @param output - the writer to receive the obscured log or output.
+     * @return - a writer which obscures the text written to it.
+     */
+    default Writer createConfidentialTextFilter(Writer output) {
+        return new StringWriter() {
+            private boolean isClosed = false;
+
+            @Override
+            public void close() throws IOException {
+                if (!isClosed) {
+                    isClosed = true;
+                    try (Writer writer = output) {
+                        writer.write(removeConfidentialText(toString()));
+                    }
+                }
+            }
+        };
+    }
+
     /**
      * Shutdown the confidential text service
      */
@@ -5,6 +5,7 @@
  */
 package dev.galasa.framework.spi;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -36,6 +37,31 @@ public interface IConfigurationPropertyStore {
      */
     @Null
     String getProperty(@NotNull String key) throws ConfigurationPropertyStoreException;
+
+    /**
+     * Retrieve several properties from the underlying configuration property store at once.
+     * 
+     * The framework uses this to look up all the variants of a property in one go, so stores
+     * which can fetch several keys in one request should override this. By default, each key is
+     * retrieved in turn with {@link #getProperty(String)}.
+     * 
+     * @param keys - The keys of the properties to retrieve, including their namespace
+     * @return A map of the keys which were found to their values. Keys which do not exist are
+     *         left out of the map.
+     * @throws ConfigurationPropertyStoreException - If there is a problem accessing
+     *                                             the underlying store
+     */
+    @NotNull
+    default Map<String, String> getProperties(@NotNull List<String> keys) throws ConfigurationPropertyStoreException {
+        Map<String, String> values = new HashMap<>();
+        for (String key : keys) {
+            String value = getProperty(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
     
     /**
      * Retrieve prefixed properties from the underlying configuration property store.
@@ -5,13 +5,16 @@
  */
 package dev.galasa.framework.spi;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
 import javax.validation.constraints.NotNull;
 
 import dev.galasa.framework.TestRunLifecycleStatus;
+import dev.galasa.framework.beans.SubmitRunRequest;
 
 public interface IFrameworkRuns {
     
@@ -30,6 +33,16 @@ public interface IFrameworkRuns {
     @NotNull
     List<IRun> getAllRuns() throws FrameworkException;
 
+    /**
+     * Reads every run from the DSS in a single bulk read and groups the properties
+     * of each run together, so callers can filter many runs without going back to
+     * the DSS once per run.
+     * @return An unmodifiable map of run name to the run as it was when the snapshot was taken
+     * @throws FrameworkException if the runs could not be read from the DSS
+     */
+    @NotNull
+    Map<String, IRun> getRunsSnapshot() throws FrameworkException;
+
     @NotNull
     List<IRun> getAllGroupedRuns(@NotNull String groupName) throws FrameworkException;
 
@@ -41,6 +54,55 @@ public interface IFrameworkRuns {
             String mavenRepository, String obr, String stream, boolean local, boolean trace, Set<String> tags, Properties overrides,
             SharedEnvironmentPhase sharedEnvironmentPhase, String sharedEnvironmentRunName, String language, String submissionId) throws FrameworkException;
 
+    /**
+     * Submits many runs at once, such as all the tests in a group. Implementations can
+     * reserve the run names and write the runs to the DSS in bulk, rather than going
+     * to the DSS for each run in turn.
+     * @param runRequests the runs to submit
+     * @return the submitted runs, in the same order as the requests
+     * @throws FrameworkException if any of the runs could not be submitted. Runs which had
+     * already been submitted are deleted again, apart from shared environments being discarded,
+     * which existed before.
+     */
+    @NotNull
+    default List<IRun> submitRuns(@NotNull List<SubmitRunRequest> runRequests) throws FrameworkException {
+        List<IRun> runs = new ArrayList<>();
+        try {
+            for (SubmitRunRequest runRequest : runRequests) {
+                runs.add(submitRun(
+                    runRequest.getRunType(),
+                    runRequest.getRequestor(),
+                    runRequest.getBundleName(),
+                    runRequest.getTestName(),
+                    runRequest.getGroupName(),
+                    runRequest.getMavenRepository(),
+                    runRequest.getObr(),
+                    runRequest.getStream(),
+                    runRequest.isLocalRun(),
+                    runRequest.isTraceEnabled(),
+                    runRequest.getTags(),
+                    runRequest.getOverrides(),
+                    runRequest.getSharedEnvironmentPhase(),
+                    runRequest.getSharedEnvironmentRunName(),
+                    runRequest.getLanguage(),
+                    runRequest.getSubmissionId()
+                ));
+            }
+        } catch (FrameworkException e) {
+            for (int i = 0; i < runs.size(); i++) {
+                if (runRequests.get(i).getSharedEnvironmentPhase() != SharedEnvironmentPhase.DISCARD) {
+                    try {
+                        delete(runs.get(i).getName());
+                    } catch (DynamicStatusStoreException deleteException) {
+                        e.addSuppressed(deleteException);
+                    }
+                }
+            }
+            throw e;
+        }
+        return runs;
+    }
+
     boolean delete(String runname) throws DynamicStatusStoreException;
 
     IRun getRun(String runname) throws DynamicStatusStoreException;
@@ -0,0 +1,34 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi;
+
+import java.io.Closeable;
+
+/**
+ * Reads a run log one line at a time, so that the whole log never has to be held in memory.
+ */
+public interface IRunLogReader extends Closeable {
+
+    /**
+     * @return the next line of the run log, without its line ending, or null if there are no more lines
+     */
+    String readLine() throws ResultArchiveStoreException;
+
+    /**
+     * Picks up any lines that have been added to the end of the run log since this reader was
+     * opened, so that later calls to readLine return them.
+     *
+     * @param latestRun the run this reader was opened for, as it is in the store now
+     * @return true if new lines have been looked for, or false if this reader can only read the log
+     * as it was when the reader was opened
+     */
+    default boolean refresh(IRunResult latestRun) throws ResultArchiveStoreException {
+        return false;
+    }
+
+    @Override
+    void close();
+}
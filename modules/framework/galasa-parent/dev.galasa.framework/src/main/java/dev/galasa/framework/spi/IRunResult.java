@@ -5,8 +5,10 @@
  */
 package dev.galasa.framework.spi;
 
+import java.io.StringReader;
 import java.nio.file.Path;
 
+import dev.galasa.framework.spi.ras.RunLogLineReader;
 import dev.galasa.framework.spi.teststructure.TestStructure;
 
 public interface IRunResult {
@@ -19,6 +21,29 @@ public interface IRunResult {
 
     String getLog() throws ResultArchiveStoreException;
 
+    /**
+     * Opens the run log for reading a line at a time. Stores which keep the log in
+     * several pieces should override this, so that only one piece is read at a time.
+     *
+     * @return a reader over the run log, which must be closed, or null if the run has no log
+     */
+    default IRunLogReader getLogReader() throws ResultArchiveStoreException {
+        IRunLogReader logReader = null;
+        String log = getLog();
+        if (log != null) {
+            logReader = new RunLogLineReader(new StringReader(log));
+        }
+        return logReader;
+    }
+
+    /**
+     * @return the size in bytes of the run log as it is read through {@link #getLogReader()}, with
+     * its lines separated by single newlines, or -1 if the store can't tell without reading the whole log
+     */
+    default long getLogSize() throws ResultArchiveStoreException {
+        return -1;
+    }
+
     void discard() throws ResultArchiveStoreException;
 
     void loadArtifacts() throws ResultArchiveStoreException;
@@ -0,0 +1,47 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.spi.ras;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import dev.galasa.framework.spi.IRunLogReader;
+import dev.galasa.framework.spi.ResultArchiveStoreException;
+
+/**
+ * A run log reader over a character stream, such as a log file or a log that is already in memory.
+ */
+public class RunLogLineReader implements IRunLogReader {
+
+    private final BufferedReader reader;
+
+    public RunLogLineReader(Reader reader) {
+        if (reader instanceof BufferedReader) {
+            this.reader = (BufferedReader) reader;
+        } else {
+            this.reader = new BufferedReader(reader);
+        }
+    }
+
+    @Override
+    public String readLine() throws ResultArchiveStoreException {
+        try {
+            return this.reader.readLine();
+        } catch (IOException e) {
+            throw new ResultArchiveStoreException("Unable to read the run log", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.reader.close();
+        } catch (IOException e) {
+            // Nothing more can be read either way
+        }
+    }
+}
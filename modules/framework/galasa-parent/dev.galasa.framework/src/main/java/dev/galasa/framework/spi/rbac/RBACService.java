@@ -76,4 +76,9 @@ public interface RBACService {
     boolean isActionPermitted(String loginId, String actionId) throws RBACException;
 
     void invalidateUser(String loginId) throws RBACException;
+
+    /**
+     * Stops the service listening for changes to users' cached actions.
+     */
+    void shutdown() throws RBACException;
 }
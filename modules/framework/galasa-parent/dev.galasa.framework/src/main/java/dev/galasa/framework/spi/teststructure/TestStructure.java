@@ -41,6 +41,7 @@ public class TestStructure {
     private List<TestGherkinMethod> gherkinMethods;
 
     private List<String>     logRecordIds;
+    private Long             logSize;
 
     private List<String>     artifactRecordIds;
 
@@ -78,6 +79,7 @@ public class TestStructure {
                 this.logRecordIds = new ArrayList<String>();
                 this.logRecordIds.addAll(source.logRecordIds);
             }
+            this.logSize = source.logSize;
             if (source.artifactRecordIds != null ) {
                 this.artifactRecordIds = new ArrayList<String>();
                 this.artifactRecordIds.addAll(source.artifactRecordIds);
@@ -278,6 +280,17 @@ public class TestStructure {
         this.logRecordIds = logRecordIds;
     }
 
+    /**
+     * @return the size in bytes of the log stored in the log records, or null if the store doesn't record it
+     */
+    public Long getLogSize() {
+        return logSize;
+    }
+
+    public void setLogSize(Long logSize) {
+        this.logSize = logSize;
+    }
+
     public List<String> getArtifactRecordIds() {
         return artifactRecordIds;
     }
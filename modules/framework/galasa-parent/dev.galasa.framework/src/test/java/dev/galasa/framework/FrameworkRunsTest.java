@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Map.Entry;
@@ -23,13 +24,16 @@ import org.junit.Test;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
+import dev.galasa.framework.beans.SubmitRunRequest;
 import dev.galasa.framework.mocks.MockCPSStore;
 import dev.galasa.framework.mocks.MockDSSStore;
 import dev.galasa.framework.mocks.MockFramework;
 import dev.galasa.framework.mocks.MockRun;
 import dev.galasa.framework.mocks.MockTimeService;
 import dev.galasa.framework.spi.DssPropertyKeyRunNameSuffix;
+import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.FrameworkException;
+import dev.galasa.framework.spi.IDssAction;
 import dev.galasa.framework.spi.IRun;
 import dev.galasa.framework.spi.Result;
 import dev.galasa.framework.spi.RunRasAction;
@@ -1168,4 +1172,223 @@ public class FrameworkRunsTest {
         assertThat(mockDss.get("run." + runName + "." +DssPropertyKeyRunNameSuffix.HEARTBEAT)).isNull();
         assertThat(mockDss.get("run." + runName + "." +DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo(TestRunLifecycleStatus.QUEUED.toString());
     }
+
+    @Test
+    public void testGetRunsSnapshotGroupsPropertiesByRunName() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // U1 is a prefix of U10, so the properties of the two runs must not be mixed up
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.QUEUED.toString());
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.TEST, "mybundle/mytest1");
+        mockDss.put("run.U10." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.RUNNING.toString());
+        mockDss.put("run.U10." + DssPropertyKeyRunNameSuffix.TEST, "mybundle/mytest10");
+        mockDss.put("run.U10." + DssPropertyKeyRunNameSuffix.GROUP, "mygroup");
+
+        // When...
+        Map<String, IRun> snapshot = frameworkRuns.getRunsSnapshot();
+
+        // Then...
+        assertThat(snapshot).hasSize(2);
+        assertThat(snapshot.get("U1").getStatus()).isEqualTo(TestRunLifecycleStatus.QUEUED.toString());
+        assertThat(snapshot.get("U1").getTestClassName()).isEqualTo("mytest1");
+        assertThat(snapshot.get("U1").getGroup()).isNull();
+        assertThat(snapshot.get("U10").getStatus()).isEqualTo(TestRunLifecycleStatus.RUNNING.toString());
+        assertThat(snapshot.get("U10").getTestClassName()).isEqualTo("mytest10");
+        assertThat(snapshot.get("U10").getGroup()).isEqualTo("mygroup");
+    }
+
+    @Test
+    public void testGetQueuedRunsAndGroupedRunsUseTheSnapshot() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.QUEUED.toString());
+        mockDss.put("run.U1." + DssPropertyKeyRunNameSuffix.GROUP, "mygroup");
+        mockDss.put("run.U2." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.FINISHED.toString());
+        mockDss.put("run.U2." + DssPropertyKeyRunNameSuffix.GROUP, "mygroup");
+        mockDss.put("run.U3." + DssPropertyKeyRunNameSuffix.STATUS, TestRunLifecycleStatus.QUEUED.toString());
+        mockDss.put("run.U3." + DssPropertyKeyRunNameSuffix.GROUP, "anothergroup");
+
+        // When...
+        List<IRun> queuedRuns = frameworkRuns.getQueuedRuns();
+        List<IRun> groupedRuns = frameworkRuns.getAllGroupedRuns("mygroup");
+        List<IRun> allRuns = frameworkRuns.getAllRuns();
+
+        // Then...
+        assertThat(queuedRuns).extracting("name").containsExactlyInAnyOrder("U1", "U3");
+        assertThat(groupedRuns).extracting("name").containsExactlyInAnyOrder("U1", "U2");
+        assertThat(allRuns).extracting("name").containsExactlyInAnyOrder("U1", "U2", "U3");
+    }
+
+    private List<SubmitRunRequest> createRunRequests(int count) throws Exception {
+        List<SubmitRunRequest> runRequests = new ArrayList<>();
+        for (int i = 1; i <= count; i++) {
+            runRequests.add(new SubmitRunRequest(
+                "unknown", "me", "mybundle", "mytest" + i, "my.group", "submission" + i,
+                null, null, null, false, false, null, null, null, null, "java"
+            ));
+        }
+        return runRequests;
+    }
+
+    @Test
+    public void testSubmitRunsStoresAllRunsInOneTransaction() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(3));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U1", "U2", "U3");
+        assertThat(runs).extracting("test").containsExactly("mybundle/mytest1", "mybundle/mytest2", "mybundle/mytest3");
+        assertThat(mockDss.getPerformActionsCount()).isEqualTo(1);
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("3");
+        assertThat(mockDss.get("run.U3."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest3");
+        assertThat(mockDss.get("run.U3."+DssPropertyKeyRunNameSuffix.STATUS)).isEqualTo("queued");
+        assertThat(mockDss.get("run.U3."+DssPropertyKeyRunNameSuffix.GROUP)).isEqualTo("my.group");
+        assertThat(mockDss.get("run.U3."+DssPropertyKeyRunNameSuffix.SUBMISSION_ID)).isEqualTo("submission3");
+    }
+
+    @Test
+    public void testSubmitRunsSplitsManyRunsAcrossTransactions() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(50));
+
+        // Then...
+        assertThat(runs).hasSize(50);
+        assertThat(runs).extracting("name").doesNotHaveDuplicates().contains("U1", "U50");
+        assertThat(mockDss.getPerformActionsCount()).isGreaterThan(1).isLessThan(50);
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("50");
+        assertThat(mockDss.get("run.U50."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest50");
+    }
+
+    @Test
+    public void testSubmitRunsWithRunNameInUseStoresThatRunWithTheNextName() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        mockDss.put("run.U2."+DssPropertyKeyRunNameSuffix.TEST, "anotherbundle/anothertest");
+
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(3));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U1", "U4", "U3");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("4");
+        assertThat(mockDss.get("run.U2."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("anotherbundle/anothertest");
+        assertThat(mockDss.get("run.U4."+DssPropertyKeyRunNameSuffix.TEST)).isEqualTo("mybundle/mytest2");
+    }
+
+    @Test
+    public void testSubmitRunWithBlockSizeUsesNumbersLeftInTheReservedBlock() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        mockCps.setProperty("request.prefix.U.block.size", "10");
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = new ArrayList<>();
+        runs.add(frameworkRuns.submitRuns(createRunRequests(1)).get(0));
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("10");
+        runs.addAll(frameworkRuns.submitRuns(createRunRequests(9)));
+        runs.addAll(frameworkRuns.submitRuns(createRunRequests(1)));
+
+        // Then...
+        assertThat(runs).hasSize(11);
+        assertThat(runs.get(9).getName()).isEqualTo("U10");
+        assertThat(runs.get(10).getName()).isEqualTo("U11");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("20");
+    }
+
+    @Test
+    public void testSubmitRunsWithMaxRunNumberReachedWrapsAroundToOne() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        mockDss.put("request.prefix.U.lastused", "8");
+
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        mockCps.setProperty("request.prefix.U.maximum", "10");
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(4));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U9", "U10", "U1", "U2");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("2");
+    }
+
+    @Test
+    public void testSubmitRunsWithInvalidBlockSizeReservesOneNumberAtATime() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>());
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        mockCps.setProperty("request.prefix.U.block.size", "ten");
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        List<IRun> runs = frameworkRuns.submitRuns(createRunRequests(2));
+
+        // Then...
+        assertThat(runs).extracting("name").containsExactly("U1", "U2");
+        assertThat(mockDss.get("request.prefix.U.lastused")).isEqualTo("2");
+    }
+
+    @Test
+    public void testSubmitRunsThatFailPartWayDeletesTheRunsAlreadyStored() throws Exception {
+        // Given...
+        MockDSSStore mockDss = new MockDSSStore(new HashMap<>()) {
+            @Override
+            public void performActions(IDssAction... actions) throws DynamicStatusStoreException {
+                if (getPerformActionsCount() > 0) {
+                    throw new DynamicStatusStoreException("Simulating a DSS failure");
+                }
+                super.performActions(actions);
+            }
+        };
+        MockCPSStore mockCps = new MockCPSStore(new HashMap<>());
+        MockFramework mockFramework = new MockFramework(mockCps, mockDss);
+
+        FrameworkRuns frameworkRuns = new FrameworkRuns(mockFramework);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> frameworkRuns.submitRuns(createRunRequests(50)));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(FrameworkException.class);
+        assertThat(mockDss.get("run.U1."+DssPropertyKeyRunNameSuffix.TEST)).isNull();
+        assertThat(frameworkRuns.getAllRuns()).isEmpty();
+    }
 }
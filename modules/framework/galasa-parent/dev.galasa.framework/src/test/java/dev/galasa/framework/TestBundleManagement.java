@@ -0,0 +1,223 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.felix.bundlerepository.Repository;
+import org.apache.felix.bundlerepository.Resource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+
+import dev.galasa.framework.BundleResolutionCache.CachedBundle;
+import dev.galasa.framework.mocks.MockBundle;
+import dev.galasa.framework.mocks.MockBundleContext;
+import dev.galasa.framework.mocks.MockRepository;
+import dev.galasa.framework.mocks.MockRepositoryAdmin;
+import dev.galasa.framework.mocks.MockResolver;
+import dev.galasa.framework.mocks.MockResource;
+
+public class TestBundleManagement {
+
+    private static final String BUNDLE_NAME = "my.bundle";
+
+    private Path tempDirectory;
+    private BundleResolutionCache cache;
+
+    // A bundle which can be installed and started from a location
+    private static class InstallableBundle extends MockBundle {
+        private final String location;
+        private int state = Bundle.INSTALLED;
+
+        public InstallableBundle(String location, String symbolicName) {
+            super(new HashMap<>(), symbolicName);
+            this.location = location;
+        }
+
+        @Override
+        public String getLocation() {
+            return location;
+        }
+
+        @Override
+        public int getState() {
+            return state;
+        }
+
+        @Override
+        public void start() throws BundleException {
+            state = Bundle.ACTIVE;
+        }
+
+        @Override
+        public void uninstall() throws BundleException {
+            state = Bundle.UNINSTALLED;
+        }
+    }
+
+    // A bundle context which records the bundles installed into it, naming them from their file
+    private static class InstallingBundleContext extends MockBundleContext {
+        private final List<Bundle> installedBundles;
+
+        public InstallingBundleContext(List<Bundle> installedBundles) {
+            super(new HashMap<>(), installedBundles);
+            this.installedBundles = installedBundles;
+        }
+
+        @Override
+        public Bundle installBundle(String location, InputStream input) throws BundleException {
+            String fileName = location.substring(location.lastIndexOf('/') + 1);
+            Bundle bundle = new InstallableBundle(location, fileName.substring(0, fileName.lastIndexOf('.')));
+            installedBundles.add(bundle);
+            return bundle;
+        }
+    }
+
+    // A resolver which deploys its resources into the bundle context, counting the deployments
+    private static class DeployingResolver extends MockResolver {
+        private final InstallingBundleContext bundleContext;
+        private int deployCount;
+
+        public DeployingResolver(InstallingBundleContext bundleContext) {
+            super(true);
+            this.bundleContext = bundleContext;
+        }
+
+        @Override
+        public void deploy(int flags) {
+            deployCount++;
+            try {
+                for (Resource resource : getRequiredResources()) {
+                    bundleContext.installBundle(resource.getURI(), null).start();
+                }
+            } catch (BundleException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static class DiscoveringRepositoryAdmin extends MockRepositoryAdmin {
+        private final Resource[] resources;
+
+        public DiscoveringRepositoryAdmin(List<Repository> repositories, MockResolver resolver, Resource... resources) {
+            super(repositories, resolver);
+            this.resources = resources;
+        }
+
+        @Override
+        public Resource[] discoverResources(String filterExpr) {
+            return resources;
+        }
+    }
+
+    private static class ModifiedRepository extends MockRepository {
+        public ModifiedRepository(String uri) {
+            super(uri);
+        }
+
+        @Override
+        public long getLastModified() {
+            return 100;
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        tempDirectory = Files.createTempDirectory("galasa_junit_bundle_management_");
+        cache = new BundleResolutionCache(tempDirectory.resolve("cache"));
+        BundleManagement.setResolutionCache(cache);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        BundleManagement.setResolutionCache(null);
+        FileUtils.deleteDirectory(tempDirectory.toFile());
+    }
+
+    private String createBundleFile(String symbolicName, String content) throws Exception {
+        Path bundleFile = tempDirectory.resolve(symbolicName + ".jar");
+        Files.writeString(bundleFile, content);
+        return bundleFile.toUri().toString();
+    }
+
+    private MockResource createResource(String location) {
+        MockResource resource = new MockResource(location);
+        resource.setSymbolicName(BUNDLE_NAME);
+        return resource;
+    }
+
+    @Test
+    public void testCachedResolutionIsInstalledWithoutTheResolver() throws Exception {
+        // Given...
+        String location = createBundleFile(BUNDLE_NAME, "bundle content");
+        InstallingBundleContext bundleContext = new InstallingBundleContext(new ArrayList<>());
+        DeployingResolver resolver = new DeployingResolver(bundleContext);
+        MockRepositoryAdmin repositoryAdmin = new MockRepositoryAdmin(List.of(new ModifiedRepository("mvn:my/obr/1.0/xml")), resolver);
+
+        String key = BundleManagement.getResolutionCacheKey(repositoryAdmin, bundleContext, BUNDLE_NAME);
+        cache.put(key, List.of(new CachedBundle(location, BundleResolutionCache.checksum("bundle content".getBytes(StandardCharsets.UTF_8)))));
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(BundleManagement.isBundleActive(bundleContext, BUNDLE_NAME)).isTrue();
+        assertThat(resolver.deployCount).isEqualTo(0);
+    }
+
+    @Test
+    public void testResolverDeploymentIsCached() throws Exception {
+        // Given...
+        String location = createBundleFile(BUNDLE_NAME, "bundle content");
+        InstallingBundleContext bundleContext = new InstallingBundleContext(new ArrayList<>());
+        DeployingResolver resolver = new DeployingResolver(bundleContext);
+        MockRepositoryAdmin repositoryAdmin = new DiscoveringRepositoryAdmin(List.of(new ModifiedRepository("mvn:my/obr/1.0/xml")),
+            resolver, createResource(location));
+
+        String key = BundleManagement.getResolutionCacheKey(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(resolver.deployCount).isEqualTo(1);
+        assertThat(cache.get(key)).extracting(CachedBundle::getLocation).containsExactly(location);
+    }
+
+    @Test
+    public void testChangedBundleIsResolvedAgain() throws Exception {
+        // Given...
+        String location = createBundleFile(BUNDLE_NAME, "new bundle content");
+        InstallingBundleContext bundleContext = new InstallingBundleContext(new ArrayList<>());
+        DeployingResolver resolver = new DeployingResolver(bundleContext);
+        MockRepositoryAdmin repositoryAdmin = new DiscoveringRepositoryAdmin(List.of(new ModifiedRepository("mvn:my/obr/1.0/xml")),
+            resolver, createResource(location));
+
+        String key = BundleManagement.getResolutionCacheKey(repositoryAdmin, bundleContext, BUNDLE_NAME);
+        cache.put(key, List.of(new CachedBundle(location, BundleResolutionCache.checksum("old bundle content".getBytes(StandardCharsets.UTF_8)))));
+
+        // When...
+        BundleManagement.loadBundle(repositoryAdmin, bundleContext, BUNDLE_NAME);
+
+        // Then...
+        assertThat(BundleManagement.isBundleActive(bundleContext, BUNDLE_NAME)).isTrue();
+        assertThat(resolver.deployCount).isEqualTo(1);
+        assertThat(cache.get(key)).extracting(CachedBundle::getChecksum)
+            .containsExactly(BundleResolutionCache.checksum("new bundle content".getBytes(StandardCharsets.UTF_8)));
+    }
+}
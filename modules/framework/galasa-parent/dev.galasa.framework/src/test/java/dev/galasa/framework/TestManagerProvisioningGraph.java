@@ -0,0 +1,162 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.constraints.NotNull;
+
+import org.junit.Test;
+
+import dev.galasa.ManagerException;
+import dev.galasa.framework.ManagerProvisioningGraph.ManagerPhaseFailure;
+import dev.galasa.framework.mocks.MockTimeService;
+import dev.galasa.framework.spi.AbstractManager;
+import dev.galasa.framework.spi.IManager;
+
+public class TestManagerProvisioningGraph {
+
+    private static class MockProvisioningManager extends AbstractManager {
+        private final String name;
+        private final List<String> calls;
+        private final List<IManager> dependencies = new ArrayList<>();
+        private CyclicBarrier barrier;
+        private boolean isFailing = false;
+
+        MockProvisioningManager(String name, List<String> calls) {
+            this.name = name;
+            this.calls = calls;
+        }
+
+        @Override
+        public boolean areYouProvisionalDependentOn(@NotNull IManager otherManager) {
+            return dependencies.contains(otherManager);
+        }
+
+        @Override
+        public void provisionGenerate() throws ManagerException {
+            if (barrier != null) {
+                try {
+                    barrier.await(10, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new ManagerException("Other managers were not provisioned at the same time", e);
+                }
+            }
+            calls.add(name);
+            if (isFailing) {
+                throw new ManagerException(name + " failed");
+            }
+        }
+
+        @Override
+        public void provisionDiscard() {
+            calls.add(name);
+        }
+    }
+
+    private List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+    private ManagerProvisioningGraph createGraph(IManager... managers) {
+        return new ManagerProvisioningGraph(List.of(managers), new MockTimeService(Instant.EPOCH));
+    }
+
+    @Test
+    public void testOneThreadProvisionsManagersInOrder() throws Exception {
+        // Given...
+        MockProvisioningManager managerA = new MockProvisioningManager("a", calls);
+        MockProvisioningManager managerB = new MockProvisioningManager("b", calls);
+        MockProvisioningManager managerC = new MockProvisioningManager("c", calls);
+        ManagerProvisioningGraph graph = createGraph(managerA, managerB, managerC);
+        Map<IManager, Duration> timings = new LinkedHashMap<>();
+
+        // When...
+        graph.run(manager -> manager.provisionGenerate(), false, 1, timings);
+        graph.run(manager -> manager.provisionDiscard(), true, 1, new LinkedHashMap<>());
+
+        // Then...
+        assertThat(calls).containsExactly("a", "b", "c", "c", "b", "a");
+        assertThat(timings).containsOnlyKeys(managerA, managerB, managerC);
+    }
+
+    @Test
+    public void testIndependentManagersAreProvisionedAtTheSameTime() throws Exception {
+        // Given...
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        MockProvisioningManager managerA = new MockProvisioningManager("a", calls);
+        MockProvisioningManager managerB = new MockProvisioningManager("b", calls);
+        managerA.barrier = barrier;
+        managerB.barrier = barrier;
+        ManagerProvisioningGraph graph = createGraph(managerA, managerB);
+        Map<IManager, Duration> timings = new LinkedHashMap<>();
+
+        // When...
+        graph.run(manager -> manager.provisionGenerate(), false, 2, timings);
+
+        // Then...
+        assertThat(calls).containsExactlyInAnyOrder("a", "b");
+        assertThat(timings).containsOnlyKeys(managerA, managerB);
+    }
+
+    @Test
+    public void testManagersWaitForTheManagersTheyDependOn() throws Exception {
+        // Given...
+        MockProvisioningManager managerA = new MockProvisioningManager("a", calls);
+        MockProvisioningManager managerB = new MockProvisioningManager("b", calls);
+        MockProvisioningManager managerC = new MockProvisioningManager("c", calls);
+        managerC.dependencies.add(managerA);
+        managerC.dependencies.add(managerB);
+        ManagerProvisioningGraph graph = createGraph(managerA, managerB, managerC);
+
+        // When...
+        graph.run(manager -> manager.provisionGenerate(), false, 4, new LinkedHashMap<>());
+        List<String> generateCalls = new ArrayList<>(calls);
+        calls.clear();
+        graph.run(manager -> manager.provisionDiscard(), true, 4, new LinkedHashMap<>());
+
+        // Then...
+        assertThat(generateCalls).hasSize(3).endsWith("c");
+        assertThat(calls).hasSize(3).startsWith("c");
+    }
+
+    @Test
+    public void testEarliestFailedManagerIsReportedAndItsDependentsAreNotProvisioned() throws Exception {
+        // Given...
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        MockProvisioningManager managerA = new MockProvisioningManager("a", calls);
+        MockProvisioningManager managerB = new MockProvisioningManager("b", calls);
+        MockProvisioningManager managerC = new MockProvisioningManager("c", calls);
+        managerA.barrier = barrier;
+        managerB.barrier = barrier;
+        managerA.isFailing = true;
+        managerB.isFailing = true;
+        managerC.dependencies.add(managerA);
+        ManagerProvisioningGraph graph = createGraph(managerA, managerB, managerC);
+        Map<IManager, Duration> timings = new LinkedHashMap<>();
+
+        // When...
+        ManagerPhaseFailure failure = catchThrowableOfType(
+            () -> graph.run(manager -> manager.provisionGenerate(), false, 2, timings),
+            ManagerPhaseFailure.class
+        );
+
+        // Then...
+        assertThat(failure).isNotNull();
+        assertThat(failure.getManager()).isSameAs(managerA);
+        assertThat(failure.getCause()).hasMessage("a failed");
+        assertThat(calls).containsExactlyInAnyOrder("a", "b");
+        assertThat(timings).containsOnlyKeys(managerA, managerB);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.framework.internal.ras.directory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.framework.spi.IRunResult;
+import dev.galasa.framework.spi.ras.RasRunResultPage;
+import dev.galasa.framework.spi.ras.RasSearchCriteriaRequestor;
+import dev.galasa.framework.spi.ras.RasSortField;
+import dev.galasa.framework.spi.teststructure.TestStructure;
+import dev.galasa.framework.spi.utils.GalasaGson;
+
+public class DirectoryRASDirectoryServiceTest {
+
+    private Path rasDirectory;
+    private GalasaGson gson = new GalasaGson();
+
+    @Before
+    public void before() throws IOException {
+        this.rasDirectory = Files.createTempDirectory("galasa_junit_ras_");
+    }
+
+    @After
+    public void after() throws IOException {
+        if (this.rasDirectory != null && Files.exists(this.rasDirectory)) {
+            FileUtils.deleteDirectory(this.rasDirectory.toFile());
+        }
+    }
+
+    private Path writeRun(String runName, String requestor, Instant queued) throws IOException {
+        TestStructure testStructure = new TestStructure();
+        testStructure.setRunName(runName);
+        testStructure.setTestName("dev.galasa.test.Test" + runName);
+        testStructure.setBundle("dev.galasa.test");
+        testStructure.setRequestor(requestor);
+        testStructure.setQueued(queued);
+        testStructure.setResult("Passed");
+        return writeRun(testStructure);
+    }
+
+    private Path writeRun(TestStructure testStructure) throws IOException {
+        Path runDirectory = rasDirectory.resolve(testStructure.getRunName());
+        Files.createDirectories(runDirectory);
+        Files.write(runDirectory.resolve("structure.json"), gson.toJson(testStructure).getBytes(StandardCharsets.UTF_8));
+        return runDirectory;
+    }
+
+    private List<String> getRunNames(List<IRunResult> runs) throws Exception {
+        List<String> runNames = new ArrayList<>();
+        for (IRunResult run : runs) {
+            runNames.add(run.getTestStructure().getRunName());
+        }
+        return runNames;
+    }
+
+    @Test
+    public void testRunsWrittenWithoutTheIndexAreFoundAndIndexed() throws Exception {
+        // Given...
+        writeRun("U1", "alice", Instant.parse("2024-01-01T10:00:00Z"));
+        writeRun("U2", "bob", Instant.parse("2024-01-01T11:00:00Z"));
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        List<IRunResult> runs = directoryService.getRuns(new RasSearchCriteriaRequestor("bob"));
+
+        // Then...
+        assertThat(getRunNames(runs)).containsExactly("U2");
+        assertThat(directoryService.getRequestors()).containsExactlyInAnyOrder("alice", "bob");
+        assertThat(rasDirectory.resolve(DirectoryRASRunIndex.INDEX_FILE_NAME)).exists();
+    }
+
+    @Test
+    public void testIndexIsReadBackByAnotherDirectoryService() throws Exception {
+        // Given...
+        writeRun("U1", "alice", Instant.parse("2024-01-01T10:00:00Z"));
+        new DirectoryRASDirectoryService(rasDirectory, gson).getRuns();
+
+        // Overwrite the run's structure without changing its modified time, so it can only be found
+        // through the index
+        Path structureFile = rasDirectory.resolve("U1").resolve("structure.json");
+        FileTime modifiedTime = Files.getLastModifiedTime(structureFile);
+        Files.write(structureFile, "not json".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(structureFile, modifiedTime);
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory, gson);
+
+        // When...
+        List<DirectoryRASRunIndex.IndexedRun> indexedRuns = runIndex.getRuns();
+
+        // Then...
+        assertThat(indexedRuns).hasSize(1);
+        assertThat(indexedRuns.get(0).getSummary().getRequestor()).isEqualTo("alice");
+    }
+
+    @Test
+    public void testRecordedUpdatesReplaceEarlierIndexEntries() throws Exception {
+        // Given...
+        DirectoryRASRunIndex runIndex = new DirectoryRASRunIndex(rasDirectory, gson);
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson, runIndex);
+
+        TestStructure testStructure = new TestStructure();
+        testStructure.setRunName("U1");
+        testStructure.setTestName("dev.galasa.test.MyTest");
+        testStructure.setResult("Running");
+        runIndex.recordRun(writeRun(testStructure), testStructure);
+        assertThat(directoryService.getResultNames()).containsExactly("Running");
+
+        // When...
+        testStructure.setResult("Passed");
+        runIndex.recordRun(writeRun(testStructure), testStructure);
+
+        // Then...
+        assertThat(directoryService.getResultNames()).containsExactly("Passed");
+        assertThat(directoryService.getRunsByRunName("U1")).hasSize(1);
+    }
+
+    @Test
+    public void testRunsPageIsSortedAndPaginated() throws Exception {
+        // Given...
+        Instant baseTime = Instant.parse("2024-01-01T10:00:00Z");
+        for (int i = 1; i <= 5; i++) {
+            writeRun("U" + i, "alice", baseTime.plusSeconds(i * 60));
+        }
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+        RasSortField sort = new RasSortField("queued", "desc");
+
+        // When...
+        RasRunResultPage page1 = directoryService.getRunsPage(2, sort, null);
+        RasRunResultPage page2 = directoryService.getRunsPage(2, sort, page1.getNextCursor());
+
+        // A run added between pages does not shift the pages that follow
+        writeRun("U0", "alice", baseTime);
+        RasRunResultPage page3 = directoryService.getRunsPage(2, sort, page2.getNextCursor());
+
+        // Then...
+        assertThat(getRunNames(page1.getRuns())).containsExactly("U5", "U4");
+        assertThat(getRunNames(page2.getRuns())).containsExactly("U3", "U2");
+        assertThat(getRunNames(page3.getRuns())).containsExactly("U1", "U0");
+        assertThat(page3.getNextCursor()).isNull();
+    }
+
+    @Test
+    public void testRunsPageSortsAscending() throws Exception {
+        // Given...
+        writeRun("U1", "carol", Instant.parse("2024-01-01T10:00:00Z"));
+        writeRun("U2", "alice", Instant.parse("2024-01-01T11:00:00Z"));
+        writeRun("U3", "bob", Instant.parse("2024-01-01T12:00:00Z"));
+        DirectoryRASDirectoryService directoryService = new DirectoryRASDirectoryService(rasDirectory, gson);
+
+        // When...
+        RasRunResultPage page = directoryService.getRunsPage(10, new RasSortField("requestor", "asc"), null);
+
+        // Then...
+        assertThat(getRunNames(page.getRuns())).containsExactly("U2", "U3", "U1");
+        assertThat(page.getNextCursor()).isNull();
+    }
+}
@@ -167,4 +167,124 @@ public class TestCacheRBACImpl {
         // Then...
         assertThat(dssData).isEmpty();
     }
+
+    @Test
+    public void testIsActionPermittedUsesNearCacheForRepeatedChecks() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        CacheRBACImpl cache = new CacheRBACImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        String loginId = "bob";
+        cache.addUser(loginId, Set.of("GENERAL_API_ACCESS"));
+
+        // When...
+        boolean isFirstCheckPermitted = cache.isActionPermitted(loginId, "GENERAL_API_ACCESS");
+
+        // Change the DSS without any watch events, so only the near cache has the user's actions now
+        mockDssService.data.clear();
+        boolean isSecondCheckPermitted = cache.isActionPermitted(loginId, "GENERAL_API_ACCESS");
+
+        // Then...
+        assertThat(isFirstCheckPermitted).isTrue();
+        assertThat(isSecondCheckPermitted).isTrue();
+        assertThat(cache.getNearCacheMissCount()).isEqualTo(1);
+        assertThat(cache.getNearCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testChangedUserActionsInDssAreNotTakenFromNearCache() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        CacheRBACImpl cache = new CacheRBACImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        String loginId = "bob.smith@example.com";
+        cache.addUser(loginId, Set.of("GENERAL_API_ACCESS", "SECRETS_GET_UNREDACTED_VALUES"));
+        assertThat(cache.isActionPermitted(loginId, "SECRETS_GET_UNREDACTED_VALUES")).isTrue();
+
+        // When...
+        // Another API server changes the user's actions, which is seen through the DSS watch
+        mockDssService.put("user." + loginId + ".actions", "GENERAL_API_ACCESS");
+        boolean isPermitted = cache.isActionPermitted(loginId, "SECRETS_GET_UNREDACTED_VALUES");
+
+        // Then...
+        assertThat(isPermitted).isFalse();
+    }
+
+    @Test
+    public void testInvalidateUserRemovesUserFromNearCache() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        CacheRBACImpl cache = new CacheRBACImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        String loginId = "bob";
+        cache.addUser(loginId, Set.of("GENERAL_API_ACCESS"));
+        assertThat(cache.isActionPermitted(loginId, "GENERAL_API_ACCESS")).isTrue();
+
+        // When...
+        cache.invalidateUser(loginId);
+
+        // Then...
+        // Bob has no user record, so is no longer permitted once his cached actions are gone
+        assertThat(cache.isActionPermitted(loginId, "GENERAL_API_ACCESS")).isFalse();
+    }
+
+    @Test
+    public void testNearCacheEntriesAreReadFromDssAgainAfterTheyExpire() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        CacheRBACImpl cache = new CacheRBACImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        String loginId = "bob";
+        cache.addUser(loginId, Set.of("GENERAL_API_ACCESS"));
+        assertThat(cache.isActionPermitted(loginId, "GENERAL_API_ACCESS")).isTrue();
+
+        // When...
+        // The DSS changes without a watch event, so the near cache only notices once its entry expires
+        mockDssService.data.put("user." + loginId + ".actions", "CPS_PROPERTIES_SET");
+        boolean isPermittedBeforeExpiry = cache.isActionPermitted(loginId, "GENERAL_API_ACCESS");
+
+        timeService.setCurrentTime(timeService.now().plusSeconds(60));
+        boolean isPermittedAfterExpiry = cache.isActionPermitted(loginId, "GENERAL_API_ACCESS");
+
+        // Then...
+        assertThat(isPermittedBeforeExpiry).isTrue();
+        assertThat(isPermittedAfterExpiry).isFalse();
+    }
+
+    @Test
+    public void testShutdownStopsWatchingTheDssAndUsingTheNearCache() throws Exception {
+        // Given...
+        MockTimeService timeService = new MockTimeService(Instant.now());
+        MockAuthStoreService mockAuthStoreService = new MockAuthStoreService(timeService);
+        MockRBACService mockRbacService = FilledMockRBACService.createTestRBACService();
+        MockIDynamicStatusStoreService mockDssService = new MockIDynamicStatusStoreService();
+
+        CacheRBACImpl cache = new CacheRBACImpl(mockDssService, mockAuthStoreService, mockRbacService, timeService);
+        String loginId = "bob";
+        cache.addUser(loginId, Set.of("GENERAL_API_ACCESS"));
+        assertThat(cache.isActionPermitted(loginId, "GENERAL_API_ACCESS")).isTrue();
+        assertThat(mockDssService.getPrefixWatcherCount()).isEqualTo(1);
+
+        // When...
+        cache.shutdown();
+
+        // Then...
+        // Changes to the DSS are no longer watched, so the actions are read from the DSS every time
+        assertThat(mockDssService.getPrefixWatcherCount()).isEqualTo(0);
+        mockDssService.data.put("user." + loginId + ".actions", "CPS_PROPERTIES_SET");
+        assertThat(cache.isActionPermitted(loginId, "GENERAL_API_ACCESS")).isFalse();
+        assertThat(cache.getNearCacheHitCount()).isEqualTo(0);
+    }
 }
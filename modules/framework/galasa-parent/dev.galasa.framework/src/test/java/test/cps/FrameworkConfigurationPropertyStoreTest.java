@@ -11,6 +11,9 @@ import static org.assertj.core.api.Assertions.*;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 import org.junit.After;
@@ -241,4 +244,45 @@ public class FrameworkConfigurationPropertyStoreTest {
 
         assertThat(record).hasSize(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testVariantsBeforeAnOverrideAreFetchedFromTheStoreInOneGo() throws ConfigurationPropertyStoreException, IOException {
+        // Given...
+        Properties overrides = new Properties();
+        Properties record = new Properties();
+
+        Properties testProps = new Properties();
+        testProps.setProperty("zos.image.PLEXMA.credentialid", "Waddup");
+        testProps.setProperty("zos.image.credentialid", "tab!=space");
+
+        overrides.setProperty("zos.image.credentialid", "Sever2");
+
+        FileOutputStream out = new FileOutputStream(testProp);
+        testProps.store(out, null);
+        out.close();
+
+        List<List<String>> requestedKeys = new ArrayList<>();
+        FpfConfigurationPropertyStore fpfcps = new FpfConfigurationPropertyStore(testProp.toURI()) {
+            @Override
+            public Map<String, String> getProperties(List<String> keys) throws ConfigurationPropertyStoreException {
+                requestedKeys.add(new ArrayList<>(keys));
+                return super.getProperties(keys);
+            }
+        };
+
+        FrameworkConfigurationPropertyService test = new FrameworkConfigurationPropertyService(new MockFramework(), fpfcps,
+                overrides, record, "zos");
+
+        // When...
+        String value = test.getProperty("image", "credentialid", "PLEXMA", "MVMA");
+
+        // Then...
+        assertThat(value).isEqualTo("Waddup");
+        assertThat(requestedKeys).containsExactly(
+            List.of("zos.image.PLEXMA.MVMA.credentialid", "zos.image.PLEXMA.credentialid"));
+
+        assertThat(record.getProperty("zos.image.PLEXMA.MVMA.credentialid._source")).isEqualTo("missing");
+        assertThat(record.getProperty("zos.image.PLEXMA.credentialid._source")).isEqualTo("cps");
+        assertThat(record.getProperty("zos.image.credentialid._source")).isNull();
+    }
+}
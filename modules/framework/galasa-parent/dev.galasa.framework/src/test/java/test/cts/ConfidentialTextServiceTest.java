@@ -9,11 +9,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 
 import org.junit.Test;
 
 import dev.galasa.framework.internal.cts.FrameworkConfidentialTextService;
 import dev.galasa.framework.spi.ConfidentialTextException;
+import dev.galasa.framework.spi.IConfidentialTextService;
 
 /**
  * This test class ensures that confidential texts that have been registered are
@@ -82,4 +85,144 @@ public class ConfidentialTextServiceTest {
         System.out.println(result + "\n" + expected);
         assertEquals("Did not remove confidential imfomation ", expected, result);
     }
+
+    /**
+     * This test method ensures that registered texts are matched literally, even
+     * if they contain characters which mean something in a regular expression.
+     */
+    @Test
+    public void testRemoveConfidentialTextWithRegexCharacters() throws ConfidentialTextException, IOException {
+        FrameworkConfidentialTextService ctsService = new FrameworkConfidentialTextService();
+
+        ctsService.registerText("p.ss", "This is a test comment");
+
+        String testSentence = "The password is p.ss, not pass";
+        String expected = "The password is *1**, not pass";
+
+        String result = ctsService.removeConfidentialText(testSentence);
+        assertEquals("Did not remove confidential imfomation ", expected, result);
+    }
+
+    /**
+     * This test method ensures that when registered texts overlap, the one which
+     * starts first is removed, and the longest one if they start at the same place.
+     */
+    @Test
+    public void testRemoveOverlappingConfidentialText() throws ConfidentialTextException, IOException {
+        FrameworkConfidentialTextService ctsService = new FrameworkConfidentialTextService();
+
+        ctsService.registerText("secret", "This is a test comment");
+        ctsService.registerText("secretive", "This is a test comment");
+        ctsService.registerText("tiveness", "This is a test comment");
+
+        String testSentence = "secretiveness and secrets";
+        String expected = "****2****ness and **1***s";
+
+        String result = ctsService.removeConfidentialText(testSentence);
+        assertEquals("Did not remove confidential imfomation ", expected, result);
+    }
+
+    /**
+     * This test method ensures that a filtering writer removes registered texts,
+     * even when they are split across several writes.
+     */
+    @Test
+    public void testConfidentialTextFilterRemovesTextSplitAcrossWrites() throws ConfidentialTextException, IOException {
+        FrameworkConfidentialTextService ctsService = new FrameworkConfidentialTextService();
+
+        ctsService.registerText("test1", "This is a test comment");
+        ctsService.registerText("test2", "This is a test comment");
+
+        StringWriter output = new StringWriter();
+        try (Writer filter = ctsService.createConfidentialTextFilter(output)) {
+            filter.write("The current password is te");
+            filter.write("st1, and the new password is t");
+            filter.write('e');
+            filter.write("st2".toCharArray());
+        }
+
+        String expected = "The current password is **1**, and the new password is **2**";
+        assertEquals("Did not remove confidential imfomation ", expected, output.toString());
+    }
+
+    /**
+     * This test method ensures that many registered texts are all removed from a
+     * large text, and that the streaming and string forms give the same result.
+     */
+    @Test
+    public void testRemoveManyConfidentialTextsFromLargeText() throws ConfidentialTextException, IOException {
+        FrameworkConfidentialTextService ctsService = new FrameworkConfidentialTextService();
+
+        int secretCount = 200;
+        for (int i = 0; i < secretCount; i++) {
+            ctsService.registerText("secret-" + i + "-value", "This is a test comment");
+        }
+
+        StringBuilder testText = new StringBuilder();
+        while (testText.length() < 2 * 1024 * 1024) {
+            for (int i = 0; i < secretCount; i += 7) {
+                testText.append("line with secret-").append(i).append("-value in it\n");
+            }
+        }
+
+        String result = ctsService.removeConfidentialText(testText.toString());
+
+        StringWriter streamedOutput = new StringWriter();
+        try (Writer filter = ctsService.createConfidentialTextFilter(streamedOutput)) {
+            filter.write(testText.toString());
+        }
+
+        assertTrue("Confidential text was not removed", !result.contains("-value"));
+        assertTrue("Replacement tags were not added", result.contains("******1*******"));
+        assertEquals("Streamed output did not match", result, streamedOutput.toString());
+    }
+
+    /**
+     * This test method ensures that texts registered after text has been scrubbed
+     * are removed from text scrubbed afterwards.
+     */
+    @Test
+    public void testTextRegisteredAfterScrubbingIsRemovedToo() throws ConfidentialTextException {
+        FrameworkConfidentialTextService ctsService = new FrameworkConfidentialTextService();
+
+        ctsService.registerText("test1", "This is a test comment");
+        String firstResult = ctsService.removeConfidentialText("test1 test2");
+
+        ctsService.registerText("test2", "This is a test comment");
+        String secondResult = ctsService.removeConfidentialText("test1 test2");
+
+        assertEquals("Did not remove confidential imfomation ", "**1** test2", firstResult);
+        assertEquals("Did not remove confidential imfomation ", "**1** **2**", secondResult);
+    }
+
+    /**
+     * This test method ensures that a service which doesn't provide its own filtering
+     * writer still removes registered texts from the output when the writer is closed.
+     */
+    @Test
+    public void testDefaultConfidentialTextFilterRemovesTextWhenClosed() throws IOException {
+        IConfidentialTextService ctsService = new IConfidentialTextService() {
+            @Override
+            public void registerText(String confidentialString, String comment) {
+            }
+
+            @Override
+            public String removeConfidentialText(String text) {
+                return text.replace("test1", "**1**");
+            }
+
+            @Override
+            public void shutdown() {
+            }
+        };
+
+        StringWriter output = new StringWriter();
+        Writer filter = ctsService.createConfidentialTextFilter(output);
+        filter.write("The current password is te");
+        filter.write("st1");
+        filter.close();
+        filter.close();
+
+        assertEquals("Did not remove confidential imfomation ", "The current password is **1**", output.toString());
+    }
 }
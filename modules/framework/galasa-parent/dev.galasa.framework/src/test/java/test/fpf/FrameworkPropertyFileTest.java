@@ -21,13 +21,20 @@ import java.net.URISyntaxException;
 import java.nio.channels.FileChannel;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
@@ -135,6 +142,112 @@ public class FrameworkPropertyFileTest {
         fpf.destroy();
     }
 
+    /**
+     * <p>
+     * This tests that a prefix lookup returns every key starting with the prefix
+     * and none of the keys either side of them.
+     * </p>
+     */
+    @Test
+    public void testGetPrefixReturnsOnlyKeysStartingWithThePrefix() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        Map<String, String> newValues = new HashMap<>();
+        newValues.put("prefix", "exact");
+        newValues.put("prefiw.before", "before");
+        newValues.put("prefiy.after", "after");
+        newValues.put("prefix.infiy.suffix", "sibling");
+        newValues.put("max\uffff.key", "max1");
+        newValues.put("max\uffff\uffff.key", "max2");
+        newValues.put("maz.key", "after max");
+        fpf.set(newValues);
+
+        Map<String, String> values = fpf.getPrefix("prefix.infix.");
+        assertEquals("Wrong keys found for the prefix", Set.of("prefix.infix.suffix1", "prefix.infix.suffix2"), values.keySet());
+        assertEquals("Wrong value found for the prefix", "SomeString1", values.get("prefix.infix.suffix1"));
+
+        Collection<String> keys = fpf.getPrefixKeysOnly("prefix");
+        assertEquals("Wrong keys found for the prefix",
+            Set.of("prefix", "prefix.infix.suffix1", "prefix.infix.suffix2", "prefix.infiy.suffix"), new HashSet<>(keys));
+        assertEquals("Keys were repeated", 4, keys.size());
+
+        assertEquals("Wrong keys found for a prefix ending in the largest character",
+            Set.of("max\uffff.key", "max\uffff\uffff.key"), fpf.getPrefix("max\uffff").keySet());
+        assertEquals("Wrong keys found for a prefix of only the largest character",
+            Set.of(), fpf.getPrefix("\uffff").keySet());
+        assertEquals("Every key should match an empty prefix", 13, fpf.getPrefix("").size());
+        assertTrue("No keys should match an unknown prefix", fpf.getPrefix("unknown").isEmpty());
+
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that each namespace is listed once, including namespaces whose names
+     * sort in between the keys of another namespace.
+     * </p>
+     */
+    @Test
+    public void testGetNamespacesListsEachNamespaceOnce() throws FrameworkPropertyFileException, IOException {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        Map<String, String> newValues = new HashMap<>();
+        newValues.put("cps.a", "value");
+        newValues.put("cps.b", "value");
+        newValues.put("cps-extra.c", "value");
+        newValues.put("cpsz.d", "value");
+        newValues.put("cps", "value");
+        fpf.set(newValues);
+
+        List<String> namespaces = fpf.getNamespaces();
+
+        assertEquals("Wrong namespaces found", Set.of("prefix", "cps", "cps-extra", "cpsz"), new HashSet<>(namespaces));
+        assertEquals("Namespaces were repeated", 4, namespaces.size());
+
+        fpf.destroy();
+    }
+
+    /**
+     * <p>
+     * This tests that readers running alongside a writer never see half of a batch of changes.
+     * </p>
+     */
+    @Test
+    public void testReadersAlwaysSeeWholeBatchesOfChanges() throws Exception {
+        FrameworkPropertyFile fpf = new FrameworkPropertyFile(testPropUri);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    Map<String, String> batch = new HashMap<>();
+                    batch.put("batch.first", Integer.toString(i));
+                    batch.put("batch.second", Integer.toString(i));
+                    fpf.set(batch);
+                }
+                return null;
+            });
+
+            List<Future<?>> readers = new ArrayList<>();
+            for (int reader = 0; reader < 3; reader++) {
+                readers.add(executor.submit(() -> {
+                    while (!writer.isDone()) {
+                        Map<String, String> batch = fpf.getPrefix("batch.");
+                        assertEquals("A reader saw part of a batch", batch.get("batch.first"), batch.get("batch.second"));
+                        assertTrue("A reader saw a key outside the prefix", batch.size() == 0 || batch.size() == 2);
+                    }
+                    return null;
+                }));
+            }
+
+            writer.get(60, TimeUnit.SECONDS);
+            for (Future<?> reader : readers) {
+                reader.get(60, TimeUnit.SECONDS);
+            }
+            assertEquals("Last batch was not stored", "199", fpf.get("batch.first"));
+        } finally {
+            executor.shutdownNow();
+            fpf.destroy();
+        }
+    }
+
     /**
      * <p>
      * This tests the setting of a k-v pair into the properties file.
@@ -41,4 +41,8 @@ public class MockCacheRBAC implements CacheRBAC {
     public void invalidateUser(String loginId) throws RBACException {
         usersToActionsMap.remove(loginId);
     }
+
+    @Override
+    public void shutdown() throws RBACException {
+    }
 }
@@ -19,6 +19,8 @@ import javax.validation.constraints.Null;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import dev.galasa.framework.spi.DssAdd;
+import dev.galasa.framework.spi.DssUpdate;
 import dev.galasa.framework.spi.DynamicStatusStoreException;
 import dev.galasa.framework.spi.DynamicStatusStoreMatchException;
 import dev.galasa.framework.spi.IDssAction;
@@ -33,6 +35,7 @@ public class MockDSSStore implements IDynamicStatusStore, IDynamicStatusStoreSer
     private Map<String,String> valueMap ;
     private Log logger = LogFactory.getLog(MockDSSStore.class.getName());
     private boolean isSwapSetToFail = false;
+    private int performActionsCount = 0;
 
     public MockDSSStore(Map<String,String> valueMap) {
         this.valueMap = valueMap;
@@ -60,7 +63,8 @@ public class MockDSSStore implements IDynamicStatusStore, IDynamicStatusStoreSer
     public boolean putSwap(@NotNull String key, String oldValue, @NotNull String newValue,
             @NotNull Map<String, String> others) throws DynamicStatusStoreException {
         logger.debug("DSS putswap of property "+key+" oldValue:"+oldValue+" newValue:"+newValue);
-        boolean isSuccessful = !isSwapSetToFail;
+        // A null old value means the key must not be set yet
+        boolean isSuccessful = !isSwapSetToFail && (oldValue != null || !valueMap.containsKey(key));
         if (isSuccessful) {
             valueMap.put(key,newValue);
             for (Entry<String, String> entry : others.entrySet()) {
@@ -119,13 +123,37 @@ public class MockDSSStore implements IDynamicStatusStore, IDynamicStatusStoreSer
 
     @Override
     public void deletePrefix(@NotNull String keyPrefix) throws DynamicStatusStoreException {
-        throw new UnsupportedOperationException("Unimplemented method 'deletePrefix'");
+        valueMap.keySet().removeIf(key -> key.startsWith(keyPrefix));
     }
 
     @Override
     public void performActions(IDssAction... actions)
             throws DynamicStatusStoreException, DynamicStatusStoreMatchException {
-        throw new UnsupportedOperationException("Unimplemented method 'performActions'");
+        performActionsCount++;
+
+        // Check every action before changing anything, so the actions are all or nothing
+        for (IDssAction action : actions) {
+            if (action instanceof DssAdd) {
+                String key = ((DssAdd) action).getKey();
+                if (valueMap.containsKey(key)) {
+                    throw new DynamicStatusStoreMatchException("Attempt to add new property '" + key + "' but it already exists");
+                }
+            } else if (!(action instanceof DssUpdate)) {
+                throw new UnsupportedOperationException("Unimplemented DSS action " + action.getClass().getName());
+            }
+        }
+
+        for (IDssAction action : actions) {
+            if (action instanceof DssAdd) {
+                valueMap.put(((DssAdd) action).getKey(), ((DssAdd) action).getValue());
+            } else {
+                valueMap.put(((DssUpdate) action).getKey(), ((DssUpdate) action).getValue());
+            }
+        }
+    }
+
+    public int getPerformActionsCount() {
+        return performActionsCount;
     }
 
     @Override
@@ -6,7 +6,9 @@
 package dev.galasa.framework.mocks;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -53,6 +55,15 @@ public class MockFrameworkRuns implements IFrameworkRuns{
         return this.runs;
     }
 
+    @Override
+    public @NotNull Map<String, IRun> getRunsSnapshot() throws FrameworkException {
+        Map<String, IRun> snapshot = new HashMap<>();
+        for (IRun run : this.runs) {
+            snapshot.put(run.getName(), run);
+        }
+        return snapshot;
+    }
+
     @Override
     public @NotNull List<IRun> getActiveRuns() throws FrameworkException {
         throw new UnsupportedOperationException("Unimplemented method 'getActiveRuns'");
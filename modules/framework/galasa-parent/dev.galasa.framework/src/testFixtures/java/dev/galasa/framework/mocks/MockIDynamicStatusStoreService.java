@@ -46,6 +46,9 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
 
     public Map<String,String> data = new HashMap<>();
 
+    // Watchers by the key prefix they are watching
+    private Map<UUID, Map.Entry<String, IDynamicStatusStoreWatcher>> prefixWatchers = new HashMap<>();
+
     @Override
     public boolean putSwap(@NotNull String key, String oldValue, @NotNull String newValue) {
         // Don't record heartbeat events in the history. They are random how many there would be 
@@ -63,7 +66,10 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
         // Heartbeat deletion events should be recorded, as they are a sign that cleanup
         // is being done, so unit tests will want to check that.
         history.add( new DssHistoryRecord(DssHistoryRecordType.DELETE, key ));
-        data.remove(key);
+        String oldValue = data.remove(key);
+        if (oldValue != null) {
+            notifyPrefixWatchers(key, IDynamicStatusStoreWatcher.Event.DELETE, oldValue, null);
+        }
     }
 
     @Override
@@ -73,7 +79,33 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
 
     @Override
     public void put(@NotNull String key, @NotNull String value) throws DynamicStatusStoreException {
-        data.put(key, value);
+        String oldValue = data.put(key, value);
+        IDynamicStatusStoreWatcher.Event event = (oldValue == null) ? IDynamicStatusStoreWatcher.Event.NEW : IDynamicStatusStoreWatcher.Event.MODIFIED;
+        notifyPrefixWatchers(key, event, oldValue, value);
+    }
+
+    @Override
+    public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
+        UUID watchId = UUID.randomUUID();
+        prefixWatchers.put(watchId, Map.entry(keyPrefix, watcher));
+        return watchId;
+    }
+
+    @Override
+    public void unwatch(UUID watchId) throws DynamicStatusStoreException {
+        prefixWatchers.remove(watchId);
+    }
+
+    public int getPrefixWatcherCount() {
+        return prefixWatchers.size();
+    }
+
+    private void notifyPrefixWatchers(String key, IDynamicStatusStoreWatcher.Event event, String oldValue, String newValue) {
+        for (Map.Entry<String, IDynamicStatusStoreWatcher> prefixWatcher : new ArrayList<>(prefixWatchers.values())) {
+            if (key.startsWith(prefixWatcher.getKey())) {
+                prefixWatcher.getValue().propertyModified(key, event, oldValue, newValue);
+            }
+        }
     }
 
     @Override
@@ -132,15 +164,6 @@ public class MockIDynamicStatusStoreService implements IDynamicStatusStoreServic
                throw new UnsupportedOperationException("Unimplemented method 'watch'");
     }
 
-    @Override
-    public UUID watchPrefix(IDynamicStatusStoreWatcher watcher, String keyPrefix) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'watchPrefix'");
-    }
-
-    @Override
-    public void unwatch(UUID watchId) throws DynamicStatusStoreException {
-               throw new UnsupportedOperationException("Unimplemented method 'unwatch'");
-    }
 
     @Override
     public IDynamicResource getDynamicResource(String resourceKey) {
@@ -112,6 +112,11 @@ public class MockRBACService implements RBACService {
         usersToActionsCache.invalidateUser(loginId);
     }
 
+    @Override
+    public void shutdown() throws RBACException {
+        usersToActionsCache.shutdown();
+    }
+
     @Override
     public boolean isOwner(String loginIdToCheck) {
         return isOwner ;
@@ -124,7 +124,7 @@ public class MockResultArchiveStoreDirectoryService implements IResultArchiveSto
 
 	@Override
 	public @NotNull String getName() {
-		throw new UnsupportedOperationException("Unimplemented method 'getName'");
+		return "mock";
 	}
 
 	@Override
@@ -33,6 +33,7 @@ public class MockRun implements IRun {
     private String status;
     private String interruptReason;
     private Instant interruptedAt;
+    private Instant queued = Instant.now();
     private String result;
     private String runId;
     private List<RunRasAction> rasActions = new ArrayList<>();
@@ -106,7 +107,11 @@ public class MockRun implements IRun {
 
     @Override
     public Instant getQueued() {
-        return Instant.now();
+        return this.queued;
+    }
+
+    public void setQueued(Instant queued) {
+        this.queued = queued;
     }
 
     @Override
@@ -5,6 +5,7 @@
  */
 package dev.galasa.boot.felix;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -12,13 +13,17 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
+import java.util.Set;
 import java.text.*;
 
 import org.apache.commons.io.FileUtils;
@@ -32,6 +37,7 @@ import org.apache.felix.bundlerepository.Resolver;
 import org.apache.felix.bundlerepository.Resource;
 import org.apache.felix.framework.FrameworkFactory;
 import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
 import org.osgi.framework.BundleException;
 import org.osgi.framework.Constants;
 import org.osgi.framework.InvalidSyntaxException;
@@ -41,6 +47,7 @@ import org.osgi.framework.launch.Framework;
 import dev.galasa.boot.BootLogger;
 import dev.galasa.boot.LauncherException;
 import dev.galasa.boot.ResourceManagementConfiguration;
+import dev.galasa.boot.felix.BundleResolutionCache.CachedBundle;
 
 /**
  * Felix framework run test class
@@ -49,11 +56,16 @@ public class FelixFramework {
 
     private static final String EXTRA_FRAMEWORK_BUNDLES_PROP  = "framework.extra.bundles";
     private static final String EXTRA_API_SERVER_BUNDLES_PROP = "api.extra.bundles";
+    private static final String OBR_RESOLUTION_CACHE_PROP     = "framework.obr.resolution.cache";
+    private static final String OBR_RESOLUTION_CACHE_DIR_PROP = "framework.obr.resolution.cache.dir";
 
     protected Framework framework;
 
     protected RepositoryAdmin repositoryAdmin;
 
+    // Null if OBR resolutions are not being cached
+    protected BundleResolutionCache resolutionCache;
+
     private BootLogger logger = new BootLogger();
 
     private boolean loadConsole = false;
@@ -64,6 +76,9 @@ public class FelixFramework {
         
     private File felixCache;
 
+    // The loaded OBRs, with when each was last modified
+    private List<String> loadedRepositories = new ArrayList<>();
+
     /**
      * Initialise and start the Felix framework. Install required bundles and the
      * OBRs. Install the Galasa framework bundle
@@ -123,6 +138,7 @@ public class FelixFramework {
 
             // Load the OSGi Bundle Repositories
             loadBundleRepositories(bundleRepositories);
+            resolutionCache = createResolutionCache(boostrapProperties, galasaDirectory);
 
             // Install and start the Felix OSGi console if required
             loadConsole = Boolean.parseBoolean(boostrapProperties.getProperty("dev.galasa.core.load.console", "false"));
@@ -775,6 +791,8 @@ public class FelixFramework {
                 throw new LauncherException("Unable to load repository " + bundleRepository, e);
             }
 
+            loadedRepositories.add(bundleRepository + " " + repository.getLastModified());
+
             if (logger.isTraceEnabled()) {
                 // Print repository content
                 logger.trace("Loaded repository " + repository.getName() + " from URI " + repository.getURI());
@@ -795,6 +813,31 @@ public class FelixFramework {
         }
     }
 
+    /**
+     * Create the cache of OBR resolutions if it has been turned on in the bootstrap with
+     * framework.obr.resolution.cache=true. It is off by default, as it installs the resolved
+     * bundles itself rather than letting the OBR resolver deploy them.
+     * 
+     * @param boostrapProperties
+     * @param galasaDirectory
+     * @return The cache, or null if resolutions are not to be cached
+     */
+    private BundleResolutionCache createResolutionCache(Properties boostrapProperties, File galasaDirectory) {
+        BundleResolutionCache cache = null;
+        if (Boolean.parseBoolean(boostrapProperties.getProperty(OBR_RESOLUTION_CACHE_PROP, "false"))) {
+            Path cacheDirectory;
+            String cacheDirectoryProperty = boostrapProperties.getProperty(OBR_RESOLUTION_CACHE_DIR_PROP);
+            if (cacheDirectoryProperty != null && !cacheDirectoryProperty.trim().isEmpty()) {
+                cacheDirectory = Paths.get(cacheDirectoryProperty.trim());
+            } else {
+                cacheDirectory = new File(galasaDirectory, "obr-resolution-cache").toPath();
+            }
+            logger.debug("Caching OBR resolutions in " + cacheDirectory);
+            cache = new BundleResolutionCache(cacheDirectory, loadedRepositories);
+        }
+        return cache;
+    }
+
     /**
      * Load a bundle from the OSGi Bundle Repository
      * 
@@ -804,6 +847,17 @@ public class FelixFramework {
     private void loadBundle(String bundleSymbolicName) throws LauncherException {
 
         logger.trace("Installing bundle " + bundleSymbolicName);
+
+        // A previous launch with the same OBRs may have already worked out which bundles are needed
+        String cacheKey = null;
+        if (resolutionCache != null) {
+            List<String> installedLocations = getInstalledBundleLocations();
+            cacheKey = resolutionCache.getKey(bundleSymbolicName, installedLocations);
+            if (installCachedResolution(bundleSymbolicName, cacheKey, installedLocations)) {
+                return;
+            }
+        }
+
         Resolver resolver = repositoryAdmin.resolver();
         String filterString = "(symbolicname=" + bundleSymbolicName + ")";
         Resource[] resources = null;
@@ -816,7 +870,7 @@ public class FelixFramework {
             if (resources.length == 0) {
                 throw new LauncherException("Unable to locate bundle \"" + bundleSymbolicName + "\" in OBR repository");
             }
-            addResource(bundleSymbolicName, resolver, resources[0]); // *** get first resource
+            addResource(bundleSymbolicName, resolver, resources[0], cacheKey); // *** get first resource
         } catch (LauncherException e) {
             throw new LauncherException("Unable to install bundle \"" + bundleSymbolicName + "\" from OBR repository",
                     e);
@@ -829,9 +883,10 @@ public class FelixFramework {
      * @param bundleSymbolicName
      * @param resolver
      * @param resource
+     * @param cacheKey the key to cache the resolution under, or null if it is not to be cached
      * @throws LauncherException
      */
-    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource) throws LauncherException {
+    private void addResource(String bundleSymbolicName, Resolver resolver, Resource resource, String cacheKey) throws LauncherException {
         logger.trace("Resouce: " + resource);
         resolver.add(resource);
 
@@ -841,8 +896,10 @@ public class FelixFramework {
         }
 
         if (resolver.resolve()) {
+            Set<String> deployedLocations = new LinkedHashSet<>();
             Resource[] requiredResources = resolver.getRequiredResources();
             for (Resource requiredResource : requiredResources) {
+                deployedLocations.add(requiredResource.getURI());
                 if (requiredResource.getURI().startsWith("reference:")) {
                     resourceHasReferenceUrl = true;
                 }
@@ -852,6 +909,7 @@ public class FelixFramework {
             }
             Resource[] optionalResources = resolver.getOptionalResources();
             for (Resource optionalResource : optionalResources) {
+                deployedLocations.add(optionalResource.getURI());
                 if (optionalResource.getURI().startsWith("reference:")) {
                     resourceHasReferenceUrl = true;
                 }
@@ -860,7 +918,13 @@ public class FelixFramework {
                 }
             }
 
-            if (!resourceHasReferenceUrl) {
+            deployedLocations.add(resource.getURI());
+
+            // reference: URIs point at bundles being developed, which can change at any time
+            List<CachedBundle> cachedBundles = null;
+            if (cacheKey != null && !resourceHasReferenceUrl) {
+                cachedBundles = installResolvedBundles(deployedLocations);
+            } else if (!resourceHasReferenceUrl) {
                 resolver.deploy(Resolver.START);
             } else {
                 // *** The Resolver can't cope with reference: URIs which is valid for Felix.
@@ -893,6 +957,10 @@ public class FelixFramework {
                 throw new LauncherException(msg);
             }
 
+            if (cachedBundles != null) {
+                cacheResolution(bundleSymbolicName, cacheKey, cachedBundles);
+            }
+
             printBundles();
         } else {
             logger.error("Unable to resolve " + resource.toString());
@@ -904,6 +972,140 @@ public class FelixFramework {
         }
     }
 
+    /**
+     * Install and start the bundles that a previous launch installed to load a bundle, without
+     * using the OBR resolver. Each bundle is checked against the checksum it had when it was
+     * resolved, and if any have changed, the bundles are uninstalled again so that the bundle can
+     * be resolved from scratch.
+     * 
+     * @param bundleSymbolicName
+     * @param cacheKey
+     * @param installedLocations the locations of the bundles that are already installed
+     * @return true if the bundle was installed, false if it needs to be resolved
+     * @throws LauncherException
+     */
+    private boolean installCachedResolution(String bundleSymbolicName, String cacheKey, List<String> installedLocations) throws LauncherException {
+        List<CachedBundle> cachedBundles = resolutionCache.get(cacheKey);
+        if (cachedBundles == null) {
+            return false;
+        }
+
+        logger.trace("Installing bundle " + bundleSymbolicName + " from the OBR resolution cache");
+        BundleContext bundleContext = this.framework.getBundleContext();
+        Set<String> alreadyInstalledLocations = new HashSet<>(installedLocations);
+        ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+        try {
+            for (CachedBundle cachedBundle : cachedBundles) {
+                String location = cachedBundle.getLocation();
+                if (!alreadyInstalledLocations.add(location)) {
+                    continue;
+                }
+
+                byte[] bundleContent;
+                try (InputStream is = new URL(location).openStream()) {
+                    bundleContent = IOUtils.toByteArray(is);
+                }
+                String checksum = BundleResolutionCache.checksum(bundleContent);
+                if (!checksum.equals(cachedBundle.getChecksum())) {
+                    throw new IOException("Bundle " + location + " has changed since it was resolved");
+                }
+                bundlesToStart.add(bundleContext.installBundle(location, new ByteArrayInputStream(bundleContent)));
+            }
+        } catch (IOException | BundleException e) {
+            logger.debug("Unable to use the OBR resolution cache for bundle " + bundleSymbolicName + ", it will be resolved again: " + e.getMessage());
+            for (Bundle bundle : bundlesToStart) {
+                try {
+                    bundle.uninstall();
+                } catch (BundleException uninstallException) {
+                    throw new LauncherException("Unable to uninstall bundles installed from the OBR resolution cache", uninstallException);
+                }
+            }
+            try {
+                resolutionCache.remove(cacheKey);
+            } catch (IOException removeException) {
+                logger.debug("Unable to remove the OBR resolution cache entry for bundle " + bundleSymbolicName);
+            }
+            return false;
+        }
+
+        try {
+            for (Bundle bundle : bundlesToStart) {
+                bundle.start();
+            }
+        } catch (BundleException e) {
+            throw new LauncherException("Unable to start bundles installed from the OBR resolution cache", e);
+        }
+
+        if (!isBundleActive(bundleSymbolicName)) {
+            String msg = MessageFormat.format("Bundle ''{0}'' failed to install and activate",bundleSymbolicName);
+            throw new LauncherException(msg);
+        }
+
+        printBundles();
+        return true;
+    }
+
+    /**
+     * Install and start the bundles the OBR resolver chose, instead of letting the resolver deploy
+     * them, so that each bundle is only read once to both install it and work out its checksum.
+     * 
+     * @param deployedLocations the locations of the bundles to install, in the order to install them
+     * @return the bundles installed, with their checksums
+     * @throws LauncherException
+     */
+    private List<CachedBundle> installResolvedBundles(Set<String> deployedLocations) throws LauncherException {
+        BundleContext bundleContext = this.framework.getBundleContext();
+        Set<String> alreadyInstalledLocations = new HashSet<>(getInstalledBundleLocations());
+        List<CachedBundle> cachedBundles = new ArrayList<>();
+        ArrayList<Bundle> bundlesToStart = new ArrayList<>();
+        try {
+            for (String location : deployedLocations) {
+                byte[] bundleContent;
+                try (InputStream is = new URL(location).openStream()) {
+                    bundleContent = IOUtils.toByteArray(is);
+                }
+                cachedBundles.add(new CachedBundle(location, BundleResolutionCache.checksum(bundleContent)));
+
+                if (alreadyInstalledLocations.add(location)) {
+                    bundlesToStart.add(bundleContext.installBundle(location, new ByteArrayInputStream(bundleContent)));
+                }
+            }
+            for (Bundle bundle : bundlesToStart) {
+                bundle.start();
+            }
+        } catch (IOException | BundleException e) {
+            throw new LauncherException("Unable to install resolved bundles", e);
+        }
+        return cachedBundles;
+    }
+
+    /**
+     * Save the bundles the OBR resolver installed to load a bundle, so that later launches can
+     * install them directly. Failing to save them doesn't stop the launch.
+     * 
+     * @param bundleSymbolicName
+     * @param cacheKey
+     * @param cachedBundles the bundles installed, in the order they were installed
+     */
+    private void cacheResolution(String bundleSymbolicName, String cacheKey, List<CachedBundle> cachedBundles) {
+        try {
+            resolutionCache.put(cacheKey, cachedBundles);
+        } catch (IOException e) {
+            logger.debug("Unable to cache the OBR resolution of bundle " + bundleSymbolicName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return The locations of all the installed bundles
+     */
+    private List<String> getInstalledBundleLocations() {
+        List<String> locations = new ArrayList<>();
+        for (Bundle bundle : framework.getBundleContext().getBundles()) {
+            locations.add(bundle.getLocation());
+        }
+        return locations;
+    }
+
     /**
      * Return the installed Bundle object for the bundle symbolic name
      * 
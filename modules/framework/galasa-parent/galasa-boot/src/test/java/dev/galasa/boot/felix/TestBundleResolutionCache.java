@@ -0,0 +1,105 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.boot.felix;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import dev.galasa.boot.felix.BundleResolutionCache.CachedBundle;
+
+public class TestBundleResolutionCache {
+
+    private Path cacheDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        cacheDirectory = Files.createTempDirectory("galasa_junit_obr_cache_");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(cacheDirectory.toFile());
+    }
+
+    @Test
+    public void testStoredResolutionIsReturnedInOrder() throws Exception {
+        // Given...
+        BundleResolutionCache cache = new BundleResolutionCache(cacheDirectory, List.of("mvn:my/obr/1.0/xml 100"));
+        String key = cache.getKey("my.bundle", List.of("mock:framework"));
+        cache.put(key, List.of(new CachedBundle("file:/b.jar", "bbbb"), new CachedBundle("file:/a.jar", "aaaa")));
+
+        // When...
+        List<CachedBundle> cachedBundles = new BundleResolutionCache(cacheDirectory, List.of("mvn:my/obr/1.0/xml 100")).get(key);
+
+        // Then...
+        assertThat(cachedBundles).extracting(CachedBundle::getLocation).containsExactly("file:/b.jar", "file:/a.jar");
+        assertThat(cachedBundles).extracting(CachedBundle::getChecksum).containsExactly("bbbb", "aaaa");
+    }
+
+    @Test
+    public void testKeyChangesWhenAnObrChanges() throws Exception {
+        // Given...
+        BundleResolutionCache cache = new BundleResolutionCache(cacheDirectory, List.of("mvn:my/obr/1.0/xml 100"));
+        BundleResolutionCache updatedCache = new BundleResolutionCache(cacheDirectory, List.of("mvn:my/obr/1.0/xml 200"));
+
+        // When...
+        String key = cache.getKey("my.bundle", List.of("mock:framework"));
+        String updatedKey = updatedCache.getKey("my.bundle", List.of("mock:framework"));
+
+        // Then...
+        assertThat(updatedKey).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testKeyDependsOnWhichBundlesAreInstalledButNotTheirOrder() throws Exception {
+        // Given...
+        BundleResolutionCache cache = new BundleResolutionCache(cacheDirectory, List.of("mvn:my/obr/1.0/xml 100"));
+
+        // When...
+        String key = cache.getKey("my.bundle", List.of("mock:a", "mock:b"));
+        String reorderedKey = cache.getKey("my.bundle", List.of("mock:b", "mock:a"));
+        String otherInstalledKey = cache.getKey("my.bundle", List.of("mock:a"));
+        String otherBundleKey = cache.getKey("another.bundle", List.of("mock:a", "mock:b"));
+
+        // Then...
+        assertThat(reorderedKey).isEqualTo(key);
+        assertThat(otherInstalledKey).isNotEqualTo(key);
+        assertThat(otherBundleKey).isNotEqualTo(key);
+    }
+
+    @Test
+    public void testDamagedCacheFileIsTreatedAsMissing() throws Exception {
+        // Given...
+        BundleResolutionCache cache = new BundleResolutionCache(cacheDirectory, List.of());
+        String key = cache.getKey("my.bundle", List.of());
+        Files.writeString(cacheDirectory.resolve(key + ".properties"), "bundle.count=2\nbundle.0.location=file:/a.jar\n");
+
+        // When...
+        List<CachedBundle> cachedBundles = cache.get(key);
+
+        // Then...
+        assertThat(cachedBundles).isNull();
+        assertThat(cache.get("not-stored")).isNull();
+    }
+
+    @Test
+    public void testChecksumIsSha256OfContent() throws Exception {
+        // When...
+        String checksum = BundleResolutionCache.checksum("abc".getBytes(StandardCharsets.UTF_8));
+
+        // Then...
+        assertThat(checksum).isEqualTo("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad");
+    }
+}
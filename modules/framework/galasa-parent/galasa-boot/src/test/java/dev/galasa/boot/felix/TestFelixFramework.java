@@ -7,6 +7,11 @@ package dev.galasa.boot.felix;
 
 import static org.assertj.core.api.Assertions.*;
 
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -14,7 +19,10 @@ import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.felix.bundlerepository.Resource;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
 import org.osgi.framework.Bundle;
 
@@ -30,6 +38,183 @@ import dev.galasa.boot.mocks.MockServiceReference;
 
 public class TestFelixFramework {
 
+    private Path tempDirectory;
+
+    @Before
+    public void setUp() throws Exception {
+        tempDirectory = Files.createTempDirectory("galasa_junit_felix_");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(tempDirectory.toFile());
+    }
+
+    /**
+     * A resolver which installs and starts the bundles it resolved, like the real resolver does
+     */
+    class MockDeployingResolver extends MockResolver {
+        private MockBundleContext bundleContext;
+        private int deployCount = 0;
+
+        public MockDeployingResolver(MockBundleContext bundleContext) {
+            this.bundleContext = bundleContext;
+        }
+
+        @Override
+        public void deploy(int flags) {
+            deployCount++;
+            try {
+                for (Resource resource : getRequiredResources()) {
+                    if (!bundleContext.getInstalledLocations().contains(resource.getURI())) {
+                        try (InputStream in = new URL(resource.getURI()).openStream()) {
+                            bundleContext.installBundle(resource.getURI(), in).start();
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static final String[] WEB_API_BUNDLES = new String[] {
+        "org.apache.felix.http.servlet-api",
+        "org.apache.felix.http.jetty",
+        "org.apache.felix.fileinstall",
+        "dev.galasa.framework.api",
+        "my.api.bundle",
+    };
+
+    private Path createBundleFile(String bundleSymbolicName, String content) throws Exception {
+        Path bundleFile = tempDirectory.resolve(bundleSymbolicName + ".jar");
+        Files.write(bundleFile, content.getBytes(StandardCharsets.UTF_8));
+        return bundleFile;
+    }
+
+    /**
+     * Launches the web API server, with its bundles loaded from jar files in the temporary directory
+     *
+     * @return the resolver, which records the bundles that had to be resolved
+     */
+    private MockDeployingResolver launchWebApiServer(BundleResolutionCache resolutionCache) throws Exception {
+        Map<String, MockServiceReference<?>> services = new HashMap<>();
+        MockServiceReference<MockRunnableService> mockApiStartup = new MockServiceReference<>(new MockRunnableService(), null);
+        services.put("dev.galasa.framework.api.internal.ApiStartup", mockApiStartup);
+
+        MockBundleContext mockFrameworkBundleContext = new MockBundleContext(services);
+        MockBundle mockFrameworkBundle = new MockBundle("dev.galasa.framework", mockFrameworkBundleContext);
+
+        MockBundleContext mockBundleContext = new MockBundleContext(new Bundle[] { mockFrameworkBundle });
+        MockOsgiFramework mockOsgiFramework = new MockOsgiFramework(mockBundleContext);
+
+        MockDeployingResolver mockResolver = new MockDeployingResolver(mockBundleContext);
+        MockRepositoryAdmin mockRepoAdmin = new MockRepositoryAdmin(mockResolver);
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            mockRepoAdmin.setResourceUri(bundleSymbolicName, tempDirectory.resolve(bundleSymbolicName + ".jar").toUri().toString());
+        }
+
+        FelixFramework felixFramework = new MockFelixFramework(mockOsgiFramework, mockRepoAdmin, resolutionCache);
+        Properties bootstrapProperties = new Properties();
+        bootstrapProperties.put("api.extra.bundles", "my.api.bundle");
+
+        felixFramework.runWebApiServer(bootstrapProperties, new Properties(), new ArrayList<>(), 0, 0);
+        return mockResolver;
+    }
+
+    private List<String> getResolvedBundleNames(MockResolver mockResolver) {
+        return mockResolver.getAllResources()
+            .stream()
+            .map(Resource::getSymbolicName)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testWarmLaunchInstallsBundlesWithoutResolvingThem() throws Exception {
+        // Given...
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            createBundleFile(bundleSymbolicName, "content of " + bundleSymbolicName);
+        }
+        Path cacheDirectory = tempDirectory.resolve("obr-resolution-cache");
+        List<String> repositories = List.of("mvn:dev.galasa/dev.galasa.uber.obr/0.1.0/obr 1000");
+
+        MockResolver coldResolver = launchWebApiServer(new BundleResolutionCache(cacheDirectory, repositories));
+
+        // When...
+        MockResolver warmResolver = launchWebApiServer(new BundleResolutionCache(cacheDirectory, repositories));
+
+        // Then...
+        assertThat(getResolvedBundleNames(coldResolver)).containsExactly(WEB_API_BUNDLES);
+        assertThat(getResolvedBundleNames(warmResolver)).isEmpty();
+    }
+
+    @Test
+    public void testColdLaunchInstallsResolvedBundlesFromTheContentItChecksums() throws Exception {
+        // Given...
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            createBundleFile(bundleSymbolicName, "content of " + bundleSymbolicName);
+        }
+        Path cacheDirectory = tempDirectory.resolve("obr-resolution-cache");
+        List<String> repositories = List.of("mvn:dev.galasa/dev.galasa.uber.obr/0.1.0/obr 1000");
+
+        // When...
+        MockDeployingResolver coldResolver = launchWebApiServer(new BundleResolutionCache(cacheDirectory, repositories));
+
+        // Then...
+        assertThat(coldResolver.deployCount).isEqualTo(0);
+        assertThat(coldResolver.bundleContext.getInstalledLocations()).hasSize(WEB_API_BUNDLES.length);
+    }
+
+    @Test
+    public void testLaunchWithoutTheCacheLetsTheResolverDeployTheBundles() throws Exception {
+        // Given...
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            createBundleFile(bundleSymbolicName, "content of " + bundleSymbolicName);
+        }
+
+        // When...
+        MockDeployingResolver resolver = launchWebApiServer(null);
+
+        // Then...
+        assertThat(resolver.deployCount).isEqualTo(WEB_API_BUNDLES.length);
+    }
+
+    @Test
+    public void testWarmLaunchResolvesBundlesThatHaveChanged() throws Exception {
+        // Given...
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            createBundleFile(bundleSymbolicName, "content of " + bundleSymbolicName);
+        }
+        Path cacheDirectory = tempDirectory.resolve("obr-resolution-cache");
+        List<String> repositories = List.of("mvn:dev.galasa/dev.galasa.uber.obr/0.1.0/obr 1000");
+
+        launchWebApiServer(new BundleResolutionCache(cacheDirectory, repositories));
+        createBundleFile("my.api.bundle", "new content of my.api.bundle");
+
+        // When...
+        MockResolver warmResolver = launchWebApiServer(new BundleResolutionCache(cacheDirectory, repositories));
+
+        // Then...
+        assertThat(getResolvedBundleNames(warmResolver)).containsExactly("my.api.bundle");
+    }
+
+    @Test
+    public void testLaunchWithChangedObrResolvesBundlesAgain() throws Exception {
+        // Given...
+        for (String bundleSymbolicName : WEB_API_BUNDLES) {
+            createBundleFile(bundleSymbolicName, "content of " + bundleSymbolicName);
+        }
+        Path cacheDirectory = tempDirectory.resolve("obr-resolution-cache");
+
+        launchWebApiServer(new BundleResolutionCache(cacheDirectory, List.of("mvn:dev.galasa/dev.galasa.uber.obr/0.1.0/obr 1000")));
+
+        // When...
+        MockResolver resolver = launchWebApiServer(new BundleResolutionCache(cacheDirectory, List.of("mvn:dev.galasa/dev.galasa.uber.obr/0.1.0/obr 2000")));
+
+        // Then...
+        assertThat(getResolvedBundleNames(resolver)).containsExactly(WEB_API_BUNDLES);
+    }
+
     @Test
     public void testRunWebApiServerLoadsExtraApiBundles() throws Exception {
         // Given...
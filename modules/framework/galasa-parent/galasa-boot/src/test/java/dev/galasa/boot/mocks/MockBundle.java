@@ -24,18 +24,25 @@ import org.osgi.framework.Version;
 public class MockBundle implements Bundle {
 
     private String symbolicName;
+    private String location;
     private BundleContext bundleContext;
     private int bundleState = Bundle.ACTIVE;
 
     public MockBundle(String symbolicName) {
         this.symbolicName = symbolicName;
+        this.location = "mock:" + symbolicName;
     }
 
     public MockBundle(String symbolicName, BundleContext bundleContext) {
-        this.symbolicName = symbolicName;
+        this(symbolicName);
         this.bundleContext = bundleContext;
     }
 
+    public MockBundle(String symbolicName, String location) {
+        this.symbolicName = symbolicName;
+        this.location = location;
+    }
+
     @Override
     public String getSymbolicName() {
         return symbolicName;
@@ -67,7 +74,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public void start() throws BundleException {
-        throw new UnsupportedOperationException("Unimplemented method 'start'");
+        bundleState = Bundle.ACTIVE;
     }
 
     @Override
@@ -92,7 +99,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public void uninstall() throws BundleException {
-        throw new UnsupportedOperationException("Unimplemented method 'uninstall'");
+        bundleState = Bundle.UNINSTALLED;
     }
 
     @Override
@@ -107,7 +114,7 @@ public class MockBundle implements Bundle {
 
     @Override
     public String getLocation() {
-        throw new UnsupportedOperationException("Unimplemented method 'getLocation'");
+        return location;
     }
 
     @Override
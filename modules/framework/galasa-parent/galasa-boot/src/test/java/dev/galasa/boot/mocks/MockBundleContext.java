@@ -6,9 +6,12 @@
 package dev.galasa.boot.mocks;
 
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Dictionary;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
@@ -29,6 +32,7 @@ public class MockBundleContext implements BundleContext{
 
     private Map<String,MockServiceReference<?>> services;
     private Bundle[] bundles;
+    private List<String> installedLocations = new ArrayList<>();
 
     /**
      * @param services A map. The key is the interface/class name.
@@ -46,6 +50,10 @@ public class MockBundleContext implements BundleContext{
         return bundles;
     }
 
+    public List<String> getInstalledLocations() {
+        return installedLocations;
+    }
+
     @Override
     public ServiceReference<?>[] getServiceReferences(String clazz, String filter) throws InvalidSyntaxException {
         return getAllServiceReferences(clazz, filter);
@@ -111,7 +119,24 @@ public class MockBundleContext implements BundleContext{
 
     @Override
     public Bundle installBundle(String location, InputStream input) throws BundleException {
-        throw new UnsupportedOperationException("Unimplemented method 'installBundle'");
+        try {
+            input.readAllBytes();
+        } catch (IOException e) {
+            throw new BundleException("Unable to read bundle " + location, e);
+        }
+
+        // Bundles are named after the file they are installed from, so "file:/my.bundle.jar" is "my.bundle"
+        String symbolicName = location.substring(location.lastIndexOf('/') + 1).replaceFirst("\\.jar$", "");
+        MockBundle bundle = new MockBundle(symbolicName, location);
+        bundle.setState(Bundle.INSTALLED);
+
+        Bundle[] newBundles = new Bundle[bundles.length + 1];
+        System.arraycopy(bundles, 0, newBundles, 0, bundles.length);
+        newBundles[bundles.length] = bundle;
+        bundles = newBundles;
+
+        installedLocations.add(location);
+        return bundle;
     }
 
     @Override
@@ -8,6 +8,7 @@ package dev.galasa.boot.mocks;
 import org.apache.felix.bundlerepository.RepositoryAdmin;
 import org.osgi.framework.launch.Framework;
 
+import dev.galasa.boot.felix.BundleResolutionCache;
 import dev.galasa.boot.felix.FelixFramework;
 
 public class MockFelixFramework extends FelixFramework {
@@ -16,4 +17,9 @@ public class MockFelixFramework extends FelixFramework {
         super.framework = framework;
         super.repositoryAdmin = repositoryAdmin;
     }
+
+    public MockFelixFramework(Framework framework, RepositoryAdmin repositoryAdmin, BundleResolutionCache resolutionCache) {
+        this(framework, repositoryAdmin);
+        super.resolutionCache = resolutionCache;
+    }
 }
@@ -6,6 +6,8 @@
 package dev.galasa.boot.mocks;
 
 import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.apache.felix.bundlerepository.DataModelHelper;
 import org.apache.felix.bundlerepository.Repository;
@@ -19,14 +21,21 @@ public class MockRepositoryAdmin implements RepositoryAdmin {
 
     private MockResolver resolver;
 
+    // The URIs of resources, by symbolic name. Resources not in here have the URI "uri"
+    private Map<String, String> resourceUris = new HashMap<>();
+
     public MockRepositoryAdmin(MockResolver resolver) {
         this.resolver = resolver;
     }
 
+    public void setResourceUri(String symbolicName, String uri) {
+        resourceUris.put(symbolicName, uri);
+    }
+
     @Override
     public Resource[] discoverResources(String filterExpr) throws InvalidSyntaxException {
         String resourceName = filterExpr.replace("(symbolicname=", "").replace(")", "");
-        MockResource mockResource = new MockResource(resourceName, resourceName, "uri");
+        MockResource mockResource = new MockResource(resourceName, resourceName, resourceUris.getOrDefault(resourceName, "uri"));
         return new Resource[] { mockResource };
     }
 
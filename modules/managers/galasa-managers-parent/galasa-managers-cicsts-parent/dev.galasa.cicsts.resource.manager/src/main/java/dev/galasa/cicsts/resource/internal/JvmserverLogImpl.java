@@ -428,6 +428,44 @@ public class JvmserverLogImpl implements IJvmserverLog, ITextScannable {
         }
     }
 
+    /**
+     * UNIX files and spool files can only be retrieved whole, so the whole log is still fetched, but
+     * the stream starts at the offset in the retrieved bytes rather than reading through them
+     */
+    @Override
+    public InputStream getScannableInputStream(long offset) throws TextScanException {
+        byte[] content;
+        try {
+            content = ((ByteArrayOutputStream) retrieve()).toByteArray();
+        } catch (CicsJvmserverResourceException e) {
+            throw new TextScanException("Problem retrieving " + getScannableName(), e);
+        }
+        if (offset < 0 || offset > content.length) {
+            throw new TextScanException("Failed to skip " + offset + " bytes of scannable '" + getScannableName() + "'. Actual bytes available " + content.length);
+        }
+        return new ByteArrayInputStream(content, (int) offset, content.length - (int) offset);
+    }
+
+    /**
+     * Uses the same size as {@link #checkpoint()}, which doesn't need the log to be retrieved
+     */
+    @Override
+    public long getScannableInputStreamLength() throws TextScanException {
+        try {
+            long length;
+            if (isZosUNIXFile()) {
+                length = this.zosUnixFile.getSize();
+            } else if (isZosBatchJobSpoolFile()) {
+                length = this.zosBatchJobOutputSpoolFile.getSize();
+            } else {
+                throw new TextScanException("Log is not a zOS UNIX File or zOS Batch Job spool file");
+            }
+            return length;
+        } catch (ZosUNIXFileException | ZosBatchException e) {
+            throw new TextScanException("Problem getting the size of " + getScannableName(), e);
+        }
+    }
+
     @Override
     public String getScannableString() throws TextScanException {
         try {
@@ -30,10 +30,11 @@ import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonSyntaxException;
 
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 
 import dev.galasa.framework.spi.utils.GalasaGson;
+import dev.galasa.http.internal.JaxbContextCache;
+
 /**
  * Parametrisable representation of a response to an HTTP request. The parameter
  * describes the content type of the response. Use the static methods to create
@@ -401,8 +402,7 @@ public class HttpClientResponse<T> {
 
             if (httpResponse.getEntity() != null) {
                 if (response.getStatusCode() == HttpStatus.SC_OK || contentOnBadResponse) {
-                    JAXBContext context = JAXBContext.newInstance(responseTypes);
-                    Object data = context.createUnmarshaller().unmarshal(httpResponse.getEntity().getContent());
+                    Object data = JaxbContextCache.unmarshal(httpResponse.getEntity().getContent(), responseTypes);
                     response.setContent(data);
                 } else {
                     EntityUtils.consume(httpResponse.getEntity());
@@ -6,7 +6,6 @@
 package dev.galasa.http.internal;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -75,7 +74,6 @@ import dev.galasa.http.ContentType;
 import dev.galasa.http.HttpClientException;
 import dev.galasa.http.HttpClientResponse;
 import dev.galasa.http.IHttpClient;
-import jakarta.xml.bind.JAXBContext;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.annotation.XmlType;
 
@@ -567,7 +565,18 @@ public class HttpClientImpl implements IHttpClient {
 
     }
 
+    /**
+     * Reads the content of a successful response
+     */
+    private interface ResponseReader<T> {
+        T read(InputStream content) throws IOException, JAXBException;
+    }
+
     private byte[] execute(HttpUriRequest request, boolean retry) throws HttpClientException {
+        return execute(request, retry, content -> IOUtils.toByteArray(content));
+    }
+
+    private <T> T execute(HttpUriRequest request, boolean retry, ResponseReader<T> reader) throws HttpClientException {
 
         while (true) {
             CloseableHttpResponse response = null;
@@ -597,8 +606,10 @@ public class HttpClientImpl implements IHttpClient {
 
                 HttpEntity entity = response.getEntity();
 
-                return IOUtils.toByteArray(entity.getContent());
+                return reader.read(entity.getContent());
 
+            } catch (JAXBException e) {
+                throw new HttpClientException("Issue unmarshalling response", e);
             } catch (Exception e) {
                 throw new HttpClientException(e);
             } finally {
@@ -693,18 +704,14 @@ public class HttpClientImpl implements IHttpClient {
         ub.setPath(path);
     }
 
-    private Object unmarshall(byte[] content, Class<?>[] jaxbClasses) throws HttpClientException {
+    private Object unmarshall(InputStream content, Class<?>[] jaxbClasses) throws IOException, JAXBException {
 
-        try {
-            if (jaxbClasses != null && jaxbClasses.length > 0) {
-                JAXBContext ctx = JAXBContext.newInstance(jaxbClasses);
-                return ctx.createUnmarshaller().unmarshal(new ByteArrayInputStream(content));
-            }
-        } catch (JAXBException e) {
-            throw new HttpClientException("Issue unmarshalling response", e);
+        // Unmarshal straight from the response, rather than from a copy of it
+        if (jaxbClasses != null && jaxbClasses.length > 0) {
+            return JaxbContextCache.unmarshal(content, jaxbClasses);
         }
 
-        return new String(content);
+        return new String(IOUtils.toByteArray(content));
 
     }
 
@@ -716,9 +723,8 @@ public class HttpClientImpl implements IHttpClient {
 
         if (object.getClass().isAnnotationPresent(XmlType.class) && jaxbClasses != null && jaxbClasses.length > 0) {
             try {
-                JAXBContext ctx = JAXBContext.newInstance(jaxbClasses);
                 ByteArrayOutputStream os = new ByteArrayOutputStream();
-                ctx.createMarshaller().marshal(object, os);
+                JaxbContextCache.marshal(object, os, jaxbClasses);
 
                 return os.toByteArray();
             } catch (JAXBException e) {
@@ -739,9 +745,7 @@ public class HttpClientImpl implements IHttpClient {
         post.setEntity(new ByteArrayEntity(dataBytes));
         addHeaders(post, contentType, acceptTypes);
 
-        byte[] response = execute(post, retry);
-
-        return unmarshall(response, jaxbClasses);
+        return execute(post, retry, content -> unmarshall(content, jaxbClasses));
 
     }
 
@@ -762,9 +766,7 @@ public class HttpClientImpl implements IHttpClient {
             throw new HttpClientException("Unable to encode form", e);
         }
 
-        byte[] response = execute(post, retry);
-
-        return unmarshall(response, null);
+        return execute(post, retry, content -> unmarshall(content, null));
     }
 
     public CloseableHttpResponse getFile(String path) throws HttpClientException {
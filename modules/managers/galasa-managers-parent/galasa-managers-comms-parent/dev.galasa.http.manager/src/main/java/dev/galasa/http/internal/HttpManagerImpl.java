@@ -49,6 +49,7 @@ public class HttpManagerImpl extends AbstractManager implements IHttpManagerSpi
         for (IHttpClient client : instantiatedClients) {
             client.close();
         }
+        JaxbContextCache.clear();
     }
 
     @Override
@@ -0,0 +1,126 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.http.internal;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+
+/**
+ * Shares JAXB contexts between requests, as creating a context is far more expensive than
+ * using one.
+ *
+ * Contexts are thread safe, so there is one for each set of classes. Marshallers and
+ * unmarshallers are not, so each context keeps a small pool of them which threads borrow
+ * while they are marshalling or unmarshalling.
+ *
+ * The contexts hold on to the test classes they were created for, so the HTTP Manager clears
+ * the cache when it shuts down, rather than keep the test bundle's class loader alive.
+ */
+public class JaxbContextCache {
+
+    private static final int MAX_POOLED_PER_CONTEXT = 16;
+
+    private static class CachedContext {
+        private final JAXBContext context;
+        private final BlockingQueue<Marshaller>   marshallers   = new ArrayBlockingQueue<>(MAX_POOLED_PER_CONTEXT);
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(MAX_POOLED_PER_CONTEXT);
+
+        private CachedContext(JAXBContext context) {
+            this.context = context;
+        }
+    }
+
+    // The key is the set of classes the context was created for, as their order doesn't matter to JAXB
+    private static final Map<Set<Class<?>>, CachedContext> contexts = new ConcurrentHashMap<>();
+
+    private JaxbContextCache() {
+    }
+
+    /**
+     * @return the shared JAXB context for the classes
+     */
+    public static JAXBContext getContext(Class<?>... classes) throws JAXBException {
+        return getCachedContext(classes).context;
+    }
+
+    /**
+     * Unmarshals an object from the stream, without closing it
+     */
+    public static Object unmarshal(InputStream in, Class<?>... classes) throws JAXBException {
+        CachedContext cachedContext = getCachedContext(classes);
+
+        Unmarshaller unmarshaller = cachedContext.unmarshallers.poll();
+        if (unmarshaller == null) {
+            unmarshaller = cachedContext.context.createUnmarshaller();
+        }
+
+        Object object = unmarshaller.unmarshal(in);
+
+        // Only reuse unmarshallers which finished cleanly, so no state from a failure is carried over
+        cachedContext.unmarshallers.offer(unmarshaller);
+        return object;
+    }
+
+    /**
+     * Marshals the object to the stream, without closing it
+     */
+    public static void marshal(Object object, OutputStream out, Class<?>... classes) throws JAXBException {
+        CachedContext cachedContext = getCachedContext(classes);
+
+        Marshaller marshaller = cachedContext.marshallers.poll();
+        if (marshaller == null) {
+            marshaller = cachedContext.context.createMarshaller();
+        }
+
+        marshaller.marshal(object, out);
+
+        // Only reuse marshallers which finished cleanly, so no state from a failure is carried over
+        cachedContext.marshallers.offer(marshaller);
+    }
+
+    /**
+     * Drops every cached context, along with the classes they were created for
+     */
+    public static void clear() {
+        contexts.clear();
+    }
+
+    static int getPooledMarshallerCount(Class<?>... classes) throws JAXBException {
+        return getCachedContext(classes).marshallers.size();
+    }
+
+    static int getPooledUnmarshallerCount(Class<?>... classes) throws JAXBException {
+        return getCachedContext(classes).unmarshallers.size();
+    }
+
+    private static CachedContext getCachedContext(Class<?>... classes) throws JAXBException {
+        Set<Class<?>> key = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(classes)));
+
+        CachedContext cachedContext = contexts.get(key);
+        if (cachedContext == null) {
+            // Two threads may both create a context for the same classes, but only one of them is kept
+            CachedContext newContext = new CachedContext(JAXBContext.newInstance(classes));
+            cachedContext = contexts.putIfAbsent(key, newContext);
+            if (cachedContext == null) {
+                cachedContext = newContext;
+            }
+        }
+        return cachedContext;
+    }
+}
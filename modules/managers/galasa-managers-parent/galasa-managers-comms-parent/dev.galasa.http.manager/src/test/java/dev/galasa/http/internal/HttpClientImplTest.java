@@ -0,0 +1,91 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.http.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.After;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import dev.galasa.http.ContentType;
+import dev.galasa.http.HttpClientException;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+public class HttpClientImplTest {
+
+    @XmlRootElement(name = "fruit")
+    public static class Fruit {
+        public String name;
+    }
+
+    private HttpServer server;
+
+    @After
+    public void after() {
+        if (server != null) {
+            server.stop(0);
+        }
+        JaxbContextCache.clear();
+    }
+
+    private HttpClientImpl createClientForResponse(String responseBody) throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/fruit", exchange -> {
+            byte[] body = responseBody.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/xml");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        HttpClientImpl client = new HttpClientImpl(10000, LogFactory.getLog(HttpClientImplTest.class));
+        client.setURI(new URI("http://localhost:" + server.getAddress().getPort()));
+        return client;
+    }
+
+    private Object postForFruit(HttpClientImpl client) throws HttpClientException {
+        return client.post("/fruit", null, ContentType.APPLICATION_XML, "",
+            new ContentType[] { ContentType.APPLICATION_XML }, new Class<?>[] { Fruit.class }, false);
+    }
+
+    @Test
+    public void testPostUnmarshalsTheResponseIntoTheJaxbClass() throws Exception {
+        // Given...
+        HttpClientImpl client = createClientForResponse("<fruit><name>apple</name></fruit>");
+
+        // When...
+        Object fruit = postForFruit(client);
+
+        // Then...
+        assertThat(fruit).isInstanceOf(Fruit.class);
+        assertThat(((Fruit) fruit).name).isEqualTo("apple");
+    }
+
+    @Test
+    public void testPostOfResponseWhichIsNotValidXmlFailsToUnmarshal() throws Exception {
+        // Given...
+        HttpClientImpl client = createClientForResponse("<fruit><name>");
+
+        // When...
+        Throwable thrown = catchThrowable(() -> postForFruit(client));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(HttpClientException.class)
+            .hasMessage("Issue unmarshalling response")
+            .hasCauseInstanceOf(JAXBException.class);
+    }
+}
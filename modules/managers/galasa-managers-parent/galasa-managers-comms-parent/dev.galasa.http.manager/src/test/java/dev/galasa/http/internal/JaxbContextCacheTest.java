@@ -0,0 +1,105 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.http.internal;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Test;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.annotation.XmlRootElement;
+
+public class JaxbContextCacheTest {
+
+    @XmlRootElement(name = "fruit")
+    public static class Fruit {
+        public String name;
+    }
+
+    @XmlRootElement(name = "vegetable")
+    public static class Vegetable {
+        public String name;
+    }
+
+    private InputStream toStream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @After
+    public void after() {
+        JaxbContextCache.clear();
+    }
+
+    @Test
+    public void testSameContextIsReturnedWhateverTheOrderOfTheClasses() throws Exception {
+        // When...
+        JAXBContext context = JaxbContextCache.getContext(Fruit.class, Vegetable.class);
+        JAXBContext contextAgain = JaxbContextCache.getContext(Vegetable.class, Fruit.class);
+
+        // Then...
+        assertThat(contextAgain).isSameAs(context);
+    }
+
+    @Test
+    public void testClearDropsTheCachedContexts() throws Exception {
+        // Given...
+        JAXBContext context = JaxbContextCache.getContext(Fruit.class);
+
+        // When...
+        JaxbContextCache.clear();
+        JAXBContext newContext = JaxbContextCache.getContext(Fruit.class);
+
+        // Then...
+        assertThat(newContext).isNotSameAs(context);
+    }
+
+    @Test
+    public void testUnmarshallerIsPooledAfterUnmarshallingCleanly() throws Exception {
+        // When...
+        Object fruit = JaxbContextCache.unmarshal(toStream("<fruit><name>apple</name></fruit>"), Fruit.class);
+        Object fruitAgain = JaxbContextCache.unmarshal(toStream("<fruit><name>pear</name></fruit>"), Fruit.class);
+
+        // Then...
+        assertThat(fruit).isInstanceOf(Fruit.class);
+        assertThat(((Fruit) fruitAgain).name).isEqualTo("pear");
+        assertThat(JaxbContextCache.getPooledUnmarshallerCount(Fruit.class)).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnmarshallerWhichFailedIsNotPooled() throws Exception {
+        // Given...
+        JaxbContextCache.unmarshal(toStream("<fruit><name>apple</name></fruit>"), Fruit.class);
+
+        // When...
+        Throwable thrown = catchThrowable(() -> JaxbContextCache.unmarshal(toStream("<fruit><name>"), Fruit.class));
+
+        // Then...
+        assertThat(thrown).isInstanceOf(JAXBException.class);
+        assertThat(JaxbContextCache.getPooledUnmarshallerCount(Fruit.class)).isEqualTo(0);
+    }
+
+    @Test
+    public void testMarshallerIsPooledAfterMarshallingCleanly() throws Exception {
+        // Given...
+        Fruit fruit = new Fruit();
+        fruit.name = "apple";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When...
+        JaxbContextCache.marshal(fruit, out, Fruit.class);
+
+        // Then...
+        assertThat(out.toString(StandardCharsets.UTF_8.name())).contains("<fruit><name>apple</name></fruit>");
+        assertThat(JaxbContextCache.getPooledMarshallerCount(Fruit.class)).isEqualTo(1);
+    }
+}
@@ -5,6 +5,7 @@
  */
 package dev.galasa.textscan;
 
+import java.io.IOException;
 import java.io.InputStream;
 
 /**
@@ -56,6 +57,64 @@ public interface ITextScannable {
      */
 	public InputStream getScannableInputStream() throws TextScanException;
     
+    /**
+     * Fetch the InputStream for the scannable, starting part way through, so that only the text
+     * added since a checkpoint has to be read.
+     * 
+     * The default implementation reads past the start of the whole InputStream. Scannables which can
+     * fetch just the end of their text, such as a file read from an offset, should override this.
+     * 
+     * @param offset the number of bytes to start after
+     * @return The latest inputstream, starting at the offset
+     * @throws TextScanException If there is an error fetching the inputstream or it is shorter than the offset
+     */
+	public default InputStream getScannableInputStream(long offset) throws TextScanException {
+		InputStream inputStream = getScannableInputStream();
+		long remaining = offset;
+		try {
+			while (remaining > 0) {
+				// skip() can skip fewer bytes than asked for without reaching the end, so only a read can tell
+				long skipped = inputStream.skip(remaining);
+				if (skipped <= 0) {
+					if (inputStream.read() == -1) {
+						break;
+					}
+					skipped = 1;
+				}
+				remaining -= skipped;
+			}
+		} catch (IOException e) {
+			throw new TextScanException("Unable to skip to offset " + offset + " of scannable '" + getScannableName() + "'", e);
+		}
+		if (remaining > 0) {
+			throw new TextScanException("Failed to skip " + offset + " bytes of scannable '" + getScannableName() + "'. Actual bytes skipped " + (offset - remaining));
+		}
+		return inputStream;
+	}
+    
+    /**
+     * Fetch the length of the InputStream for the scannable, to checkpoint it.
+     * 
+     * The default implementation reads through the whole InputStream. Scannables which know the
+     * length of their text without reading it, such as a file, should override this.
+     * 
+     * @return The number of bytes in the latest inputstream
+     * @throws TextScanException If there is an error reading the inputstream
+     */
+	public default long getScannableInputStreamLength() throws TextScanException {
+		byte[] buffer = new byte[8192];
+		long length = 0;
+		try (InputStream inputStream = getScannableInputStream()) {
+			int read;
+			while ((read = inputStream.read(buffer)) != -1) {
+				length += read;
+			}
+		} catch (IOException e) {
+			throw new TextScanException("Unable to read the length of scannable '" + getScannableName() + "'", e);
+		}
+		return length;
+	}
+    
     /**
      * Fetch the latest scannable text
      * 
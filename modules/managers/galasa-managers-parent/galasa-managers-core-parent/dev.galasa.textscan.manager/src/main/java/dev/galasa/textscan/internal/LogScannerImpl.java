@@ -5,17 +5,15 @@
  */
 package dev.galasa.textscan.internal;
 
-import java.io.IOException;
+import java.io.InputStream;
 import java.util.regex.Pattern;
 
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import dev.galasa.textscan.FailTextFoundException;
 import dev.galasa.textscan.ILogScanner;
 import dev.galasa.textscan.ITextScannable;
-import dev.galasa.textscan.ITextScanner;
 import dev.galasa.textscan.IncorrectOccurrencesException;
 import dev.galasa.textscan.MissingTextException;
 import dev.galasa.textscan.TextScanException;
@@ -30,7 +28,7 @@ public class LogScannerImpl implements ILogScanner {
 
 	private static final String QUOTE = "'";
 	
-	private ITextScanner textScanner = new TextScannerImpl();
+	private TextScannerImpl textScanner = new TextScannerImpl();
     private ITextScannable scannable;
 	private String scannableName;
 	protected long checkpoint = -1;
@@ -61,9 +59,9 @@ public class LogScannerImpl implements ILogScanner {
     	checkScannableNoNull();
     	if (this.scannable.isScannableInputStream()) {
     		try {
-				byte[] bytes = IOUtils.toByteArray(this.scannable.getScannableInputStream());
-				this.checkpoint = bytes.length;
-			} catch (IOException e) {
+				// Only the length is needed, so the scannable can find it without keeping all its text
+				this.checkpoint = this.scannable.getScannableInputStreamLength();
+			} catch (TextScanException e) {
 	    		throw new TextScanException("Unable to checkpoint scannable '" + this.scannableName + QUOTE, e);
 			}
     	} else if (this.scannable.isScannableString()) {
@@ -97,10 +95,9 @@ public class LogScannerImpl implements ILogScanner {
     	checkIsCheckpointed();
     	try {
     		if (this.scannable.isScannableInputStream()) {
-    			skipToCheckpoint();
-    			this.textScanner.scan(this.scannable.getScannableInputStream(), searchPattern, failPattern, count);
+    			this.textScanner.scan(getInputStreamSinceCheckpoint(), searchPattern, failPattern, count);
     		} else if (this.scannable.isScannableString()) {
-    			this.textScanner.scan(this.scannable.getScannableString().substring((int) this.checkpoint), searchPattern, failPattern, count);
+    			this.textScanner.scan(this.scannable.getScannableString(), (int) this.checkpoint, searchPattern, failPattern, count);
     		} else {
     			throw new TextScanException(MESSAGE_UNKNOWN_SCANNABLE_TYPE);
     		}
@@ -121,10 +118,9 @@ public class LogScannerImpl implements ILogScanner {
     	checkIsCheckpointed();
     	try {
     		if (this.scannable.isScannableInputStream()) {
-    			skipToCheckpoint();
-    			this.textScanner.scan(this.scannable.getScannableInputStream(), searchString, failString, count);
+    			this.textScanner.scan(getInputStreamSinceCheckpoint(), searchString, failString, count);
     		} else if (this.scannable.isScannableString()) {
-    			this.textScanner.scan(this.scannable.getScannableString().substring((int) this.checkpoint), searchString, failString, count);
+    			this.textScanner.scan(this.scannable.getScannableString(), (int) this.checkpoint, searchString, failString, count);
     		} else {
     			throw new TextScanException(MESSAGE_UNKNOWN_SCANNABLE_TYPE);
     		}
@@ -145,10 +141,9 @@ public class LogScannerImpl implements ILogScanner {
     	checkIsCheckpointed();
     	try {
     		if (this.scannable.isScannableInputStream()) {
-    			skipToCheckpoint();
-    			return this.textScanner.scanForMatch(this.scannable.getScannableInputStream(), searchPattern, failPattern, occurrance);
+    			return this.textScanner.scanForMatch(getInputStreamSinceCheckpoint(), searchPattern, failPattern, occurrance);
     		} else if (this.scannable.isScannableString()) {
-    			return this.textScanner.scanForMatch(this.scannable.getScannableString().substring((int) this.checkpoint), searchPattern, failPattern, occurrance);
+    			return this.textScanner.scanForMatch(this.scannable.getScannableString(), (int) this.checkpoint, searchPattern, failPattern, occurrance);
     		} else {
     			throw new TextScanException(MESSAGE_UNKNOWN_SCANNABLE_TYPE);
     		}
@@ -166,10 +161,9 @@ public class LogScannerImpl implements ILogScanner {
     	checkIsCheckpointed();
     	try {
     		if (this.scannable.isScannableInputStream()) {
-    			skipToCheckpoint();
-    			return this.textScanner.scanForMatch(this.scannable.getScannableInputStream(), searchString, failString, occurrance);
+    			return this.textScanner.scanForMatch(getInputStreamSinceCheckpoint(), searchString, failString, occurrance);
     		} else if (this.scannable.isScannableString()) {
-    			return this.textScanner.scanForMatch(this.scannable.getScannableString().substring((int) this.checkpoint), searchString, failString, occurrance);
+    			return this.textScanner.scanForMatch(this.scannable.getScannableString(), (int) this.checkpoint, searchString, failString, occurrance);
     		} else {
     			throw new TextScanException(MESSAGE_UNKNOWN_SCANNABLE_TYPE);
     		}
@@ -287,18 +281,19 @@ public class LogScannerImpl implements ILogScanner {
 		}
 	}
 
-	protected void skipToCheckpoint() throws TextScanException {
+	/**
+	 * Fetches the scannable's InputStream starting at the checkpoint. The same stream has to be
+	 * scanned, as a scannable may return a new stream each time it is asked.
+	 */
+	protected InputStream getInputStreamSinceCheckpoint() throws TextScanException {
+		this.scannable.updateScannable();
 		if (getCheckpoint() == -1) {
 			logger.warn("Log '" + this.scannableName + "' has not been checkpointed");
-			return;
+			return this.scannable.getScannableInputStream();
 		}
 		try {
-			this.scannable.updateScannable();
-			long skipped = this.scannable.getScannableInputStream().skip(this.checkpoint);
-			if (skipped != this.checkpoint) {
-				throw new IOException("Failed to skip " + checkpoint + " bytes. Actual bytes skipped " + skipped);
-			}
-		} catch (IOException e) {
+			return this.scannable.getScannableInputStream(this.checkpoint);
+		} catch (TextScanException e) {
 			throw new TextScanException("Unable to skip to checkpoint of scannable '" + this.scannableName + QUOTE, e);
 		}
 	}
@@ -0,0 +1,79 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.textscan.internal;
+
+import java.util.ArrayDeque;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+
+/**
+ * The last few lines read from a stream, which patterns are matched against as each line is read,
+ * so that patterns spanning several lines are found without holding the whole stream in memory.
+ *
+ * Each line is matched several times as the window slides over it, so the start of each match is
+ * remembered until it slides out of the window, and a match is only new the first time its start
+ * is seen.
+ */
+class SlidingLineWindow {
+
+	private final int maxLines;
+
+	private final StringBuilder        text        = new StringBuilder();
+	private final ArrayDeque<Integer>  lineLengths = new ArrayDeque<>();
+	private final TreeSet<Long>        matchStarts = new TreeSet<>();
+
+	// Where the window starts in the stream, in characters
+	private long offset = 0;
+	private long matchCount = 0;
+
+	SlidingLineWindow(int maxLines) {
+		this.maxLines = maxLines;
+	}
+
+	/**
+	 * Adds a line to the end of the window, dropping the oldest line if the window is full
+	 */
+	void addLine(String line) {
+		text.append(line).append('\n');
+		lineLengths.addLast(line.length() + 1);
+
+		if (lineLengths.size() > maxLines) {
+			int droppedLength = lineLengths.removeFirst();
+			text.delete(0, droppedLength);
+			offset += droppedLength;
+
+			// Matches can only start inside the window, so earlier starts can't be seen again
+			matchStarts.headSet(offset).clear();
+		}
+	}
+
+	/**
+	 * @return the text in the window, which changes as lines are added
+	 */
+	CharSequence getText() {
+		return text;
+	}
+
+	/**
+	 * Records a match found in the window
+	 *
+	 * @return true if the match has not been seen before
+	 */
+	boolean addMatch(Matcher matcher) {
+		boolean isNew = matchStarts.add(offset + matcher.start());
+		if (isNew) {
+			matchCount++;
+		}
+		return isNew;
+	}
+
+	/**
+	 * @return how many different matches have been found in the stream so far
+	 */
+	long getMatchCount() {
+		return matchCount;
+	}
+}
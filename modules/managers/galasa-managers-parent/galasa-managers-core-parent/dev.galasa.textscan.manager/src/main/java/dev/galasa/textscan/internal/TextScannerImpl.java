@@ -9,8 +9,6 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -31,21 +29,31 @@ public class TextScannerImpl implements ITextScanner {
 	private static final String MSG_WRONG_NUMBER_FOUND = "Wrong number of occurrences of String '%s' found";
 	private static final String MSG_UNABLE_TO_FIND_OCCURRENCE = "Unable to find occurrence %d of Pattern '%s'. Occurrences found: %d";
 
+	// Patterns are matched against this many lines of an InputStream at a time, so can span up to this many lines
+	private static final int WINDOW_LINES = 10;
+
 	private static final String PATTERN = "Pattern";
 	private static final String STRING = "String";
 
 	@Override
 	public ITextScanner scan(String text, Pattern searchPattern, Pattern failPattern, int count) throws FailTextFoundException, MissingTextException, IncorrectOccurrencesException, TextScanException {
+		return scan(text, 0, searchPattern, failPattern, count);
+	}
+
+	/**
+	 * Scans the text from an index onwards, as if it were a substring starting at the index, but without copying it
+	 */
+	public ITextScanner scan(String text, int fromIndex, Pattern searchPattern, Pattern failPattern, int count) throws FailTextFoundException, MissingTextException, IncorrectOccurrencesException, TextScanException {
 
 		if (count < 1) {
 			throw new TextScanException(MSG_INVALID_COUNT);
 		}
 
-		if (failPattern != null && failPattern.matcher(text).find()) {
+		if (failPattern != null && failPattern.matcher(text).region(fromIndex, text.length()).find()) {
 			throw new FailTextFoundException(String.format(MSG_FAIL_FOUND, PATTERN, failPattern));
 		}
 
-		Matcher m = searchPattern.matcher(text);
+		Matcher m = searchPattern.matcher(text).region(fromIndex, text.length());
 		int found = 0;
 
 		while (m.find()) {
@@ -64,6 +72,13 @@ public class TextScannerImpl implements ITextScanner {
 
 	@Override
 	public ITextScanner scan(String text, String searchString, String failString, int count) throws FailTextFoundException, MissingTextException, IncorrectOccurrencesException, TextScanException {
+		return scan(text, 0, searchString, failString, count);
+	}
+
+	/**
+	 * Scans the text from an index onwards, as if it were a substring starting at the index, but without copying it
+	 */
+	public ITextScanner scan(String text, int fromIndex, String searchString, String failString, int count) throws FailTextFoundException, MissingTextException, IncorrectOccurrencesException, TextScanException {
 
 		Pattern fp = null;
 		if (failString != null) {
@@ -73,7 +88,7 @@ public class TextScannerImpl implements ITextScanner {
 		
 		ITextScanner textScanner;
 		try {
-			textScanner = scan(text,p,fp,count);
+			textScanner = scan(text,fromIndex,p,fp,count);
 		} catch (FailTextFoundException e) {
 			throw new FailTextFoundException(String.format(MSG_FAIL_FOUND, STRING, failString), e);
 		} catch (MissingTextException e) {
@@ -115,53 +130,41 @@ public class TextScannerImpl implements ITextScanner {
 			throw new TextScanException(MSG_INVALID_COUNT);
 		}
 
-		ArrayList<Integer> foundPatternStartPositions = new ArrayList<>();
-		LinkedList<String> buffer = new LinkedList<>();
-
-		int offset = 0;
+		SlidingLineWindow window = new SlidingLineWindow(WINDOW_LINES);
+		Matcher fm = (failPattern == null) ? null : failPattern.matcher(window.getText());
+		Matcher m = searchPattern.matcher(window.getText());
 
 		try (BufferedReader reader = new BufferedReader (new InputStreamReader(inputStream))){
 			String line = "";
 			while ((line = reader.readLine()) != null) {
-				buffer.add(line);
-				if (buffer.size() > 10) {
-					offset = offset + buffer.remove(0).length() + 1;
-				}
-
-				// Build a String from the current buffer
-				StringBuilder sb = new StringBuilder();
-				for (String queueLine : buffer) {
-					sb.append(queueLine);
-					sb.append("\n");
-				}
+				window.addLine(line);
 
-				String currentBuffer = sb.toString();
-
-				if (failPattern != null && failPattern.matcher(currentBuffer).find()) {
+				// The window has changed, so the matchers have to be reset to see all of it
+				if (fm != null && fm.reset().find()) {
 					throw new FailTextFoundException(String.format(MSG_FAIL_FOUND, PATTERN, failPattern));
 				}
 
-				Matcher m = searchPattern.matcher(currentBuffer);
+				m.reset();
 				while (m.find()) {
+					window.addMatch(m);
+				}
 
-					int stp = m.start() + offset;
-					if (!foundPatternStartPositions.contains(stp)) {
-						foundPatternStartPositions.add(stp);
-
-					}
+				// Without a fail pattern, the rest of the stream can't change the result
+				if (fm == null && window.getMatchCount() >= count) {
+					return this;
 				}
 			}
-			if (foundPatternStartPositions.size() >= count) {
+			if (window.getMatchCount() >= count) {
 				return this;
 			}
 		} catch (IOException e) {
 			throw new TextScanException("Problem in InputStream scan", e);
 		}
 
-		if(foundPatternStartPositions.isEmpty()) {
+		if(window.getMatchCount() == 0) {
 			throw new MissingTextException(String.format(MSG_SEARCH_NOT_FOUND, PATTERN, searchPattern));
 		}
-		throw new IncorrectOccurrencesException(String.format(MSG_EXPECTING_BUT_FOUND, count, PATTERN, searchPattern, foundPatternStartPositions.size()));
+		throw new IncorrectOccurrencesException(String.format(MSG_EXPECTING_BUT_FOUND, count, PATTERN, searchPattern, window.getMatchCount()));
 	}
 
 	@Override
@@ -187,19 +190,26 @@ public class TextScannerImpl implements ITextScanner {
 
 	@Override
 	public String scanForMatch(String text, Pattern searchPattern, Pattern failPattern, int occurrence) throws MissingTextException, IncorrectOccurrencesException, TextScanException {
+		return scanForMatch(text, 0, searchPattern, failPattern, occurrence);
+	}
+
+	/**
+	 * Scans the text from an index onwards, as if it were a substring starting at the index, but without copying it
+	 */
+	public String scanForMatch(String text, int fromIndex, Pattern searchPattern, Pattern failPattern, int occurrence) throws MissingTextException, IncorrectOccurrencesException, TextScanException {
 
 		if(occurrence < 1) {
 			throw new TextScanException(MSG_INVALID_COUNT);
 		}
 
 		if (failPattern != null) {
-			Matcher fm = failPattern.matcher(text);
+			Matcher fm = failPattern.matcher(text).region(fromIndex, text.length());
 			if (fm.find()) {
 				return fm.group(); 
 			}
 		}
 
-		Matcher m = searchPattern.matcher(text);
+		Matcher m = searchPattern.matcher(text).region(fromIndex, text.length());
 		int found = 0;
 		String searchText = "";
 
@@ -220,6 +230,13 @@ public class TextScannerImpl implements ITextScanner {
 
 	@Override
 	public String scanForMatch(String text, String searchString, String failString, int occurrence) throws MissingTextException, IncorrectOccurrencesException, TextScanException {
+		return scanForMatch(text, 0, searchString, failString, occurrence);
+	}
+
+	/**
+	 * Scans the text from an index onwards, as if it were a substring starting at the index, but without copying it
+	 */
+	public String scanForMatch(String text, int fromIndex, String searchString, String failString, int occurrence) throws MissingTextException, IncorrectOccurrencesException, TextScanException {
 
 		Pattern p = Pattern.compile("\\Q" + searchString + "\\E");
 		Pattern fp = null;
@@ -228,7 +245,7 @@ public class TextScannerImpl implements ITextScanner {
 		}
 		String match;
 		try {
-			match = scanForMatch(text, p, fp, occurrence);
+			match = scanForMatch(text, fromIndex, p, fp, occurrence);
 		} catch (MissingTextException e) {
 			throw new MissingTextException(String.format(MSG_SEARCH_NOT_FOUND, STRING, searchString), e);
 		} catch (IncorrectOccurrencesException e) {
@@ -267,46 +284,28 @@ public class TextScannerImpl implements ITextScanner {
 			throw new TextScanException(MSG_INVALID_COUNT);
 		}
 
-		ArrayList<Integer> foundPatternStartPositions = new ArrayList<>();
-		LinkedList<String> buffer = new LinkedList<>();
+		SlidingLineWindow window = new SlidingLineWindow(WINDOW_LINES);
+		Matcher fm = (failPattern == null) ? null : failPattern.matcher(window.getText());
+		Matcher m = searchPattern.matcher(window.getText());
 
-		int offset = 0;
 		String foundString = "";
 
 		try (BufferedReader  reader = new BufferedReader (new InputStreamReader(inputStream))) {
 			String line = "";
 			while ((line =reader.readLine()) != null) {
-				buffer.add(line);
-				if (buffer.size() > 10) {
-					offset = offset + buffer.remove(0).length() + 1;
-				}
+				window.addLine(line);
 
-				// Build a String from the current buffer
-				StringBuilder sb = new StringBuilder();
-				for (String queueLine : buffer) {
-					sb.append(queueLine);
-					sb.append("\n");
+				// The window has changed, so the matchers have to be reset to see all of it
+				if (fm != null && fm.reset().find()) {
+					return fm.group(); 
 				}
 
-				String currentBuffer = sb.toString();
-
-				if (failPattern != null) {
-					Matcher fm = failPattern.matcher(currentBuffer);
-					if (fm.find()) {
-						return fm.group(); 
-					}
-				}
-				
-				Matcher m = searchPattern.matcher(currentBuffer);
-
+				m.reset();
 				while (m.find()) {
-
-					int stp = m.start() + offset;
-					if (!foundPatternStartPositions.contains(stp)) {
-						foundPatternStartPositions.add(stp);
+					if (window.addMatch(m)) {
 						foundString = m.group();
 					} 
-					if (foundPatternStartPositions.size() >= occurrence) {
+					if (window.getMatchCount() >= occurrence) {
 						return foundString;
 					}
 				}
@@ -315,10 +314,10 @@ public class TextScannerImpl implements ITextScanner {
 		} catch (IOException e) {
 			throw new TextScanException("Problem in InputStream scan", e);
 		}
-		if(foundPatternStartPositions.isEmpty()) {
+		if(window.getMatchCount() == 0) {
 			throw new MissingTextException(String.format(MSG_SEARCH_NOT_FOUND, PATTERN, searchPattern));
 		}
-		throw new IncorrectOccurrencesException(String.format(MSG_UNABLE_TO_FIND_OCCURRENCE, occurrence, searchPattern, foundPatternStartPositions.size()));
+		throw new IncorrectOccurrencesException(String.format(MSG_UNABLE_TO_FIND_OCCURRENCE, occurrence, searchPattern, window.getMatchCount()));
 	}
 
 	@Override
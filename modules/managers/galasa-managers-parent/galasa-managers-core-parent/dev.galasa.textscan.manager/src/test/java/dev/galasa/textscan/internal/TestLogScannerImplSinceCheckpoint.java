@@ -0,0 +1,164 @@
+/*
+ * Copyright contributors to the Galasa project
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package dev.galasa.textscan.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import dev.galasa.textscan.IncorrectOccurrencesException;
+import dev.galasa.textscan.MissingTextException;
+import dev.galasa.textscan.TextScanException;
+import dev.galasa.textscan.TextScanManagerException;
+
+public class TestLogScannerImplSinceCheckpoint {
+
+	/**
+	 * A log which grows, and like most scannables returns a new InputStream each time it is asked
+	 */
+	private static class GrowingLogScannable extends AbstractTextScannable {
+		private final boolean isInputStream;
+		private String log = "";
+		int wholeStreamCount = 0;
+
+		GrowingLogScannable(boolean isInputStream) {
+			this.isInputStream = isInputStream;
+		}
+
+		void append(String text) {
+			this.log += text;
+		}
+
+		@Override
+		public boolean isScannableInputStream() {
+			return isInputStream;
+		}
+
+		@Override
+		public boolean isScannableString() {
+			return !isInputStream;
+		}
+
+		@Override
+		public InputStream getScannableInputStream() throws TextScanException {
+			wholeStreamCount++;
+			return new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String getScannableString() throws TextScanException {
+			return log;
+		}
+	}
+
+	/**
+	 * A log which can fetch just its new content, such as a file read from an offset
+	 */
+	private static class OffsetLogScannable extends GrowingLogScannable {
+		OffsetLogScannable() {
+			super(true);
+		}
+
+		@Override
+		public InputStream getScannableInputStream(long offset) throws TextScanException {
+			byte[] bytes = getScannableString().getBytes(StandardCharsets.UTF_8);
+			return new ByteArrayInputStream(bytes, (int) offset, bytes.length - (int) offset);
+		}
+
+		@Override
+		public long getScannableInputStreamLength() throws TextScanException {
+			return getScannableString().getBytes(StandardCharsets.UTF_8).length;
+		}
+	}
+
+	@Test
+	public void testInputStreamCheckpointIsTheLengthOfTheLog() throws TextScanManagerException {
+		GrowingLogScannable scannable = new GrowingLogScannable(true);
+		scannable.append("first line\nsecond line\n");
+		LogScannerImpl logScanner = new LogScannerImpl();
+		logScanner.setScannable(scannable);
+
+		logScanner.checkpoint();
+
+		assertEquals(23, logScanner.getCheckpoint());
+	}
+
+	@Test
+	public void testInputStreamScanSinceCheckpointOnlySeesNewText() throws TextScanManagerException {
+		GrowingLogScannable scannable = new GrowingLogScannable(true);
+		scannable.append("ERROR 1 before the checkpoint\n");
+		LogScannerImpl logScanner = new LogScannerImpl();
+		logScanner.setScannable(scannable);
+		logScanner.checkpoint();
+
+		scannable.append("ERROR 2 after the checkpoint\n");
+
+		assertEquals("ERROR 2", logScanner.scanForMatchSinceCheckpoint(Pattern.compile("ERROR \\d"), null, 1));
+		assertThrows(MissingTextException.class, () -> logScanner.scanSinceCheckpoint("before", null, 1));
+		assertThrows(IncorrectOccurrencesException.class, () -> logScanner.scanSinceCheckpoint("ERROR", null, 2));
+	}
+
+	@Test
+	public void testInputStreamScanSinceCheckpointUsesTheScannablesOffsetStream() throws TextScanManagerException {
+		OffsetLogScannable scannable = new OffsetLogScannable();
+		scannable.append("ERROR 1 before the checkpoint\n");
+		LogScannerImpl logScanner = new LogScannerImpl();
+		logScanner.setScannable(scannable);
+		logScanner.checkpoint();
+
+		scannable.append("ERROR 2 after the checkpoint\n");
+		String match = logScanner.scanForMatchSinceCheckpoint(Pattern.compile("ERROR \\d"), null, 1);
+
+		assertEquals("ERROR 2", match);
+		assertEquals(0, scannable.wholeStreamCount);
+	}
+
+	@Test
+	public void testInputStreamShorterThanCheckpointFails() throws TextScanManagerException {
+		GrowingLogScannable scannable = new GrowingLogScannable(true);
+		scannable.append("short log\n");
+		LogScannerImpl logScanner = new LogScannerImpl();
+		logScanner.setScannable(scannable);
+		logScanner.setCheckpoint(100);
+
+		assertThrows(TextScanException.class, () -> logScanner.scanSinceCheckpoint("log", null, 1));
+	}
+
+	@Test
+	public void testStringScanSinceCheckpointOnlySeesNewText() throws TextScanManagerException {
+		GrowingLogScannable scannable = new GrowingLogScannable(false);
+		scannable.append("ERROR 1 before the checkpoint\n");
+		LogScannerImpl logScanner = new LogScannerImpl();
+		logScanner.setScannable(scannable);
+		logScanner.checkpoint();
+
+		scannable.append("ERROR 2 after the checkpoint\n");
+
+		// The checkpoint is treated as the start of the text, as it was when the text was copied from there
+		assertEquals("ERROR 2", logScanner.scanForMatchSinceCheckpoint(Pattern.compile("^ERROR \\d"), null, 1));
+		assertThrows(MissingTextException.class, () -> logScanner.scanForMatchSinceCheckpoint("before", null, 1));
+	}
+
+	@Test
+	public void testInputStreamScanCountsEachMatchOnceAsTheWindowSlides() throws TextScanManagerException {
+		StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			log.append("Line ").append(i).append(" match\n");
+		}
+		TextScannerImpl scanner = new TextScannerImpl();
+
+		scanner.scan(new ByteArrayInputStream(log.toString().getBytes()), Pattern.compile("match\nLine"), null, 999);
+
+		assertThrows(IncorrectOccurrencesException.class,
+			() -> scanner.scan(new ByteArrayInputStream(log.toString().getBytes()), Pattern.compile("match\nLine"), null, 1000));
+	}
+}
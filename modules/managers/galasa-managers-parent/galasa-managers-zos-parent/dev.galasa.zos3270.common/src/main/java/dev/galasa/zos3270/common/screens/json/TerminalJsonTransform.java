@@ -6,6 +6,7 @@
 package dev.galasa.zos3270.common.screens.json;
 
 
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Map.Entry;
 
@@ -43,6 +44,15 @@ public class TerminalJsonTransform {
         return gson.toJson(jsonObj);
     }
 
+    /**
+     * Writes the terminal as json to the given writer, without building the json string in memory first.
+     */
+    public void toJson(Terminal terminal, Writer writer) {
+        JsonObject jsonObj = toJsonObject(terminal);
+        stripFalseBooleans(jsonObj);
+        gson.toJson(jsonObj, writer);
+    }
+
     public Terminal toTerminal(String tempJson) {
         return gson.fromJson(tempJson, Terminal.class);
     }
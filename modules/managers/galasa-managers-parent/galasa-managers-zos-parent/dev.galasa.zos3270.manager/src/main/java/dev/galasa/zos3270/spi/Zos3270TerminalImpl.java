@@ -5,8 +5,11 @@
  */
 package dev.galasa.zos3270.spi;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
@@ -300,21 +303,24 @@ public class Zos3270TerminalImpl extends Terminal implements IScreenUpdateListen
             rasTerminal.getImages().add(newTerminalImage);
         }
 
-        String tempJson = terminalJsonTransform.toJsonString(rasTerminal);
-
-        if (applyCtf) {
-            tempJson = cts.removeConfidentialText(tempJson);
-        }
-
         String terminalFilename = this.terminalId + "-" + String.format("%05d", rasTerminalSequence) + ".gz";
         Path terminalPath = terminalRasDirectory.resolve(terminalFilename);
 
-        try (GZIPOutputStream gos = new GZIPOutputStream(Files.newOutputStream(terminalPath,
+        try (OutputStream os = Files.newOutputStream(terminalPath,
                 new SetContentType(new ResultArchiveStoreContentType("application/zos3270terminal")),
-                StandardOpenOption.CREATE))) {
-            IOUtils.write(tempJson, gos, "utf-8");
-            gos.flush();
-            gos.close();
+                StandardOpenOption.CREATE);
+             GZIPOutputStream gos = new GZIPOutputStream(os)) {
+
+            // Stream the json through the confidential text filter straight into the archive,
+            // rather than building and then scrubbing a copy of it in memory
+            Writer jsonWriter = new BufferedWriter(new OutputStreamWriter(gos, StandardCharsets.UTF_8));
+            if (applyCtf) {
+                jsonWriter = cts.createConfidentialTextFilter(jsonWriter);
+            }
+
+            try (Writer writer = jsonWriter) {
+                terminalJsonTransform.toJson(rasTerminal, writer);
+            }
         }
     }
 
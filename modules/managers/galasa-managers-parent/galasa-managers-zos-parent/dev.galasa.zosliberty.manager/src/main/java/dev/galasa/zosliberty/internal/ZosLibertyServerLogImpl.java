@@ -384,6 +384,37 @@ public class ZosLibertyServerLogImpl implements IZosLibertyServerLog, ITextScann
         }
     }
 
+    /**
+     * z/OS UNIX files can only be retrieved whole, so the whole log is still fetched, but the stream
+     * starts at the offset in the retrieved bytes rather than reading through them
+     */
+    @Override
+    public InputStream getScannableInputStream(long offset) throws TextScanException {
+        byte[] content;
+        try {
+            content = ((ByteArrayOutputStream) retrieve()).toByteArray();
+        } catch (ZosLibertyServerException e) {
+            throw new TextScanException("Problem retrieving " + getScannableName(), e);
+        }
+        if (offset < 0 || offset > content.length) {
+            throw new TextScanException("Failed to skip " + offset + " bytes of scannable '" + getScannableName() + "'. Actual bytes available " + content.length);
+        }
+        return new ByteArrayInputStream(content, (int) offset, content.length - (int) offset);
+    }
+
+    @Override
+    public long getScannableInputStreamLength() throws TextScanException {
+        try {
+            long length = 0;
+            if (checkExists()) {
+                length = this.zosUnixFile.getSize();
+            }
+            return length;
+        } catch (ZosLibertyServerException | ZosUNIXFileException e) {
+            throw new TextScanException("Problem getting the size of " + getScannableName(), e);
+        }
+    }
+
     @Override
     public String getScannableString() throws TextScanException {
         try {